@@ -23,6 +23,7 @@
  */
 package com.github.tennaito.rsql.builder;
 
+import com.github.tennaito.rsql.jpa.OperatorRegistry;
 import com.github.tennaito.rsql.jpa.PredicateBuilderStrategy;
 import com.github.tennaito.rsql.misc.ArgumentParser;
 import com.github.tennaito.rsql.misc.Mapper;
@@ -33,6 +34,7 @@ import com.github.tennaito.rsql.misc.Mapper;
  * PropertyMapper for translation of properties aliases.
  * ArgumentParser for casting specific types.
  * PredicateBuilder for RSQL AST new nodes.
+ * OperatorRegistry for dispatching comparison operators.
  *
  * @author AntonioRabelo
  * @since 2015-02-03
@@ -80,4 +82,22 @@ public interface BuilderTools {
 	 * @param predicateStrategy PredicateBuilderStrategy
 	 */
 	public void setPredicateBuilder(PredicateBuilderStrategy predicateStrategy);
+
+	/**
+	 * Get the registry of the comparison operators.
+	 *
+	 * @return OperatorRegistry
+	 */
+	public default OperatorRegistry getOperatorRegistry() {
+		return OperatorRegistry.DEFAULT;
+	}
+
+	/**
+	 * Set a specific registry of comparison operators.
+	 *
+	 * @param registry OperatorRegistry
+	 */
+	public default void setOperatorRegistry(OperatorRegistry registry) {
+		throw new UnsupportedOperationException("Operator registry is not configurable.");
+	}
 }
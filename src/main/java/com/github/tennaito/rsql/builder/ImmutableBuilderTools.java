@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.builder;
+
+import com.github.tennaito.rsql.jpa.OperatorRegistry;
+import com.github.tennaito.rsql.jpa.PredicateBuilderStrategy;
+import com.github.tennaito.rsql.misc.ArgumentParser;
+import com.github.tennaito.rsql.misc.Mapper;
+
+/**
+ * Immutable Builder Tools
+ *
+ * A snapshot of the tools of another facade, safe to share between threads as long as
+ * the mapper, argument parser and strategy themselves are not modified.
+ *
+ * @since 2026-10-19
+ */
+public final class ImmutableBuilderTools implements BuilderTools {
+
+	private final Mapper mapper;
+	private final ArgumentParser argumentParser;
+	private final PredicateBuilderStrategy delegate;
+	private final OperatorRegistry operatorRegistry;
+
+	private ImmutableBuilderTools(Mapper mapper, ArgumentParser argumentParser, PredicateBuilderStrategy delegate, OperatorRegistry operatorRegistry) {
+		this.mapper = mapper;
+		this.argumentParser = argumentParser;
+		this.delegate = delegate;
+		this.operatorRegistry = operatorRegistry;
+	}
+
+	/**
+	 * Take a snapshot of the tools of a facade.
+	 *
+	 * @param tools Builder tools.
+	 * @return      The immutable snapshot, <tt>tools</tt> itself when already immutable.
+	 */
+	public static ImmutableBuilderTools of(BuilderTools tools) {
+		if (tools instanceof ImmutableBuilderTools) {
+			return (ImmutableBuilderTools) tools;
+		}
+		return new ImmutableBuilderTools(tools.getPropertiesMapper(), tools.getArgumentParser(), tools.getPredicateBuilder(), tools.getOperatorRegistry());
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#getPropertiesMapper()
+	 */
+	public Mapper getPropertiesMapper() {
+		return this.mapper;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#getArgumentParser()
+	 */
+	public ArgumentParser getArgumentParser() {
+		return this.argumentParser;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#getPredicateBuilder()
+	 */
+	public PredicateBuilderStrategy getPredicateBuilder() {
+		return this.delegate;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#getOperatorRegistry()
+	 */
+	public OperatorRegistry getOperatorRegistry() {
+		return this.operatorRegistry;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#setPropertiesMapper(com.github.tennaito.rsql.misc.Mapper)
+	 */
+	public void setPropertiesMapper(Mapper mapper) {
+		throw new UnsupportedOperationException("Immutable builder tools.");
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#setArgumentParser(com.github.tennaito.rsql.misc.ArgumentParser)
+	 */
+	public void setArgumentParser(ArgumentParser argumentParser) {
+		throw new UnsupportedOperationException("Immutable builder tools.");
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#setPredicateBuilder(com.github.tennaito.rsql.jpa.PredicateBuilderStrategy)
+	 */
+	public void setPredicateBuilder(PredicateBuilderStrategy predicateStrategy) {
+		throw new UnsupportedOperationException("Immutable builder tools.");
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#setOperatorRegistry(com.github.tennaito.rsql.jpa.OperatorRegistry)
+	 */
+	public void setOperatorRegistry(OperatorRegistry registry) {
+		throw new UnsupportedOperationException("Immutable builder tools.");
+	}
+}
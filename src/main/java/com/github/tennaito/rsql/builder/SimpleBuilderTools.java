@@ -23,6 +23,7 @@
  */
 package com.github.tennaito.rsql.builder;
 
+import com.github.tennaito.rsql.jpa.OperatorRegistry;
 import com.github.tennaito.rsql.jpa.PredicateBuilderStrategy;
 import com.github.tennaito.rsql.misc.ArgumentParser;
 import com.github.tennaito.rsql.misc.DefaultArgumentParser;
@@ -42,6 +43,7 @@ public class SimpleBuilderTools implements BuilderTools {
 	private Mapper mapper;
 	private ArgumentParser argumentParser;
 	private PredicateBuilderStrategy delegate;
+	private OperatorRegistry operatorRegistry;
 
 
 	/* (non-Javadoc)
@@ -91,4 +93,21 @@ public class SimpleBuilderTools implements BuilderTools {
 	public PredicateBuilderStrategy getPredicateBuilder() {
 		return this.delegate;
 	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#setOperatorRegistry(com.github.tennaito.rsql.jpa.OperatorRegistry)
+	 */
+	public void setOperatorRegistry(OperatorRegistry registry) {
+		this.operatorRegistry = registry;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.github.tennaito.rsql.builder.BuilderTools#getOperatorRegistry()
+	 */
+	public OperatorRegistry getOperatorRegistry() {
+		if (this.operatorRegistry == null) {
+			this.operatorRegistry = OperatorRegistry.DEFAULT;
+		}
+		return this.operatorRegistry;
+	}
 }
@@ -0,0 +1,435 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.memory.PropertyPath;
+import com.github.tennaito.rsql.parser.ast.NodeNormalizer;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * CountCache
+ *
+ * Stale-while-revalidate cache of total counts keyed by entity class and normalized RSQL
+ * filter. A count older than the time to live is still served immediately while it is
+ * refreshed in the background; only counts older than the maximum staleness are reloaded
+ * by the reader. At most {@link #getMaxConcurrentRefreshes()} refreshes run at once, a
+ * stale count whose refresh finds no free slot is refreshed by a later read.
+ *
+ * A change of an entity reported through {@link QueryResultCacheListener} marks stale the
+ * counts of its class and of the filters navigating through its class, so they are
+ * refreshed on their next read; the counts are indexed by the classes they depend on, so a
+ * change only visits the counts of related classes. {@link #invalidate} drops counts instead.
+ *
+ * Refreshes call the loader on another thread: it must open its own EntityManager.
+ *
+ * <pre>
+ * CountCache counts = new CountCache();
+ * counts.setTimeToLive(30, TimeUnit.SECONDS);
+ * QueryResultCacheListener.register(counts);
+ * long total = counts.get(Course.class, rootNode, node -&gt; countInNewEntityManager(node));
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class CountCache implements EntityChangeObserver {
+
+	private static final Logger LOG = Logger.getLogger(CountCache.class.getName());
+
+	private final ConcurrentHashMap<Class<?>, Map<String, Entry>> entries = new ConcurrentHashMap<Class<?>, Map<String, Entry>>();
+
+	/**
+	 * Counts by the classes they depend on: their entity class and the classes their filter traverses.
+	 */
+	private final ConcurrentHashMap<Class<?>, Set<Entry>> dependents = new ConcurrentHashMap<Class<?>, Set<Entry>>();
+
+	/**
+	 * Number of change notifications, so a count loaded meanwhile is cached stale.
+	 */
+	private final AtomicLong changes = new AtomicLong();
+
+	private long timeToLiveNanos = TimeUnit.SECONDS.toNanos(30);
+
+	private long maxStalenessNanos = Long.MAX_VALUE;
+
+	private int maxEntries = 10000;
+
+	private volatile Semaphore refreshPermits = new Semaphore(2);
+
+	private int maxConcurrentRefreshes = 2;
+
+	private Executor executor;
+
+	private BuilderTools builderTools;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong staleHits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong refreshes = new AtomicLong();
+
+	private final AtomicLong skippedRefreshes = new AtomicLong();
+
+	/**
+	 * Get the count of a filter, loading it on a miss and refreshing it in the background once stale.
+	 *
+	 * @param entityClass  Entity type.
+	 * @param filter       RSQL AST node.
+	 * @param loader       Counts the entities matching a filter, with its own EntityManager.
+	 * @return             The count, possibly stale.
+	 */
+	public long get(Class<?> entityClass, Node filter, Function<Node, Long> loader) {
+		Map<String, Entry> byFilter = entriesOf(entityClass);
+		String key = NodeNormalizer.fingerprint(filter);
+		Entry entry = byFilter.get(key);
+		long now = System.nanoTime();
+		if (entry == null || now - entry.loadedAt > maxStalenessNanos) {
+			misses.incrementAndGet();
+			long changed = changes.get();
+			long generation = entry == null ? 0 : entry.generation;
+			long count = loader.apply(filter);
+			if (entry != null) {
+				entry.update(count, generation, now);
+			} else if (size() < maxEntries) {
+				Entry created = new Entry(filter, dependencies(entityClass, filter), count, now);
+				if (byFilter.putIfAbsent(key, created) == null) {
+					index(created);
+					// indexed before the check, so a later change finds it
+					if (changed != changes.get()) {
+						created.markStale();
+					}
+				}
+			}
+			return count;
+		}
+		long count = entry.count;
+		if (entry.stale || now - entry.loadedAt > timeToLiveNanos) {
+			staleHits.incrementAndGet();
+			refresh(entry, loader);
+		} else {
+			hits.incrementAndGet();
+		}
+		return count;
+	}
+
+	private void refresh(final Entry entry, final Function<Node, Long> loader) {
+		if (!entry.refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		final Semaphore permits = refreshPermits;
+		if (!permits.tryAcquire()) {
+			entry.refreshing.set(false);
+			skippedRefreshes.incrementAndGet();
+			return;
+		}
+		final long generation = entry.generation;
+		try {
+			getExecutor().execute(() -> {
+				try {
+					long started = System.nanoTime();
+					entry.update(loader.apply(entry.filter), generation, started);
+					refreshes.incrementAndGet();
+				} catch (RuntimeException e) {
+					LOG.log(Level.INFO, "Cannot refresh the count of " + entry.filter, e);
+				} finally {
+					permits.release();
+					entry.refreshing.set(false);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			permits.release();
+			entry.refreshing.set(false);
+			skippedRefreshes.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Mark stale the counts a changed entity may affect.
+	 *
+	 * @param entity   The persisted, updated or removed entity.
+	 * @param removed  <tt>true</tt> if the entity was removed.
+	 */
+	@Override
+	public void entityChanged(Object entity, boolean removed) {
+		changes.incrementAndGet();
+		Class<?> changedClass = entity.getClass();
+		for (Map.Entry<Class<?>, Set<Entry>> byType : dependents.entrySet()) {
+			Class<?> type = byType.getKey();
+			if (type.isAssignableFrom(changedClass) || changedClass.isAssignableFrom(type)) {
+				for (Entry entry : byType.getValue()) {
+					entry.markStale();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the counts of an entity class.
+	 *
+	 * @param entityClass Entity type.
+	 */
+	public void invalidate(Class<?> entityClass) {
+		Map<String, Entry> byFilter = entries.remove(entityClass);
+		if (byFilter != null) {
+			for (Entry entry : byFilter.values()) {
+				unindex(entry);
+			}
+		}
+	}
+
+	/**
+	 * Remove the count of a filter.
+	 *
+	 * @param entityClass  Entity type.
+	 * @param filter       RSQL AST node.
+	 */
+	public void invalidate(Class<?> entityClass, Node filter) {
+		Map<String, Entry> byFilter = entries.get(entityClass);
+		Entry entry = byFilter == null ? null : byFilter.remove(NodeNormalizer.fingerprint(filter));
+		if (entry != null) {
+			unindex(entry);
+		}
+	}
+
+	/**
+	 * Remove every count.
+	 */
+	public void invalidateAll() {
+		entries.clear();
+		dependents.clear();
+	}
+
+	public int size() {
+		int size = 0;
+		for (Map<String, Entry> byFilter : entries.values()) {
+			size += byFilter.size();
+		}
+		return size;
+	}
+
+	private Map<String, Entry> entriesOf(Class<?> entityClass) {
+		Map<String, Entry> byFilter = entries.get(entityClass);
+		if (byFilter == null) {
+			byFilter = new ConcurrentHashMap<String, Entry>();
+			Map<String, Entry> previous = entries.putIfAbsent(entityClass, byFilter);
+			if (previous != null) byFilter = previous;
+		}
+		return byFilter;
+	}
+
+	private Set<Class<?>> dependencies(Class<?> entityClass, Node filter) {
+		List<PropertyPath> paths = new ArrayList<PropertyPath>();
+		addPaths(entityClass, filter, paths);
+		Set<Class<?>> types = new HashSet<Class<?>>();
+		types.add(entityClass);
+		for (PropertyPath path : paths) {
+			types.addAll(path.getTraversedTypes());
+		}
+		return types;
+	}
+
+	private void index(Entry entry) {
+		for (Class<?> type : entry.dependencies) {
+			Set<Entry> byType = dependents.get(type);
+			if (byType == null) {
+				byType = ConcurrentHashMap.newKeySet();
+				Set<Entry> previous = dependents.putIfAbsent(type, byType);
+				if (previous != null) byType = previous;
+			}
+			byType.add(entry);
+		}
+	}
+
+	private void unindex(Entry entry) {
+		for (Class<?> type : entry.dependencies) {
+			Set<Entry> byType = dependents.get(type);
+			if (byType != null) {
+				byType.remove(entry);
+			}
+		}
+	}
+
+	private void addPaths(Class<?> entityClass, Node node, List<PropertyPath> paths) {
+		if (node instanceof ComparisonNode) {
+			paths.add(PropertyPath.compile(entityClass, ((ComparisonNode) node).getSelector(), getBuilderTools().getPropertiesMapper()));
+		} else {
+			for (Node child : ((LogicalNode) node).getChildren()) {
+				addPaths(entityClass, child, paths);
+			}
+		}
+	}
+
+	public void setTimeToLive(long duration, TimeUnit unit) {
+		this.timeToLiveNanos = unit.toNanos(duration);
+	}
+
+	/**
+	 * Set the age over which a count is reloaded by the reader instead of served stale.
+	 *
+	 * @param duration  Maximum staleness, <tt>Long.MAX_VALUE</tt> nanoseconds for no limit.
+	 * @param unit      Unit of the duration.
+	 */
+	public void setMaxStaleness(long duration, TimeUnit unit) {
+		this.maxStalenessNanos = unit.toNanos(duration);
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Set the maximum cached counts; once reached, new filters are counted but not cached.
+	 *
+	 * @param maxEntries Maximum entries.
+	 */
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public int getMaxConcurrentRefreshes() {
+		return maxConcurrentRefreshes;
+	}
+
+	public void setMaxConcurrentRefreshes(int maxConcurrentRefreshes) {
+		if (maxConcurrentRefreshes <= 0) {
+			throw new IllegalArgumentException("Invalid maximum of concurrent refreshes: " + maxConcurrentRefreshes);
+		}
+		this.maxConcurrentRefreshes = maxConcurrentRefreshes;
+		this.refreshPermits = new Semaphore(maxConcurrentRefreshes);
+	}
+
+	/**
+	 * Get the executor of the refreshes, by default a daemon thread pool.
+	 *
+	 * @return Executor.
+	 */
+	public synchronized Executor getExecutor() {
+		if (this.executor == null) {
+			this.executor = Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "rsql-count-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return this.executor;
+	}
+
+	public synchronized void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	public BuilderTools getBuilderTools() {
+		if (this.builderTools == null) {
+			this.builderTools = new SimpleBuilderTools();
+		}
+		return this.builderTools;
+	}
+
+	public void setBuilderTools(BuilderTools builderTools) {
+		this.builderTools = builderTools;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Reads served with a stale count.
+	 */
+	public long getStaleHits() {
+		return staleHits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getRefreshes() {
+		return refreshes.get();
+	}
+
+	/**
+	 * Refreshes not started because the maximum of concurrent refreshes was reached.
+	 */
+	public long getSkippedRefreshes() {
+		return skippedRefreshes.get();
+	}
+
+	/**
+	 * A cached count.
+	 */
+	private static final class Entry {
+		private final Node filter;
+		private final Set<Class<?>> dependencies;
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+		private volatile long count;
+		private volatile long loadedAt;
+		private volatile boolean stale;
+		private volatile long generation;
+
+		private Entry(Node filter, Set<Class<?>> dependencies, long count, long loadedAt) {
+			this.filter = filter;
+			this.dependencies = dependencies;
+			this.count = count;
+			this.loadedAt = loadedAt;
+		}
+
+		private synchronized void markStale() {
+			generation++;
+			stale = true;
+		}
+
+		/**
+		 * Store a count loaded from the given generation, still stale if a change happened meanwhile.
+		 */
+		private synchronized void update(long count, long loadedGeneration, long loadedAt) {
+			this.count = count;
+			this.loadedAt = loadedAt;
+			this.stale = loadedGeneration != generation;
+		}
+	}
+}
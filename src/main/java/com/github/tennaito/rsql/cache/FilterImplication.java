@@ -0,0 +1,195 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cache;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.memory.InMemoryPredicateBuilder;
+import com.github.tennaito.rsql.memory.PropertyPath;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.OrNode;
+
+/**
+ * FilterImplication
+ *
+ * Conservative implication test between RSQL filters: when {@link #implies} returns
+ * <tt>true</tt> every entity matching the first filter also matches the second one.
+ * A <tt>false</tt> answer only means that the implication could not be proven.
+ *
+ * Comparisons are related through their canonical selector path and arguments casted to
+ * the property type: equalities and IN lists against any built-in comparison, narrower
+ * ranges, larger exclusion sets and the implicit "not null" of every comparison but
+ * <tt>==null</tt>. Wildcard and custom operator comparisons only imply themselves.
+ *
+ * @since 2026-10-19
+ */
+public final class FilterImplication {
+
+	/**
+	 * Private constructor.
+	 */
+	private FilterImplication() {
+		super();
+	}
+
+	/**
+	 * Verify if a filter implies another one.
+	 *
+	 * @param narrower  Filter that should be the narrower one.
+	 * @param broader   Filter that should be the broader one.
+	 * @param entity    Entity class both filters apply to.
+	 * @param misc      Facade with the mapper and argument parser.
+	 * @return          <tt>true</tt> if every match of <tt>narrower</tt> is proven to match <tt>broader</tt>.
+	 */
+	public static boolean implies(Node narrower, Node broader, Class<?> entity, BuilderTools misc) {
+		if (narrower.equals(broader)) {
+			return true;
+		}
+		if (broader instanceof AndNode) {
+			for (Node conjunct : ((AndNode) broader).getChildren()) {
+				if (!implies(narrower, conjunct, entity, misc)) return false;
+			}
+			return true;
+		}
+		if (narrower instanceof OrNode) {
+			for (Node branch : ((OrNode) narrower).getChildren()) {
+				if (!implies(branch, broader, entity, misc)) return false;
+			}
+			return true;
+		}
+		if (narrower instanceof AndNode) {
+			for (Node conjunct : ((AndNode) narrower).getChildren()) {
+				if (implies(conjunct, broader, entity, misc)) return true;
+			}
+		}
+		if (broader instanceof OrNode) {
+			for (Node branch : ((OrNode) broader).getChildren()) {
+				if (implies(narrower, branch, entity, misc)) return true;
+			}
+		}
+		if (narrower instanceof ComparisonNode && broader instanceof ComparisonNode) {
+			return implies((ComparisonNode) narrower, (ComparisonNode) broader, entity, misc);
+		}
+		return false;
+	}
+
+	private static boolean implies(ComparisonNode narrower, ComparisonNode broader, Class<?> entity, BuilderTools misc) {
+		ComparisonOperatorProxy q = ComparisonOperatorProxy.asEnum(narrower.getOperator());
+		ComparisonOperatorProxy c = ComparisonOperatorProxy.asEnum(broader.getOperator());
+		if (q == null || c == null) {
+			return false;
+		}
+		PropertyPath path = PropertyPath.compile(entity, narrower.getSelector(), misc.getPropertiesMapper());
+		if (!path.getPath().equals(PropertyPath.compile(entity, broader.getSelector(), misc.getPropertiesMapper()).getPath())) {
+			return false;
+		}
+		List<Object> qArguments = arguments(narrower, path, misc);
+		List<Object> cArguments = arguments(broader, path, misc);
+		boolean qLike = isLike(q, qArguments);
+		boolean cNotNull = c == ComparisonOperatorProxy.NOT_EQUAL && cArguments.get(0) == null;
+
+		// every comparison except "==null" excludes null values
+		boolean qNull = q == ComparisonOperatorProxy.EQUAL && qArguments.get(0) == null;
+		if (cNotNull) {
+			return !qNull;
+		}
+		if (isLike(c, cArguments) || qLike) {
+			return false;
+		}
+
+		Predicate<Object> cMatcher = InMemoryPredicateBuilder.createMatcher(broader.getOperator(), cArguments);
+		switch (q) {
+			case EQUAL :
+			case IN : {
+				// a finite set of values, each must be admitted by the broader comparison
+				for (Object value : qArguments) {
+					if (!cMatcher.test(value)) return false;
+				}
+				return true;
+			}
+			case NOT_EQUAL :
+			case NOT_IN : {
+				// the excluded values of the broader comparison must be excluded by the narrower one
+				if (c != ComparisonOperatorProxy.NOT_EQUAL && c != ComparisonOperatorProxy.NOT_IN) return false;
+				for (Object value : cArguments) {
+					if (!contains(qArguments, value)) return false;
+				}
+				return true;
+			}
+			default : {
+				Object bound = qArguments.get(0);
+				if (!(bound instanceof Comparable)) return false;
+				if (c == ComparisonOperatorProxy.NOT_EQUAL || c == ComparisonOperatorProxy.NOT_IN) {
+					// the range must leave out every excluded value
+					Predicate<Object> qMatcher = InMemoryPredicateBuilder.createMatcher(narrower.getOperator(), qArguments);
+					for (Object value : cArguments) {
+						if (value == null || qMatcher.test(value)) return false;
+					}
+					return true;
+				}
+				return rangeImplies(q, bound, c, cArguments.get(0));
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static boolean rangeImplies(ComparisonOperatorProxy q, Object qBound, ComparisonOperatorProxy c, Object cBound) {
+		if (!(cBound instanceof Comparable)) return false;
+		boolean qLower = q == ComparisonOperatorProxy.GREATER_THAN || q == ComparisonOperatorProxy.GREATER_THAN_OR_EQUAL;
+		boolean cLower = c == ComparisonOperatorProxy.GREATER_THAN || c == ComparisonOperatorProxy.GREATER_THAN_OR_EQUAL;
+		boolean cRange = cLower || c == ComparisonOperatorProxy.LESS_THAN || c == ComparisonOperatorProxy.LESS_THAN_OR_EQUAL;
+		if (!cRange || qLower != cLower) return false;
+
+		boolean qInclusive = q == ComparisonOperatorProxy.GREATER_THAN_OR_EQUAL || q == ComparisonOperatorProxy.LESS_THAN_OR_EQUAL;
+		boolean cInclusive = c == ComparisonOperatorProxy.GREATER_THAN_OR_EQUAL || c == ComparisonOperatorProxy.LESS_THAN_OR_EQUAL;
+		int compare = ((Comparable<Object>) qBound).compareTo(cBound);
+		if (!qLower) compare = -compare;
+		return compare > 0 || (compare == 0 && (!qInclusive || cInclusive));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> arguments(ComparisonNode comparison, PropertyPath path, BuilderTools misc) {
+		return (List<Object>) misc.getArgumentParser().parse(comparison.getArguments(), path.getJavaType());
+	}
+
+	private static boolean isLike(ComparisonOperatorProxy operator, List<Object> arguments) {
+		if (operator != ComparisonOperatorProxy.EQUAL && operator != ComparisonOperatorProxy.NOT_EQUAL) return false;
+		Object argument = arguments.get(0);
+		return argument instanceof String && ((String) argument).indexOf(PredicateBuilder.LIKE_WILDCARD) >= 0;
+	}
+
+	private static boolean contains(List<Object> values, Object value) {
+		for (Object candidate : values) {
+			if (InMemoryPredicateBuilder.isEqual(candidate, value)) return true;
+		}
+		return false;
+	}
+}
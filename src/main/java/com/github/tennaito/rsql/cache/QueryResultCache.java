@@ -0,0 +1,409 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.memory.InMemoryPredicateBuilder;
+import com.github.tennaito.rsql.memory.PropertyPath;
+import com.github.tennaito.rsql.parser.ast.NodeNormalizer;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * QueryResultCache
+ *
+ * Result cache keyed by entity class and normalized RSQL filter, invalidated entry by
+ * entry when entities change instead of per table. A change of an entity drops only:
+ * <ul>
+ * <li>the entries of its class whose results contain it (its old state matched);</li>
+ * <li>the entries of its class whose filter matches its new state, evaluated in memory;</li>
+ * <li>the entries whose filter navigates through its class (e.g. <tt>department.code</tt>
+ * when a department changes).</li>
+ * </ul>
+ *
+ * Changes are reported by {@link QueryResultCacheListener} once the cache is registered with
+ * it and the entities declare the listener. Notifications happen on flush, so a reader that
+ * reloads an entry after the flush but before the writing transaction commits may cache the
+ * previous state. Such an entry is only dropped by a later change or when it expires, so the
+ * time to live bounds how long it can be served; use the cache where that window is acceptable.
+ *
+ * Memory is bounded by the number of entries, evicting the least recently used ones.
+ *
+ * @since 2026-10-19
+ */
+public class QueryResultCache implements EntityChangeObserver {
+
+	private static final Logger LOG = Logger.getLogger(QueryResultCache.class.getName());
+
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	public static final long DEFAULT_TIME_TO_LIVE_SECONDS = 300;
+
+	private final PersistenceUnitUtil persistenceUnitUtil;
+
+	private final ConcurrentHashMap<Class<?>, Map<String, Entry>> entries = new ConcurrentHashMap<Class<?>, Map<String, Entry>>();
+
+	private BuilderTools builderTools;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong invalidations = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+	private volatile long timeToLiveNanos = TimeUnit.SECONDS.toNanos(DEFAULT_TIME_TO_LIVE_SECONDS);
+
+	/**
+	 * Number of change notifications, moved by every change even when no entry is dropped.
+	 */
+	private final AtomicLong changes = new AtomicLong();
+
+	/**
+	 * Construct a cache.
+	 *
+	 * @param entityManagerFactory Factory of the cached entities, used to read their identifiers.
+	 */
+	public QueryResultCache(EntityManagerFactory entityManagerFactory) {
+		this.persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+	}
+
+	/**
+	 * Get the results of a filter from the cache, loading and caching them on a miss.
+	 *
+	 * @param entityClass  Entity type.
+	 * @param filter       RSQL AST node.
+	 * @param loader       Loads the results of a filter from the database.
+	 * @return             Unmodifiable results.
+	 */
+	public <T> List<T> get(Class<T> entityClass, Node filter, Function<Node, List<T>> loader) {
+		List<T> cached = getIfPresent(entityClass, filter);
+		if (cached != null) {
+			return cached;
+		}
+		long generation = changes.get();
+		List<T> loaded = loader.apply(filter);
+		if (generation != changes.get()) {
+			// an entity changed while loading, the results may already be stale
+			return Collections.unmodifiableList(loaded);
+		}
+		return put(entityClass, filter, loaded);
+	}
+
+	/**
+	 * Get the cached results of a filter.
+	 *
+	 * @param entityClass  Entity type.
+	 * @param filter       RSQL AST node.
+	 * @return             Unmodifiable results, or <tt>null</tt> on a miss.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> getIfPresent(Class<T> entityClass, Node filter) {
+		String key = NodeNormalizer.fingerprint(filter);
+		Map<String, Entry> byFilter = entriesOf(entityClass);
+		Entry entry = byFilter.get(key);
+		if (entry != null && isExpired(entry)) {
+			byFilter.remove(key, entry);
+			entry = null;
+		}
+		if (entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		entry.lastAccess = System.nanoTime();
+		hits.incrementAndGet();
+		return (List<T>) entry.results;
+	}
+
+	/**
+	 * Cache the results of a filter.
+	 *
+	 * @param entityClass  Entity type.
+	 * @param filter       RSQL AST node.
+	 * @param results      Results of the filter.
+	 * @return             Unmodifiable copy of the results.
+	 */
+	public <T> List<T> put(Class<T> entityClass, Node filter, List<T> results) {
+		Node normalized = NodeNormalizer.normalize(filter);
+		BuilderTools tools = getBuilderTools();
+		Set<Object> ids = new HashSet<Object>();
+		for (T result : results) {
+			ids.add(persistenceUnitUtil.getIdentifier(result));
+		}
+		List<PropertyPath> paths = new ArrayList<PropertyPath>();
+		for (String selector : selectors(normalized, new HashSet<String>())) {
+			paths.add(PropertyPath.compile(entityClass, selector, tools.getPropertiesMapper()));
+		}
+		Entry entry = new Entry(normalized, InMemoryPredicateBuilder.createPredicate(normalized, entityClass, tools),
+				paths, ids, Collections.unmodifiableList(new ArrayList<T>(results)));
+		entriesOf(entityClass).put(NodeNormalizer.encode(normalized), entry);
+		evict();
+		return entry.typedResults();
+	}
+
+	/**
+	 * Drop the entries a changed entity may affect.
+	 *
+	 * @param entity   The persisted, updated or removed entity.
+	 * @param removed  <tt>true</tt> if the entity was removed, its state then matches no filter.
+	 */
+	@Override
+	public void entityChanged(Object entity, boolean removed) {
+		// before dropping entries, so a load in progress does not cache the previous state
+		changes.incrementAndGet();
+		Class<?> changedClass = entity.getClass();
+		Object id = persistenceUnitUtil.getIdentifier(entity);
+		for (Map.Entry<Class<?>, Map<String, Entry>> byClass : entries.entrySet()) {
+			boolean sameClass = byClass.getKey().isInstance(entity);
+			for (Iterator<Entry> it = byClass.getValue().values().iterator(); it.hasNext();) {
+				Entry entry = it.next();
+				boolean affected = entry.traverses(changedClass)
+						|| (sameClass && (entry.ids.contains(id) || (!removed && matches(entry, entity))));
+				if (affected) {
+					it.remove();
+					invalidations.incrementAndGet();
+					LOG.log(Level.INFO, "Invalidating {0} of {1} after a change of {2}#{3}",
+							new Object[] {entry.filter, byClass.getKey().getSimpleName(), changedClass.getSimpleName(), id});
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the cached entries of an entity class.
+	 *
+	 * @param entityClass Entity type.
+	 */
+	public void invalidate(Class<?> entityClass) {
+		entries.remove(entityClass);
+	}
+
+	/**
+	 * Remove every entry.
+	 */
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	public int size() {
+		int size = 0;
+		for (Map<String, Entry> byFilter : entries.values()) {
+			size += byFilter.size();
+		}
+		return size;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getInvalidations() {
+		return invalidations.get();
+	}
+
+	/**
+	 * Entries removed because the cache was full.
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Set the bound of the number of entries across entity classes.
+	 *
+	 * @param maxEntries Maximum number of entries.
+	 */
+	public void setMaxEntries(int maxEntries) {
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("Invalid maximum number of entries: " + maxEntries);
+		}
+		this.maxEntries = maxEntries;
+		evict();
+	}
+
+	/**
+	 * Set the time to live of the entries.
+	 *
+	 * @param duration  Duration, 0 for entries that never expire.
+	 * @param unit      Unit of the duration.
+	 */
+	public void setTimeToLive(long duration, TimeUnit unit) {
+		this.timeToLiveNanos = unit.toNanos(duration);
+	}
+
+	/**
+	 * Get builder tools.
+	 *
+	 * @return BuilderTools.
+	 */
+	public BuilderTools getBuilderTools() {
+		if (this.builderTools == null) {
+			this.builderTools = new SimpleBuilderTools();
+		}
+		return this.builderTools;
+	}
+
+	/**
+	 * Set a predicate strategy.
+	 *
+	 * @param builderTools BuilderTools.
+	 */
+	public void setBuilderTools(BuilderTools builderTools) {
+		this.builderTools = builderTools;
+	}
+
+	private Map<String, Entry> entriesOf(Class<?> entityClass) {
+		Map<String, Entry> byFilter = entries.get(entityClass);
+		if (byFilter == null) {
+			byFilter = new ConcurrentHashMap<String, Entry>();
+			Map<String, Entry> previous = entries.putIfAbsent(entityClass, byFilter);
+			if (previous != null) byFilter = previous;
+		}
+		return byFilter;
+	}
+
+	private boolean isExpired(Entry entry) {
+		long timeToLive = timeToLiveNanos;
+		return timeToLive > 0 && System.nanoTime() - entry.created > timeToLive;
+	}
+
+	/**
+	 * Remove expired entries, then the least recently used ones while the cache is full.
+	 */
+	private synchronized void evict() {
+		if (size() <= maxEntries) {
+			return;
+		}
+		for (Map<String, Entry> byFilter : entries.values()) {
+			byFilter.values().removeIf(this::isExpired);
+		}
+		while (size() > maxEntries) {
+			Map<String, Entry> eldestMap = null;
+			Map.Entry<String, Entry> eldest = null;
+			for (Map<String, Entry> byFilter : entries.values()) {
+				for (Map.Entry<String, Entry> candidate : byFilter.entrySet()) {
+					if (eldest == null || candidate.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+						eldestMap = byFilter;
+						eldest = candidate;
+					}
+				}
+			}
+			if (eldest == null) {
+				return;
+			}
+			if (eldestMap.remove(eldest.getKey(), eldest.getValue())) {
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	private static boolean matches(Entry entry, Object entity) {
+		try {
+			return entry.predicate.test(entity);
+		} catch (RuntimeException e) {
+			// e.g. an uninitialized lazy association, the entry cannot be proven unaffected
+			LOG.log(Level.INFO, "Cannot evaluate " + entry.filter + " in memory, invalidating it", e);
+			return true;
+		}
+	}
+
+	private static Set<String> selectors(Node node, Set<String> selectors) {
+		if (node instanceof ComparisonNode) {
+			selectors.add(((ComparisonNode) node).getSelector());
+		} else {
+			for (Node child : ((LogicalNode) node).getChildren()) {
+				selectors(child, selectors);
+			}
+		}
+		return selectors;
+	}
+
+	/**
+	 * A cached filter, its results and what is needed to decide its invalidation.
+	 */
+	private static final class Entry {
+		private final Node filter;
+		private final Predicate<Object> predicate;
+		private final List<PropertyPath> paths;
+		private final Set<Object> ids;
+		private final List<?> results;
+		private final long created;
+		private volatile long lastAccess;
+
+		@SuppressWarnings("unchecked")
+		private Entry(Node filter, Predicate<?> predicate, List<PropertyPath> paths, Set<Object> ids, List<?> results) {
+			this.filter = filter;
+			this.predicate = (Predicate<Object>) predicate;
+			this.paths = paths;
+			this.ids = ids;
+			this.results = results;
+			this.created = System.nanoTime();
+			this.lastAccess = created;
+		}
+
+		private boolean traverses(Class<?> type) {
+			for (PropertyPath path : paths) {
+				if (path.traverses(type)) return true;
+			}
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> List<T> typedResults() {
+			return (List<T>) results;
+		}
+	}
+}
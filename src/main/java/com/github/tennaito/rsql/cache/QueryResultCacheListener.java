@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cache;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * QueryResultCacheListener
+ *
+ * JPA entity listener reporting entity changes to the registered caches, such as
+ * {@link QueryResultCache} and {@link CountCache}. Declare it with
+ * <tt>@EntityListeners(QueryResultCacheListener.class)</tt> on the entities, or as a default
+ * listener in <tt>orm.xml</tt>, and register the caches on startup.
+ *
+ * @since 2026-10-19
+ */
+public class QueryResultCacheListener {
+
+	private static final Set<EntityChangeObserver> CACHES = new CopyOnWriteArraySet<EntityChangeObserver>();
+
+	/**
+	 * Register a cache to be notified of entity changes.
+	 *
+	 * @param cache Cache.
+	 */
+	public static void register(EntityChangeObserver cache) {
+		CACHES.add(cache);
+	}
+
+	/**
+	 * Stop notifying a cache.
+	 *
+	 * @param cache Cache.
+	 */
+	public static void unregister(EntityChangeObserver cache) {
+		CACHES.remove(cache);
+	}
+
+	@PostPersist
+	@PostUpdate
+	public void changed(Object entity) {
+		for (EntityChangeObserver cache : CACHES) {
+			cache.entityChanged(entity, false);
+		}
+	}
+
+	@PostRemove
+	public void removed(Object entity) {
+		for (EntityChangeObserver cache : CACHES) {
+			cache.entityChanged(entity, true);
+		}
+	}
+}
@@ -0,0 +1,402 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.memory.InMemoryPredicateBuilder;
+import com.github.tennaito.rsql.parser.ast.NodeNormalizer;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * SemanticResultCache
+ *
+ * Result cache keyed by normalized RSQL filter that also answers narrower filters from
+ * the results of a cached broader one. When a cached filter is implied by the requested
+ * one (extra AND conjuncts, narrower ranges, IN subsets, see {@link FilterImplication}),
+ * the conjuncts not already in the cached filter are evaluated in memory over the cached
+ * results instead of querying the database.
+ *
+ * The residual is evaluated with the in-memory semantics, so the selectors it uses must be
+ * loaded on the cached entities and string comparisons are case sensitive.
+ *
+ * Memory is bounded by the number of entries and the total number of cached results,
+ * evicting the least recently used entries; entries expire after the time to live. The search
+ * for a broader filter does not hold the lock of the entries, so concurrent lookups and
+ * writes do not wait on the implication checks.
+ *
+ * @since 2026-10-19
+ *
+ * @param <T> Entity type
+ */
+public class SemanticResultCache<T> {
+
+	private static final Logger LOG = Logger.getLogger(SemanticResultCache.class.getName());
+
+	public static final int DEFAULT_MAX_ENTRIES = 256;
+
+	public static final long DEFAULT_MAX_RESULTS = 100000;
+
+	private final Class<T> entityClass;
+
+	private final BuilderTools builderTools;
+
+	private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<String, Entry<T>>(16, 0.75f, true);
+
+	/**
+	 * The entries, updated with {@link #entries} but read without its lock by the search
+	 * for a broader filter.
+	 */
+	private final ConcurrentHashMap<String, Entry<T>> candidates = new ConcurrentHashMap<String, Entry<T>>();
+
+	private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+	private long maxResults = DEFAULT_MAX_RESULTS;
+
+	private long timeToLiveNanos;
+
+	private long cachedResults;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong subsumedHits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Number of invalidations, moved by every invalidation even when no entry is dropped.
+	 */
+	private final AtomicLong changes = new AtomicLong();
+
+	public SemanticResultCache(Class<T> entityClass) {
+		this(entityClass, new SimpleBuilderTools());
+	}
+
+	/**
+	 * Construct a cache.
+	 *
+	 * @param entityClass  Type of the cached results.
+	 * @param tools        Builder tools for selector mapping and argument parsing.
+	 */
+	public SemanticResultCache(Class<T> entityClass, BuilderTools tools) {
+		this.entityClass = entityClass;
+		this.builderTools = tools;
+	}
+
+	/**
+	 * Get the results of a filter from the cache, loading and caching them on a miss.
+	 *
+	 * @param filter  RSQL AST node.
+	 * @param loader  Loads the results of a filter, usually from the database.
+	 * @return        Unmodifiable results.
+	 */
+	public List<T> get(Node filter, Function<Node, List<T>> loader) {
+		List<T> cached = getIfPresent(filter);
+		if (cached != null) {
+			return cached;
+		}
+		long generation = changes.get();
+		List<T> loaded = loader.apply(filter);
+		if (generation != changes.get()) {
+			// an invalidation happened while loading, the results may already be stale
+			return Collections.unmodifiableList(loaded);
+		}
+		return put(filter, loaded);
+	}
+
+	/**
+	 * Get the results of a filter if they are cached or derivable from a cached broader filter.
+	 *
+	 * @param filter RSQL AST node.
+	 * @return       Unmodifiable results, or <tt>null</tt> on a miss.
+	 */
+	public List<T> getIfPresent(Node filter) {
+		Node normalized = NodeNormalizer.normalize(filter);
+		String key = NodeNormalizer.encode(normalized);
+
+		synchronized (entries) {
+			Entry<T> exact = live(key);
+			if (exact != null) {
+				hits.incrementAndGet();
+				return exact.results;
+			}
+		}
+
+		// the implication checks run outside the lock, over a weakly consistent view
+		Entry<T> broader = null;
+		List<Entry<T>> expired = new ArrayList<Entry<T>>();
+		for (Entry<T> entry : candidates.values()) {
+			if (isExpired(entry)) {
+				expired.add(entry);
+				continue;
+			}
+			if ((broader == null || entry.results.size() < broader.results.size())
+					&& FilterImplication.implies(normalized, entry.filter, entityClass, builderTools)) {
+				broader = entry;
+			}
+		}
+		if (broader != null || !expired.isEmpty()) {
+			synchronized (entries) {
+				for (Entry<T> entry : expired) {
+					remove(entry);
+				}
+				if (broader != null) {
+					// refresh the access order of the entry answering the request
+					entries.get(broader.key);
+				}
+			}
+		}
+
+		if (broader == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		subsumedHits.incrementAndGet();
+		Node residual = residual(normalized, broader.filter);
+		LOG.log(Level.INFO, "Answering {0} from cached {1} with residual {2}", new Object[] {normalized, broader.filter, residual});
+		if (residual == null) {
+			return broader.results;
+		}
+		Predicate<T> predicate = InMemoryPredicateBuilder.createPredicate(residual, entityClass, builderTools);
+		List<T> results = new ArrayList<T>();
+		for (T result : broader.results) {
+			if (predicate.test(result)) results.add(result);
+		}
+		return Collections.unmodifiableList(results);
+	}
+
+	/**
+	 * Cache the results of a filter.
+	 *
+	 * @param filter   RSQL AST node.
+	 * @param results  Results of the filter.
+	 * @return         Unmodifiable copy of the results.
+	 */
+	public List<T> put(Node filter, List<T> results) {
+		Node normalized = NodeNormalizer.normalize(filter);
+		Entry<T> entry = new Entry<T>(NodeNormalizer.encode(normalized), normalized, Collections.unmodifiableList(new ArrayList<T>(results)), System.nanoTime());
+		if (entry.results.size() > maxResults) {
+			LOG.log(Level.INFO, "Not caching {0}: {1} results exceed the cache bound.", new Object[] {entry.filter, entry.results.size()});
+			return entry.results;
+		}
+		synchronized (entries) {
+			Entry<T> previous = entries.put(entry.key, entry);
+			candidates.put(entry.key, entry);
+			if (previous != null) {
+				cachedResults -= previous.results.size();
+			}
+			cachedResults += entry.results.size();
+			evict();
+		}
+		return entry.results;
+	}
+
+	/**
+	 * Remove the entry of a filter.
+	 *
+	 * @param filter RSQL AST node.
+	 */
+	public void invalidate(Node filter) {
+		String key = NodeNormalizer.fingerprint(filter);
+		changes.incrementAndGet();
+		synchronized (entries) {
+			Entry<T> removed = entries.get(key);
+			if (removed != null) {
+				remove(removed);
+			}
+		}
+	}
+
+	/**
+	 * Remove the entries whose filter matches a condition, e.g. the filters over a selector
+	 * that changed.
+	 *
+	 * @param condition Condition over the normalized filters.
+	 */
+	public void invalidateIf(Predicate<Node> condition) {
+		changes.incrementAndGet();
+		synchronized (entries) {
+			for (Iterator<Entry<T>> it = entries.values().iterator(); it.hasNext();) {
+				Entry<T> entry = it.next();
+				if (condition.test(entry.filter)) {
+					it.remove();
+					unlink(entry);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove every entry.
+	 */
+	public void invalidateAll() {
+		changes.incrementAndGet();
+		synchronized (entries) {
+			entries.clear();
+			candidates.clear();
+			cachedResults = 0;
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getSubsumedHits() {
+		return subsumedHits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public long getMaxResults() {
+		return maxResults;
+	}
+
+	/**
+	 * Set the bound of the total number of cached results across entries.
+	 *
+	 * @param maxResults Maximum number of cached results.
+	 */
+	public void setMaxResults(long maxResults) {
+		this.maxResults = maxResults;
+	}
+
+	/**
+	 * Set the time to live of the entries.
+	 *
+	 * @param duration  Duration, 0 for entries that never expire.
+	 * @param unit      Unit of the duration.
+	 */
+	public void setTimeToLive(long duration, TimeUnit unit) {
+		this.timeToLiveNanos = unit.toNanos(duration);
+	}
+
+	private Entry<T> live(String key) {
+		Entry<T> entry = entries.get(key);
+		if (entry != null && isExpired(entry)) {
+			remove(entry);
+			return null;
+		}
+		return entry;
+	}
+
+	private boolean isExpired(Entry<T> entry) {
+		return timeToLiveNanos > 0 && System.nanoTime() - entry.created > timeToLiveNanos;
+	}
+
+	private void evict() {
+		Iterator<Entry<T>> it = entries.values().iterator();
+		while ((entries.size() > maxEntries || cachedResults > maxResults) && it.hasNext()) {
+			Entry<T> eldest = it.next();
+			it.remove();
+			unlink(eldest);
+		}
+	}
+
+	/**
+	 * Remove an entry unless it was already replaced, called holding the lock of the entries.
+	 */
+	private void remove(Entry<T> entry) {
+		if (entries.remove(entry.key, entry)) {
+			unlink(entry);
+		}
+	}
+
+	/**
+	 * Forget an entry removed from the entries, called holding their lock.
+	 */
+	private void unlink(Entry<T> entry) {
+		candidates.remove(entry.key, entry);
+		cachedResults -= entry.results.size();
+	}
+
+	/**
+	 * The conjuncts of the requested filter that the cached filter does not already contain.
+	 *
+	 * @return The residual filter, <tt>null</tt> if the cached results are the answer.
+	 */
+	private static Node residual(Node requested, Node cached) {
+		Set<Node> cachedConjuncts = new HashSet<Node>(conjuncts(cached));
+		List<Node> residual = new ArrayList<Node>();
+		for (Node conjunct : conjuncts(requested)) {
+			if (!cachedConjuncts.contains(conjunct)) residual.add(conjunct);
+		}
+		if (residual.isEmpty()) return null;
+		return residual.size() == 1 ? residual.get(0) : new AndNode(residual);
+	}
+
+	private static List<Node> conjuncts(Node node) {
+		return node instanceof AndNode ? ((AndNode) node).getChildren() : Collections.singletonList(node);
+	}
+
+	/**
+	 * A cached filter and its results.
+	 */
+	private static final class Entry<T> {
+		private final String key;
+		private final Node filter;
+		private final List<T> results;
+		private final long created;
+
+		private Entry(String key, Node filter, List<T> results, long created) {
+			this.key = key;
+			this.filter = filter;
+			this.results = results;
+			this.created = created;
+		}
+	}
+}
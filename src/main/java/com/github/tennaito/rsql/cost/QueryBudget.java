@@ -0,0 +1,243 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cost;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * QueryBudget
+ *
+ * Limits on the {@link QueryCost} of a filter. Every limit is unlimited until set. A
+ * filter over a limit is rejected; a filter within the limits but over the optional
+ * downgrade budget may still run in a cheaper way chosen by the caller (a replica, a
+ * smaller page, no total count).
+ *
+ * <pre>
+ * QueryBudget budget = new QueryBudget();
+ * budget.setMaxOrBranches(10);
+ * budget.setMaxInSize(1000);
+ * budget.setMaxLeadingWildcards(0);
+ * budget.enforce(estimator.estimate(rootNode, Course.class, entityManager));
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class QueryBudget {
+
+	/**
+	 * Outcome of the evaluation of a cost against a budget.
+	 */
+	public enum Decision {
+		ACCEPT, DOWNGRADE, REJECT
+	}
+
+	private long maxScore = Long.MAX_VALUE;
+	private int maxNodes = Integer.MAX_VALUE;
+	private int maxOrBranches = Integer.MAX_VALUE;
+	private int maxJoins = Integer.MAX_VALUE;
+	private int maxToManyJoins = Integer.MAX_VALUE;
+	private int maxPathDepth = Integer.MAX_VALUE;
+	private int maxInSize = Integer.MAX_VALUE;
+	private int maxLeadingWildcards = Integer.MAX_VALUE;
+	private int maxNegations = Integer.MAX_VALUE;
+	private QueryBudget downgradeBudget;
+
+	/**
+	 * Verify a cost against the limits.
+	 *
+	 * @param cost Cost of a filter.
+	 * @return     The exceeded limits, empty if none.
+	 */
+	public List<Violation> check(QueryCost cost) {
+		List<Violation> violations = new ArrayList<Violation>();
+		check(violations, "score", cost.getScore(), maxScore);
+		check(violations, "nodes", cost.getNodes(), maxNodes);
+		check(violations, "orBranches", cost.getOrBranches(), maxOrBranches);
+		check(violations, "joins", cost.getJoins(), maxJoins);
+		check(violations, "toManyJoins", cost.getToManyJoins(), maxToManyJoins);
+		check(violations, "pathDepth", cost.getMaxPathDepth(), maxPathDepth);
+		check(violations, "inSize", cost.getMaxInSize(), maxInSize);
+		check(violations, "leadingWildcards", cost.getLeadingWildcards(), maxLeadingWildcards);
+		check(violations, "negations", cost.getNegations(), maxNegations);
+		return violations;
+	}
+
+	/**
+	 * Decide how a filter may run.
+	 *
+	 * @param cost Cost of a filter.
+	 * @return     REJECT over this budget, DOWNGRADE over the downgrade budget, ACCEPT otherwise.
+	 */
+	public Decision evaluate(QueryCost cost) {
+		if (!check(cost).isEmpty()) {
+			return Decision.REJECT;
+		}
+		if (downgradeBudget != null && !downgradeBudget.check(cost).isEmpty()) {
+			return Decision.DOWNGRADE;
+		}
+		return Decision.ACCEPT;
+	}
+
+	/**
+	 * Reject a cost over the limits.
+	 *
+	 * @param cost Cost of a filter.
+	 * @return     The decision, ACCEPT or DOWNGRADE.
+	 * @throws QueryBudgetExceededException if a limit is exceeded.
+	 */
+	public Decision enforce(QueryCost cost) {
+		List<Violation> violations = check(cost);
+		if (!violations.isEmpty()) {
+			throw new QueryBudgetExceededException(cost, violations);
+		}
+		return evaluate(cost);
+	}
+
+	private static void check(List<Violation> violations, String metric, long actual, long limit) {
+		if (actual > limit) {
+			violations.add(new Violation(metric, actual, limit));
+		}
+	}
+
+	public long getMaxScore() {
+		return maxScore;
+	}
+
+	public void setMaxScore(long maxScore) {
+		this.maxScore = maxScore;
+	}
+
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+
+	public void setMaxNodes(int maxNodes) {
+		this.maxNodes = maxNodes;
+	}
+
+	public int getMaxOrBranches() {
+		return maxOrBranches;
+	}
+
+	public void setMaxOrBranches(int maxOrBranches) {
+		this.maxOrBranches = maxOrBranches;
+	}
+
+	public int getMaxJoins() {
+		return maxJoins;
+	}
+
+	public void setMaxJoins(int maxJoins) {
+		this.maxJoins = maxJoins;
+	}
+
+	public int getMaxToManyJoins() {
+		return maxToManyJoins;
+	}
+
+	public void setMaxToManyJoins(int maxToManyJoins) {
+		this.maxToManyJoins = maxToManyJoins;
+	}
+
+	public int getMaxPathDepth() {
+		return maxPathDepth;
+	}
+
+	public void setMaxPathDepth(int maxPathDepth) {
+		this.maxPathDepth = maxPathDepth;
+	}
+
+	public int getMaxInSize() {
+		return maxInSize;
+	}
+
+	public void setMaxInSize(int maxInSize) {
+		this.maxInSize = maxInSize;
+	}
+
+	public int getMaxLeadingWildcards() {
+		return maxLeadingWildcards;
+	}
+
+	public void setMaxLeadingWildcards(int maxLeadingWildcards) {
+		this.maxLeadingWildcards = maxLeadingWildcards;
+	}
+
+	public int getMaxNegations() {
+		return maxNegations;
+	}
+
+	public void setMaxNegations(int maxNegations) {
+		this.maxNegations = maxNegations;
+	}
+
+	public QueryBudget getDowngradeBudget() {
+		return downgradeBudget;
+	}
+
+	/**
+	 * Set the tighter budget over which accepted filters are downgraded.
+	 *
+	 * @param downgradeBudget Budget for downgrading, <tt>null</tt> to never downgrade.
+	 */
+	public void setDowngradeBudget(QueryBudget downgradeBudget) {
+		this.downgradeBudget = downgradeBudget;
+	}
+
+	/**
+	 * An exceeded limit.
+	 */
+	public static final class Violation {
+		private final String metric;
+		private final long actual;
+		private final long limit;
+
+		public Violation(String metric, long actual, long limit) {
+			this.metric = metric;
+			this.actual = actual;
+			this.limit = limit;
+		}
+
+		/**
+		 * Name of the metric, e.g. <tt>inSize</tt>.
+		 */
+		public String getMetric() {
+			return metric;
+		}
+
+		public long getActual() {
+			return actual;
+		}
+
+		public long getLimit() {
+			return limit;
+		}
+
+		@Override
+		public String toString() {
+			return metric + " " + actual + " > " + limit;
+		}
+	}
+}
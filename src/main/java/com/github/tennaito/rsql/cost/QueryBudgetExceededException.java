@@ -0,0 +1,57 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cost;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Exception thrown when the cost of a filter exceeds a {@link QueryBudget}. Carries the
+ * cost and the exceeded limits so they can be reported to the client.
+ *
+ * @since 2026-10-19
+ */
+public class QueryBudgetExceededException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient QueryCost cost;
+
+	private final transient List<QueryBudget.Violation> violations;
+
+	public QueryBudgetExceededException(QueryCost cost, List<QueryBudget.Violation> violations) {
+		super("Query budget exceeded: " + violations);
+		this.cost = cost;
+		this.violations = Collections.unmodifiableList(new ArrayList<QueryBudget.Violation>(violations));
+	}
+
+	public QueryCost getCost() {
+		return cost;
+	}
+
+	public List<QueryBudget.Violation> getViolations() {
+		return violations;
+	}
+}
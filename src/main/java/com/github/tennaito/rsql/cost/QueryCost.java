@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cost;
+
+/**
+ * QueryCost
+ *
+ * Static cost metrics of an RSQL filter, computed by {@link QueryCostEstimator} from the
+ * AST and the metamodel before any SQL is issued.
+ *
+ * @since 2026-10-19
+ */
+public final class QueryCost {
+
+	/**
+	 * Weights of the score: each join, to-many join, OR branch, leading wildcard and
+	 * negation costs as much as this many comparisons. IN arguments count by hundreds.
+	 */
+	public static final int JOIN_WEIGHT = 5;
+	public static final int TO_MANY_JOIN_WEIGHT = 20;
+	public static final int OR_BRANCH_WEIGHT = 2;
+	public static final int LEADING_WILDCARD_WEIGHT = 50;
+	public static final int NEGATION_WEIGHT = 5;
+	public static final int IN_ARGUMENTS_PER_UNIT = 100;
+
+	private final int nodes;
+	private final int comparisons;
+	private final int orBranches;
+	private final int joins;
+	private final int toManyJoins;
+	private final int maxPathDepth;
+	private final int maxInSize;
+	private final int inArguments;
+	private final int leadingWildcards;
+	private final int negations;
+
+	QueryCost(int nodes, int comparisons, int orBranches, int joins, int toManyJoins, int maxPathDepth,
+			int maxInSize, int inArguments, int leadingWildcards, int negations) {
+		this.nodes = nodes;
+		this.comparisons = comparisons;
+		this.orBranches = orBranches;
+		this.joins = joins;
+		this.toManyJoins = toManyJoins;
+		this.maxPathDepth = maxPathDepth;
+		this.maxInSize = maxInSize;
+		this.inArguments = inArguments;
+		this.leadingWildcards = leadingWildcards;
+		this.negations = negations;
+	}
+
+	/**
+	 * Number of AST nodes, logical and comparison.
+	 */
+	public int getNodes() {
+		return nodes;
+	}
+
+	public int getComparisons() {
+		return comparisons;
+	}
+
+	/**
+	 * Number of children of all OR nodes.
+	 */
+	public int getOrBranches() {
+		return orBranches;
+	}
+
+	/**
+	 * Number of joins, single valued associations being joined once per query.
+	 */
+	public int getJoins() {
+		return joins;
+	}
+
+	/**
+	 * Number of joins of collections, one per comparison navigating through them.
+	 */
+	public int getToManyJoins() {
+		return toManyJoins;
+	}
+
+	/**
+	 * Largest number of properties in a selector path.
+	 */
+	public int getMaxPathDepth() {
+		return maxPathDepth;
+	}
+
+	/**
+	 * Largest argument list of a multi-value comparison.
+	 */
+	public int getMaxInSize() {
+		return maxInSize;
+	}
+
+	/**
+	 * Arguments of all multi-value comparisons.
+	 */
+	public int getInArguments() {
+		return inArguments;
+	}
+
+	/**
+	 * Number of LIKE comparisons starting with a wildcard, which cannot use an index.
+	 */
+	public int getLeadingWildcards() {
+		return leadingWildcards;
+	}
+
+	/**
+	 * Number of negated comparisons (not equal, not like, out), usually not sargable.
+	 */
+	public int getNegations() {
+		return negations;
+	}
+
+	/**
+	 * Weighted sum of the metrics.
+	 *
+	 * @return The score, higher is more expensive.
+	 */
+	public long getScore() {
+		return (long) comparisons
+				+ (long) joins * JOIN_WEIGHT
+				+ (long) toManyJoins * TO_MANY_JOIN_WEIGHT
+				+ (long) orBranches * OR_BRANCH_WEIGHT
+				+ (long) leadingWildcards * LEADING_WILDCARD_WEIGHT
+				+ (long) negations * NEGATION_WEIGHT
+				+ inArguments / IN_ARGUMENTS_PER_UNIT;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryCost[score=" + getScore() + ", nodes=" + nodes + ", comparisons=" + comparisons
+				+ ", orBranches=" + orBranches + ", joins=" + joins + ", toManyJoins=" + toManyJoins
+				+ ", maxPathDepth=" + maxPathDepth + ", maxInSize=" + maxInSize + ", inArguments=" + inArguments
+				+ ", leadingWildcards=" + leadingWildcards + ", negations=" + negations + "]";
+	}
+}
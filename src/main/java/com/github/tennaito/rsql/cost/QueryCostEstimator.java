@@ -0,0 +1,261 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.cost;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.FullTextDialect;
+import com.github.tennaito.rsql.jpa.FullTextDialects;
+import com.github.tennaito.rsql.jpa.FullTextStrategy;
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.jpa.PredicateBuilderStrategy;
+import com.github.tennaito.rsql.jpa.TextMatchStrategy;
+import com.github.tennaito.rsql.misc.Mapper;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * QueryCostEstimator
+ *
+ * Computes the {@link QueryCost} of an RSQL filter from its AST and the metamodel paths
+ * of its selectors, following the same property mapping and join rules as the
+ * translation: single valued associations are joined once per query, collections once
+ * per comparison.
+ *
+ * @since 2026-10-19
+ */
+public class QueryCostEstimator {
+
+	private static final Logger LOG = Logger.getLogger(QueryCostEstimator.class.getName());
+
+	private BuilderTools builderTools;
+
+	/**
+	 * Estimate the cost of a filter.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entityClass    The main entity of the query.
+	 * @param entityManager  JPA EntityManager.
+	 * @return               The cost.
+	 * @throws IllegalArgumentException if a selector is not a property of the entity.
+	 */
+	public QueryCost estimate(Node node, Class<?> entityClass, EntityManager entityManager) {
+		PredicateBuilderStrategy fullText = getBuilderTools().getOperatorRegistry().get(FullTextStrategy.FTS);
+		FullTextDialect dialect = fullText instanceof FullTextStrategy
+				? ((FullTextStrategy) fullText).getDialect(entityManager.getEntityManagerFactory()) : null;
+		return estimate(node, entityClass, entityManager.getMetamodel(), dialect);
+	}
+
+	/**
+	 * Estimate the cost of a filter.
+	 *
+	 * @param node         RSQL AST node.
+	 * @param entityClass  The main entity of the query.
+	 * @param metamodel    Metamodel of the persistence unit.
+	 * @return             The cost, <tt>=fts=</tt> terms counted as the LIKE fallback of an unknown database.
+	 * @throws IllegalArgumentException if a selector is not a property of the entity.
+	 */
+	public QueryCost estimate(Node node, Class<?> entityClass, Metamodel metamodel) {
+		return estimate(node, entityClass, metamodel, null);
+	}
+
+	private QueryCost estimate(Node node, Class<?> entityClass, Metamodel metamodel, FullTextDialect dialect) {
+		Accumulator accumulator = new Accumulator(metamodel.managedType(entityClass), metamodel, getBuilderTools().getPropertiesMapper(), dialect);
+		accumulator.visit(node);
+		QueryCost cost = accumulator.toCost();
+		LOG.log(Level.INFO, "Estimated {0} for {1}", new Object[] {cost, node});
+		return cost;
+	}
+
+	/**
+	 * Get builder tools.
+	 *
+	 * @return BuilderTools.
+	 */
+	public BuilderTools getBuilderTools() {
+		if (this.builderTools == null) {
+			this.builderTools = new SimpleBuilderTools();
+		}
+		return this.builderTools;
+	}
+
+	/**
+	 * Set builder tools.
+	 *
+	 * @param builderTools BuilderTools.
+	 */
+	public void setBuilderTools(BuilderTools builderTools) {
+		this.builderTools = builderTools;
+	}
+
+	/**
+	 * Metrics of one estimation.
+	 */
+	private static final class Accumulator {
+		private final ManagedType<?> root;
+		private final Metamodel metamodel;
+		private final Mapper mapper;
+		private final FullTextDialect fullTextDialect;
+		private final Set<String> sharedJoins = new HashSet<String>();
+
+		private int nodes;
+		private int comparisons;
+		private int orBranches;
+		private int unsharedJoins;
+		private int toManyJoins;
+		private int maxPathDepth;
+		private int maxInSize;
+		private int inArguments;
+		private int leadingWildcards;
+		private int negations;
+
+		private Accumulator(ManagedType<?> root, Metamodel metamodel, Mapper mapper, FullTextDialect fullTextDialect) {
+			this.root = root;
+			this.metamodel = metamodel;
+			this.mapper = mapper;
+			this.fullTextDialect = fullTextDialect;
+		}
+
+		private void visit(Node node) {
+			nodes++;
+			if (node instanceof LogicalNode) {
+				LogicalNode logical = (LogicalNode) node;
+				if (logical.getOperator() == LogicalOperator.OR) {
+					orBranches += logical.getChildren().size();
+				}
+				for (Node child : logical.getChildren()) {
+					visit(child);
+				}
+			} else if (node instanceof ComparisonNode) {
+				visit((ComparisonNode) node);
+			} else {
+				throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+			}
+		}
+
+		private void visit(ComparisonNode comparison) {
+			comparisons++;
+			List<Attribute<?, ?>> path = new ArrayList<Attribute<?, ?>>();
+			resolve(comparison.getSelector(), root, path);
+			maxPathDepth = Math.max(maxPathDepth, path.size());
+
+			StringBuilder prefix = new StringBuilder();
+			boolean crossedCollection = false;
+			for (Attribute<?, ?> attribute : path) {
+				prefix.append('.').append(attribute.getName());
+				if (attribute.isCollection()) {
+					toManyJoins++;
+					crossedCollection = true;
+				} else if (attribute.isAssociation()) {
+					// joins below a collection join are not shared either
+					if (crossedCollection) {
+						unsharedJoins++;
+					} else {
+						sharedJoins.add(prefix.toString());
+					}
+				}
+			}
+
+			ComparisonOperatorProxy operator = ComparisonOperatorProxy.asEnum(comparison.getOperator());
+			List<String> arguments = comparison.getArguments();
+			if (comparison.getOperator().isMultiValue()) {
+				maxInSize = Math.max(maxInSize, arguments.size());
+				inArguments += arguments.size();
+			}
+			if (operator == ComparisonOperatorProxy.NOT_EQUAL || operator == ComparisonOperatorProxy.NOT_IN) {
+				negations++;
+			}
+			if ((operator == ComparisonOperatorProxy.EQUAL || operator == ComparisonOperatorProxy.NOT_EQUAL
+					|| TextMatchStrategy.ILIKE.equals(comparison.getOperator()))
+					&& isString(path) && PredicateBuilder.isLeadingWildcard(arguments.get(0))) {
+				leadingWildcards++;
+			}
+			if (FullTextStrategy.FTS.equals(comparison.getOperator())
+					&& (fullTextDialect == null || fullTextDialect == FullTextDialects.LIKE)) {
+				// the LIKE fallback matches every term with like '%term%'
+				leadingWildcards += FullTextStrategy.terms(arguments.get(0)).size();
+			}
+		}
+
+		private ManagedType<?> resolve(String selector, ManagedType<?> type, List<Attribute<?, ?>> path) {
+			ManagedType<?> current = type;
+			for (String property : selector.split("\\.")) {
+				if (current == null) {
+					throw new IllegalArgumentException("Unknown property: " + property + " from a basic attribute");
+				}
+				String mappedProperty = mapper.translate(property, current.getJavaType());
+				if (!mappedProperty.equals(property)) {
+					current = resolve(mappedProperty, current, path);
+					continue;
+				}
+				Attribute<?, ?> attribute = findAttribute(property, current);
+				path.add(attribute);
+				current = managedType(attribute);
+			}
+			return current;
+		}
+
+		private ManagedType<?> managedType(Attribute<?, ?> attribute) {
+			Class<?> javaType = attribute.isCollection() ? ((PluralAttribute<?, ?, ?>) attribute).getBindableJavaType() : attribute.getJavaType();
+			if (attribute.isAssociation() || attribute.getPersistentAttributeType() == PersistentAttributeType.EMBEDDED) {
+				return metamodel.managedType(javaType);
+			}
+			return null;
+		}
+
+		private static Attribute<?, ?> findAttribute(String property, ManagedType<?> type) {
+			for (Attribute<?, ?> attribute : type.getAttributes()) {
+				if (attribute.getName().equals(property)) return attribute;
+			}
+			throw new IllegalArgumentException("Unknown property: " + property + " from entity " + type.getJavaType().getName());
+		}
+
+		private static boolean isString(List<Attribute<?, ?>> path) {
+			return !path.isEmpty() && path.get(path.size() - 1).getJavaType() == String.class;
+		}
+
+		private QueryCost toCost() {
+			return new QueryCost(nodes, comparisons, orBranches, sharedJoins.size() + unsharedJoins, toManyJoins,
+					maxPathDepth, maxInSize, inArguments, leadingWildcards, negations);
+		}
+	}
+}
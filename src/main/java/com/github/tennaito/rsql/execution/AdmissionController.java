@@ -0,0 +1,292 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.persistence.EntityManager;
+
+import com.github.tennaito.rsql.cost.QueryCost;
+import com.github.tennaito.rsql.cost.QueryCostEstimator;
+
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * AdmissionController
+ *
+ * Runs query executions through cost tiers, each with its own bound on concurrent
+ * executions and queued callers, so a burst of expensive filters cannot take every
+ * database connection from cheap lookups. A filter goes to the first tier (in increasing
+ * maximum score) that admits its {@link QueryCost} score; filters above every tier are
+ * rejected.
+ *
+ * Executions run on the calling thread, which keeps its EntityManager and transaction.
+ * A caller waits for a permit up to the timeout of its tier and is rejected when the
+ * queue of the tier is full or the timeout elapses.
+ *
+ * <pre>
+ * AdmissionController admission = new AdmissionController();
+ * admission.addTier("cheap", 20, 32, 256, 100, TimeUnit.MILLISECONDS);
+ * admission.addTier("expensive", 500, 4, 16, 2, TimeUnit.SECONDS);
+ * List&lt;Course&gt; courses = admission.execute(rootNode, Course.class, entityManager,
+ *         () -&gt; entityManager.createQuery(query).getResultList());
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class AdmissionController {
+
+	private static final Logger LOG = Logger.getLogger(AdmissionController.class.getName());
+
+	private volatile List<Tier> tiers = Collections.emptyList();
+
+	private QueryCostEstimator estimator;
+
+	private final AtomicLong unadmitted = new AtomicLong();
+
+	/**
+	 * Add a tier.
+	 *
+	 * @param name           Name of the tier, used in metrics and errors.
+	 * @param maxScore       Highest cost score admitted by the tier.
+	 * @param maxConcurrent  Maximum concurrent executions.
+	 * @param maxQueued      Maximum callers waiting for a permit.
+	 * @param timeout        Maximum wait for a permit.
+	 * @param unit           Unit of the timeout.
+	 * @return               The tier.
+	 */
+	public synchronized Tier addTier(String name, long maxScore, int maxConcurrent, int maxQueued, long timeout, TimeUnit unit) {
+		if (maxConcurrent <= 0 || maxQueued < 0 || timeout < 0) {
+			throw new IllegalArgumentException("Invalid limits for tier " + name);
+		}
+		Tier tier = new Tier(name, maxScore, maxConcurrent, maxQueued, unit.toNanos(timeout));
+		List<Tier> copy = new ArrayList<Tier>(tiers);
+		copy.add(tier);
+		Collections.sort(copy, Comparator.comparingLong(Tier::getMaxScore));
+		tiers = Collections.unmodifiableList(copy);
+		return tier;
+	}
+
+	/**
+	 * Tiers in increasing maximum score.
+	 *
+	 * @return Unmodifiable list of tiers.
+	 */
+	public List<Tier> getTiers() {
+		return tiers;
+	}
+
+	/**
+	 * Find the tier of a cost.
+	 *
+	 * @param cost Cost of a filter.
+	 * @return     The tier, <tt>null</tt> if no tier admits the cost.
+	 */
+	public Tier classify(QueryCost cost) {
+		for (Tier tier : tiers) {
+			if (cost.getScore() <= tier.maxScore) return tier;
+		}
+		return null;
+	}
+
+	/**
+	 * Estimate the cost of a filter and run its execution in the matching tier.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entityClass    The main entity of the query.
+	 * @param entityManager  JPA EntityManager.
+	 * @param execution      Query execution.
+	 * @return               Result of the execution.
+	 * @throws AdmissionRejectedException if the execution is not admitted.
+	 */
+	public <R> R execute(Node node, Class<?> entityClass, EntityManager entityManager, Supplier<R> execution) {
+		return execute(getEstimator().estimate(node, entityClass, entityManager), execution);
+	}
+
+	/**
+	 * Run an execution in the tier of its cost.
+	 *
+	 * @param cost       Cost of the filter.
+	 * @param execution  Query execution.
+	 * @return           Result of the execution.
+	 * @throws AdmissionRejectedException if the execution is not admitted.
+	 */
+	public <R> R execute(QueryCost cost, Supplier<R> execution) {
+		Tier tier = classify(cost);
+		if (tier == null) {
+			unadmitted.incrementAndGet();
+			LOG.log(Level.INFO, "Rejecting execution: no tier admits score {0}", cost.getScore());
+			throw new AdmissionRejectedException(null, "No tier admits score " + cost.getScore());
+		}
+		tier.acquire();
+		try {
+			return execution.get();
+		} finally {
+			tier.release();
+		}
+	}
+
+	/**
+	 * Executions rejected because their score is above every tier.
+	 */
+	public long getUnadmitted() {
+		return unadmitted.get();
+	}
+
+	public QueryCostEstimator getEstimator() {
+		if (this.estimator == null) {
+			this.estimator = new QueryCostEstimator();
+		}
+		return this.estimator;
+	}
+
+	public void setEstimator(QueryCostEstimator estimator) {
+		this.estimator = estimator;
+	}
+
+	/**
+	 * A cost tier with its limits and metrics.
+	 */
+	public static final class Tier {
+		private final String name;
+		private final long maxScore;
+		private final int maxConcurrent;
+		private final int maxQueued;
+		private final long timeoutNanos;
+		private final Semaphore permits;
+		private final AtomicInteger queued = new AtomicInteger();
+		private final AtomicLong admitted = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+		private final AtomicLong timedOut = new AtomicLong();
+
+		private Tier(String name, long maxScore, int maxConcurrent, int maxQueued, long timeoutNanos) {
+			this.name = name;
+			this.maxScore = maxScore;
+			this.maxConcurrent = maxConcurrent;
+			this.maxQueued = maxQueued;
+			this.timeoutNanos = timeoutNanos;
+			this.permits = new Semaphore(maxConcurrent, true);
+		}
+
+		private void acquire() {
+			try {
+				// the timed form honors the fairness of the semaphore, queued callers go first
+				if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+					admitted.incrementAndGet();
+					return;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				rejected.incrementAndGet();
+				throw new AdmissionRejectedException(this, "Interrupted waiting for tier " + name);
+			}
+			if (queued.incrementAndGet() > maxQueued) {
+				queued.decrementAndGet();
+				rejected.incrementAndGet();
+				LOG.log(Level.INFO, "Rejecting execution in tier {0}: queue full", name);
+				throw new AdmissionRejectedException(this, "Queue of tier " + name + " is full");
+			}
+			try {
+				if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+					timedOut.incrementAndGet();
+					rejected.incrementAndGet();
+					LOG.log(Level.INFO, "Rejecting execution in tier {0}: timeout", name);
+					throw new AdmissionRejectedException(this, "Timeout waiting for tier " + name);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				rejected.incrementAndGet();
+				throw new AdmissionRejectedException(this, "Interrupted waiting for tier " + name);
+			} finally {
+				queued.decrementAndGet();
+			}
+			admitted.incrementAndGet();
+		}
+
+		private void release() {
+			permits.release();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getMaxScore() {
+			return maxScore;
+		}
+
+		public int getMaxConcurrent() {
+			return maxConcurrent;
+		}
+
+		public int getMaxQueued() {
+			return maxQueued;
+		}
+
+		/**
+		 * Executions currently running.
+		 */
+		public int getActive() {
+			return maxConcurrent - permits.availablePermits();
+		}
+
+		/**
+		 * Callers currently waiting for a permit.
+		 */
+		public int getQueueDepth() {
+			return queued.get();
+		}
+
+		public long getAdmitted() {
+			return admitted.get();
+		}
+
+		/**
+		 * Executions rejected because the queue was full, the wait timed out or was interrupted.
+		 */
+		public long getRejected() {
+			return rejected.get();
+		}
+
+		public long getTimedOut() {
+			return timedOut.get();
+		}
+
+		@Override
+		public String toString() {
+			return "Tier[" + name + ", maxScore=" + maxScore + ", active=" + getActive() + ", queued=" + getQueueDepth()
+					+ ", admitted=" + getAdmitted() + ", rejected=" + getRejected() + "]";
+		}
+	}
+}
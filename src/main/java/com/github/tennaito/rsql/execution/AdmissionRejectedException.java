@@ -0,0 +1,50 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.execution;
+
+/**
+ * Exception thrown when an {@link AdmissionController} does not admit a query execution.
+ *
+ * @since 2026-10-19
+ */
+public class AdmissionRejectedException extends IllegalStateException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient AdmissionController.Tier tier;
+
+	public AdmissionRejectedException(AdmissionController.Tier tier, String message) {
+		super(message);
+		this.tier = tier;
+	}
+
+	/**
+	 * Tier that rejected the execution.
+	 *
+	 * @return The tier, <tt>null</tt> if no tier admits the cost.
+	 */
+	public AdmissionController.Tier getTier() {
+		return tier;
+	}
+}
@@ -0,0 +1,346 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.ImmutableBuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.memory.PropertyPath;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * PartitionPruner
+ *
+ * Finds the partitions (or shards) a filter may match from the constraints it puts on a
+ * partition key. The filter is analyzed into the intervals the key can take: equality and
+ * <tt>=in=</tt> give single values, the ordering operators give half-bounded ranges, AND
+ * intersects and OR unites the intervals of its children. Any other comparison on the key
+ * (negations, wildcards, custom operators) and comparisons on other selectors do not
+ * constrain it.
+ *
+ * Partitions are lists of key values or ranges of keys, each with a target handed back by
+ * {@link #prune(Node)}: typically the EntityManagerFactory of a shard, see
+ * {@link ScatterGatherExecutor#setPruner(PartitionPruner)}. The partitions must cover every
+ * key value and their bounds must be of the Java type of the key.
+ *
+ * <pre>
+ * PartitionPruner&lt;EntityManagerFactory&gt; pruner = new PartitionPruner&lt;EntityManagerFactory&gt;(Course.class, "department.code");
+ * pruner.addPartition(europe, "DE", "FR").addPartition(america, "US", "BR");
+ * List&lt;EntityManagerFactory&gt; targets = pruner.prune(rootNode);
+ * </pre>
+ *
+ * @since 2026-10-19
+ *
+ * @param <P> Target type
+ */
+public class PartitionPruner<P> {
+
+	private static final Logger LOG = Logger.getLogger(PartitionPruner.class.getName());
+
+	private static final List<Interval> UNCONSTRAINED = Collections.singletonList(new Interval(null, false, null, false));
+
+	private final Class<?> entityClass;
+
+	private final PropertyPath key;
+
+	private final BuilderTools builderTools;
+
+	private final List<Partition<P>> partitions = new ArrayList<Partition<P>>();
+
+	public PartitionPruner(Class<?> entityClass, String selector) {
+		this(entityClass, selector, new SimpleBuilderTools());
+	}
+
+	/**
+	 * Construct a pruner.
+	 *
+	 * @param entityClass  Entity type of the filters.
+	 * @param selector     RSQL selector of the partition key.
+	 * @param tools        Builder tools, for the mapper and argument parser.
+	 */
+	public PartitionPruner(Class<?> entityClass, String selector, BuilderTools tools) {
+		this.builderTools = ImmutableBuilderTools.of(tools);
+		this.key = PropertyPath.compile(entityClass, selector, builderTools.getPropertiesMapper());
+		if (key.isPlural()) {
+			throw new IllegalArgumentException("Partition key " + selector + " navigates through a collection.");
+		}
+		this.entityClass = entityClass;
+	}
+
+	/**
+	 * Add a partition holding a list of key values.
+	 *
+	 * @param target  Target of the partition.
+	 * @param values  Key values.
+	 * @return        This pruner.
+	 */
+	public synchronized PartitionPruner<P> addPartition(P target, Object... values) {
+		List<Interval> intervals = new ArrayList<Interval>(values.length);
+		for (Object value : values) {
+			intervals.add(new Interval(asComparable(value), true, asComparable(value), true));
+		}
+		partitions.add(new Partition<P>(target, intervals));
+		return this;
+	}
+
+	/**
+	 * Add a partition holding a range of keys.
+	 *
+	 * @param target  Target of the partition.
+	 * @param lower   Inclusive lower bound, <tt>null</tt> if unbounded.
+	 * @param upper   Exclusive upper bound, <tt>null</tt> if unbounded.
+	 * @return        This pruner.
+	 */
+	public synchronized PartitionPruner<P> addRangePartition(P target, Object lower, Object upper) {
+		partitions.add(new Partition<P>(target, Collections.singletonList(new Interval(asComparable(lower), true, asComparable(upper), false))));
+		return this;
+	}
+
+	/**
+	 * Compute the targets whose partitions may hold entities matching a filter.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Distinct targets in the order they were added, empty if the filter is contradictory on the key.
+	 */
+	public synchronized List<P> prune(Node node) {
+		List<Interval> constraint = analyze(node);
+		Set<P> targets = new LinkedHashSet<P>();
+		for (Partition<P> partition : partitions) {
+			if (!targets.contains(partition.target) && overlaps(partition.intervals, constraint)) {
+				targets.add(partition.target);
+			}
+		}
+		LOG.log(Level.INFO, "Pruned {0} to {1} of {2} partitions", new Object[] {node, targets.size(), partitions.size()});
+		return new ArrayList<P>(targets);
+	}
+
+	/**
+	 * Extract the values the partition key can take in the entities matching a filter.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Intervals of the key, a single unbounded interval if the filter does not constrain it.
+	 */
+	public List<Interval> analyze(Node node) {
+		if (node instanceof LogicalNode) {
+			List<Interval> result = null;
+			for (Node child : ((LogicalNode) node).getChildren()) {
+				List<Interval> intervals = analyze(child);
+				if (result == null) {
+					result = intervals;
+				} else if (node instanceof AndNode) {
+					result = intersect(result, intervals);
+				} else {
+					result = unite(result, intervals);
+				}
+			}
+			return result == null ? UNCONSTRAINED : result;
+		}
+		if (node instanceof ComparisonNode) {
+			return analyze((ComparisonNode) node);
+		}
+		return UNCONSTRAINED;
+	}
+
+	private List<Interval> analyze(ComparisonNode comparison) {
+		ComparisonOperatorProxy operator = ComparisonOperatorProxy.asEnum(comparison.getOperator());
+		if (operator == null || !key.getPath().equals(canonical(comparison.getSelector()))) {
+			return UNCONSTRAINED;
+		}
+		List<Object> arguments = new ArrayList<Object>(comparison.getArguments().size());
+		for (String argument : comparison.getArguments()) {
+			if (argument.indexOf(PredicateBuilder.LIKE_WILDCARD) >= 0 && key.getJavaType() == String.class) {
+				return UNCONSTRAINED;
+			}
+			Object value = builderTools.getArgumentParser().parse(argument, key.getJavaType());
+			if (!(value instanceof Comparable)) {
+				return UNCONSTRAINED;
+			}
+			arguments.add(value);
+		}
+		Comparable<Object> first = asComparable(arguments.get(0));
+		// dates compare inclusively, as in PredicateBuilder
+		boolean strict = !(arguments.get(0) instanceof Date);
+		switch (operator) {
+			case EQUAL :
+				return Collections.singletonList(new Interval(first, true, first, true));
+			case IN : {
+				List<Interval> points = new ArrayList<Interval>(arguments.size());
+				for (Object argument : arguments) {
+					points.add(new Interval(asComparable(argument), true, asComparable(argument), true));
+				}
+				return points;
+			}
+			case GREATER_THAN : return Collections.singletonList(new Interval(first, !strict, null, false));
+			case GREATER_THAN_OR_EQUAL : return Collections.singletonList(new Interval(first, true, null, false));
+			case LESS_THAN : return Collections.singletonList(new Interval(null, false, first, !strict));
+			case LESS_THAN_OR_EQUAL : return Collections.singletonList(new Interval(null, false, first, true));
+			default : return UNCONSTRAINED;
+		}
+	}
+
+	private String canonical(String selector) {
+		try {
+			return PropertyPath.compile(entityClass, selector, builderTools.getPropertiesMapper()).getPath();
+		} catch (IllegalArgumentException e) {
+			return selector;
+		}
+	}
+
+	private static List<Interval> intersect(List<Interval> left, List<Interval> right) {
+		List<Interval> result = new ArrayList<Interval>();
+		for (Interval l : left) {
+			for (Interval r : right) {
+				Interval intersection = l.intersect(r);
+				if (intersection != null) {
+					result.add(intersection);
+				}
+			}
+		}
+		return result;
+	}
+
+	private static List<Interval> unite(List<Interval> left, List<Interval> right) {
+		if (left == UNCONSTRAINED || right == UNCONSTRAINED) {
+			return UNCONSTRAINED;
+		}
+		List<Interval> result = new ArrayList<Interval>(left);
+		result.addAll(right);
+		return result;
+	}
+
+	private static boolean overlaps(List<Interval> left, List<Interval> right) {
+		for (Interval l : left) {
+			for (Interval r : right) {
+				if (l.intersect(r) != null) return true;
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Comparable<Object> asComparable(Object value) {
+		if (value != null && !(value instanceof Comparable)) {
+			throw new IllegalArgumentException("Partition bound " + value + " is not comparable.");
+		}
+		return (Comparable<Object>) value;
+	}
+
+	/**
+	 * An interval of key values, <tt>null</tt> bounds are unbounded.
+	 */
+	public static final class Interval {
+		private final Comparable<Object> lower;
+		private final boolean lowerInclusive;
+		private final Comparable<Object> upper;
+		private final boolean upperInclusive;
+
+		private Interval(Comparable<Object> lower, boolean lowerInclusive, Comparable<Object> upper, boolean upperInclusive) {
+			this.lower = lower;
+			this.lowerInclusive = lowerInclusive;
+			this.upper = upper;
+			this.upperInclusive = upperInclusive;
+		}
+
+		public Object getLower() {
+			return lower;
+		}
+
+		public boolean isLowerInclusive() {
+			return lowerInclusive;
+		}
+
+		public Object getUpper() {
+			return upper;
+		}
+
+		public boolean isUpperInclusive() {
+			return upperInclusive;
+		}
+
+		/**
+		 * @return The common values, <tt>null</tt> if there are none.
+		 */
+		private Interval intersect(Interval other) {
+			Comparable<Object> low = lower;
+			boolean lowInclusive = lowerInclusive;
+			if (other.lower != null) {
+				int compare = low == null ? -1 : low.compareTo(other.lower);
+				if (compare < 0 || (compare == 0 && !other.lowerInclusive)) {
+					low = other.lower;
+					lowInclusive = other.lowerInclusive;
+				}
+			}
+			Comparable<Object> high = upper;
+			boolean highInclusive = upperInclusive;
+			if (other.upper != null) {
+				int compare = high == null ? 1 : high.compareTo(other.upper);
+				if (compare > 0 || (compare == 0 && !other.upperInclusive)) {
+					high = other.upper;
+					highInclusive = other.upperInclusive;
+				}
+			}
+			if (low != null && high != null) {
+				int compare = low.compareTo(high);
+				if (compare > 0 || (compare == 0 && !(lowInclusive && highInclusive))) {
+					return null;
+				}
+			}
+			return new Interval(low, lowInclusive, high, highInclusive);
+		}
+
+		@Override
+		public String toString() {
+			if (lower != null && lower.equals(upper)) {
+				return String.valueOf(lower);
+			}
+			return (lowerInclusive ? "[" : "(") + (lower == null ? "" : lower) + ", "
+					+ (upper == null ? "" : upper) + (upperInclusive ? "]" : ")");
+		}
+	}
+
+	private static final class Partition<P> {
+		private final P target;
+		private final List<Interval> intervals;
+
+		private Partition(P target, List<Interval> intervals) {
+			this.target = target;
+			this.intervals = intervals;
+		}
+	}
+}
@@ -0,0 +1,461 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.jpa.JpaQueryTranslator;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * RangeSplitExporter
+ *
+ * Exports the entities matching a filter over several connections. The id space is split
+ * into ranges, each range is ANDed with the filter and read on its own EntityManager by a
+ * worker thread, in pages ordered by id (keyset pagination inside the range). Pages are
+ * handed to the consumer on the calling thread, so the consumer need not be thread safe,
+ * through bounded queues that hold back workers running ahead of it.
+ *
+ * The ranges come from the minimum and maximum matching ids ({@link Split#MIN_MAX}, integral
+ * ids only) or from the ids at evenly spaced offsets of the matching rows
+ * ({@link Split#QUANTILES}, any comparable id, even for skewed id distributions at the price
+ * of one offset query per boundary). With {@link #isPreserveOrder()} the entities arrive in
+ * id order, otherwise pages of every range are merged as they are read.
+ *
+ * The persistence context of a worker is cleared after each page: exported entities are
+ * detached and their lazy associations must not be navigated.
+ *
+ * <pre>
+ * RangeSplitExporter&lt;Course&gt; exporter = new RangeSplitExporter&lt;Course&gt;(Course.class, entityManagerFactory);
+ * exporter.setPartitions(8);
+ * exporter.export(rootNode, course -&gt; writer.write(course));
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class RangeSplitExporter<T> {
+
+	private static final Logger LOG = Logger.getLogger(RangeSplitExporter.class.getName());
+
+	/**
+	 * How the id space is split.
+	 */
+	public enum Split {
+		MIN_MAX, QUANTILES
+	}
+
+	/**
+	 * Marker of the last page of a range.
+	 */
+	private static final Object END = new Object();
+
+	private final JpaQueryTranslator<T> translator;
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	private int partitions = 4;
+
+	private int pageSize = 1000;
+
+	private int queueCapacity = 4;
+
+	private Split split = Split.MIN_MAX;
+
+	private boolean preserveOrder = true;
+
+	private Executor executor;
+
+	public RangeSplitExporter(Class<T> entityClass, EntityManagerFactory entityManagerFactory) {
+		this.translator = new JpaQueryTranslator<T>(entityClass);
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	public RangeSplitExporter(Class<T> entityClass, EntityManagerFactory entityManagerFactory, BuilderTools tools) {
+		this.translator = new JpaQueryTranslator<T>(entityClass, tools);
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	/**
+	 * Split the ids of the entities matching a filter into ranges.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Contiguous ranges in increasing id order, the first and last unbounded.
+	 */
+	public List<Range> split(Node node) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			List<Comparable<Object>> boundaries = split == Split.MIN_MAX
+					? minMaxBoundaries(node, entityManager) : quantileBoundaries(node, entityManager);
+			List<Range> ranges = new ArrayList<Range>();
+			Comparable<Object> lower = null;
+			for (Comparable<Object> boundary : boundaries) {
+				if (lower == null || lower.compareTo(boundary) < 0) {
+					ranges.add(new Range(lower, boundary));
+					lower = boundary;
+				}
+			}
+			ranges.add(new Range(lower, null));
+			LOG.log(Level.INFO, "Split {0} into {1}", new Object[] {node, ranges});
+			return ranges;
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	/**
+	 * Export the entities matching a filter.
+	 *
+	 * @param node      RSQL AST node.
+	 * @param consumer  Receives every matching entity on the calling thread.
+	 * @return          Number of exported entities.
+	 */
+	public long export(Node node, Consumer<? super T> consumer) {
+		List<Range> ranges = split(node);
+		int queues = preserveOrder ? ranges.size() : 1;
+		List<BlockingQueue<Object>> pages = new ArrayList<BlockingQueue<Object>>(queues);
+		for (int i = 0; i < queues; i++) {
+			pages.add(new ArrayBlockingQueue<Object>(queueCapacity));
+		}
+		List<Worker> workers = new ArrayList<Worker>(ranges.size());
+		for (int i = 0; i < ranges.size(); i++) {
+			Worker worker = new Worker(node, ranges.get(i), pages.get(preserveOrder ? i : 0));
+			workers.add(worker);
+			getExecutor().execute(worker);
+		}
+
+		long exported = 0;
+		try {
+			int ended = 0;
+			for (BlockingQueue<Object> queue : pages) {
+				int expected = preserveOrder ? ended + 1 : workers.size();
+				while (ended < expected) {
+					Object page = queue.take();
+					if (page == END) {
+						ended++;
+					} else if (page instanceof RuntimeException) {
+						throw (RuntimeException) page;
+					} else {
+						for (Object entity : (List<?>) page) {
+							consumer.accept(translator.getEntityClass().cast(entity));
+							exported++;
+						}
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted exporting " + node, e);
+		} finally {
+			for (Worker worker : workers) {
+				worker.cancelled = true;
+			}
+		}
+		LOG.log(Level.INFO, "Exported {0} entities in {1} ranges", new Object[] {exported, ranges.size()});
+		return exported;
+	}
+
+	private List<Comparable<Object>> minMaxBoundaries(Node node, EntityManager entityManager) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Object[]> criteria = cb.createQuery(Object[].class);
+		Root<T> root = criteria.from(translator.getEntityClass());
+		Path<Number> id = root.get(idName(entityManager));
+		Class<?> idType = id.getJavaType();
+		if (!isIntegral(idType)) {
+			throw new IllegalArgumentException("Split " + Split.MIN_MAX + " requires an integral id, " + idType.getName() + " found.");
+		}
+		Object[] bounds = entityManager.createQuery(criteria.multiselect(cb.min(id), cb.max(id))
+				.where(translator.toPredicate(node, root, entityManager))).getSingleResult();
+		if (bounds[0] == null) {
+			return Collections.emptyList();
+		}
+		long min = ((Number) bounds[0]).longValue();
+		double span = (double) ((Number) bounds[1]).longValue() - min + 1;
+		List<Comparable<Object>> boundaries = new ArrayList<Comparable<Object>>();
+		for (int i = 1; i < partitions; i++) {
+			boundaries.add(toIdType(idType, min + (long) (span * i / partitions)));
+		}
+		return boundaries;
+	}
+
+	private List<Comparable<Object>> quantileBoundaries(Node node, EntityManager entityManager) {
+		long count = entityManager.createQuery(translator.toCountQuery(node, entityManager)).getSingleResult();
+		List<Comparable<Object>> boundaries = new ArrayList<Comparable<Object>>();
+		for (int i = 1; i < partitions && count > 0; i++) {
+			CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+			CriteriaQuery<Object> criteria = cb.createQuery(Object.class);
+			Root<T> root = criteria.from(translator.getEntityClass());
+			Path<Object> id = root.get(idName(entityManager));
+			criteria.select(id).distinct(true).where(translator.toPredicate(node, root, entityManager)).orderBy(cb.asc(id));
+			List<Object> quantile = entityManager.createQuery(criteria)
+					.setFirstResult((int) Math.min(Integer.MAX_VALUE, count * i / partitions)).setMaxResults(1).getResultList();
+			if (!quantile.isEmpty()) {
+				boundaries.add(asComparable(quantile.get(0)));
+			}
+		}
+		return boundaries;
+	}
+
+	private String idName(EntityManager entityManager) {
+		EntityType<T> type = entityManager.getMetamodel().entity(translator.getEntityClass());
+		return type.getId(type.getIdType().getJavaType()).getName();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Comparable<Object> asComparable(Object id) {
+		if (!(id instanceof Comparable)) {
+			throw new IllegalArgumentException("Id " + id + " is not comparable.");
+		}
+		return (Comparable<Object>) id;
+	}
+
+	private static boolean isIntegral(Class<?> idType) {
+		return idType == Long.class || idType == long.class
+				|| idType == Integer.class || idType == int.class
+				|| idType == Short.class || idType == short.class;
+	}
+
+	private static Comparable<Object> toIdType(Class<?> idType, long value) {
+		if (idType == Integer.class || idType == int.class) return asComparable(Integer.valueOf((int) value));
+		if (idType == Short.class || idType == short.class) return asComparable(Short.valueOf((short) value));
+		return asComparable(Long.valueOf(value));
+	}
+
+	public int getPartitions() {
+		return partitions;
+	}
+
+	/**
+	 * Set the number of ranges, hence of concurrent EntityManagers.
+	 *
+	 * @param partitions Number of ranges, fewer when the id space is smaller.
+	 */
+	public void setPartitions(int partitions) {
+		if (partitions < 1) {
+			throw new IllegalArgumentException("Partitions must be positive: " + partitions);
+		}
+		this.partitions = partitions;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(int pageSize) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+		}
+		this.pageSize = pageSize;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Set the number of pages a range may read ahead of the consumer.
+	 *
+	 * @param queueCapacity Pages buffered per queue.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		if (queueCapacity < 1) {
+			throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+		}
+		this.queueCapacity = queueCapacity;
+	}
+
+	public Split getSplit() {
+		return split;
+	}
+
+	public void setSplit(Split split) {
+		this.split = split;
+	}
+
+	public boolean isPreserveOrder() {
+		return preserveOrder;
+	}
+
+	/**
+	 * Define if entities are exported in id order.
+	 *
+	 * @param preserveOrder <tt>false</tt> to merge pages of every range as they are read.
+	 */
+	public void setPreserveOrder(boolean preserveOrder) {
+		this.preserveOrder = preserveOrder;
+	}
+
+	/**
+	 * Get the executor of the range workers, a pool of daemon threads when none was set.
+	 *
+	 * @return Executor.
+	 */
+	public synchronized Executor getExecutor() {
+		if (this.executor == null) {
+			this.executor = Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "rsql-range-export");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return this.executor;
+	}
+
+	/**
+	 * Set the executor of the range workers. Workers block on the database and on the
+	 * consumer, so the executor should not be shared with CPU bound tasks.
+	 *
+	 * @param executor Executor.
+	 */
+	public synchronized void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * A range of ids, lower bound inclusive and upper bound exclusive.
+	 */
+	public static final class Range {
+		private final Comparable<Object> lower;
+		private final Comparable<Object> upper;
+
+		private Range(Comparable<Object> lower, Comparable<Object> upper) {
+			this.lower = lower;
+			this.upper = upper;
+		}
+
+		/**
+		 * @return Inclusive lower bound, <tt>null</tt> if unbounded.
+		 */
+		public Object getLower() {
+			return lower;
+		}
+
+		/**
+		 * @return Exclusive upper bound, <tt>null</tt> if unbounded.
+		 */
+		public Object getUpper() {
+			return upper;
+		}
+
+		@Override
+		public String toString() {
+			return "[" + (lower == null ? "" : lower) + ", " + (upper == null ? "" : upper) + ")";
+		}
+	}
+
+	/**
+	 * Reads the pages of one range.
+	 */
+	private final class Worker implements Runnable {
+		private final Node node;
+		private final Range range;
+		private final BlockingQueue<Object> pages;
+		private volatile boolean cancelled;
+
+		private Worker(Node node, Range range, BlockingQueue<Object> pages) {
+			this.node = node;
+			this.range = range;
+			this.pages = pages;
+		}
+
+		@Override
+		public void run() {
+			try {
+				EntityManager entityManager = entityManagerFactory.createEntityManager();
+				try {
+					Comparable<Object> last = null;
+					List<T> page;
+					do {
+						page = entityManager.createQuery(pageQuery(entityManager, last)).setMaxResults(pageSize).getResultList();
+						if (!page.isEmpty()) {
+							last = asComparable(entityManagerFactory.getPersistenceUnitUtil().getIdentifier(page.get(page.size() - 1)));
+						}
+						entityManager.clear();
+						if (!page.isEmpty() && !offer(page)) return;
+					} while (page.size() == pageSize);
+				} finally {
+					entityManager.close();
+				}
+				offer(END);
+			} catch (RuntimeException e) {
+				LOG.log(Level.WARNING, "Export of range " + range + " failed", e);
+				offer(e);
+			}
+		}
+
+		private CriteriaQuery<T> pageQuery(EntityManager entityManager, Comparable<Object> last) {
+			CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+			CriteriaQuery<T> criteria = cb.createQuery(translator.getEntityClass());
+			Root<T> root = criteria.from(translator.getEntityClass());
+			Path<Comparable<Object>> id = root.get(idName(entityManager));
+			List<Predicate> predicates = new ArrayList<Predicate>();
+			predicates.add(translator.toPredicate(node, root, entityManager));
+			if (last != null) {
+				predicates.add(cb.greaterThan(id, last));
+			} else if (range.lower != null) {
+				predicates.add(cb.greaterThanOrEqualTo(id, range.lower));
+			}
+			if (range.upper != null) {
+				predicates.add(cb.lessThan(id, range.upper));
+			}
+			return criteria.select(root).distinct(true)
+					.where(predicates.toArray(new Predicate[predicates.size()])).orderBy(cb.asc(id));
+		}
+
+		/**
+		 * Hand a page over, waiting while the queue is full.
+		 *
+		 * @return <tt>false</tt> if the export was cancelled.
+		 */
+		private boolean offer(Object page) {
+			try {
+				while (!cancelled) {
+					if (pages.offer(page, 100, TimeUnit.MILLISECONDS)) return true;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+	}
+}
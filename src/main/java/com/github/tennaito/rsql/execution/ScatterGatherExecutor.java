@@ -0,0 +1,343 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.jpa.JoinRegistry;
+import com.github.tennaito.rsql.jpa.JpaQueryTranslator;
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.memory.PropertyPath;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * ScatterGatherExecutor
+ *
+ * Runs a filter over an entity sharded across several databases, each behind its own
+ * EntityManagerFactory. The filter is translated for every shard and the shard queries run
+ * concurrently; each shard returns at most <tt>offset + limit</tt> rows in the requested
+ * order, which are merge-sorted into the global page. Counts are the sum of the shard counts,
+ * so an entity must live in exactly one shard.
+ *
+ * Shards are ordered by the requested properties and then by id. Each shard query also
+ * selects these values, so the merge never navigates the entities (a LAZY to-one of a detached
+ * entity would not load). The merge compares them in memory with {@link Comparable#compareTo},
+ * nulls first in ascending order, so the shards must sort the same way: nulls first, and
+ * strings with a binary collation (e.g. <tt>COLLATE "C"</tt> on PostgreSQL), since a
+ * linguistic collation orders case and accents differently and would interleave the shard
+ * pages wrongly. Results are detached: the EntityManager of each shard is closed once its
+ * rows are read.
+ *
+ * With a {@link PartitionPruner} over the shards, a filter runs only on the shards whose
+ * partitions it may match.
+ *
+ * <pre>
+ * ScatterGatherExecutor&lt;Course&gt; shards = new ScatterGatherExecutor&lt;Course&gt;(Course.class, factories);
+ * List&lt;Course&gt; page = shards.fetch(rootNode, 0, 20, Order.asc("name"));
+ * long total = shards.count(rootNode);
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class ScatterGatherExecutor<T> {
+
+	private static final Logger LOG = Logger.getLogger(ScatterGatherExecutor.class.getName());
+
+	private final JpaQueryTranslator<T> translator;
+
+	private final List<EntityManagerFactory> shards;
+
+	private Executor executor;
+
+	private PartitionPruner<EntityManagerFactory> pruner;
+
+	public ScatterGatherExecutor(Class<T> entityClass, List<EntityManagerFactory> shards) {
+		this(entityClass, shards, null);
+	}
+
+	/**
+	 * Construct an executor.
+	 *
+	 * @param entityClass  Entity type.
+	 * @param shards       EntityManagerFactory of every shard.
+	 * @param tools        Builder tools, <tt>null</tt> for the defaults.
+	 */
+	public ScatterGatherExecutor(Class<T> entityClass, List<EntityManagerFactory> shards, BuilderTools tools) {
+		if (shards == null || shards.isEmpty()) {
+			throw new IllegalArgumentException("No shards defined.");
+		}
+		this.translator = tools == null ? new JpaQueryTranslator<T>(entityClass) : new JpaQueryTranslator<T>(entityClass, tools);
+		this.shards = Collections.unmodifiableList(new ArrayList<EntityManagerFactory>(shards));
+	}
+
+	public List<EntityManagerFactory> getShards() {
+		return shards;
+	}
+
+	/**
+	 * Fetch a page of the entities matching a filter across every shard.
+	 *
+	 * @param node    RSQL AST node.
+	 * @param offset  Index of the first entity of the page in the global order.
+	 * @param limit   Maximum number of entities.
+	 * @param orders  Sort order, the id is always the last criterion.
+	 * @return        The page, detached.
+	 */
+	public List<T> fetch(Node node, int offset, int limit, Order... orders) {
+		if (offset < 0 || limit < 0 || (long) offset + limit > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid page: offset " + offset + ", limit " + limit);
+		}
+		final Comparator<Object[]> comparator = comparator(orders);
+		List<List<Object[]>> results = scatter(node, entityManager -> entityManager
+				.createQuery(shardQuery(node, entityManager, orders)).setMaxResults(offset + limit).getResultList());
+
+		PriorityQueue<Cursor> cursors = new PriorityQueue<Cursor>(Math.max(1, results.size()),
+				(left, right) -> comparator.compare(left.current(), right.current()));
+		for (List<Object[]> result : results) {
+			if (!result.isEmpty()) {
+				cursors.add(new Cursor(result));
+			}
+		}
+		List<T> page = new ArrayList<T>(limit);
+		for (int index = 0; index < offset + limit && !cursors.isEmpty(); index++) {
+			Cursor cursor = cursors.poll();
+			if (index >= offset) {
+				page.add(translator.getEntityClass().cast(cursor.current()[0]));
+			}
+			if (++cursor.index < cursor.rows.size()) {
+				cursors.add(cursor);
+			}
+		}
+		LOG.log(Level.INFO, "Merged {0} entities of {1} shards", new Object[] {page.size(), results.size()});
+		return page;
+	}
+
+	/**
+	 * Count the entities matching a filter across every shard.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Sum of the shard counts.
+	 */
+	public long count(Node node) {
+		long count = 0;
+		for (Long shardCount : scatter(node, entityManager -> entityManager.createQuery(translator.toCountQuery(node, entityManager)).getSingleResult())) {
+			count += shardCount;
+		}
+		return count;
+	}
+
+	private <R> List<R> scatter(Node node, Function<EntityManager, R> query) {
+		List<EntityManagerFactory> targets = pruner == null ? shards : pruner.prune(node);
+		List<CompletableFuture<R>> futures = new ArrayList<CompletableFuture<R>>(targets.size());
+		for (final EntityManagerFactory shard : targets) {
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				EntityManager entityManager = shard.createEntityManager();
+				try {
+					return query.apply(entityManager);
+				} finally {
+					entityManager.close();
+				}
+			}, getExecutor()));
+		}
+		List<R> results = new ArrayList<R>(futures.size());
+		try {
+			for (CompletableFuture<R> future : futures) {
+				results.add(future.join());
+			}
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+		return results;
+	}
+
+	/**
+	 * Shard query selecting, per row, the entity, its sort values and its id.
+	 */
+	private CriteriaQuery<Object[]> shardQuery(Node node, EntityManager entityManager, Order... orders) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Object[]> criteria = cb.createQuery(Object[].class);
+		Root<T> root = criteria.from(translator.getEntityClass());
+		JoinRegistry joins = new JoinRegistry();
+		List<Selection<?>> selections = new ArrayList<Selection<?>>();
+		List<jakarta.persistence.criteria.Order> orderBy = new ArrayList<jakarta.persistence.criteria.Order>();
+		selections.add(root);
+		for (Order order : orders) {
+			Expression<?> path = PredicateBuilder.findPropertyPath(order.selector, root, entityManager, translator.getBuilderTools(), joins);
+			selections.add(path);
+			orderBy.add(order.ascending ? cb.asc(path) : cb.desc(path));
+		}
+		EntityType<T> type = entityManager.getMetamodel().entity(translator.getEntityClass());
+		Expression<?> id = root.get(type.getId(type.getIdType().getJavaType()).getName());
+		selections.add(id);
+		orderBy.add(cb.asc(id));
+		// a filter through a collection joins a row per element, the sort values are single valued
+		criteria.multiselect(selections).distinct(true).where(translator.toPredicate(node, root, entityManager, joins));
+		return criteria.orderBy(orderBy);
+	}
+
+	/**
+	 * Compare the rows of the shard queries on their sort values, then on their id.
+	 */
+	private Comparator<Object[]> comparator(Order... orders) {
+		for (Order order : orders) {
+			PropertyPath path = PropertyPath.compile(translator.getEntityClass(), order.selector, translator.getBuilderTools().getPropertiesMapper());
+			if (path.isPlural()) {
+				throw new IllegalArgumentException("Cannot order by collection " + order.selector);
+			}
+		}
+		return (left, right) -> {
+			for (int i = 0; i < orders.length; i++) {
+				int result = compare(left[i + 1], right[i + 1]);
+				if (result != 0) {
+					return orders[i].ascending ? result : -result;
+				}
+			}
+			return compare(left[orders.length + 1], right[orders.length + 1]);
+		};
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compare(Object left, Object right) {
+		if (left == null || right == null) {
+			return left == null ? (right == null ? 0 : -1) : 1;
+		}
+		return ((Comparable) left).compareTo(right);
+	}
+
+	public PartitionPruner<EntityManagerFactory> getPruner() {
+		return pruner;
+	}
+
+	/**
+	 * Set the pruner choosing the shards of each filter.
+	 *
+	 * @param pruner Pruner with the shards as targets, <tt>null</tt> to query every shard.
+	 */
+	public void setPruner(PartitionPruner<EntityManagerFactory> pruner) {
+		this.pruner = pruner;
+	}
+
+	/**
+	 * Get the executor of the shard queries, a pool of daemon threads when none was set.
+	 *
+	 * @return Executor.
+	 */
+	public synchronized Executor getExecutor() {
+		if (this.executor == null) {
+			this.executor = Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "rsql-scatter-gather");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return this.executor;
+	}
+
+	/**
+	 * Set the executor of the shard queries. Each query holds a connection of its shard
+	 * while it runs, so the executor should allow one thread per shard.
+	 *
+	 * @param executor Executor.
+	 */
+	public synchronized void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Sort criterion on an RSQL selector.
+	 */
+	public static final class Order {
+		private final String selector;
+		private final boolean ascending;
+
+		private Order(String selector, boolean ascending) {
+			if (selector == null || selector.isEmpty()) {
+				throw new IllegalArgumentException("Order selector was undefined.");
+			}
+			this.selector = selector;
+			this.ascending = ascending;
+		}
+
+		public static Order asc(String selector) {
+			return new Order(selector, true);
+		}
+
+		public static Order desc(String selector) {
+			return new Order(selector, false);
+		}
+
+		public String getSelector() {
+			return selector;
+		}
+
+		public boolean isAscending() {
+			return ascending;
+		}
+
+		@Override
+		public String toString() {
+			return selector + (ascending ? " asc" : " desc");
+		}
+	}
+
+	/**
+	 * Position in the sorted rows of one shard.
+	 */
+	private final class Cursor {
+		private final List<Object[]> rows;
+		private int index;
+
+		private Cursor(List<Object[]> rows) {
+			this.rows = rows;
+		}
+
+		private Object[] current() {
+			return rows.get(index);
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.parser.ast.NodeNormalizer;
+
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * SingleFlightExecutor
+ *
+ * Coalesces identical concurrent queries. The first caller of a filter (the leader) runs
+ * the query; callers with the same entity and normalized fingerprint that arrive while it
+ * runs wait for its result instead of issuing their own statement. The flight ends with
+ * the query, so later callers run a new one: this is not a cache.
+ *
+ * Waiting callers receive the result list of the leader, so its elements are shared between
+ * threads. Without a copy function the query must return projections or detached objects,
+ * never entities managed by the persistence context of the leader; with one, each waiting
+ * caller receives its own copies of the elements.
+ *
+ * A waiting caller gives up after the maximum wait, or when it is interrupted (keeping its
+ * interrupt status), and runs its own query instead.
+ *
+ * <pre>
+ * SingleFlightExecutor flights = new SingleFlightExecutor();
+ * List&lt;CourseDto&gt; courses = flights.execute(Course.class, rootNode, null,
+ *         () -&gt; entityManager.createQuery(query).getResultList(), CourseDto::copy);
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class SingleFlightExecutor {
+
+	private static final Logger LOG = Logger.getLogger(SingleFlightExecutor.class.getName());
+
+	private final ConcurrentMap<Key, CompletableFuture<List<?>>> flights = new ConcurrentHashMap<Key, CompletableFuture<List<?>>>();
+
+	private final AtomicLong executions = new AtomicLong();
+
+	private final AtomicLong coalesced = new AtomicLong();
+
+	private final AtomicLong fallbacks = new AtomicLong();
+
+	private long maxWaitNanos = TimeUnit.SECONDS.toNanos(30);
+
+	/**
+	 * Run a query, or wait for the identical query in flight.
+	 *
+	 * @param entityClass  The main entity of the query.
+	 * @param node         RSQL AST node of the filter.
+	 * @param query        Query execution, run by the leader only.
+	 * @return             Unmodifiable result.
+	 */
+	public <T> List<T> execute(Class<T> entityClass, Node node, Supplier<? extends List<T>> query) {
+		return execute(entityClass, node, null, query);
+	}
+
+	/**
+	 * Run a query, or wait for the identical query in flight.
+	 *
+	 * @param entityClass  The main entity of the query.
+	 * @param node         RSQL AST node of the filter.
+	 * @param variant      Whatever else shapes the result (sort, page), <tt>null</tt> if nothing.
+	 * @param query        Query execution, run by the leader only.
+	 * @return             Unmodifiable result.
+	 */
+	public <T> List<T> execute(Class<T> entityClass, Node node, Object variant, Supplier<? extends List<T>> query) {
+		return execute(entityClass, node, variant, query, null);
+	}
+
+	/**
+	 * Run a query, or wait for the identical query in flight and copy its result.
+	 *
+	 * @param entityClass  The main entity of the query.
+	 * @param node         RSQL AST node of the filter.
+	 * @param variant      Whatever else shapes the result (sort, page), <tt>null</tt> if nothing.
+	 * @param query        Query execution, run by the leader only.
+	 * @param copy         Copies an element of the result for a waiting caller, <tt>null</tt> to share them.
+	 * @return             Unmodifiable result.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> execute(Class<T> entityClass, Node node, Object variant, Supplier<? extends List<T>> query, UnaryOperator<T> copy) {
+		Key key = new Key(entityClass, NodeNormalizer.fingerprint(node), variant);
+		CompletableFuture<List<?>> flight = new CompletableFuture<List<?>>();
+		CompletableFuture<List<?>> current = flights.putIfAbsent(key, flight);
+		if (current != null) {
+			LOG.log(Level.INFO, "Joining flight of {0}", key);
+			List<T> shared = (List<T>) await(current, maxWaitNanos);
+			if (shared == null) {
+				fallbacks.incrementAndGet();
+				LOG.log(Level.INFO, "Leaving flight of {0}, running the query", key);
+				return Collections.unmodifiableList(new ArrayList<T>(query.get()));
+			}
+			coalesced.incrementAndGet();
+			if (copy == null) {
+				return shared;
+			}
+			List<T> copies = new ArrayList<T>(shared.size());
+			for (T element : shared) {
+				copies.add(copy.apply(element));
+			}
+			return Collections.unmodifiableList(copies);
+		}
+		executions.incrementAndGet();
+		try {
+			List<T> result = Collections.unmodifiableList(new ArrayList<T>(query.get()));
+			flight.complete(result);
+			return result;
+		} catch (RuntimeException e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} catch (Error e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			flights.remove(key, flight);
+		}
+	}
+
+	/**
+	 * Wait for the result of a flight.
+	 *
+	 * @return The result, <tt>null</tt> if the wait timed out or was interrupted.
+	 */
+	private static List<?> await(CompletableFuture<List<?>> flight, long timeoutNanos) {
+		try {
+			return flight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (TimeoutException e) {
+			return null;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Set how long a caller waits for the query in flight before running its own.
+	 *
+	 * @param duration  Maximum wait.
+	 * @param unit      Unit of the duration.
+	 */
+	public void setMaxWait(long duration, TimeUnit unit) {
+		this.maxWaitNanos = unit.toNanos(duration);
+	}
+
+	/**
+	 * Queries in flight.
+	 */
+	public int getInFlight() {
+		return flights.size();
+	}
+
+	/**
+	 * Queries actually run.
+	 */
+	public long getExecutions() {
+		return executions.get();
+	}
+
+	/**
+	 * Callers served by the query of another caller.
+	 */
+	public long getCoalesced() {
+		return coalesced.get();
+	}
+
+	/**
+	 * Callers that stopped waiting for the query of another caller and ran their own.
+	 */
+	public long getFallbacks() {
+		return fallbacks.get();
+	}
+
+	private static final class Key {
+		private final Class<?> entityClass;
+		private final String fingerprint;
+		private final Object variant;
+
+		private Key(Class<?> entityClass, String fingerprint, Object variant) {
+			this.entityClass = entityClass;
+			this.fingerprint = fingerprint;
+			this.variant = variant;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return entityClass.equals(other.entityClass) && fingerprint.equals(other.fingerprint)
+					&& (variant == null ? other.variant == null : variant.equals(other.variant));
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 31 * entityClass.hashCode() + fingerprint.hashCode();
+			return 31 * hash + (variant == null ? 0 : variant.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return entityClass.getSimpleName() + "[" + fingerprint + (variant == null ? "" : ", " + variant) + "]";
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.jpa.CountResult.Accuracy;
+import com.github.tennaito.rsql.sql.NativeSqlQuery;
+import com.github.tennaito.rsql.sql.NativeSqlTranslator;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import jakarta.persistence.EntityManager;
+
+/**
+ * ApproximateCounter
+ *
+ * Counts the entities matching a filter without reading every one of them, an alternative
+ * to the exact <tt>countDistinct</tt> of {@link JpaCriteriaCountQueryVisitor}. The distinct
+ * ids are counted up to the threshold plus one: below it the count is exact, above it the
+ * result is "more than threshold". An optional {@link CountEstimator} is asked first, and
+ * its estimate is returned when it is over the threshold.
+ *
+ * With a {@link NativeSqlTranslator} the ids are counted by the database in a capped native
+ * count (see {@link NativeSqlTranslator#toCappedCountQuery(Node, int)}) and only the count is
+ * transferred; filters the native translation does not support are counted by reading the
+ * ids of the Criteria query.
+ *
+ * <pre>
+ * ApproximateCounter&lt;Course&gt; counter = new ApproximateCounter&lt;Course&gt;(Course.class);
+ * counter.setThreshold(1000);
+ * CountResult count = counter.count(rootNode, entityManager);   // "more than 1000"
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class ApproximateCounter<T> {
+
+	private static final Logger LOG = Logger.getLogger(ApproximateCounter.class.getName());
+
+	private final JpaQueryTranslator<T> translator;
+
+	private int threshold = 10000;
+
+	private CountEstimator estimator;
+
+	private NativeSqlTranslator nativeTranslator;
+
+	public ApproximateCounter(Class<T> entityClass) {
+		this.translator = new JpaQueryTranslator<T>(entityClass);
+	}
+
+	public ApproximateCounter(Class<T> entityClass, BuilderTools tools) {
+		this.translator = new JpaQueryTranslator<T>(entityClass, tools);
+	}
+
+	/**
+	 * Count the entities matching a filter.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entityManager  JPA EntityManager.
+	 * @return               The exact count up to the threshold, an estimate or the threshold as lower bound otherwise.
+	 */
+	public CountResult count(Node node, EntityManager entityManager) {
+		if (estimator != null) {
+			Long estimate = estimator.estimate(node, translator.getEntityClass(), entityManager);
+			if (estimate != null && estimate > threshold) {
+				LOG.log(Level.INFO, "Estimated {0} entities for {1}", new Object[] {estimate, node});
+				return new CountResult(estimate, Accuracy.ESTIMATE);
+			}
+		}
+		long read = countUpTo(node, entityManager, threshold + 1);
+		if (read > threshold) {
+			return new CountResult(threshold, Accuracy.LOWER_BOUND);
+		}
+		return new CountResult(read, Accuracy.EXACT);
+	}
+
+	private long countUpTo(Node node, EntityManager entityManager, int limit) {
+		if (nativeTranslator != null) {
+			NativeSqlQuery query = null;
+			try {
+				query = nativeTranslator.toCappedCountQuery(node, limit);
+			} catch (IllegalArgumentException e) {
+				LOG.log(Level.INFO, "Counting {0} with the Criteria query: {1}", new Object[] {node, e.getMessage()});
+			}
+			if (query != null) {
+				return ((Number) query.createQuery(entityManager).getSingleResult()).longValue();
+			}
+		}
+		return entityManager.createQuery(translator.toIdQuery(node, entityManager))
+				.setMaxResults(limit).getResultList().size();
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Set the count up to which results are exact.
+	 *
+	 * @param threshold Threshold, at most <tt>Integer.MAX_VALUE - 1</tt>.
+	 */
+	public void setThreshold(int threshold) {
+		if (threshold < 0 || threshold == Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid threshold: " + threshold);
+		}
+		this.threshold = threshold;
+	}
+
+	public CountEstimator getEstimator() {
+		return estimator;
+	}
+
+	/**
+	 * Set the dialect hook for row estimates.
+	 *
+	 * @param estimator Estimator, <tt>null</tt> to count up to the threshold only.
+	 */
+	public void setEstimator(CountEstimator estimator) {
+		this.estimator = estimator;
+	}
+
+	public NativeSqlTranslator getNativeTranslator() {
+		return nativeTranslator;
+	}
+
+	/**
+	 * Set the translator of the capped native counts.
+	 *
+	 * @param nativeTranslator Translator of the counted entity, <tt>null</tt> to read the ids of Criteria queries.
+	 */
+	public void setNativeTranslator(NativeSqlTranslator nativeTranslator) {
+		if (nativeTranslator != null && nativeTranslator.getMapping().getEntityClass() != translator.getEntityClass()) {
+			throw new IllegalArgumentException("Native translator maps " + nativeTranslator.getMapping().getEntityClass().getName()
+					+ ", not " + translator.getEntityClass().getName());
+		}
+		this.nativeTranslator = nativeTranslator;
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import jakarta.persistence.EntityManager;
+
+/**
+ * CountEstimator
+ *
+ * Dialect hook of {@link ApproximateCounter} for cheap row estimates, e.g. from the query
+ * planner (<tt>EXPLAIN</tt>) or from a sample of the table.
+ *
+ * @since 2026-10-19
+ */
+public interface CountEstimator {
+
+	/**
+	 * Estimate the number of entities matching a filter.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entityClass    The main entity of the query.
+	 * @param entityManager  JPA EntityManager.
+	 * @return               The estimate, <tt>null</tt> if none is available.
+	 */
+	Long estimate(Node node, Class<?> entityClass, EntityManager entityManager);
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+/**
+ * Result of a count that may be approximate, see {@link ApproximateCounter}.
+ *
+ * @since 2026-10-19
+ */
+public final class CountResult {
+
+	/**
+	 * How the count relates to the real number of entities.
+	 */
+	public enum Accuracy {
+		/** The real number. */
+		EXACT,
+		/** The real number is greater: counting stopped at this threshold. */
+		LOWER_BOUND,
+		/** An estimate of the database, the real number may be lower or greater. */
+		ESTIMATE
+	}
+
+	private final long count;
+
+	private final Accuracy accuracy;
+
+	public CountResult(long count, Accuracy accuracy) {
+		if (accuracy == null) {
+			throw new IllegalArgumentException("Accuracy was undefined.");
+		}
+		this.count = count;
+		this.accuracy = accuracy;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public Accuracy getAccuracy() {
+		return accuracy;
+	}
+
+	public boolean isExact() {
+		return accuracy == Accuracy.EXACT;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof CountResult)) return false;
+		CountResult other = (CountResult) obj;
+		return count == other.count && accuracy == other.accuracy;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(count) + accuracy.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		switch (accuracy) {
+			case LOWER_BOUND : return "more than " + count;
+			case ESTIMATE : return "about " + count;
+			default : return String.valueOf(count);
+		}
+	}
+}
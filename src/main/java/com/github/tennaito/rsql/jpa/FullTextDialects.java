@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * FullTextDialects
+ *
+ * Immutable registry of {@link FullTextDialect}s by database name, the name found in the
+ * JDBC url (<tt>jdbc:h2:...</tt>, <tt>jdbc:postgresql:...</tt>). Databases without a
+ * dialect fall back to {@link #LIKE}. More dialects are added with {@link #with}.
+ *
+ * @since 2026-10-19
+ */
+public final class FullTextDialects {
+
+	/**
+	 * Every term as a case-insensitive substring: <tt>lower(col) like '%term%' and ...</tt>.
+	 */
+	public static final FullTextDialect LIKE = new FullTextDialect() {
+		@Override
+		public Predicate createPredicate(Expression<String> path, List<String> terms, CriteriaBuilder builder) {
+			Expression<String> lower = builder.lower(path);
+			Predicate[] predicates = new Predicate[terms.size()];
+			for (int i = 0; i < predicates.length; i++) {
+				predicates[i] = builder.like(lower, "%" + escapeLike(terms.get(i).toLowerCase(Locale.ROOT)) + "%", '\\');
+			}
+			return builder.and(predicates);
+		}
+	};
+
+	/**
+	 * H2, for local tests: every term as a case-insensitive word prefix with <tt>REGEXP_LIKE</tt>.
+	 */
+	public static final FullTextDialect H2 = new FullTextDialect() {
+		@Override
+		public Predicate createPredicate(Expression<String> path, List<String> terms, CriteriaBuilder builder) {
+			Predicate[] predicates = new Predicate[terms.size()];
+			for (int i = 0; i < predicates.length; i++) {
+				String regex = "\\b" + Pattern.quote(terms.get(i));
+				predicates[i] = builder.isTrue(builder.function("REGEXP_LIKE", Boolean.class, path, builder.literal(regex), builder.literal("i")));
+			}
+			return builder.and(predicates);
+		}
+	};
+
+	/**
+	 * PostgreSQL with the <tt>english</tt> configuration, see {@link #postgresql(String)}.
+	 */
+	public static final FullTextDialect POSTGRESQL = postgresql("english");
+
+	/**
+	 * Registry with the LIKE, H2 and PostgreSQL dialects.
+	 */
+	public static final FullTextDialects DEFAULT;
+
+	static {
+		Map<String, FullTextDialect> dialects = new HashMap<String, FullTextDialect>();
+		dialects.put("h2", H2);
+		dialects.put("postgresql", POSTGRESQL);
+		DEFAULT = new FullTextDialects(dialects);
+	}
+
+	private final Map<String, FullTextDialect> dialects;
+
+	private FullTextDialects(Map<String, FullTextDialect> dialects) {
+		this.dialects = Collections.unmodifiableMap(dialects);
+	}
+
+	/**
+	 * PostgreSQL text search, <tt>to_tsvector(config, col) @@ plainto_tsquery(config, 'terms')</tt>,
+	 * served by a GIN index on <tt>to_tsvector(config, col)</tt>. The operator is rendered by
+	 * the function of {@link FullTextFunctionContributor}, so this dialect needs Hibernate.
+	 *
+	 * @param config Text search configuration of the index.
+	 * @return       The dialect.
+	 */
+	public static FullTextDialect postgresql(String config) {
+		return postgresql(config, FullTextFunctionContributor.TS_MATCH);
+	}
+
+	/**
+	 * PostgreSQL text search through a function matching a <tt>tsvector</tt> with a <tt>tsquery</tt>.
+	 * Other providers may pass <tt>ts_match_vq</tt>, the function behind <tt>@@</tt>, which
+	 * gives the same matches but is not served by a GIN index.
+	 *
+	 * @param config         Text search configuration of the index.
+	 * @param matchFunction  Function name, rendered as <tt>function(document, query)</tt>.
+	 * @return               The dialect.
+	 */
+	public static FullTextDialect postgresql(final String config, final String matchFunction) {
+		return new FullTextDialect() {
+			@Override
+			public Predicate createPredicate(Expression<String> path, List<String> terms, CriteriaBuilder builder) {
+				Expression<Object> document = builder.function("to_tsvector", Object.class, builder.literal(config), path);
+				Expression<Object> query = builder.function("plainto_tsquery", Object.class, builder.literal(config), builder.literal(String.join(" ", terms)));
+				return builder.isTrue(builder.function(matchFunction, Boolean.class, document, query));
+			}
+		};
+	}
+
+	/**
+	 * Get the dialect of a database.
+	 *
+	 * @param database Name of the database in the JDBC url.
+	 * @return         The dialect, {@link #LIKE} if none is registered.
+	 */
+	public FullTextDialect get(String database) {
+		FullTextDialect dialect = database == null ? null : dialects.get(database.toLowerCase(Locale.ROOT));
+		return dialect == null ? LIKE : dialect;
+	}
+
+	/**
+	 * Get the dialect of the database of a persistence unit, from its JDBC url.
+	 *
+	 * @param factory EntityManagerFactory.
+	 * @return        The dialect, {@link #LIKE} if none is registered.
+	 */
+	public FullTextDialect resolve(EntityManagerFactory factory) {
+		Map<String, Object> properties = factory.getProperties();
+		Object url = properties.get("jakarta.persistence.jdbc.url");
+		if (url == null) url = properties.get("hibernate.connection.url");
+		if (url == null) url = properties.get("javax.persistence.jdbc.url");
+		if (url instanceof String && ((String) url).startsWith("jdbc:")) {
+			String rest = ((String) url).substring("jdbc:".length());
+			int end = rest.indexOf(':');
+			return get(end < 0 ? rest : rest.substring(0, end));
+		}
+		return LIKE;
+	}
+
+	/**
+	 * Create a registry with one more dialect.
+	 *
+	 * @param database  Name of the database in the JDBC url.
+	 * @param dialect   Its dialect.
+	 * @return          A new registry, this one is left unchanged.
+	 */
+	public FullTextDialects with(String database, FullTextDialect dialect) {
+		if (database == null || dialect == null) {
+			throw new IllegalArgumentException("Database and dialect must be defined.");
+		}
+		Map<String, FullTextDialect> copy = new HashMap<String, FullTextDialect>(dialects);
+		copy.put(database.toLowerCase(Locale.ROOT), dialect);
+		return new FullTextDialects(copy);
+	}
+
+	private static String escapeLike(String term) {
+		return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
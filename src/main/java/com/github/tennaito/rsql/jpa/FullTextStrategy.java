@@ -0,0 +1,180 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.memory.MatcherStrategy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * FullTextStrategy
+ *
+ * Strategy of the <tt>=fts=</tt> operator, registered in {@link OperatorRegistry#DEFAULT}.
+ * The argument is split on whitespace into terms that must all match; the SQL comes from
+ * the {@link FullTextDialect} of the database, so the search is served by its inverted
+ * index when it has one.
+ *
+ * <p>In memory, as a {@link MatcherStrategy}, every term must be a case-insensitive substring
+ * of the value, the semantics of {@link FullTextDialects#LIKE}. Database dialects with word
+ * boundaries or stemming match differently, so a result cached by its in-memory match is only
+ * as precise as that approximation.</p>
+ *
+ * <pre>
+ * Node rootNode = new RSQLParser(OperatorRegistry.DEFAULT.getOperators()).parse("name=fts='web services'");
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public final class FullTextStrategy implements PredicateBuilderStrategy, MatcherStrategy {
+
+	private static final Logger LOG = Logger.getLogger(FullTextStrategy.class.getName());
+
+	public static final ComparisonOperator FTS = new ComparisonOperator("=fts=");
+
+	/**
+	 * Strategy resolving the dialect from the JDBC url with {@link FullTextDialects#DEFAULT}.
+	 */
+	public static final FullTextStrategy DEFAULT = new FullTextStrategy(FullTextDialects.DEFAULT);
+
+	private final FullTextDialects dialects;
+
+	private final FullTextDialect dialect;
+
+	/**
+	 * Dialects by persistence unit, weakly keyed so a closed factory is not kept alive by {@link #DEFAULT}.
+	 */
+	private final Map<EntityManagerFactory, FullTextDialect> resolved = Collections.synchronizedMap(new WeakHashMap<EntityManagerFactory, FullTextDialect>());
+
+	/**
+	 * Create a strategy resolving the dialect of each persistence unit from its JDBC url.
+	 *
+	 * @param dialects Registry of dialects.
+	 */
+	public FullTextStrategy(FullTextDialects dialects) {
+		this.dialects = dialects;
+		this.dialect = null;
+	}
+
+	/**
+	 * Create a strategy with a fixed dialect.
+	 *
+	 * @param dialect Dialect of the database.
+	 */
+	public FullTextStrategy(FullTextDialect dialect) {
+		this.dialects = null;
+		this.dialect = dialect;
+	}
+
+	/**
+	 * Split a search into terms.
+	 *
+	 * @param argument Search.
+	 * @return         Terms, empty if the search is blank.
+	 */
+	public static List<String> terms(String argument) {
+		List<String> terms = new ArrayList<String>();
+		for (String term : argument.trim().split("\\s+")) {
+			if (!term.isEmpty()) terms.add(term);
+		}
+		return terms;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> Predicate createPredicate(Node node, From root, Class<T> entity, EntityManager manager, BuilderTools tools) {
+		if (!(node instanceof ComparisonNode)) {
+			throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+		}
+		ComparisonNode comparison = (ComparisonNode) node;
+		if (!FTS.equals(comparison.getOperator())) {
+			throw new IllegalArgumentException("Unknown operator: " + comparison.getOperator());
+		}
+		Expression<?> path = PredicateBuilder.findPropertyPath(comparison.getSelector(), root, manager, tools);
+		if (!String.class.equals(path.getJavaType())) {
+			throw new IllegalArgumentException("Property " + comparison.getSelector() + " is not a String.");
+		}
+		List<String> terms = terms(comparison.getArguments().get(0));
+		if (terms.isEmpty()) {
+			throw new IllegalArgumentException("Full-text search of " + comparison.getSelector() + " has no terms.");
+		}
+		FullTextDialect current = getDialect(manager.getEntityManagerFactory());
+		LOG.log(Level.INFO, "Full-text search of {0} with {1}", new Object[] {terms, current});
+		return current.createPredicate((Expression<String>) path, terms, manager.getCriteriaBuilder());
+	}
+
+	@Override
+	public java.util.function.Predicate<Object> createMatcher(ComparisonNode comparison) {
+		if (!FTS.equals(comparison.getOperator())) {
+			throw new IllegalArgumentException("Unknown operator: " + comparison.getOperator());
+		}
+		final List<String> terms = new ArrayList<String>();
+		for (String term : terms(comparison.getArguments().get(0))) {
+			terms.add(term.toLowerCase(Locale.ROOT));
+		}
+		if (terms.isEmpty()) {
+			throw new IllegalArgumentException("Full-text search of " + comparison.getSelector() + " has no terms.");
+		}
+		return v -> {
+			if (v == null) return false;
+			String text = v.toString().toLowerCase(Locale.ROOT);
+			for (String term : terms) {
+				if (!text.contains(term)) return false;
+			}
+			return true;
+		};
+	}
+
+	/**
+	 * Get the dialect of a persistence unit.
+	 *
+	 * @param factory EntityManagerFactory.
+	 * @return        The dialect.
+	 */
+	public FullTextDialect getDialect(EntityManagerFactory factory) {
+		if (dialect != null) return dialect;
+		FullTextDialect current = resolved.get(factory);
+		if (current == null) {
+			current = dialects.resolve(factory);
+			resolved.put(factory, current);
+		}
+		return current;
+	}
+}
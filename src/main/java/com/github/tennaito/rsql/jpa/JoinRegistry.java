@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+
+/**
+ * JoinRegistry
+ *
+ * Joins created while translating one RSQL filter into one query. Joins of single valued
+ * associations are shared by every comparison navigating through them, so
+ * <tt>department.code==X;department.name==Y</tt> joins the department once. Joins of
+ * collections are never shared: each comparison keeps matching any element on its own.
+ *
+ * Belongs to a single translation and is not thread-safe.
+ *
+ * @since 2026-10-19
+ */
+public final class JoinRegistry {
+
+	private final Map<From<?, ?>, Map<String, Join<?, ?>>> joins = new IdentityHashMap<From<?, ?>, Map<String, Join<?, ?>>>();
+
+	/**
+	 * Get the join of an association, creating it when it cannot be shared.
+	 *
+	 * @param parent     From node owning the association.
+	 * @param attribute  Association name.
+	 * @param reusable   <tt>true</tt> for single valued associations.
+	 * @return           The join.
+	 */
+	public Join<?, ?> join(From<?, ?> parent, String attribute, boolean reusable) {
+		if (!reusable) {
+			return parent.join(attribute);
+		}
+		Map<String, Join<?, ?>> byAttribute = joins.get(parent);
+		if (byAttribute == null) {
+			byAttribute = new HashMap<String, Join<?, ?>>();
+			joins.put(parent, byAttribute);
+		}
+		Join<?, ?> join = byAttribute.get(attribute);
+		if (join == null) {
+			join = parent.join(attribute);
+			byAttribute.put(attribute, join);
+		}
+		return join;
+	}
+
+	/**
+	 * Number of shared joins.
+	 *
+	 * @return Shared joins created so far.
+	 */
+	public int size() {
+		int size = 0;
+		for (Map<String, Join<?, ?>> byAttribute : joins.values()) {
+			size += byAttribute.size();
+		}
+		return size;
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import cz.jirutka.rsql.parser.ast.RSQLVisitor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * JpaAggregationQueryVisitor
+ *
+ * Visitor class for grouped aggregation queries from RSQL AST Nodes. The filter becomes the
+ * where clause, the group-by selectors and aggregates are resolved with the same path
+ * resolution (and joins) as the filter, so the database computes the groups and only the
+ * groups are transferred. Each tuple element is aliased: group-by values by their selector,
+ * aggregates by their given alias. Groups are ordered by the group-by selectors.
+ *
+ * {@link Function#COUNT} without a selector counts the distinct entities of a group. Other
+ * aggregates run over the joined rows, so a filter on a collection may repeat the values
+ * summed or averaged.
+ *
+ * <pre>
+ * JpaAggregationQueryVisitor&lt;Course&gt; visitor = new JpaAggregationQueryVisitor&lt;Course&gt;();
+ * visitor.groupBy("department.name").count("courses").aggregate(Function.SUM, "credits", "credits");
+ * for (Tuple group : entityManager.createQuery(rootNode.accept(visitor, entityManager)).getResultList()) {
+ *     group.get("department.name"); group.get("courses", Long.class);
+ * }
+ * </pre>
+ *
+ * @param <T> Entity type
+ * @since 2026-10-19
+ */
+public class JpaAggregationQueryVisitor<T> extends AbstractJpaVisitor<CriteriaQuery<Tuple>, T> implements RSQLVisitor<CriteriaQuery<Tuple>, EntityManager> {
+
+	private static final Logger LOG = Logger.getLogger(JpaAggregationQueryVisitor.class.getName());
+
+	/**
+	 * Aggregate functions.
+	 */
+	public enum Function {
+		COUNT, SUM, MIN, MAX, AVG
+	}
+
+	private final List<String> groupBy = new ArrayList<String>();
+
+	private final List<Aggregate> aggregates = new ArrayList<Aggregate>();
+
+	private Root<T> root;
+
+	/**
+	 * Construtor with template varargs for entityClass discovery.
+	 *
+	 * @param t not for usage
+	 */
+	@SafeVarargs
+	public JpaAggregationQueryVisitor(T... t) {
+		super(t);
+	}
+
+	/**
+	 * Add group-by selectors.
+	 *
+	 * @param selectors RSQL selectors, also the aliases of their values.
+	 * @return          This visitor.
+	 */
+	public JpaAggregationQueryVisitor<T> groupBy(String... selectors) {
+		Collections.addAll(groupBy, selectors);
+		return this;
+	}
+
+	/**
+	 * Count the distinct entities of each group.
+	 *
+	 * @param alias Alias of the count.
+	 * @return      This visitor.
+	 */
+	public JpaAggregationQueryVisitor<T> count(String alias) {
+		return aggregate(Function.COUNT, null, alias);
+	}
+
+	/**
+	 * Add an aggregate.
+	 *
+	 * @param function  Aggregate function.
+	 * @param selector  RSQL selector of the aggregated property, <tt>null</tt> only for COUNT.
+	 * @param alias     Alias of the aggregate.
+	 * @return          This visitor.
+	 */
+	public JpaAggregationQueryVisitor<T> aggregate(Function function, String selector, String alias) {
+		if (selector == null && function != Function.COUNT) {
+			throw new IllegalArgumentException("Aggregate " + function + " needs a selector.");
+		}
+		aggregates.add(new Aggregate(function, selector, alias));
+		return this;
+	}
+
+	public List<String> getGroupBy() {
+		return Collections.unmodifiableList(groupBy);
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.AndNode, java.lang.Object)
+	 */
+	@Override
+	public CriteriaQuery<Tuple> visit(AndNode node, EntityManager entityManager) {
+		LOG.log(Level.INFO, "Creating aggregation CriteriaQuery for AndNode: {0}", node);
+		return createQuery(node, entityManager);
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.OrNode, java.lang.Object)
+	 */
+	@Override
+	public CriteriaQuery<Tuple> visit(OrNode node, EntityManager entityManager) {
+		LOG.log(Level.INFO, "Creating aggregation CriteriaQuery for OrNode: {0}", node);
+		return createQuery(node, entityManager);
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.ComparisonNode, java.lang.Object)
+	 */
+	@Override
+	public CriteriaQuery<Tuple> visit(ComparisonNode node, EntityManager entityManager) {
+		LOG.log(Level.INFO, "Creating aggregation CriteriaQuery for ComparisonNode: {0}", node);
+		return createQuery(node, entityManager);
+	}
+
+	private CriteriaQuery<Tuple> createQuery(Node node, EntityManager entityManager) {
+		if (groupBy.isEmpty() && aggregates.isEmpty()) {
+			throw new IllegalArgumentException("No group-by selectors or aggregates defined.");
+		}
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+		root = cq.from(entityClass);
+		JoinRegistry joins = new JoinRegistry();
+		cq.where(PredicateBuilder.createPredicate(node, root, entityClass, entityManager, getBuilderTools(), joins));
+
+		List<Selection<?>> selections = new ArrayList<Selection<?>>();
+		List<Expression<?>> groups = new ArrayList<Expression<?>>();
+		List<Order> orders = new ArrayList<Order>();
+		for (String selector : groupBy) {
+			Path<?> path = PredicateBuilder.findPropertyPath(selector, root, entityManager, getBuilderTools(), joins);
+			groups.add(path);
+			orders.add(cb.asc(path));
+			selections.add(path.alias(selector));
+		}
+		for (Aggregate aggregate : aggregates) {
+			Path<?> path = aggregate.selector == null ? null
+					: PredicateBuilder.findPropertyPath(aggregate.selector, root, entityManager, getBuilderTools(), joins);
+			selections.add(aggregate.createExpression(path, cb).alias(aggregate.alias));
+		}
+		return cq.multiselect(selections).groupBy(groups).orderBy(orders);
+	}
+
+	public Root<T> getRoot() {
+		return root;
+	}
+
+	/**
+	 * An aggregate function over a selector.
+	 */
+	private final class Aggregate {
+		private final Function function;
+		private final String selector;
+		private final String alias;
+
+		private Aggregate(Function function, String selector, String alias) {
+			this.function = function;
+			this.selector = selector;
+			this.alias = alias;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Expression<?> createExpression(Path<?> path, CriteriaBuilder cb) {
+			switch (function) {
+				case COUNT : return path == null ? cb.countDistinct(root) : cb.count(path);
+				case SUM : return cb.sum(numeric(path));
+				case AVG : return cb.avg(numeric(path));
+				case MIN : return isNumeric(path) ? cb.min(numeric(path)) : cb.least((Expression) comparable(path));
+				case MAX : return isNumeric(path) ? cb.max(numeric(path)) : cb.greatest((Expression) comparable(path));
+				default : throw new IllegalArgumentException("Unknown aggregate: " + function);
+			}
+		}
+
+		private boolean isNumeric(Path<?> path) {
+			Class<?> type = path.getJavaType();
+			return Number.class.isAssignableFrom(type) || (type.isPrimitive() && type != boolean.class && type != char.class);
+		}
+
+		@SuppressWarnings("unchecked")
+		private Expression<Number> numeric(Path<?> path) {
+			if (!isNumeric(path)) {
+				throw new IllegalArgumentException("Property " + selector + " is not a Number.");
+			}
+			return (Expression<Number>) path;
+		}
+
+		private Path<?> comparable(Path<?> path) {
+			if (!Comparable.class.isAssignableFrom(path.getJavaType())) {
+				throw new IllegalArgumentException("Property " + selector + " is not Comparable.");
+			}
+			return path;
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.ImmutableBuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * JpaQueryTranslator
+ *
+ * Immutable translator of RSQL AST nodes into Criteria API queries for one entity class.
+ * Unlike the visitors it keeps no state between translations: the root, the joins and the
+ * EntityManager (hence the CriteriaBuilder) of a translation are passed on each call, and
+ * the builder tools are a snapshot taken on construction. One instance can be built once
+ * and shared by every request thread.
+ *
+ * <pre>
+ * JpaQueryTranslator&lt;Course&gt; translator = new JpaQueryTranslator&lt;Course&gt;(Course.class);
+ * ...
+ * List&lt;Course&gt; courses = entityManager.createQuery(translator.toQuery(rootNode, entityManager)).getResultList();
+ * </pre>
+ *
+ * @since 2026-10-19
+ *
+ * @param <T> Entity type
+ */
+public final class JpaQueryTranslator<T> {
+
+	private static final Logger LOG = Logger.getLogger(JpaQueryTranslator.class.getName());
+
+	private final Class<T> entityClass;
+
+	private final BuilderTools builderTools;
+
+	/**
+	 * Construct a translator with the default builder tools.
+	 *
+	 * @param entityClass Entity type.
+	 */
+	public JpaQueryTranslator(Class<T> entityClass) {
+		this(entityClass, new SimpleBuilderTools());
+	}
+
+	/**
+	 * Construct a translator.
+	 *
+	 * @param entityClass  Entity type.
+	 * @param tools        Builder tools, later changes to this facade do not affect the translator.
+	 */
+	public JpaQueryTranslator(Class<T> entityClass, BuilderTools tools) {
+		if (entityClass == null) {
+			throw new IllegalArgumentException("Entity class was undefined.");
+		}
+		this.entityClass = entityClass;
+		this.builderTools = ImmutableBuilderTools.of(tools);
+	}
+
+	public Class<T> getEntityClass() {
+		return entityClass;
+	}
+
+	public BuilderTools getBuilderTools() {
+		return builderTools;
+	}
+
+	/**
+	 * Create a predicate over a From node.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param root           From node that expressions path depends on.
+	 * @param entityManager  JPA EntityManager.
+	 * @return               The predicate.
+	 */
+	public Predicate toPredicate(Node node, From<?, ? extends T> root, EntityManager entityManager) {
+		return toPredicate(node, root, entityManager, new JoinRegistry());
+	}
+
+	/**
+	 * Create a predicate over a From node, sharing joins with other predicates of the same query.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param root           From node that expressions path depends on.
+	 * @param entityManager  JPA EntityManager.
+	 * @param joins          Joins of the query being built.
+	 * @return               The predicate.
+	 */
+	public Predicate toPredicate(Node node, From<?, ? extends T> root, EntityManager entityManager, JoinRegistry joins) {
+		LOG.log(Level.INFO, "Translating {0} for {1}", new Object[] {node, entityClass.getSimpleName()});
+		return PredicateBuilder.createPredicate(node, root, entityClass, entityManager, builderTools, joins);
+	}
+
+	/**
+	 * Create a query selecting the entities matching a filter.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entityManager  JPA EntityManager.
+	 * @return               The query.
+	 */
+	public CriteriaQuery<T> toQuery(Node node, EntityManager entityManager) {
+		CriteriaQuery<T> criteria = entityManager.getCriteriaBuilder().createQuery(entityClass);
+		Root<T> root = criteria.from(entityClass);
+		return criteria.select(root).where(toPredicate(node, root, entityManager));
+	}
+
+	/**
+	 * Create a query selecting the distinct ids of the entities matching a filter.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entityManager  JPA EntityManager.
+	 * @return               The id query.
+	 */
+	public CriteriaQuery<Object> toIdQuery(Node node, EntityManager entityManager) {
+		EntityType<T> type = entityManager.getMetamodel().entity(entityClass);
+		CriteriaQuery<Object> criteria = entityManager.getCriteriaBuilder().createQuery(Object.class);
+		Root<T> root = criteria.from(entityClass);
+		return criteria.select(root.get(type.getId(type.getIdType().getJavaType()).getName())).distinct(true)
+				.where(toPredicate(node, root, entityManager));
+	}
+
+	/**
+	 * Create a query counting the distinct entities matching a filter.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entityManager  JPA EntityManager.
+	 * @return               The count query.
+	 */
+	public CriteriaQuery<Long> toCountQuery(Node node, EntityManager entityManager) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> criteria = cb.createQuery(Long.class);
+		Root<T> root = criteria.from(entityClass);
+		return criteria.select(cb.countDistinct(root)).where(toPredicate(node, root, entityManager));
+	}
+}
@@ -0,0 +1,306 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+/**
+ * JpqlBuilder
+ *
+ * Renders RSQL AST nodes into canonical JPQL with named parameters, for frameworks that
+ * cache plans by query string. Filters of the same shape (selectors, operators, logical
+ * structure, wildcards and nulls) render to identical JPQL whatever their values:
+ * parameters are named <tt>p1, p2, ...</tt> in order of appearance, multi-value arguments
+ * are bound as one collection parameter, and joins are sorted by path before their aliases
+ * <tt>j1, j2, ...</tt> are assigned.
+ *
+ * Joins follow {@link JpaQueryTranslator}: single valued associations are joined once per
+ * query, collections once per comparison. Comparisons follow {@link PredicateBuilder}; only
+ * the built-in operators are rendered.
+ *
+ * @since 2026-10-19
+ */
+public final class JpqlBuilder {
+
+	private static final Logger LOG = Logger.getLogger(JpqlBuilder.class.getName());
+
+	public static final String ROOT_ALIAS = "e";
+
+	private JpqlBuilder() {
+	}
+
+	/**
+	 * Render a filter.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entity         The main entity of the query.
+	 * @param entityManager  JPA EntityManager.
+	 * @param misc           Facade with all necessary tools for rendering.
+	 * @return               The JPQL query.
+	 */
+	public static <T> JpqlQuery render(Node node, Class<T> entity, EntityManager entityManager, BuilderTools misc) {
+		Rendering rendering = new Rendering(entityManager.getMetamodel(), misc);
+		rendering.collect(node, entityManager.getMetamodel().managedType(entity));
+		rendering.assignAliases();
+
+		StringBuilder where = new StringBuilder();
+		rendering.render(node, where);
+		StringBuilder body = new StringBuilder(" from ").append(entityManager.getMetamodel().entity(entity).getName())
+				.append(' ').append(ROOT_ALIAS);
+		for (Join join : rendering.joins) {
+			body.append(" join ").append(join.parent == null ? ROOT_ALIAS : join.parent.alias).append('.').append(join.property)
+					.append(' ').append(join.alias);
+		}
+		body.append(" where ").append(where);
+		JpqlQuery query = new JpqlQuery(ROOT_ALIAS, body.toString(), rendering.parameters);
+		LOG.log(Level.INFO, "Rendered {0} to {1}", new Object[] {node, query});
+		return query;
+	}
+
+	/**
+	 * State of one rendering.
+	 */
+	private static final class Rendering {
+		private final Metamodel metamodel;
+		private final BuilderTools misc;
+		private final Map<String, Join> sharedJoins = new HashMap<String, Join>();
+		private final List<Join> joins = new ArrayList<Join>();
+		private final Map<ComparisonNode, Operand> operands = new IdentityHashMap<ComparisonNode, Operand>();
+		private final Map<String, Object> parameters = new LinkedHashMap<String, Object>();
+
+		private Rendering(Metamodel metamodel, BuilderTools misc) {
+			this.metamodel = metamodel;
+			this.misc = misc;
+		}
+
+		private void collect(Node node, ManagedType<?> root) {
+			if (node instanceof LogicalNode) {
+				for (Node child : ((LogicalNode) node).getChildren()) {
+					collect(child, root);
+				}
+			} else if (node instanceof ComparisonNode) {
+				ComparisonNode comparison = (ComparisonNode) node;
+				operands.put(comparison, resolve(comparison.getSelector(), root));
+			} else {
+				throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+			}
+		}
+
+		private Operand resolve(String selector, ManagedType<?> root) {
+			Deque<String> segments = new ArrayDeque<String>();
+			for (String segment : selector.split("\\.")) {
+				segments.addLast(segment);
+			}
+			ManagedType<?> classMetadata = root;
+			Join join = null;
+			String suffix = "";
+			Class<?> type = null;
+			while (!segments.isEmpty()) {
+				String property = segments.removeFirst();
+				if (type != null) {
+					throw new IllegalArgumentException("Unknown property: " + property + " from a basic attribute");
+				}
+				String mappedProperty = misc.getPropertiesMapper().translate(property, classMetadata.getJavaType());
+				if (!mappedProperty.equals(property)) {
+					String[] mapped = mappedProperty.split("\\.");
+					for (int i = mapped.length - 1; i >= 0; i--) {
+						segments.addFirst(mapped[i]);
+					}
+					continue;
+				}
+				Attribute<?, ?> attribute = findAttribute(property, classMetadata);
+				if (attribute.isAssociation()) {
+					join = join(join, suffix.isEmpty() ? property : suffix.substring(1) + "." + property, attribute.isCollection());
+					suffix = "";
+					Class<?> associationType = attribute.isCollection()
+							? ((PluralAttribute<?, ?, ?>) attribute).getBindableJavaType() : attribute.getJavaType();
+					classMetadata = metamodel.managedType(associationType);
+				} else if (attribute.getPersistentAttributeType() == PersistentAttributeType.EMBEDDED) {
+					suffix = suffix + "." + property;
+					classMetadata = metamodel.managedType(attribute.getJavaType());
+				} else {
+					suffix = suffix + "." + property;
+					type = attribute.getJavaType();
+				}
+			}
+			if (type == null) {
+				throw new IllegalArgumentException("Property " + selector + " is not a basic property.");
+			}
+			return new Operand(join, suffix, type);
+		}
+
+		private Join join(Join parent, String property, boolean collection) {
+			String key = (parent == null ? "" : parent.key) + "." + property;
+			if (collection) {
+				// collections are joined per comparison, like JpaQueryTranslator
+				Join join = new Join(parent, property, key + "#" + joins.size());
+				joins.add(join);
+				return join;
+			}
+			Join join = sharedJoins.get(key);
+			if (join == null) {
+				join = new Join(parent, property, key);
+				sharedJoins.put(key, join);
+				joins.add(join);
+			}
+			return join;
+		}
+
+		private void assignAliases() {
+			// a parent key is a prefix of the keys of its children, so parents come first
+			Collections.sort(joins, (a, b) -> a.key.compareTo(b.key));
+			for (int i = 0; i < joins.size(); i++) {
+				joins.get(i).alias = "j" + (i + 1);
+			}
+		}
+
+		private void render(Node node, StringBuilder jpql) {
+			if (node instanceof LogicalNode) {
+				LogicalNode logical = (LogicalNode) node;
+				String operator = logical.getOperator() == LogicalOperator.AND ? " and " : " or ";
+				jpql.append('(');
+				boolean first = true;
+				for (Node child : logical.getChildren()) {
+					if (!first) jpql.append(operator);
+					render(child, jpql);
+					first = false;
+				}
+				jpql.append(')');
+			} else {
+				render((ComparisonNode) node, jpql);
+			}
+		}
+
+		private void render(ComparisonNode comparison, StringBuilder jpql) {
+			ComparisonOperatorProxy operator = ComparisonOperatorProxy.asEnum(comparison.getOperator());
+			if (operator == null) {
+				throw new IllegalArgumentException("Operator " + comparison.getOperator() + " is not supported by JPQL rendering.");
+			}
+			Operand operand = operands.get(comparison);
+			List<?> arguments = misc.getArgumentParser().parse(comparison.getArguments(), operand.type);
+			Object argument = arguments.get(0);
+			boolean like = argument instanceof String && ((String) argument).indexOf(PredicateBuilder.LIKE_WILDCARD) >= 0;
+			Object value = like ? ((String) argument).replace(PredicateBuilder.LIKE_WILDCARD, '%') : argument;
+			jpql.append(operand.join == null ? ROOT_ALIAS : operand.join.alias).append(operand.suffix);
+			switch (operator) {
+				case EQUAL :
+					if (argument == null) jpql.append(" is null");
+					else jpql.append(like ? " like " : " = ").append(parameter(value));
+					break;
+				case NOT_EQUAL :
+					if (argument == null) jpql.append(" is not null");
+					else jpql.append(like ? " not like " : " <> ").append(parameter(value));
+					break;
+				case GREATER_THAN :
+					// date bounds are inclusive in PredicateBuilder
+					jpql.append(argument instanceof Date ? " >= " : " > ").append(parameter(argument));
+					break;
+				case GREATER_THAN_OR_EQUAL :
+					jpql.append(" >= ").append(parameter(argument));
+					break;
+				case LESS_THAN :
+					jpql.append(argument instanceof Date ? " <= " : " < ").append(parameter(argument));
+					break;
+				case LESS_THAN_OR_EQUAL :
+					jpql.append(" <= ").append(parameter(argument));
+					break;
+				case IN :
+					jpql.append(" in ").append(parameter(new ArrayList<Object>(arguments)));
+					break;
+				case NOT_IN :
+					jpql.append(" not in ").append(parameter(new ArrayList<Object>(arguments)));
+					break;
+			}
+		}
+
+		private String parameter(Object value) {
+			String name = "p" + (parameters.size() + 1);
+			parameters.put(name, value);
+			return ":" + name;
+		}
+
+		private static Attribute<?, ?> findAttribute(String property, ManagedType<?> classMetadata) {
+			for (Attribute<?, ?> attribute : classMetadata.getAttributes()) {
+				if (attribute.getName().equals(property)) return attribute;
+			}
+			throw new IllegalArgumentException("Unknown property: " + property + " from entity " + classMetadata.getJavaType().getName());
+		}
+	}
+
+	/**
+	 * A join, identified by the path from the root.
+	 */
+	private static final class Join {
+		private final Join parent;
+		private final String property;
+		private final String key;
+		private String alias;
+
+		private Join(Join parent, String property, String key) {
+			this.parent = parent;
+			this.property = property;
+			this.key = key;
+		}
+	}
+
+	/**
+	 * Path of a compared property: the join it starts from and the rest of the path.
+	 */
+	private static final class Operand {
+		private final Join join;
+		private final String suffix;
+		private final Class<?> type;
+
+		private Operand(Join join, String suffix, Class<?> type) {
+			this.join = join;
+			this.suffix = suffix;
+			this.type = type;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * JPQL query rendered from an RSQL filter, with the values of its named parameters.
+ *
+ * @since 2026-10-19
+ */
+public final class JpqlQuery {
+
+	private final String selectClause;
+
+	private final String body;
+
+	private final Map<String, Object> parameters;
+
+	JpqlQuery(String selectClause, String body, Map<String, Object> parameters) {
+		this.selectClause = selectClause;
+		this.body = body;
+		this.parameters = Collections.unmodifiableMap(new LinkedHashMap<String, Object>(parameters));
+	}
+
+	/**
+	 * Query of the entities, <tt>select distinct e from Entity e ... where ...</tt>. Distinct
+	 * because a comparison through a collection joins a row per element.
+	 */
+	public String getJpql() {
+		return "select distinct " + selectClause + body;
+	}
+
+	/**
+	 * Count of the distinct entities, <tt>select count(distinct e) from Entity e ... where ...</tt>,
+	 * like {@link JpaCriteriaCountQueryVisitor}.
+	 */
+	public String getCountJpql() {
+		return "select count(distinct " + selectClause + ")" + body;
+	}
+
+	/**
+	 * Values of the named parameters, by name in order of appearance.
+	 */
+	public Map<String, Object> getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Create the query of the entities with the parameters bound.
+	 *
+	 * @param entityManager  JPA EntityManager.
+	 * @param entityClass    The main entity of the query.
+	 * @return               The query.
+	 */
+	public <T> TypedQuery<T> createQuery(EntityManager entityManager, Class<T> entityClass) {
+		return bind(entityManager.createQuery(getJpql(), entityClass));
+	}
+
+	/**
+	 * Create the count query with the parameters bound.
+	 *
+	 * @param entityManager JPA EntityManager.
+	 * @return              The query.
+	 */
+	public TypedQuery<Long> createCountQuery(EntityManager entityManager) {
+		return bind(entityManager.createQuery(getCountJpql(), Long.class));
+	}
+
+	private <R> TypedQuery<R> bind(TypedQuery<R> query) {
+		for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+			query.setParameter(parameter.getKey(), parameter.getValue());
+		}
+		return query;
+	}
+
+	@Override
+	public String toString() {
+		return getJpql() + " " + parameters;
+	}
+}
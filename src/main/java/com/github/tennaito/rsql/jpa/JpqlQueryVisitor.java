@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import cz.jirutka.rsql.parser.ast.RSQLVisitor;
+import jakarta.persistence.EntityManager;
+
+/**
+ * JpqlQueryVisitor
+ *
+ * Visitor class for canonical JPQL creation from RSQL AST Nodes, see {@link JpqlBuilder}.
+ *
+ * @param <T> Entity type
+ * @since 2026-10-19
+ */
+public class JpqlQueryVisitor<T> extends AbstractJpaVisitor<JpqlQuery, T> implements RSQLVisitor<JpqlQuery, EntityManager> {
+
+	private static final Logger LOG = Logger.getLogger(JpqlQueryVisitor.class.getName());
+
+	/**
+	 * Construtor with template varargs for entityClass discovery.
+	 *
+	 * @param t not for usage
+	 */
+	public JpqlQueryVisitor(T... t) {
+		super(t);
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.AndNode, java.lang.Object)
+	 */
+	@Override
+	public JpqlQuery visit(AndNode node, EntityManager entityManager) {
+		LOG.log(Level.INFO, "Creating JPQL for AndNode: {0}", node);
+		return JpqlBuilder.render(node, entityClass, entityManager, getBuilderTools());
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.OrNode, java.lang.Object)
+	 */
+	@Override
+	public JpqlQuery visit(OrNode node, EntityManager entityManager) {
+		LOG.log(Level.INFO, "Creating JPQL for OrNode: {0}", node);
+		return JpqlBuilder.render(node, entityClass, entityManager, getBuilderTools());
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.ComparisonNode, java.lang.Object)
+	 */
+	@Override
+	public JpqlQuery visit(ComparisonNode node, EntityManager entityManager) {
+		LOG.log(Level.INFO, "Creating JPQL for ComparisonNode: {0}", node);
+		return JpqlBuilder.render(node, entityClass, entityManager, getBuilderTools());
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+
+/**
+ * OperatorRegistry
+ *
+ * Immutable map from comparison operator to the strategy creating its predicates, so
+ * PredicateBuilder dispatches a comparison with a single lock-free lookup. The
+ * {@link #DEFAULT} registry holds the built-in operators, including the text operators of
+ * {@link TextMatchStrategy} and {@link FullTextStrategy}; custom operators (or overrides of
+ * built-in ones) are added on startup with {@link #with}, which returns a new registry.
+ *
+ * <pre>
+ * OperatorRegistry registry = OperatorRegistry.DEFAULT.with(new ComparisonOperator("=def="), defStrategy);
+ * builderTools.setOperatorRegistry(registry);
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public final class OperatorRegistry {
+
+	/**
+	 * Registry with the built-in operators.
+	 */
+	public static final OperatorRegistry DEFAULT;
+
+	static {
+		Map<ComparisonOperator, PredicateBuilderStrategy> builtIns = new HashMap<ComparisonOperator, PredicateBuilderStrategy>();
+		for (ComparisonOperatorProxy proxy : ComparisonOperatorProxy.values()) {
+			builtIns.put(proxy.getOperator(), PredicateBuilder.BUILT_IN);
+		}
+		builtIns.put(TextMatchStrategy.ILIKE, TextMatchStrategy.DEFAULT);
+		builtIns.put(TextMatchStrategy.PREFIX, TextMatchStrategy.DEFAULT);
+		builtIns.put(FullTextStrategy.FTS, FullTextStrategy.DEFAULT);
+		DEFAULT = new OperatorRegistry(builtIns);
+	}
+
+	private final Map<ComparisonOperator, PredicateBuilderStrategy> handlers;
+
+	private OperatorRegistry(Map<ComparisonOperator, PredicateBuilderStrategy> handlers) {
+		this.handlers = Collections.unmodifiableMap(handlers);
+	}
+
+	/**
+	 * Get the strategy of an operator.
+	 *
+	 * @param operator Comparison operator.
+	 * @return         The strategy, <tt>null</tt> if the operator is not registered.
+	 */
+	public PredicateBuilderStrategy get(ComparisonOperator operator) {
+		return handlers.get(operator);
+	}
+
+	/**
+	 * Create a registry with one more operator.
+	 *
+	 * @param operator  Comparison operator.
+	 * @param strategy  Strategy creating the predicates of the operator.
+	 * @return          A new registry, this one is left unchanged.
+	 */
+	public OperatorRegistry with(ComparisonOperator operator, PredicateBuilderStrategy strategy) {
+		if (operator == null || strategy == null) {
+			throw new IllegalArgumentException("Operator and strategy must be defined.");
+		}
+		Map<ComparisonOperator, PredicateBuilderStrategy> copy = new HashMap<ComparisonOperator, PredicateBuilderStrategy>(handlers);
+		copy.put(operator, strategy);
+		return new OperatorRegistry(copy);
+	}
+
+	/**
+	 * Registered operators.
+	 *
+	 * @return Unmodifiable set of operators.
+	 */
+	public Set<ComparisonOperator> getOperators() {
+		return handlers.keySet();
+	}
+}
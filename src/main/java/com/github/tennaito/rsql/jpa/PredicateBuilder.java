@@ -28,7 +28,6 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,11 +45,7 @@ import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.metamodel.Attribute;
-import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
-import jakarta.persistence.metamodel.ManagedType;
 import jakarta.persistence.metamodel.Metamodel;
-import jakarta.persistence.metamodel.PluralAttribute;
 
 /**
  * PredicateBuilder
@@ -69,6 +64,20 @@ public final class PredicateBuilder {
 
     public static final Character LIKE_WILDCARD = '*';
 
+    /**
+     * Strategy of the built-in operators, registered in {@link OperatorRegistry#DEFAULT}.
+     * Custom strategies may delegate to it.
+     */
+    public static final PredicateBuilderStrategy BUILT_IN = new PredicateBuilderStrategy() {
+        @Override
+        public <T> Predicate createPredicate(Node node, From root, Class<T> entity, EntityManager manager, BuilderTools tools) {
+            if (!(node instanceof ComparisonNode)) {
+                throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+            }
+            return createBuiltInPredicate((ComparisonNode) node, root, manager, tools, null);
+        }
+    };
+
     private static final Date START_DATE;
     private static final Date END_DATE;
 
@@ -101,14 +110,29 @@ public final class PredicateBuilder {
      * @return 			Predicate a predicate representation of the Node.
      */
     public static <T> Predicate createPredicate(Node node, From root, Class<T> entity, EntityManager manager, BuilderTools misc) {
+        return createPredicate(node, root, entity, manager, misc, null);
+    }
+
+    /**
+     * Create a Predicate from the RSQL AST node sharing the joins of single valued associations.
+     *
+     * @param node      RSQL AST node.
+     * @param root      From that predicate expression paths depends on.
+     * @param entity    The main entity of the query.
+     * @param manager   JPA EntityManager.
+     * @param misc      Facade with all necessary tools for predicate creation.
+     * @param joins     Joins of the query being built, <tt>null</tt> to join on every comparison.
+     * @return 			Predicate a predicate representation of the Node.
+     */
+    public static <T> Predicate createPredicate(Node node, From root, Class<T> entity, EntityManager manager, BuilderTools misc, JoinRegistry joins) {
         LOG.log(Level.INFO, "Creating Predicate for: {0}", node);
 
         if (node instanceof LogicalNode) {
-            return createPredicate((LogicalNode)node, root, entity, manager, misc);
+            return createPredicate((LogicalNode)node, root, entity, manager, misc, joins);
         }
 
         if (node instanceof ComparisonNode) {
-            return createPredicate((ComparisonNode)node, root, entity, manager, misc);
+            return createPredicate((ComparisonNode)node, root, entity, manager, misc, joins);
         }
 
         throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
@@ -125,6 +149,21 @@ public final class PredicateBuilder {
      * @return 				 Predicate a predicate representation of the Node.
      */
     public static <T> Predicate createPredicate(LogicalNode logical, From root, Class<T> entity, EntityManager entityManager, BuilderTools misc) {
+        return createPredicate(logical, root, entity, entityManager, misc, null);
+    }
+
+    /**
+     * Create a Predicate from the RSQL AST logical node sharing the joins of single valued associations.
+     *
+     * @param logical        RSQL AST logical node.
+     * @param root           From that predicate expression paths depends on.
+     * @param entity  		 The main entity of the query.
+     * @param entityManager  JPA EntityManager.
+     * @param misc      	 Facade with all necessary tools for predicate creation.
+     * @param joins          Joins of the query being built, <tt>null</tt> to join on every comparison.
+     * @return 				 Predicate a predicate representation of the Node.
+     */
+    public static <T> Predicate createPredicate(LogicalNode logical, From root, Class<T> entity, EntityManager entityManager, BuilderTools misc, JoinRegistry joins) {
         LOG.log(Level.INFO, "Creating Predicate for logical node: {0}", logical);
 
     	CriteriaBuilder builder = entityManager.getCriteriaBuilder();
@@ -133,7 +172,7 @@ public final class PredicateBuilder {
 
     	LOG.log(Level.INFO, "Creating Predicates from all children nodes.");
     	for (Node node : logical.getChildren()) {
-    		predicates.add(createPredicate(node, root, entity, entityManager, misc));
+    		predicates.add(createPredicate(node, root, entity, entityManager, misc, joins));
 		}
 
         switch (logical.getOperator()) {
@@ -155,6 +194,21 @@ public final class PredicateBuilder {
      * @return 				 Predicate a predicate representation of the Node.
      */
     public static <T> Predicate createPredicate(ComparisonNode comparison, From startRoot, Class<T> entity, EntityManager entityManager, BuilderTools misc) {
+        return createPredicate(comparison, startRoot, entity, entityManager, misc, null);
+    }
+
+    /**
+     * Create a Predicate from the RSQL AST comparison node sharing the joins of single valued associations.
+     *
+     * @param comparison	 RSQL AST comparison node.
+     * @param startRoot      From that predicate expression paths depends on.
+     * @param entity  		 The main entity of the query.
+     * @param entityManager  JPA EntityManager.
+     * @param misc      	 Facade with all necessary tools for predicate creation.
+     * @param joins          Joins of the query being built, <tt>null</tt> to join on every comparison.
+     * @return 				 Predicate a predicate representation of the Node.
+     */
+    public static <T> Predicate createPredicate(ComparisonNode comparison, From startRoot, Class<T> entity, EntityManager entityManager, BuilderTools misc, JoinRegistry joins) {
     	if (startRoot == null) {
     		String msg = "From root node was undefined.";
     		LOG.log(Level.SEVERE, msg);
@@ -162,23 +216,39 @@ public final class PredicateBuilder {
     	}
     	LOG.log(Level.INFO, "Creating Predicate for comparison node: {0}", comparison);
 
+    	PredicateBuilderStrategy handler = misc.getOperatorRegistry().get(comparison.getOperator());
+    	if (handler == BUILT_IN) {
+    		return createBuiltInPredicate(comparison, startRoot, entityManager, misc, joins);
+    	}
+    	if (handler != null) {
+    		return handler.createPredicate(comparison, startRoot, entity, entityManager, misc);
+    	}
+    	// operators not registered are delegated to the strategy
+    	if (misc.getPredicateBuilder() != null) {
+    		return misc.getPredicateBuilder().createPredicate(comparison, startRoot, entity, entityManager, misc);
+    	}
+    	// if no strategy was defined then there are no more operators.
+    	throw new IllegalArgumentException("Unknown operator: " + comparison.getOperator());
+    }
+
+    /**
+     * Create a Predicate of a built-in operator.
+     *
+     * @param comparison	 RSQL AST comparison node.
+     * @param startRoot      From that predicate expression paths depends on.
+     * @param entityManager  JPA EntityManager.
+     * @param misc      	 Facade with all necessary tools for predicate creation.
+     * @param joins          Joins of the query being built, <tt>null</tt> to join on every comparison.
+     * @return 				 Predicate a predicate representation of the Node.
+     */
+    private static Predicate createBuiltInPredicate(ComparisonNode comparison, From startRoot, EntityManager entityManager, BuilderTools misc, JoinRegistry joins) {
         LOG.log(Level.INFO, "Property graph path : {0}", comparison.getSelector());
-        Expression propertyPath = findPropertyPath(comparison.getSelector(), startRoot, entityManager, misc);
+        Expression propertyPath = findPropertyPath(comparison.getSelector(), startRoot, entityManager, misc, joins);
 
 		LOG.log(Level.INFO, "Cast all arguments to type {0}.", propertyPath.getJavaType().getName());
     	List<Object> castedArguments = misc.getArgumentParser().parse(comparison.getArguments(), propertyPath.getJavaType());
 
-    	try {
-    		// try to create a predicate
-    		return PredicateBuilder.createPredicate(propertyPath, comparison.getOperator(), castedArguments, entityManager);
-    	} catch (IllegalArgumentException e) {
-    		// if operator dont exist try to delegate
-            if (misc.getPredicateBuilder() != null) {
-            	return misc.getPredicateBuilder().createPredicate(comparison, startRoot, entity, entityManager, misc);
-            }
-            // if no strategy was defined then there are no more operators.
-            throw e;
-    	}
+    	return PredicateBuilder.createPredicate(propertyPath, comparison.getOperator(), castedArguments, entityManager);
     }
 
     /**
@@ -192,40 +262,58 @@ public final class PredicateBuilder {
      * @throws               IllegalArgumentException if attribute of the given property name does not exist
      */
     public static <T> Path<?> findPropertyPath(String propertyPath, Path startRoot, EntityManager entityManager,  BuilderTools misc) {
+        return findPropertyPath(propertyPath, startRoot, entityManager, misc, null);
+    }
+
+    /**
+     * Find a property path in the graph from startRoot sharing the joins of single valued associations.
+     *
+     * @param propertyPath   The property path to find.
+     * @param startRoot      From that property path depends on.
+     * @param entityManager  JPA EntityManager.
+     * @param misc           Facade with all necessary tools for predicate creation.
+     * @param joins          Joins of the query being built, <tt>null</tt> to create new joins.
+     * @return               The Path for the property path
+     * @throws               IllegalArgumentException if attribute of the given property name does not exist
+     */
+    public static <T> Path<?> findPropertyPath(String propertyPath, Path startRoot, EntityManager entityManager,  BuilderTools misc, JoinRegistry joins) {
         String[] graph = propertyPath.split("\\.");
 
         Metamodel metaModel = entityManager.getMetamodel();
-        ManagedType<?> classMetadata = metaModel.managedType(startRoot.getJavaType());
+        Class<?> classType = startRoot.getJavaType();
 
         Path<?> root = startRoot;
 
         for (String property : graph) {
-            String mappedProperty = misc.getPropertiesMapper().translate(property, classMetadata.getJavaType());
+            String mappedProperty = misc.getPropertiesMapper().translate(property, classType);
             if( !mappedProperty.equals( property) ) {
-                root = findPropertyPath( mappedProperty, root, entityManager, misc );
+                root = findPropertyPath( mappedProperty, root, entityManager, misc, joins );
+                // the next segments belong to the class the alias leads to
+                classType = root.getJavaType();
             } else {
-                if (!hasPropertyName(mappedProperty, classMetadata)) {
-                    throw new IllegalArgumentException("Unknown property: " + mappedProperty + " from entity " + classMetadata.getJavaType().getName());
+                SelectorIndex.Attribute attribute = SelectorIndex.find(classType, mappedProperty, metaModel);
+                if (attribute == null) {
+                    throw new IllegalArgumentException("Unknown property: " + mappedProperty + " from entity " + classType.getName());
                 }
 
-                if (isAssociationType(mappedProperty, classMetadata)) {
-                    Class<?> associationType = findPropertyType(mappedProperty, classMetadata);
-                    String previousClass = classMetadata.getJavaType().getName();
-                    classMetadata = metaModel.managedType(associationType);
-                    LOG.log(Level.INFO, "Create a join between {0} and {1}.", new Object[]{previousClass, classMetadata.getJavaType().getName()});
+                if (attribute.isAssociation()) {
+                    String previousClass = classType.getName();
+                    classType = attribute.getTargetType();
+                    LOG.log(Level.INFO, "Create a join between {0} and {1}.", new Object[]{previousClass, classType.getName()});
 
-                    if (root instanceof From) {
+                    if (root instanceof From && joins != null) {
+                        root = joins.join((From) root, mappedProperty, !attribute.isCollection());
+                    } else if (root instanceof From) {
                         root = ((From) root).join(mappedProperty);
                     } else {
                         root = root.get(mappedProperty);
                     }
                 } else {
-                    LOG.log(Level.INFO, "Create property path for type {0} property {1}.", new Object[]{classMetadata.getJavaType().getName(), mappedProperty});
+                    LOG.log(Level.INFO, "Create property path for type {0} property {1}.", new Object[]{classType.getName(), mappedProperty});
                     root = root.get(mappedProperty);
 
-                    if (isEmbeddedType(mappedProperty, classMetadata)) {
-                        Class<?> embeddedType = findPropertyType(mappedProperty, classMetadata);
-                        classMetadata = metaModel.managedType(embeddedType);
+                    if (attribute.isEmbedded()) {
+                        classType = attribute.getTargetType();
                     }
                 }
             }
@@ -364,6 +452,22 @@ public final class PredicateBuilder {
         return builder.like(propertyPath, like);
     }
 
+    /**
+     * Verify if an argument of <tt>==</tt>, <tt>!=</tt> or <tt>=ilike=</tt> is translated into
+     * a LIKE pattern that starts with a wildcard, which cannot use an index. The argument is
+     * a pattern when it contains <tt>*</tt>; <tt>%</tt> and <tt>_</tt> are then wildcards too.
+     *
+     * @param argument  Argument as written in the filter.
+     * @return          <tt>true</tt> if the LIKE pattern starts with <tt>%</tt> or <tt>_</tt>.
+     */
+    public static boolean isLeadingWildcard(String argument) {
+        if (argument.indexOf(LIKE_WILDCARD) < 0) {
+            return false;
+        }
+        char first = argument.charAt(0);
+        return first == LIKE_WILDCARD || first == '%' || first == '_';
+    }
+
     /**
      * Apply an "is null" constraint to the property path.
      *
@@ -557,61 +661,6 @@ public final class PredicateBuilder {
     	return builder.not(createIn(propertyPath,arguments, manager));
     }
 
-    /**
-     * Verify if a property is an Association type.
-     *
-     * @param property       Property to verify.
-     * @param classMetadata  Metamodel of the class we want to check.
-     * @return               <tt>true</tt> if the property is an associantion, <tt>false</tt> otherwise.
-     */
-    private static <T> boolean isAssociationType(String property, ManagedType<T> classMetadata){
-    	return classMetadata.getAttribute(property).isAssociation();
-    }
-
-    /**
-     * Verify if a property is an Embedded type.
-     *
-     * @param property       Property to verify.
-     * @param classMetadata  Metamodel of the class we want to check.
-     * @return               <tt>true</tt> if the property is an embedded attribute, <tt>false</tt> otherwise.
-     */
-    private static <T> boolean isEmbeddedType(String property, ManagedType<T> classMetadata){
-        return classMetadata.getAttribute(property).getPersistentAttributeType() == PersistentAttributeType.EMBEDDED;
-    }
-
-    /**
-     * Verifies if a class metamodel has the specified property.
-     *
-     * @param property       Property name.
-     * @param classMetadata  Class metamodel that may hold that property.
-     * @return               <tt>true</tt> if the class has that property, <tt>false</tt> otherwise.
-     */
-    private static <T> boolean  hasPropertyName(String property, ManagedType<T> classMetadata) {
-        Set<Attribute<? super T, ?>> names = classMetadata.getAttributes();
-        for (Attribute<? super T, ?> name : names) {
-            if (name.getName().equals(property)) return true;
-        }
-        return false;
-    }
-
-    /**
-     * Get the property Type out of the metamodel.
-     *
-     * @param property       Property name for type extraction.
-     * @param classMetadata  Reference class metamodel that holds property type.
-     * @return               Class java type for the property,
-     * 						 if the property is a pluralAttribute it will take the bindable java type of that collection.
-     */
-    private static <T> Class<?> findPropertyType(String property, ManagedType<T> classMetadata) {
-    	Class<?> propertyType = null;
-    	if (classMetadata.getAttribute(property).isCollection()) {
-    		propertyType = ((PluralAttribute)classMetadata.getAttribute(property)).getBindableJavaType();
-    	} else {
-    		propertyType = classMetadata.getAttribute(property).getJavaType();
-    	}
-        return propertyType;
-    }
-
     /**
      * Verifies if the argument is null.
      *
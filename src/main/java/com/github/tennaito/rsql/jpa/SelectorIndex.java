@@ -0,0 +1,218 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+/**
+ * SelectorIndex
+ *
+ * Attributes of entities and embeddables by name, used by {@link PredicateBuilder} to walk
+ * selectors. The attributes of a class come from its <tt>&lt;Class&gt;_RsqlSelectors</tt>
+ * table, generated at build time by
+ * {@link com.github.tennaito.rsql.processor.SelectorIndexProcessor}, and from the JPA
+ * metamodel when the class has no table. A table is looked up once per class; it registers
+ * itself when it is loaded.
+ *
+ * The tables reflect the mapping annotations of the fields, so the processor must not run
+ * on entities whose mapping is overridden in XML.
+ *
+ * @since 2026-10-19
+ */
+public final class SelectorIndex {
+
+	private static final Logger LOG = Logger.getLogger(SelectorIndex.class.getName());
+
+	/**
+	 * Suffix of the generated tables.
+	 */
+	public static final String TABLE_SUFFIX = "_RsqlSelectors";
+
+	/**
+	 * Marker of the classes without a generated table.
+	 */
+	private static final Map<String, Attribute> NO_TABLE = Collections.emptyMap();
+
+	private static final ConcurrentMap<Class<?>, Map<String, Attribute>> TABLES = new ConcurrentHashMap<Class<?>, Map<String, Attribute>>();
+
+	/**
+	 * Kind of an attribute.
+	 */
+	public enum Kind {
+		BASIC, EMBEDDED, ELEMENT_COLLECTION, MANY_TO_ONE, ONE_TO_ONE, ONE_TO_MANY, MANY_TO_MANY
+	}
+
+	private SelectorIndex() {
+	}
+
+	/**
+	 * Register the table of a class, called by the generated tables.
+	 *
+	 * @param type        Entity or embeddable class.
+	 * @param attributes  Its attributes, including the inherited ones.
+	 */
+	public static void register(Class<?> type, Attribute... attributes) {
+		Map<String, Attribute> table = new HashMap<String, Attribute>();
+		for (Attribute attribute : attributes) {
+			table.put(attribute.getName(), attribute);
+		}
+		TABLES.put(type, Collections.unmodifiableMap(table));
+	}
+
+	/**
+	 * Verify if a class has a generated table.
+	 *
+	 * @param type Entity or embeddable class.
+	 * @return     <tt>true</tt> if its attributes are resolved without the metamodel.
+	 */
+	public static boolean isIndexed(Class<?> type) {
+		return table(type) != NO_TABLE;
+	}
+
+	/**
+	 * Find an attribute.
+	 *
+	 * @param type       Entity or embeddable class.
+	 * @param name       Attribute name.
+	 * @param metamodel  Metamodel of classes without a table.
+	 * @return           The attribute, <tt>null</tt> if the class has no such attribute.
+	 */
+	public static Attribute find(Class<?> type, String name, Metamodel metamodel) {
+		Map<String, Attribute> table = table(type);
+		if (table != NO_TABLE) {
+			return table.get(name);
+		}
+		return fromMetamodel(metamodel.managedType(type), name);
+	}
+
+	private static Map<String, Attribute> table(Class<?> type) {
+		Map<String, Attribute> table = TABLES.get(type);
+		if (table == null) {
+			try {
+				Class.forName(type.getName() + TABLE_SUFFIX, true, type.getClassLoader());
+				LOG.log(Level.INFO, "Loaded selector table of {0}", type.getName());
+			} catch (ClassNotFoundException e) {
+				LOG.log(Level.FINE, "No selector table for {0}", type.getName());
+			}
+			TABLES.putIfAbsent(type, NO_TABLE);
+			table = TABLES.get(type);
+		}
+		return table;
+	}
+
+	private static Attribute fromMetamodel(ManagedType<?> classMetadata, String name) {
+		for (jakarta.persistence.metamodel.Attribute<?, ?> attribute : classMetadata.getAttributes()) {
+			if (attribute.getName().equals(name)) {
+				Class<?> targetType = attribute.isCollection()
+						? ((PluralAttribute<?, ?, ?>) attribute).getBindableJavaType() : attribute.getJavaType();
+				return new Attribute(name, attribute.getJavaType(), targetType, kind(attribute.getPersistentAttributeType()));
+			}
+		}
+		return null;
+	}
+
+	private static Kind kind(PersistentAttributeType type) {
+		switch (type) {
+			case EMBEDDED : return Kind.EMBEDDED;
+			case ELEMENT_COLLECTION : return Kind.ELEMENT_COLLECTION;
+			case MANY_TO_ONE : return Kind.MANY_TO_ONE;
+			case ONE_TO_ONE : return Kind.ONE_TO_ONE;
+			case ONE_TO_MANY : return Kind.ONE_TO_MANY;
+			case MANY_TO_MANY : return Kind.MANY_TO_MANY;
+			default : return Kind.BASIC;
+		}
+	}
+
+	/**
+	 * An attribute of an entity or embeddable.
+	 */
+	public static final class Attribute {
+		private final String name;
+		private final Class<?> javaType;
+		private final Class<?> targetType;
+		private final Kind kind;
+
+		/**
+		 * Construct an attribute.
+		 *
+		 * @param name        Attribute name.
+		 * @param javaType    Declared type.
+		 * @param targetType  Element type of collections, the declared type otherwise.
+		 * @param kind        Kind of the attribute.
+		 */
+		public Attribute(String name, Class<?> javaType, Class<?> targetType, Kind kind) {
+			this.name = name;
+			this.javaType = javaType;
+			this.targetType = targetType;
+			this.kind = kind;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Class<?> getJavaType() {
+			return javaType;
+		}
+
+		public Class<?> getTargetType() {
+			return targetType;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return <tt>true</tt> for relationships to other entities.
+		 */
+		public boolean isAssociation() {
+			return kind == Kind.MANY_TO_ONE || kind == Kind.ONE_TO_ONE || kind == Kind.ONE_TO_MANY || kind == Kind.MANY_TO_MANY;
+		}
+
+		public boolean isCollection() {
+			return kind == Kind.ONE_TO_MANY || kind == Kind.MANY_TO_MANY || kind == Kind.ELEMENT_COLLECTION;
+		}
+
+		public boolean isEmbedded() {
+			return kind == Kind.EMBEDDED;
+		}
+
+		@Override
+		public String toString() {
+			return name + ":" + kind + ":" + targetType.getName();
+		}
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.memory.InMemoryPredicateBuilder;
+import com.github.tennaito.rsql.memory.MatcherStrategy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.RSQLOperators;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * TextMatchStrategy
+ *
+ * Strategy of the case-insensitive <tt>=ilike=</tt> and the <tt>=prefix=</tt> operators,
+ * registered in {@link OperatorRegistry#DEFAULT}. The SQL emitted for a selector is chosen
+ * per selector so it lines up with the index that actually exists:
+ *
+ * <ul>
+ * <li>{@link Translation#LOWER}: <tt>lower(col) like 'abc%'</tt>, for an index on <tt>lower(col)</tt>;</li>
+ * <li>{@link Translation#SHADOW_COLUMN}: <tt>col_normalized like 'abc%'</tt>, for a precomputed lower case column;</li>
+ * <li>{@link Translation#PREFIX_RANGE}: <tt>col &gt;= 'abc' and col &lt; 'abd'</tt>, for a plain index (prefix only);</li>
+ * <li>{@link Translation#LIKE}: <tt>col like 'abc%'</tt> (prefix only).</li>
+ * </ul>
+ *
+ * <tt>=ilike=</tt> arguments take the <tt>*</tt> wildcard like <tt>==</tt>; <tt>=prefix=</tt>
+ * arguments are literal. Instances are immutable, selectors are added with {@link #with}.
+ *
+ * <p><tt>PREFIX_RANGE</tt> relies on the column ordering strings by their characters, so it is
+ * only correct under a binary collation (<tt>C</tt> in PostgreSQL, <tt>*_bin</tt> in MySQL);
+ * under a linguistic collation the range misses or adds rows. A <tt>LOWER</tt> or
+ * <tt>SHADOW_COLUMN</tt> translation configured for a selector also applies to its
+ * <tt>=prefix=</tt> comparisons, which then become case-insensitive. The case-sensitive
+ * <tt>PREFIX_RANGE</tt> and <tt>LIKE</tt> translations only apply to <tt>=prefix=</tt>; the
+ * <tt>=ilike=</tt> comparisons of such a selector use <tt>LOWER</tt>.</p>
+ *
+ * <p>The strategy is a {@link MatcherStrategy}, so in-memory evaluation follows the same
+ * rules: a case-insensitive like for <tt>=ilike=</tt>, <tt>startsWith</tt> for <tt>=prefix=</tt>,
+ * ignoring case when the selector is translated with <tt>LOWER</tt> or <tt>SHADOW_COLUMN</tt>.</p>
+ *
+ * <pre>
+ * TextMatchStrategy text = TextMatchStrategy.DEFAULT
+ *         .with("code", Translation.PREFIX_RANGE)
+ *         .withShadowColumn("name", "normalizedName");
+ * builderTools.setOperatorRegistry(text.registerIn(OperatorRegistry.DEFAULT));
+ * Node rootNode = new RSQLParser(TextMatchStrategy.operators()).parse("name=ilike=*web*");
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public final class TextMatchStrategy implements PredicateBuilderStrategy, MatcherStrategy {
+
+	private static final Logger LOG = Logger.getLogger(TextMatchStrategy.class.getName());
+
+	public static final ComparisonOperator ILIKE = new ComparisonOperator("=ilike=");
+
+	public static final ComparisonOperator PREFIX = new ComparisonOperator("=prefix=");
+
+	private static final char LIKE_ESCAPE = '\\';
+
+	/**
+	 * SQL form of a text match.
+	 */
+	public enum Translation {
+		LOWER, SHADOW_COLUMN, PREFIX_RANGE, LIKE
+	}
+
+	/**
+	 * Strategy with <tt>LOWER</tt> for <tt>=ilike=</tt> and <tt>LIKE</tt> for <tt>=prefix=</tt> on every selector.
+	 */
+	public static final TextMatchStrategy DEFAULT = new TextMatchStrategy(
+			Collections.<String, Translation>emptyMap(), Collections.<String, String>emptyMap());
+
+	private final Map<String, Translation> translations;
+
+	private final Map<String, String> shadowColumns;
+
+	private TextMatchStrategy(Map<String, Translation> translations, Map<String, String> shadowColumns) {
+		this.translations = Collections.unmodifiableMap(translations);
+		this.shadowColumns = Collections.unmodifiableMap(shadowColumns);
+	}
+
+	/**
+	 * Default operators of the parser with <tt>=ilike=</tt> and <tt>=prefix=</tt>.
+	 *
+	 * @return Operators for <tt>new RSQLParser(operators)</tt>.
+	 */
+	public static Set<ComparisonOperator> operators() {
+		Set<ComparisonOperator> operators = new HashSet<ComparisonOperator>(RSQLOperators.defaultOperators());
+		operators.add(ILIKE);
+		operators.add(PREFIX);
+		return operators;
+	}
+
+	/**
+	 * Create a strategy translating a selector in another way.
+	 *
+	 * @param selector     Selector as written in the filter.
+	 * @param translation  Translation of the selector, not <tt>SHADOW_COLUMN</tt>.
+	 * @return             A new strategy, this one is left unchanged.
+	 */
+	public TextMatchStrategy with(String selector, Translation translation) {
+		if (selector == null || translation == null || translation == Translation.SHADOW_COLUMN) {
+			throw new IllegalArgumentException("Invalid translation " + translation + " for selector " + selector);
+		}
+		Map<String, Translation> copy = new HashMap<String, Translation>(translations);
+		copy.put(selector, translation);
+		Map<String, String> shadows = new HashMap<String, String>(shadowColumns);
+		shadows.remove(selector);
+		return new TextMatchStrategy(copy, shadows);
+	}
+
+	/**
+	 * Create a strategy matching a selector against a shadow column holding its lower case value.
+	 *
+	 * @param selector        Selector as written in the filter.
+	 * @param shadowProperty  Property path of the shadow column from the query root.
+	 * @return                A new strategy, this one is left unchanged.
+	 */
+	public TextMatchStrategy withShadowColumn(String selector, String shadowProperty) {
+		if (selector == null || shadowProperty == null) {
+			throw new IllegalArgumentException("Selector and shadow property must be defined.");
+		}
+		Map<String, Translation> copy = new HashMap<String, Translation>(translations);
+		copy.put(selector, Translation.SHADOW_COLUMN);
+		Map<String, String> shadows = new HashMap<String, String>(shadowColumns);
+		shadows.put(selector, shadowProperty);
+		return new TextMatchStrategy(copy, shadows);
+	}
+
+	/**
+	 * Register this strategy for <tt>=ilike=</tt> and <tt>=prefix=</tt>.
+	 *
+	 * @param registry Operator registry.
+	 * @return         A new registry.
+	 */
+	public OperatorRegistry registerIn(OperatorRegistry registry) {
+		return registry.with(ILIKE, this).with(PREFIX, this);
+	}
+
+	/**
+	 * Translation of a selector.
+	 *
+	 * @param selector  Selector as written in the filter.
+	 * @param operator  <tt>=ilike=</tt> or <tt>=prefix=</tt>.
+	 * @return          The configured translation or the default of the operator, <tt>LOWER</tt>
+	 *                  for <tt>=ilike=</tt> on a selector configured with a case-sensitive translation.
+	 */
+	public Translation getTranslation(String selector, ComparisonOperator operator) {
+		Translation translation = translations.get(selector);
+		if (ILIKE.equals(operator) && (translation == null || translation == Translation.PREFIX_RANGE || translation == Translation.LIKE)) {
+			return Translation.LOWER;
+		}
+		return translation == null ? Translation.LIKE : translation;
+	}
+
+	@Override
+	public <T> Predicate createPredicate(Node node, From root, Class<T> entity, EntityManager manager, BuilderTools tools) {
+		if (!(node instanceof ComparisonNode)) {
+			throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+		}
+		ComparisonNode comparison = (ComparisonNode) node;
+		ComparisonOperator operator = comparison.getOperator();
+		if (!ILIKE.equals(operator) && !PREFIX.equals(operator)) {
+			throw new IllegalArgumentException("Unknown operator: " + operator);
+		}
+		String selector = comparison.getSelector();
+		String argument = comparison.getArguments().get(0);
+		Translation translation = getTranslation(selector, operator);
+		LOG.log(Level.INFO, "Translating {0} with {1}", new Object[] {comparison, translation});
+
+		CriteriaBuilder builder = manager.getCriteriaBuilder();
+		Expression<String> path;
+		if (translation == Translation.SHADOW_COLUMN) {
+			path = stringPath(shadowColumns.get(selector), root, manager, tools);
+			argument = argument.toLowerCase(Locale.ROOT);
+		} else {
+			path = stringPath(selector, root, manager, tools);
+			if (translation == Translation.LOWER) {
+				path = builder.lower(path);
+				argument = argument.toLowerCase(Locale.ROOT);
+			}
+		}
+
+		if (ILIKE.equals(operator)) {
+			if (argument.indexOf(PredicateBuilder.LIKE_WILDCARD) >= 0) {
+				return builder.like(path, argument.replace(PredicateBuilder.LIKE_WILDCARD, '%'));
+			}
+			return builder.equal(path, argument);
+		}
+
+		if (translation == Translation.PREFIX_RANGE) {
+			return createPrefixRange(path, argument, builder);
+		}
+		return builder.like(path, escapeLike(argument) + "%", LIKE_ESCAPE);
+	}
+
+	@Override
+	public java.util.function.Predicate<Object> createMatcher(ComparisonNode comparison) {
+		ComparisonOperator operator = comparison.getOperator();
+		if (!ILIKE.equals(operator) && !PREFIX.equals(operator)) {
+			throw new IllegalArgumentException("Unknown operator: " + operator);
+		}
+		Translation translation = getTranslation(comparison.getSelector(), operator);
+		final String argument = comparison.getArguments().get(0).toLowerCase(Locale.ROOT);
+		if (ILIKE.equals(operator)) {
+			if (argument.indexOf(PredicateBuilder.LIKE_WILDCARD) >= 0) {
+				final Pattern like = InMemoryPredicateBuilder.toPattern(argument);
+				return v -> v != null && like.matcher(v.toString().toLowerCase(Locale.ROOT)).matches();
+			}
+			return v -> v != null && v.toString().toLowerCase(Locale.ROOT).equals(argument);
+		}
+		if (translation == Translation.LOWER || translation == Translation.SHADOW_COLUMN) {
+			return v -> v != null && v.toString().toLowerCase(Locale.ROOT).startsWith(argument);
+		}
+		final String prefix = comparison.getArguments().get(0);
+		return v -> v != null && v.toString().startsWith(prefix);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Expression<String> stringPath(String selector, From root, EntityManager manager, BuilderTools tools) {
+		Expression<?> path = PredicateBuilder.findPropertyPath(selector, root, manager, tools);
+		if (!String.class.equals(path.getJavaType())) {
+			throw new IllegalArgumentException("Property " + selector + " is not a String.");
+		}
+		return (Expression<String>) path;
+	}
+
+	private static Predicate createPrefixRange(Expression<String> path, String prefix, CriteriaBuilder builder) {
+		String upper = successor(prefix);
+		if (upper == null) {
+			return builder.greaterThanOrEqualTo(path, prefix);
+		}
+		return builder.and(builder.greaterThanOrEqualTo(path, prefix), builder.lessThan(path, upper));
+	}
+
+	/**
+	 * Smallest string greater than every string starting with the prefix.
+	 *
+	 * @param prefix Prefix.
+	 * @return       The bound, <tt>null</tt> if there is none.
+	 */
+	static String successor(String prefix) {
+		StringBuilder upper = new StringBuilder(prefix);
+		while (upper.length() > 0) {
+			int last = upper.length() - 1;
+			char c = upper.charAt(last);
+			if (c != Character.MAX_VALUE) {
+				upper.setCharAt(last, (char) (c + 1));
+				return upper.toString();
+			}
+			upper.setLength(last);
+		}
+		return null;
+	}
+
+	private static String escapeLike(String argument) {
+		StringBuilder escaped = new StringBuilder(argument.length() + 4);
+		for (char c : argument.toCharArray()) {
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+/**
+ * ColumnKernels
+ *
+ * Comparison kernels over primitive columns. Every kernel compares all values of a column
+ * with one argument and returns a match mask, one bit per row packed into longs
+ * (bit <tt>i % 64</tt> of word <tt>i / 64</tt>), the layout of {@link java.util.BitSet#valueOf(long[])}.
+ *
+ * Only the binary comparisons (==, !=, &lt;, &lt;=, &gt;, &gt;=) are supported.
+ *
+ * The Vector API implementation is only compiled by the <tt>vector</tt> Maven profile
+ * (<tt>mvn -Pvector</tt>); the default build, and so the published jar, always uses the
+ * scalar loops.
+ *
+ * @since 2026-10-19
+ */
+public abstract class ColumnKernels {
+
+	private static final Logger LOG = Logger.getLogger(ColumnKernels.class.getName());
+
+	/**
+	 * System property that disables the vectorized kernels when set to <tt>true</tt>.
+	 */
+	public static final String DISABLE_VECTOR_PROPERTY = "rsql.vector.disabled";
+
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+	private static final String VECTOR_KERNELS = "com.github.tennaito.rsql.memory.VectorColumnKernels";
+
+	private static final ColumnKernels INSTANCE = load();
+
+	/**
+	 * Get the best kernels available at runtime: the Vector API implementation when the
+	 * library was built with the <tt>vector</tt> profile and the <tt>jdk.incubator.vector</tt>
+	 * module is resolved (<tt>--add-modules jdk.incubator.vector</tt>), the scalar loops otherwise.
+	 *
+	 * @return ColumnKernels.
+	 */
+	public static ColumnKernels getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Get the scalar kernels.
+	 *
+	 * @return ColumnKernels without vector instructions.
+	 */
+	public static ColumnKernels scalar() {
+		return ScalarColumnKernels.INSTANCE;
+	}
+
+	/**
+	 * Verify if these kernels use the Vector API.
+	 *
+	 * @return <tt>true</tt> if vectorized.
+	 */
+	public abstract boolean isVectorized();
+
+	/**
+	 * Compare an int column with an argument.
+	 *
+	 * @param column    Column values.
+	 * @param operator  Comparison operator.
+	 * @param argument  Argument.
+	 * @return          Match mask.
+	 */
+	public abstract long[] compare(int[] column, ComparisonOperatorProxy operator, int argument);
+
+	/**
+	 * Compare a long column (also epoch-millis temporal columns) with an argument.
+	 *
+	 * @param column    Column values.
+	 * @param operator  Comparison operator.
+	 * @param argument  Argument.
+	 * @return          Match mask.
+	 */
+	public abstract long[] compare(long[] column, ComparisonOperatorProxy operator, long argument);
+
+	/**
+	 * Compare a double column with an argument.
+	 *
+	 * @param column    Column values.
+	 * @param operator  Comparison operator.
+	 * @param argument  Argument.
+	 * @return          Match mask.
+	 */
+	public abstract long[] compare(double[] column, ComparisonOperatorProxy operator, double argument);
+
+	/**
+	 * Create an empty mask for the number of rows.
+	 *
+	 * @param rows Number of rows.
+	 * @return     Mask with every bit clear.
+	 */
+	protected static long[] newMask(int rows) {
+		return new long[(rows + 63) >>> 6];
+	}
+
+	/**
+	 * Verify that the operator is a binary comparison.
+	 *
+	 * @param operator Operator.
+	 */
+	protected static void checkOperator(ComparisonOperatorProxy operator) {
+		if (operator == ComparisonOperatorProxy.IN || operator == ComparisonOperatorProxy.NOT_IN) {
+			throw new IllegalArgumentException("Unsupported operator for column kernels: " + operator.getOperator());
+		}
+	}
+
+	private static ColumnKernels load() {
+		if (Boolean.getBoolean(DISABLE_VECTOR_PROPERTY)) {
+			return ScalarColumnKernels.INSTANCE;
+		}
+		if (!ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+			LOG.log(Level.INFO, "Module {0} not available, using scalar column kernels.", VECTOR_MODULE);
+			return ScalarColumnKernels.INSTANCE;
+		}
+		try {
+			return (ColumnKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+		} catch (ClassNotFoundException e) {
+			LOG.log(Level.INFO, "Built without the vector profile, using scalar column kernels.");
+			return ScalarColumnKernels.INSTANCE;
+		} catch (ReflectiveOperationException | LinkageError e) {
+			LOG.log(Level.WARNING, "Vector column kernels unavailable, using scalar column kernels.", e);
+			return ScalarColumnKernels.INSTANCE;
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.misc.ArgumentParser;
+import com.github.tennaito.rsql.misc.DefaultArgumentParser;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * ColumnarEvaluator
+ *
+ * Evaluates RSQL filters over primitive columns (int, long, double and epoch-millis dates)
+ * producing a {@link BitSet} of the matching rows. Comparisons run through the
+ * {@link ColumnKernels}, vectorized when the Vector API is available.
+ *
+ * Selectors are used as-is (no Mapper translation) and every column must have the same
+ * number of rows. Primitive columns hold no nulls, so <tt>==null</tt> matches no row.
+ *
+ * @since 2026-10-19
+ */
+public class ColumnarEvaluator {
+
+	private static final Logger LOG = Logger.getLogger(ColumnarEvaluator.class.getName());
+
+	private final Map<String, Column> columns = new HashMap<String, Column>();
+
+	private final int rows;
+
+	private ColumnKernels kernels = ColumnKernels.getInstance();
+
+	private ArgumentParser argumentParser;
+
+	/**
+	 * Construct an evaluator for a number of rows.
+	 *
+	 * @param rows Number of rows of every column.
+	 */
+	public ColumnarEvaluator(int rows) {
+		this.rows = rows;
+	}
+
+	public ColumnarEvaluator addIntColumn(String selector, int[] values) {
+		return addColumn(selector, new Column(values, null, null, Integer.class, values.length));
+	}
+
+	public ColumnarEvaluator addLongColumn(String selector, long[] values) {
+		return addColumn(selector, new Column(null, values, null, Long.class, values.length));
+	}
+
+	public ColumnarEvaluator addDoubleColumn(String selector, double[] values) {
+		return addColumn(selector, new Column(null, null, values, Double.class, values.length));
+	}
+
+	/**
+	 * Add a temporal column stored as milliseconds since the epoch, compared with Date arguments.
+	 *
+	 * @param selector  Selector of the column.
+	 * @param values    Epoch milliseconds.
+	 * @return          Fluent interface.
+	 */
+	public ColumnarEvaluator addEpochMillisColumn(String selector, long[] values) {
+		return addColumn(selector, new Column(null, values, null, Date.class, values.length));
+	}
+
+	/**
+	 * Evaluate the filter over the columns.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Rows matching the filter.
+	 */
+	public BitSet evaluate(Node node) {
+		return BitSet.valueOf(mask(node));
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public ColumnKernels getKernels() {
+		return kernels;
+	}
+
+	public void setKernels(ColumnKernels kernels) {
+		this.kernels = kernels;
+	}
+
+	public ArgumentParser getArgumentParser() {
+		if (this.argumentParser == null) {
+			this.argumentParser = new DefaultArgumentParser();
+		}
+		return this.argumentParser;
+	}
+
+	public void setArgumentParser(ArgumentParser argumentParser) {
+		this.argumentParser = argumentParser;
+	}
+
+	private ColumnarEvaluator addColumn(String selector, Column column) {
+		if (column.length != rows) {
+			throw new IllegalArgumentException("Column " + selector + " has " + column.length + " rows, expected " + rows);
+		}
+		columns.put(selector, column);
+		return this;
+	}
+
+	private long[] mask(Node node) {
+		if (node instanceof LogicalNode) {
+			return mask((LogicalNode) node);
+		}
+		if (node instanceof ComparisonNode) {
+			return mask((ComparisonNode) node);
+		}
+		throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+	}
+
+	private long[] mask(LogicalNode logical) {
+		long[] result = null;
+		for (Node child : logical.getChildren()) {
+			long[] mask = mask(child);
+			if (result == null) {
+				result = mask;
+				continue;
+			}
+			switch (logical.getOperator()) {
+				case AND : for (int i = 0; i < result.length; i++) result[i] &= mask[i]; break;
+				case OR : for (int i = 0; i < result.length; i++) result[i] |= mask[i]; break;
+				default : throw new IllegalArgumentException("Unknown operator: " + logical.getOperator());
+			}
+		}
+		return result;
+	}
+
+	private long[] mask(ComparisonNode comparison) {
+		Column column = columns.get(comparison.getSelector());
+		if (column == null) {
+			throw new IllegalArgumentException("Unknown column: " + comparison.getSelector());
+		}
+		ComparisonOperatorProxy operator = ComparisonOperatorProxy.asEnum(comparison.getOperator());
+		if (operator == null) {
+			throw new IllegalArgumentException("Unknown operator: " + comparison.getOperator());
+		}
+		LOG.log(Level.INFO, "Evaluating column {0} with {1} kernels", new Object[] {comparison.getSelector(), kernels.isVectorized() ? "vector" : "scalar"});
+		List<?> arguments = getArgumentParser().parse(comparison.getArguments(), column.type);
+
+		switch (operator) {
+			case IN : return in(column, arguments);
+			case NOT_IN : return not(in(column, arguments));
+			default : {
+				Object argument = arguments.get(0);
+				if (argument == null) {
+					// primitive columns have no nulls
+					return operator == ComparisonOperatorProxy.NOT_EQUAL ? not(ColumnKernels.newMask(rows)) : ColumnKernels.newMask(rows);
+				}
+				return compare(column, operator, argument);
+			}
+		}
+	}
+
+	private long[] in(Column column, List<?> arguments) {
+		long[] result = ColumnKernels.newMask(rows);
+		for (Object argument : arguments) {
+			if (argument == null) continue;
+			long[] mask = compare(column, ComparisonOperatorProxy.EQUAL, argument);
+			for (int i = 0; i < result.length; i++) result[i] |= mask[i];
+		}
+		return result;
+	}
+
+	private long[] compare(Column column, ComparisonOperatorProxy operator, Object argument) {
+		if (column.ints != null) {
+			return kernels.compare(column.ints, operator, ((Number) argument).intValue());
+		}
+		if (column.doubles != null) {
+			return kernels.compare(column.doubles, operator, ((Number) argument).doubleValue());
+		}
+		if (argument instanceof Date) {
+			// dates compare inclusively, as in PredicateBuilder
+			if (operator == ComparisonOperatorProxy.GREATER_THAN) operator = ComparisonOperatorProxy.GREATER_THAN_OR_EQUAL;
+			if (operator == ComparisonOperatorProxy.LESS_THAN) operator = ComparisonOperatorProxy.LESS_THAN_OR_EQUAL;
+			return kernels.compare(column.longs, operator, ((Date) argument).getTime());
+		}
+		return kernels.compare(column.longs, operator, ((Number) argument).longValue());
+	}
+
+	private long[] not(long[] mask) {
+		for (int i = 0; i < mask.length; i++) {
+			mask[i] = ~mask[i];
+		}
+		// clear the bits past the last row
+		int tail = rows & 63;
+		if (tail != 0) {
+			mask[mask.length - 1] &= (1L << tail) - 1;
+		}
+		return mask;
+	}
+
+	/**
+	 * A primitive column, one of the arrays is set.
+	 */
+	private static final class Column {
+		private final int[] ints;
+		private final long[] longs;
+		private final double[] doubles;
+		private final Class<?> type;
+		private final int length;
+
+		private Column(int[] ints, long[] longs, double[] doubles, Class<?> type, int length) {
+			this.ints = ints;
+			this.longs = longs;
+			this.doubles = doubles;
+			this.type = type;
+			this.length = length;
+		}
+	}
+}
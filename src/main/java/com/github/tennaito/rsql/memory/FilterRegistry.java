@@ -0,0 +1,416 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * FilterRegistry
+ *
+ * Reverse matching index: stores many RSQL filters and answers which of them match one entity.
+ *
+ * Each registered filter is indexed by one access conjunct of its top level AND: an
+ * equality (<tt>==</tt> or <tt>=in=</tt>) on a selector is preferred, then a range built
+ * from the comparisons on one selector. Filters without such a conjunct are always
+ * candidates. For an entity, only the candidates found through the selector values of the
+ * entity are fully evaluated.
+ *
+ * Registration and matching may run concurrently.
+ *
+ * @since 2026-10-19
+ *
+ * @param <T> Entity type
+ * @param <K> Filter key type
+ */
+public class FilterRegistry<T, K> {
+
+	private static final Logger LOG = Logger.getLogger(FilterRegistry.class.getName());
+
+	private final Class<T> entityClass;
+
+	private final BuilderTools builderTools;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<K, Registration<K>> registrations = new LinkedHashMap<K, Registration<K>>();
+
+	private final Set<K> unindexed = new LinkedHashSet<K>();
+
+	private final Map<String, PropertyPath> paths = new HashMap<String, PropertyPath>();
+
+	private final Map<String, Map<Object, Set<K>>> equalities = new HashMap<String, Map<Object, Set<K>>>();
+
+	private final Map<String, RangeIndex<K>> ranges = new HashMap<String, RangeIndex<K>>();
+
+	public FilterRegistry(Class<T> entityClass) {
+		this(entityClass, new SimpleBuilderTools());
+	}
+
+	/**
+	 * Construct a registry.
+	 *
+	 * @param entityClass  Type of the matched entities.
+	 * @param tools        Builder tools for selector mapping and argument parsing.
+	 */
+	public FilterRegistry(Class<T> entityClass, BuilderTools tools) {
+		this.entityClass = entityClass;
+		this.builderTools = tools;
+	}
+
+	/**
+	 * Register a filter, replacing any filter with the same key.
+	 *
+	 * @param key     Filter key.
+	 * @param filter  RSQL AST node.
+	 */
+	public void register(K key, Node filter) {
+		Registration<K> registration = index(key, filter);
+		lock.writeLock().lock();
+		try {
+			remove(key);
+			registrations.put(key, registration);
+			if (registration.path == null) {
+				unindexed.add(key);
+			} else if (registration.values != null) {
+				paths.put(registration.path.getPath(), registration.path);
+				Map<Object, Set<K>> byValue = equalities.get(registration.path.getPath());
+				if (byValue == null) {
+					byValue = new HashMap<Object, Set<K>>();
+					equalities.put(registration.path.getPath(), byValue);
+				}
+				for (Object value : registration.values) {
+					Set<K> keys = byValue.get(value);
+					if (keys == null) {
+						keys = new LinkedHashSet<K>();
+						byValue.put(value, keys);
+					}
+					keys.add(key);
+				}
+			} else {
+				paths.put(registration.path.getPath(), registration.path);
+				RangeIndex<K> index = ranges.get(registration.path.getPath());
+				if (index == null) {
+					index = new RangeIndex<K>();
+					ranges.put(registration.path.getPath(), index);
+				}
+				index.add(registration.interval);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove a filter.
+	 *
+	 * @param key Filter key.
+	 * @return    <tt>true</tt> if the filter was registered.
+	 */
+	public boolean unregister(K key) {
+		lock.writeLock().lock();
+		try {
+			return remove(key);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Find the keys of all filters matching the entity.
+	 *
+	 * @param entity Entity to match.
+	 * @return       Keys of the matching filters, in registration order of the candidates.
+	 */
+	public Set<K> match(T entity) {
+		Set<K> result = new LinkedHashSet<K>();
+		lock.readLock().lock();
+		try {
+			Set<K> candidates = candidates(entity);
+			LOG.log(Level.INFO, "Evaluating {0} of {1} filters.", new Object[] {candidates.size(), registrations.size()});
+			for (K key : candidates) {
+				if (registrations.get(key).predicate.test(entity)) {
+					result.add(key);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
+	/**
+	 * Find the keys of the filters that may match the entity, before full evaluation.
+	 *
+	 * @param entity Entity to match.
+	 * @return       Candidate keys.
+	 */
+	public Set<K> findCandidates(T entity) {
+		lock.readLock().lock();
+		try {
+			return candidates(entity);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return registrations.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private Set<K> candidates(T entity) {
+		Set<K> candidates = new LinkedHashSet<K>(unindexed);
+		for (Map.Entry<String, Map<Object, Set<K>>> entry : equalities.entrySet()) {
+			for (Object value : paths.get(entry.getKey()).getValues(entity)) {
+				Set<K> keys = entry.getValue().get(normalize(value));
+				if (keys != null) candidates.addAll(keys);
+			}
+		}
+		for (Map.Entry<String, RangeIndex<K>> entry : ranges.entrySet()) {
+			for (Object value : paths.get(entry.getKey()).getValues(entity)) {
+				if (value != null) entry.getValue().stab(value, candidates);
+			}
+		}
+		return candidates;
+	}
+
+	private boolean remove(K key) {
+		Registration<K> registration = registrations.remove(key);
+		if (registration == null) return false;
+		if (registration.path == null) {
+			unindexed.remove(key);
+		} else if (registration.values != null) {
+			Map<Object, Set<K>> byValue = equalities.get(registration.path.getPath());
+			for (Object value : registration.values) {
+				Set<K> keys = byValue.get(value);
+				keys.remove(key);
+				if (keys.isEmpty()) byValue.remove(value);
+			}
+		} else {
+			ranges.get(registration.path.getPath()).remove(registration.interval);
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Registration<K> index(K key, Node filter) {
+		Predicate<T> predicate = InMemoryPredicateBuilder.createPredicate(filter, entityClass, builderTools);
+		List<Node> conjuncts = filter instanceof AndNode ? ((AndNode) filter).getChildren() : Collections.singletonList(filter);
+
+		Map<String, Interval<K>> intervals = new LinkedHashMap<String, Interval<K>>();
+		Map<String, PropertyPath> rangePaths = new HashMap<String, PropertyPath>();
+		for (Node conjunct : conjuncts) {
+			if (!(conjunct instanceof ComparisonNode)) continue;
+			ComparisonNode comparison = (ComparisonNode) conjunct;
+			ComparisonOperatorProxy operator = ComparisonOperatorProxy.asEnum(comparison.getOperator());
+			if (operator == null) continue;
+
+			PropertyPath path = PropertyPath.compile(entityClass, comparison.getSelector(), builderTools.getPropertiesMapper());
+			List<?> arguments = builderTools.getArgumentParser().parse(comparison.getArguments(), path.getJavaType());
+			switch (operator) {
+				case EQUAL :
+				case IN : {
+					if (isIndexable(arguments)) {
+						Set<Object> values = new HashSet<Object>();
+						for (Object argument : arguments) {
+							values.add(normalize(argument));
+						}
+						return new Registration<K>(predicate, path, values, null);
+					}
+					break;
+				}
+				case GREATER_THAN :
+				case GREATER_THAN_OR_EQUAL :
+				case LESS_THAN :
+				case LESS_THAN_OR_EQUAL : {
+					Object argument = arguments.get(0);
+					if (!(argument instanceof Comparable)) break;
+					Interval<K> interval = intervals.get(path.getPath());
+					if (interval == null) {
+						interval = new Interval<K>(key);
+						intervals.put(path.getPath(), interval);
+						rangePaths.put(path.getPath(), path);
+					}
+					interval.narrow(operator, (Comparable<Object>) argument);
+					break;
+				}
+				default : break;
+			}
+		}
+		if (!intervals.isEmpty()) {
+			Map.Entry<String, Interval<K>> first = intervals.entrySet().iterator().next();
+			return new Registration<K>(predicate, rangePaths.get(first.getKey()), null, first.getValue());
+		}
+		return new Registration<K>(predicate, null, null, null);
+	}
+
+	private static boolean isIndexable(List<?> arguments) {
+		for (Object argument : arguments) {
+			if (argument == null) return false;
+			if (argument instanceof String && ((String) argument).indexOf(PredicateBuilder.LIKE_WILDCARD) >= 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Normalize a value used as hash key so that equal values of related types share a key.
+	 */
+	private static Object normalize(Object value) {
+		if (value instanceof Date) return ((Date) value).getTime();
+		if (value instanceof BigDecimal) return ((BigDecimal) value).stripTrailingZeros();
+		return value;
+	}
+
+	/**
+	 * A registered filter and its access conjunct.
+	 */
+	private static final class Registration<K> {
+		private final Predicate<Object> predicate;
+		private final PropertyPath path;
+		private final Set<Object> values;
+		private final Interval<K> interval;
+
+		@SuppressWarnings("unchecked")
+		private Registration(Predicate<?> predicate, PropertyPath path, Set<Object> values, Interval<K> interval) {
+			this.predicate = (Predicate<Object>) predicate;
+			this.path = path;
+			this.values = values;
+			this.interval = interval;
+		}
+	}
+
+	/**
+	 * Interval of one range filter, a null bound is unbounded.
+	 */
+	private static final class Interval<K> {
+		private final K key;
+		private Comparable<Object> lower;
+		private boolean lowerInclusive;
+		private Comparable<Object> upper;
+		private boolean upperInclusive;
+
+		private Interval(K key) {
+			this.key = key;
+		}
+
+		private void narrow(ComparisonOperatorProxy operator, Comparable<Object> bound) {
+			// dates compare inclusively, as in PredicateBuilder
+			boolean inclusive = operator == ComparisonOperatorProxy.GREATER_THAN_OR_EQUAL || operator == ComparisonOperatorProxy.LESS_THAN_OR_EQUAL
+					|| (Object) bound instanceof Date;
+			if (operator == ComparisonOperatorProxy.GREATER_THAN || operator == ComparisonOperatorProxy.GREATER_THAN_OR_EQUAL) {
+				int c = lower == null ? 1 : bound.compareTo(lower);
+				if (c > 0 || (c == 0 && !inclusive)) {
+					lower = bound;
+					lowerInclusive = inclusive;
+				}
+			} else {
+				int c = upper == null ? -1 : bound.compareTo(upper);
+				if (c < 0 || (c == 0 && !inclusive)) {
+					upper = bound;
+					upperInclusive = inclusive;
+				}
+			}
+		}
+
+		private boolean containsAbove(Object value) {
+			if (upper == null) return true;
+			int c = upper.compareTo(value);
+			return c > 0 || (c == 0 && upperInclusive);
+		}
+	}
+
+	/**
+	 * Intervals of one selector sorted by lower bound.
+	 */
+	private static final class RangeIndex<K> {
+		private final List<Interval<K>> unboundedBelow = new ArrayList<Interval<K>>();
+		private final TreeMap<Comparable<Object>, List<Interval<K>>> byLower = new TreeMap<Comparable<Object>, List<Interval<K>>>();
+
+		private void add(Interval<K> interval) {
+			if (interval.lower == null) {
+				unboundedBelow.add(interval);
+				return;
+			}
+			List<Interval<K>> list = byLower.get(interval.lower);
+			if (list == null) {
+				list = new ArrayList<Interval<K>>();
+				byLower.put(interval.lower, list);
+			}
+			list.add(interval);
+		}
+
+		private void remove(Interval<K> interval) {
+			if (interval.lower == null) {
+				unboundedBelow.remove(interval);
+				return;
+			}
+			List<Interval<K>> list = byLower.get(interval.lower);
+			list.remove(interval);
+			if (list.isEmpty()) byLower.remove(interval.lower);
+		}
+
+		@SuppressWarnings("unchecked")
+		private void stab(Object value, Set<K> result) {
+			for (Interval<K> interval : unboundedBelow) {
+				if (interval.containsAbove(value)) result.add(interval.key);
+			}
+			// every interval starting at or below the value
+			for (Map.Entry<Comparable<Object>, List<Interval<K>>> entry : byLower.headMap((Comparable<Object>) value, true).entrySet()) {
+				for (Interval<K> interval : entry.getValue()) {
+					if (!interval.lowerInclusive && interval.lower.compareTo(value) == 0) continue;
+					if (interval.containsAbove(value)) result.add(interval.key);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.jpa.PredicateBuilderStrategy;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * InMemoryPredicateBuilder
+ *
+ * Compiles RSQL AST nodes into {@link Predicate} instances evaluated over plain Java objects.
+ *
+ * The semantics follow the JPA {@link PredicateBuilder}: "*" in an equality argument is a
+ * "like" wildcard, "null" arguments test for null values, "&gt;" and "&lt;" include a Date
+ * bound, comparisons against a null property value are false, and a selector going through
+ * a collection matches if any element matches. Custom operators are evaluated by their
+ * registered strategy when it is a {@link MatcherStrategy}, as the text operators of the
+ * default registry are.
+ *
+ * @since 2026-10-19
+ */
+public final class InMemoryPredicateBuilder {
+
+	private static final Logger LOG = Logger.getLogger(InMemoryPredicateBuilder.class.getName());
+
+	/**
+	 * Private constructor.
+	 */
+	private InMemoryPredicateBuilder() {
+		super();
+	}
+
+	/**
+	 * Create a Predicate from the RSQL AST node.
+	 *
+	 * @param node    RSQL AST node.
+	 * @param entity  The type of the evaluated objects.
+	 * @param misc    Facade with the mapper and argument parser.
+	 * @return        Predicate a predicate representation of the Node.
+	 */
+	public static <T> Predicate<T> createPredicate(Node node, Class<T> entity, BuilderTools misc) {
+		LOG.log(Level.INFO, "Creating in-memory Predicate for: {0}", node);
+
+		if (node instanceof LogicalNode) {
+			return createPredicate((LogicalNode) node, entity, misc);
+		}
+
+		if (node instanceof ComparisonNode) {
+			return createPredicate((ComparisonNode) node, entity, misc);
+		}
+
+		throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+	}
+
+	/**
+	 * Create a Predicate from the RSQL AST logical node.
+	 *
+	 * @param logical  RSQL AST logical node.
+	 * @param entity   The type of the evaluated objects.
+	 * @param misc     Facade with the mapper and argument parser.
+	 * @return         Predicate a predicate representation of the Node.
+	 */
+	public static <T> Predicate<T> createPredicate(LogicalNode logical, Class<T> entity, BuilderTools misc) {
+		List<Predicate<T>> children = new ArrayList<Predicate<T>>();
+		for (Node node : logical.getChildren()) {
+			children.add(createPredicate(node, entity, misc));
+		}
+		@SuppressWarnings("unchecked")
+		final Predicate<T>[] predicates = children.toArray(new Predicate[children.size()]);
+
+		switch (logical.getOperator()) {
+			case AND : return t -> {
+				for (Predicate<T> predicate : predicates) {
+					if (!predicate.test(t)) return false;
+				}
+				return true;
+			};
+			case OR : return t -> {
+				for (Predicate<T> predicate : predicates) {
+					if (predicate.test(t)) return true;
+				}
+				return false;
+			};
+		}
+
+		throw new IllegalArgumentException("Unknown operator: " + logical.getOperator());
+	}
+
+	/**
+	 * Create a Predicate from the RSQL AST comparison node.
+	 *
+	 * @param comparison  RSQL AST comparison node.
+	 * @param entity      The type of the evaluated objects.
+	 * @param misc        Facade with the mapper and argument parser.
+	 * @return            Predicate a predicate representation of the Node.
+	 */
+	public static <T> Predicate<T> createPredicate(ComparisonNode comparison, Class<T> entity, BuilderTools misc) {
+		final PropertyPath path = PropertyPath.compile(entity, comparison.getSelector(), misc.getPropertiesMapper());
+		final Predicate<Object> matcher;
+		PredicateBuilderStrategy strategy = misc.getOperatorRegistry().get(comparison.getOperator());
+		if (strategy instanceof MatcherStrategy) {
+			matcher = ((MatcherStrategy) strategy).createMatcher(comparison);
+		} else {
+			@SuppressWarnings("unchecked")
+			List<Object> arguments = (List<Object>) misc.getArgumentParser().parse(comparison.getArguments(), path.getJavaType());
+			matcher = createMatcher(comparison.getOperator(), arguments);
+		}
+		return t -> {
+			for (Object value : path.getValues(t)) {
+				if (matcher.test(value)) return true;
+			}
+			return false;
+		};
+	}
+
+	/**
+	 * Create a matcher of a single property value for a comparison operator.
+	 *
+	 * @param operator   Comparison operator.
+	 * @param arguments  Arguments already casted to the property type.
+	 * @return           Predicate over the property value.
+	 */
+	public static Predicate<Object> createMatcher(ComparisonOperator operator, final List<Object> arguments) {
+		ComparisonOperatorProxy proxy = ComparisonOperatorProxy.asEnum(operator);
+		if (proxy == null) {
+			throw new IllegalArgumentException("Unknown operator: " + operator + ", its strategy is not a MatcherStrategy");
+		}
+		final Object argument = arguments.isEmpty() ? null : arguments.get(0);
+		switch (proxy) {
+			case EQUAL : {
+				if (isLike(argument)) {
+					final Pattern like = toPattern((String) argument);
+					return v -> v != null && like.matcher(v.toString()).matches();
+				} else if (argument == null) {
+					return v -> v == null;
+				}
+				return v -> v != null && isEqual(v, argument);
+			}
+			case NOT_EQUAL : {
+				if (isLike(argument)) {
+					final Pattern like = toPattern((String) argument);
+					return v -> v != null && !like.matcher(v.toString()).matches();
+				} else if (argument == null) {
+					return v -> v != null;
+				}
+				return v -> v != null && !isEqual(v, argument);
+			}
+			case GREATER_THAN : {
+				final Comparable<Object> bound = asComparable(operator, argument);
+				if (argument instanceof Date) {
+					// PredicateBuilder translates a date bound into an inclusive between
+					return v -> v != null && bound.compareTo(v) <= 0;
+				}
+				return v -> v != null && bound != null && bound.compareTo(v) < 0;
+			}
+			case GREATER_THAN_OR_EQUAL : {
+				final Comparable<Object> bound = asComparable(operator, argument);
+				return v -> v != null && bound != null && bound.compareTo(v) <= 0;
+			}
+			case LESS_THAN : {
+				final Comparable<Object> bound = asComparable(operator, argument);
+				if (argument instanceof Date) {
+					return v -> v != null && bound.compareTo(v) >= 0;
+				}
+				return v -> v != null && bound != null && bound.compareTo(v) > 0;
+			}
+			case LESS_THAN_OR_EQUAL : {
+				final Comparable<Object> bound = asComparable(operator, argument);
+				return v -> v != null && bound != null && bound.compareTo(v) >= 0;
+			}
+			case IN : return v -> v != null && contains(arguments, v);
+			case NOT_IN : return v -> v != null && !contains(arguments, v);
+		}
+		throw new IllegalArgumentException("Unknown operator: " + operator);
+	}
+
+	/**
+	 * Verify if two property values are equal, comparing values of related comparable types
+	 * (Date and Timestamp, BigDecimal of different scales) by their natural order.
+	 *
+	 * @param value     Property value.
+	 * @param argument  Argument value.
+	 * @return          <tt>true</tt> if the values are equal.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public static boolean isEqual(Object value, Object argument) {
+		if (value == argument) return true;
+		if (value == null || argument == null) return false;
+		if (value instanceof Comparable && argument instanceof Comparable
+				&& (value.getClass().isInstance(argument) || argument.getClass().isInstance(value))) {
+			return ((Comparable) argument).compareTo(value) == 0;
+		}
+		return value.equals(argument);
+	}
+
+	/**
+	 * Translate a RSQL like argument ("*" wildcards, plus the SQL "%" and "_") into a regular expression.
+	 *
+	 * @param argument  Argument with wildcards.
+	 * @return          Pattern matching the whole value.
+	 */
+	public static Pattern toPattern(String argument) {
+		StringBuilder regex = new StringBuilder();
+		StringBuilder literal = new StringBuilder();
+		for (char c : argument.toCharArray()) {
+			if (c == PredicateBuilder.LIKE_WILDCARD || c == '%' || c == '_') {
+				if (literal.length() > 0) {
+					regex.append(Pattern.quote(literal.toString()));
+					literal.setLength(0);
+				}
+				regex.append(c == '_' ? "." : ".*");
+			} else {
+				literal.append(c);
+			}
+		}
+		if (literal.length() > 0) {
+			regex.append(Pattern.quote(literal.toString()));
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
+	}
+
+	private static boolean isLike(Object argument) {
+		return argument instanceof String && ((String) argument).indexOf(PredicateBuilder.LIKE_WILDCARD) >= 0;
+	}
+
+	private static boolean contains(List<Object> arguments, Object value) {
+		for (Object argument : arguments) {
+			if (isEqual(value, argument)) return true;
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Comparable<Object> asComparable(ComparisonOperator operator, Object argument) {
+		if (argument != null && !(argument instanceof Comparable)) {
+			throw new IllegalArgumentException(String.format("Invalid type for comparison operator: %s type: %s must implement Comparable<%s>",
+					operator,
+					argument.getClass().getName(),
+					argument.getClass().getSimpleName()));
+		}
+		return (Comparable<Object>) argument;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import cz.jirutka.rsql.parser.ast.RSQLVisitor;
+
+/**
+ * InMemoryPredicateVisitor
+ *
+ * Visitor class for compiling RSQL AST Nodes into Java predicates evaluated in memory.
+ *
+ * @since 2026-10-19
+ *
+ * @param <T> Entity type
+ */
+public class InMemoryPredicateVisitor<T> implements RSQLVisitor<Predicate<T>, Void> {
+
+	private static final Logger LOG = Logger.getLogger(InMemoryPredicateVisitor.class.getName());
+
+	private final Class<T> entityClass;
+
+	private BuilderTools builderTools;
+
+	/**
+	 * Construct a visitor for the given type.
+	 *
+	 * @param entityClass Type of the evaluated objects.
+	 */
+	public InMemoryPredicateVisitor(Class<T> entityClass) {
+		this.entityClass = entityClass;
+	}
+
+	/**
+	 * Get builder tools.
+	 *
+	 * @return BuilderTools.
+	 */
+	public BuilderTools getBuilderTools() {
+		if (this.builderTools == null) {
+			this.builderTools = new SimpleBuilderTools();
+		}
+		return this.builderTools;
+	}
+
+	/**
+	 * Set the builder tools.
+	 *
+	 * @param delegate BuilderTools.
+	 */
+	public void setBuilderTools(BuilderTools delegate) {
+		this.builderTools = delegate;
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.AndNode, java.lang.Object)
+	 */
+	@Override
+	public Predicate<T> visit(AndNode node, Void param) {
+		LOG.log(Level.INFO, "Compiling Predicate for AndNode: {0}", node);
+		return InMemoryPredicateBuilder.createPredicate(node, entityClass, getBuilderTools());
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.OrNode, java.lang.Object)
+	 */
+	@Override
+	public Predicate<T> visit(OrNode node, Void param) {
+		LOG.log(Level.INFO, "Compiling Predicate for OrNode: {0}", node);
+		return InMemoryPredicateBuilder.createPredicate(node, entityClass, getBuilderTools());
+	}
+
+	/* (non-Javadoc)
+	 * @see cz.jirutka.rsql.parser.ast.RSQLVisitor#visit(cz.jirutka.rsql.parser.ast.ComparisonNode, java.lang.Object)
+	 */
+	@Override
+	public Predicate<T> visit(ComparisonNode node, Void param) {
+		LOG.log(Level.INFO, "Compiling Predicate for ComparisonNode: {0}", node);
+		return InMemoryPredicateBuilder.createPredicate(node, entityClass, getBuilderTools());
+	}
+}
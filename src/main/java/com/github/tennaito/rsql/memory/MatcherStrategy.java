@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.util.function.Predicate;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+
+/**
+ * MatcherStrategy
+ *
+ * In-memory counterpart of a {@link com.github.tennaito.rsql.jpa.PredicateBuilderStrategy}
+ * for a custom operator. {@link InMemoryPredicateBuilder} evaluates a custom operator with
+ * the strategy registered for it in the operator registry of the builder tools, provided
+ * the strategy implements this interface; the matcher should accept the values the SQL
+ * of the strategy would match.
+ *
+ * @since 2026-10-19
+ */
+public interface MatcherStrategy {
+
+	/**
+	 * Create a matcher of a single property value.
+	 *
+	 * @param comparison  RSQL AST comparison node.
+	 * @return            Predicate over the property value.
+	 * @throws IllegalArgumentException When illegal arguments are found.
+	 */
+	Predicate<Object> createMatcher(ComparisonNode comparison) throws IllegalArgumentException;
+}
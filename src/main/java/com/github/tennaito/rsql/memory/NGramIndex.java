@@ -0,0 +1,308 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * NGramIndex
+ *
+ * Inverted n-gram index over string selectors of an in-memory snapshot, answering
+ * wildcard equality (<tt>name==*foo*</tt>) without scanning every element.
+ *
+ * A pattern is split on its wildcards, the literal fragments are decomposed into the grams
+ * every match must contain, and the posting lists of those grams are intersected. The
+ * resulting candidates are verified exactly, so patterns whose fragments are shorter than
+ * the gram size fall back to verifying every element.
+ *
+ * The index is built once over a snapshot and is safe for concurrent reads.
+ *
+ * @since 2026-10-19
+ *
+ * @param <T> Entity type
+ */
+public class NGramIndex<T> {
+
+	private static final Logger LOG = Logger.getLogger(NGramIndex.class.getName());
+
+	/**
+	 * Default gram size (trigrams).
+	 */
+	public static final int DEFAULT_GRAM_SIZE = 3;
+
+	private static final int[] EMPTY = new int[0];
+
+	private final Class<T> entityClass;
+
+	private final int gramSize;
+
+	private final List<T> elements;
+
+	private final Map<String, PropertyPath> paths = new HashMap<String, PropertyPath>();
+
+	private final Map<String, Map<String, int[]>> postings = new HashMap<String, Map<String, int[]>>();
+
+	private final BuilderTools builderTools;
+
+	/**
+	 * Build a trigram index.
+	 *
+	 * @param entityClass  Type of the indexed elements.
+	 * @param elements     Snapshot to index.
+	 * @param selectors    String selectors to index.
+	 */
+	public NGramIndex(Class<T> entityClass, Collection<? extends T> elements, String... selectors) {
+		this(entityClass, elements, new SimpleBuilderTools(), DEFAULT_GRAM_SIZE, selectors);
+	}
+
+	/**
+	 * Build an index.
+	 *
+	 * @param entityClass  Type of the indexed elements.
+	 * @param elements     Snapshot to index.
+	 * @param tools        Builder tools for selector mapping and argument parsing.
+	 * @param gramSize     Number of characters per gram.
+	 * @param selectors    String selectors to index.
+	 */
+	public NGramIndex(Class<T> entityClass, Collection<? extends T> elements, BuilderTools tools, int gramSize, String... selectors) {
+		if (gramSize < 1) {
+			throw new IllegalArgumentException("Gram size must be positive: " + gramSize);
+		}
+		this.entityClass = entityClass;
+		this.gramSize = gramSize;
+		this.builderTools = tools;
+		this.elements = Collections.unmodifiableList(new ArrayList<T>(elements));
+		for (String selector : selectors) {
+			PropertyPath path = PropertyPath.compile(entityClass, selector, tools.getPropertiesMapper());
+			if (!String.class.equals(path.getJavaType())) {
+				throw new IllegalArgumentException("Selector " + selector + " is not a String property of " + entityClass.getName());
+			}
+			paths.put(path.getPath(), path);
+			postings.put(path.getPath(), build(path));
+		}
+	}
+
+	/**
+	 * Find the elements whose selector value matches a wildcard pattern ("*" wildcards, as in <tt>==</tt>).
+	 *
+	 * @param selector  Indexed selector.
+	 * @param pattern   Pattern with wildcards.
+	 * @return          Matching elements in snapshot order.
+	 */
+	public List<T> search(String selector, String pattern) {
+		PropertyPath path = indexedPath(selector);
+		if (path == null) {
+			throw new IllegalArgumentException("Selector is not indexed: " + selector);
+		}
+		final Pattern like = InMemoryPredicateBuilder.toPattern(pattern);
+		final PropertyPath values = path;
+		return verify(candidates(path.getPath(), pattern), t -> {
+			for (Object value : values.getValues(t)) {
+				if (value != null && like.matcher(value.toString()).matches()) return true;
+			}
+			return false;
+		});
+	}
+
+	/**
+	 * Filter the snapshot with a RSQL node. When the node (or a conjunct of a top level AND)
+	 * is a wildcard equality on an indexed selector, only the candidates of the index are
+	 * evaluated, otherwise every element is.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Matching elements in snapshot order.
+	 */
+	public List<T> filter(Node node) {
+		Predicate<T> predicate = InMemoryPredicateBuilder.createPredicate(node, entityClass, builderTools);
+		int[] candidates = null;
+		List<Node> conjuncts = node instanceof AndNode ? ((AndNode) node).getChildren() : Collections.singletonList(node);
+		for (Node conjunct : conjuncts) {
+			int[] ids = candidates(conjunct);
+			if (ids != null) {
+				candidates = candidates == null ? ids : intersect(candidates, ids);
+			}
+		}
+		return verify(candidates, predicate);
+	}
+
+	/**
+	 * Number of candidates the index yields for a pattern, mostly for diagnostics.
+	 *
+	 * @param selector  Indexed selector.
+	 * @param pattern   Pattern with wildcards.
+	 * @return          Number of candidates before verification.
+	 */
+	public int countCandidates(String selector, String pattern) {
+		PropertyPath path = indexedPath(selector);
+		if (path == null) {
+			throw new IllegalArgumentException("Selector is not indexed: " + selector);
+		}
+		int[] candidates = candidates(path.getPath(), pattern);
+		return candidates == null ? elements.size() : candidates.length;
+	}
+
+	public int getGramSize() {
+		return gramSize;
+	}
+
+	public List<T> getElements() {
+		return elements;
+	}
+
+	private PropertyPath indexedPath(String selector) {
+		PropertyPath path = PropertyPath.compile(entityClass, selector, builderTools.getPropertiesMapper());
+		return paths.get(path.getPath());
+	}
+
+	private int[] candidates(Node node) {
+		if (!(node instanceof ComparisonNode)) return null;
+		ComparisonNode comparison = (ComparisonNode) node;
+		if (ComparisonOperatorProxy.asEnum(comparison.getOperator()) != ComparisonOperatorProxy.EQUAL) return null;
+		String argument = comparison.getArguments().get(0);
+		if (argument.indexOf(PredicateBuilder.LIKE_WILDCARD) < 0) return null;
+		PropertyPath path = indexedPath(comparison.getSelector());
+		return path == null ? null : candidates(path.getPath(), argument);
+	}
+
+	/**
+	 * Posting list intersection for the grams of a pattern.
+	 *
+	 * @return Sorted element ids, or <tt>null</tt> if the pattern has no usable gram.
+	 */
+	private int[] candidates(String path, String pattern) {
+		Set<String> grams = new LinkedHashSet<String>();
+		for (String fragment : pattern.split("[*%_]")) {
+			addGrams(fragment, grams);
+		}
+		if (grams.isEmpty()) {
+			LOG.log(Level.INFO, "Pattern {0} has no gram of size {1}, verifying all elements.", new Object[] {pattern, gramSize});
+			return null;
+		}
+
+		Map<String, int[]> index = postings.get(path);
+		List<int[]> lists = new ArrayList<int[]>(grams.size());
+		for (String gram : grams) {
+			int[] list = index.get(gram);
+			if (list == null) return EMPTY;
+			lists.add(list);
+		}
+		// intersect the shortest lists first
+		lists.sort(Comparator.comparingInt(list -> list.length));
+		int[] result = lists.get(0);
+		for (int i = 1; i < lists.size() && result.length > 0; i++) {
+			result = intersect(result, lists.get(i));
+		}
+		LOG.log(Level.INFO, "Pattern {0} yields {1} candidates of {2} elements.", new Object[] {pattern, result.length, elements.size()});
+		return result;
+	}
+
+	private List<T> verify(int[] candidates, Predicate<? super T> predicate) {
+		List<T> result = new ArrayList<T>();
+		if (candidates == null) {
+			for (T element : elements) {
+				if (predicate.test(element)) result.add(element);
+			}
+		} else {
+			for (int id : candidates) {
+				T element = elements.get(id);
+				if (predicate.test(element)) result.add(element);
+			}
+		}
+		return result;
+	}
+
+	private Map<String, int[]> build(PropertyPath path) {
+		Map<String, int[]> lists = new HashMap<String, int[]>();
+		Map<String, Integer> sizes = new HashMap<String, Integer>();
+		Set<String> grams = new LinkedHashSet<String>();
+		for (int id = 0; id < elements.size(); id++) {
+			grams.clear();
+			for (Object value : path.getValues(elements.get(id))) {
+				if (value != null) addGrams(value.toString(), grams);
+			}
+			// ids are visited in ascending order, so every posting list stays sorted
+			for (String gram : grams) {
+				int[] list = lists.get(gram);
+				int size = list == null ? 0 : sizes.get(gram);
+				if (list == null) {
+					list = new int[4];
+				} else if (size == list.length) {
+					list = Arrays.copyOf(list, size * 2);
+				}
+				list[size] = id;
+				lists.put(gram, list);
+				sizes.put(gram, size + 1);
+			}
+		}
+		for (Map.Entry<String, int[]> entry : lists.entrySet()) {
+			entry.setValue(Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey())));
+		}
+		return lists;
+	}
+
+	private void addGrams(String value, Set<String> grams) {
+		for (int i = 0; i + gramSize <= value.length(); i++) {
+			grams.add(value.substring(i, i + gramSize));
+		}
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		int[] result = new int[Math.min(a.length, b.length)];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[k++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, k);
+	}
+}
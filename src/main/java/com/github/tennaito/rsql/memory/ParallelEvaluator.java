@@ -0,0 +1,247 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ParallelEvaluator
+ *
+ * Evaluates a compiled predicate over a collection, splitting the source spliterator into
+ * size-balanced chunks that are filtered concurrently on the common {@link ForkJoinPool}
+ * or on a supplied {@link Executor}.
+ *
+ * Sources with no more elements than the sequential threshold are filtered on the calling
+ * thread. The source must not be modified while it is evaluated.
+ *
+ * @since 2026-10-19
+ */
+public class ParallelEvaluator {
+
+	private static final Logger LOG = Logger.getLogger(ParallelEvaluator.class.getName());
+
+	/**
+	 * Default number of elements below which evaluation stays sequential.
+	 */
+	public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 8192;
+
+	/**
+	 * Number of chunks created per worker, so uneven chunks still balance.
+	 */
+	private static final int CHUNKS_PER_WORKER = 4;
+
+	private Executor executor;
+
+	private int sequentialThreshold = DEFAULT_SEQUENTIAL_THRESHOLD;
+
+	private boolean preserveOrder = true;
+
+	/**
+	 * Filter the source with the predicate.
+	 *
+	 * @param source     Elements to evaluate.
+	 * @param predicate  Compiled predicate.
+	 * @return           Matching elements, in encounter order if {@link #isPreserveOrder()}.
+	 */
+	public <T> List<T> filter(Collection<? extends T> source, Predicate<? super T> predicate) {
+		return filter(source, predicate, preserveOrder);
+	}
+
+	/**
+	 * Count the elements of the source matching the predicate.
+	 *
+	 * @param source     Elements to evaluate.
+	 * @param predicate  Compiled predicate.
+	 * @return           Number of matching elements.
+	 */
+	public <T> long count(Collection<? extends T> source, Predicate<? super T> predicate) {
+		if (source.size() <= sequentialThreshold) {
+			return count(source.spliterator(), predicate);
+		}
+
+		List<Spliterator<? extends T>> chunks = split(source.spliterator(), chunkSize(source.size()));
+		LOG.log(Level.INFO, "Counting {0} elements in {1} chunks.", new Object[] {source.size(), chunks.size()});
+
+		List<CompletableFuture<Long>> futures = new ArrayList<CompletableFuture<Long>>(chunks.size());
+		for (final Spliterator<? extends T> chunk : chunks) {
+			futures.add(CompletableFuture.supplyAsync(() -> count(chunk, predicate), getExecutor()));
+		}
+		long count = 0;
+		try {
+			for (CompletableFuture<Long> future : futures) {
+				count += future.join();
+			}
+		} catch (CompletionException e) {
+			throw unwrap(e);
+		}
+		return count;
+	}
+
+	private <T> List<T> filter(Collection<? extends T> source, Predicate<? super T> predicate, boolean ordered) {
+		if (source.size() <= sequentialThreshold) {
+			return evaluate(source.spliterator(), predicate);
+		}
+
+		List<Spliterator<? extends T>> chunks = split(source.spliterator(), chunkSize(source.size()));
+		LOG.log(Level.INFO, "Evaluating {0} elements in {1} chunks.", new Object[] {source.size(), chunks.size()});
+
+		final List<T> result = new ArrayList<T>();
+		List<CompletableFuture<List<T>>> futures = new ArrayList<CompletableFuture<List<T>>>(chunks.size());
+		for (final Spliterator<? extends T> chunk : chunks) {
+			CompletableFuture<List<T>> future = CompletableFuture.supplyAsync(() -> evaluate(chunk, predicate), getExecutor());
+			if (!ordered) {
+				future = future.thenApply(matches -> {
+					synchronized (result) {
+						result.addAll(matches);
+					}
+					return matches;
+				});
+			}
+			futures.add(future);
+		}
+
+		try {
+			if (ordered) {
+				for (CompletableFuture<List<T>> future : futures) {
+					result.addAll(future.join());
+				}
+			} else {
+				CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+			}
+		} catch (CompletionException e) {
+			throw unwrap(e);
+		}
+		return result;
+	}
+
+	private static RuntimeException unwrap(CompletionException e) {
+		if (e.getCause() instanceof RuntimeException) {
+			return (RuntimeException) e.getCause();
+		}
+		return e;
+	}
+
+	/**
+	 * Get the executor, the common ForkJoinPool when none was set.
+	 *
+	 * @return Executor.
+	 */
+	public Executor getExecutor() {
+		return executor == null ? ForkJoinPool.commonPool() : executor;
+	}
+
+	/**
+	 * Set the executor for chunk evaluation.
+	 *
+	 * @param executor Executor, <tt>null</tt> for the common ForkJoinPool.
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	public int getSequentialThreshold() {
+		return sequentialThreshold;
+	}
+
+	/**
+	 * Set the number of elements below which evaluation stays on the calling thread.
+	 *
+	 * @param sequentialThreshold Threshold, also the minimum chunk size.
+	 */
+	public void setSequentialThreshold(int sequentialThreshold) {
+		if (sequentialThreshold < 1) {
+			throw new IllegalArgumentException("Sequential threshold must be positive: " + sequentialThreshold);
+		}
+		this.sequentialThreshold = sequentialThreshold;
+	}
+
+	public boolean isPreserveOrder() {
+		return preserveOrder;
+	}
+
+	/**
+	 * Define if results keep the encounter order of the source.
+	 *
+	 * @param preserveOrder <tt>false</tt> to merge chunks as they complete.
+	 */
+	public void setPreserveOrder(boolean preserveOrder) {
+		this.preserveOrder = preserveOrder;
+	}
+
+	private int chunkSize(int size) {
+		Executor current = getExecutor();
+		int workers = current instanceof ForkJoinPool
+				? ((ForkJoinPool) current).getParallelism()
+				: Runtime.getRuntime().availableProcessors();
+		long chunks = (long) Math.max(1, workers) * CHUNKS_PER_WORKER;
+		return (int) Math.max(sequentialThreshold, (size + chunks - 1) / chunks);
+	}
+
+	private static <T> List<Spliterator<? extends T>> split(Spliterator<? extends T> source, int chunkSize) {
+		List<Spliterator<? extends T>> chunks = new ArrayList<Spliterator<? extends T>>();
+		split(source, chunkSize, chunks);
+		return chunks;
+	}
+
+	private static <T> void split(Spliterator<? extends T> spliterator, int chunkSize, List<Spliterator<? extends T>> chunks) {
+		Spliterator<? extends T> prefix = spliterator.estimateSize() > chunkSize ? spliterator.trySplit() : null;
+		if (prefix == null) {
+			chunks.add(spliterator);
+			return;
+		}
+		// prefix first keeps the encounter order of the chunks
+		split(prefix, chunkSize, chunks);
+		split(spliterator, chunkSize, chunks);
+	}
+
+	private static <T> List<T> evaluate(Spliterator<? extends T> chunk, final Predicate<? super T> predicate) {
+		final List<T> matches = new ArrayList<T>();
+		chunk.forEachRemaining(t -> {
+			if (predicate.test(t)) {
+				matches.add(t);
+			}
+		});
+		return matches;
+	}
+
+	private static <T> long count(Spliterator<? extends T> chunk, final Predicate<? super T> predicate) {
+		final long[] count = new long[1];
+		chunk.forEachRemaining(t -> {
+			if (predicate.test(t)) {
+				count[0]++;
+			}
+		});
+		return count[0];
+	}
+}
@@ -0,0 +1,293 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.tennaito.rsql.misc.Mapper;
+
+/**
+ * PropertyPath
+ *
+ * Compiled accessor chain for a RSQL selector over plain Java objects.
+ *
+ * Selectors are translated segment by segment through the {@link Mapper}, the same way
+ * the JPA predicate builder does, and every segment is bound once to a getter (or field).
+ * Collections along the path are expanded, so the values of a path are all the values
+ * reachable from the root, as a join would produce them.
+ *
+ * @since 2026-10-19
+ */
+public final class PropertyPath {
+
+	private static final Map<Class<?>, Map<String, Accessor>> ACCESSORS = new ConcurrentHashMap<Class<?>, Map<String, Accessor>>();
+
+	private final String path;
+	private final Accessor[] accessors;
+	private final Class<?> javaType;
+
+	private PropertyPath(String path, Accessor[] accessors, Class<?> javaType) {
+		this.path = path;
+		this.accessors = accessors;
+		this.javaType = javaType;
+	}
+
+	/**
+	 * Compile a selector into a property path.
+	 *
+	 * @param entityClass  Class the selector starts from.
+	 * @param selector     RSQL selector (dot-separated).
+	 * @param mapper       Mapper for selector aliases, may be <tt>null</tt>.
+	 * @return             The compiled path.
+	 * @throws IllegalArgumentException if a property of the selector does not exist.
+	 */
+	public static PropertyPath compile(Class<?> entityClass, String selector, Mapper mapper) {
+		List<Accessor> chain = new ArrayList<Accessor>();
+		Class<?> type = resolve(selector, entityClass, mapper, chain);
+		StringBuilder canonical = new StringBuilder();
+		for (Accessor accessor : chain) {
+			if (canonical.length() > 0) {
+				canonical.append('.');
+			}
+			canonical.append(accessor.name);
+		}
+		return new PropertyPath(canonical.toString(), chain.toArray(new Accessor[chain.size()]), type);
+	}
+
+	/**
+	 * Canonical (mapped) dot-separated path.
+	 *
+	 * @return The path.
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Java type of the last segment, element type when the last segment is a collection.
+	 *
+	 * @return Java type.
+	 */
+	public Class<?> getJavaType() {
+		return javaType;
+	}
+
+	/**
+	 * Verify if any segment of this path navigates through a collection.
+	 *
+	 * @return <tt>true</tt> if the path may produce more than one value.
+	 */
+	public boolean isPlural() {
+		for (Accessor accessor : accessors) {
+			if (accessor.plural) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Types of the objects read by the segments of this path, element types for collections.
+	 *
+	 * @return Types in path order.
+	 */
+	public Set<Class<?>> getTraversedTypes() {
+		Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+		for (Accessor accessor : accessors) {
+			types.add(accessor.type);
+		}
+		return types;
+	}
+
+	/**
+	 * Verify if any segment of this path reads objects that may be of a given type.
+	 *
+	 * @param type Type of the objects, e.g. a related entity class.
+	 * @return     <tt>true</tt> if the value of this path may depend on the state of such objects.
+	 */
+	public boolean traverses(Class<?> type) {
+		for (Accessor accessor : accessors) {
+			if (accessor.type.isAssignableFrom(type) || type.isAssignableFrom(accessor.type)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Read all values reachable through this path.
+	 *
+	 * Null intermediate objects end their branch (as an inner join would),
+	 * a null value on the last segment is kept.
+	 *
+	 * @param target Root object.
+	 * @return       Values of the path, never <tt>null</tt>.
+	 */
+	public List<Object> getValues(Object target) {
+		List<Object> current = Collections.singletonList(target);
+		for (Accessor accessor : accessors) {
+			List<Object> next = new ArrayList<Object>(current.size());
+			for (Object value : current) {
+				if (value == null) continue;
+				Object read = accessor.read(value);
+				if (accessor.plural && read instanceof Collection) {
+					next.addAll((Collection<?>) read);
+				} else if (accessor.plural && read instanceof Map) {
+					next.addAll(((Map<?, ?>) read).values());
+				} else {
+					next.add(read);
+				}
+			}
+			current = next;
+		}
+		return current;
+	}
+
+	/**
+	 * Read the single value of a path without collections.
+	 *
+	 * @param target Root object.
+	 * @return       The value or <tt>null</tt> when any object along the path is null.
+	 */
+	public Object getValue(Object target) {
+		Object value = target;
+		for (Accessor accessor : accessors) {
+			if (value == null) return null;
+			value = accessor.read(value);
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+
+	private static Class<?> resolve(String selector, Class<?> start, Mapper mapper, List<Accessor> chain) {
+		Class<?> type = start;
+		for (String property : selector.split("\\.")) {
+			String mappedProperty = mapper == null ? property : mapper.translate(property, type);
+			if (!mappedProperty.equals(property)) {
+				type = resolve(mappedProperty, type, mapper, chain);
+			} else {
+				Accessor accessor = findAccessor(type, property);
+				chain.add(accessor);
+				type = accessor.type;
+			}
+		}
+		return type;
+	}
+
+	private static Accessor findAccessor(Class<?> type, String property) {
+		Map<String, Accessor> byName = ACCESSORS.get(type);
+		if (byName == null) {
+			byName = new ConcurrentHashMap<String, Accessor>();
+			Map<String, Accessor> previous = ACCESSORS.putIfAbsent(type, byName);
+			if (previous != null) byName = previous;
+		}
+		Accessor accessor = byName.get(property);
+		if (accessor == null) {
+			accessor = createAccessor(type, property);
+			byName.put(property, accessor);
+		}
+		return accessor;
+	}
+
+	private static Accessor createAccessor(Class<?> type, String property) {
+		String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+		for (String prefix : new String[] {"get", "is"}) {
+			try {
+				Method getter = type.getMethod(prefix + suffix);
+				if (getter.getParameterTypes().length == 0 && getter.getReturnType() != void.class) {
+					return new Accessor(property, getter, getter.getReturnType(), getter.getGenericReturnType());
+				}
+			} catch (NoSuchMethodException e) {
+				// try next strategy
+			}
+		}
+		for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+			try {
+				Field field = c.getDeclaredField(property);
+				if (!Modifier.isStatic(field.getModifiers())) {
+					field.setAccessible(true);
+					return new Accessor(property, field, field.getType(), field.getGenericType());
+				}
+			} catch (NoSuchFieldException e) {
+				// try the super class
+			}
+		}
+		throw new IllegalArgumentException("Unknown property: " + property + " from entity " + type.getName());
+	}
+
+	/**
+	 * One segment of the path bound to a getter or a field.
+	 */
+	private static final class Accessor {
+		private final String name;
+		private final AccessibleObject member;
+		private final Class<?> type;
+		private final boolean plural;
+
+		private Accessor(String name, AccessibleObject member, Class<?> rawType, Type genericType) {
+			this.name = name;
+			this.member = member;
+			this.plural = Collection.class.isAssignableFrom(rawType) || Map.class.isAssignableFrom(rawType);
+			this.type = plural ? elementType(rawType, genericType) : rawType;
+		}
+
+		private Object read(Object target) {
+			try {
+				if (member instanceof Method) {
+					return ((Method) member).invoke(target);
+				}
+				return ((Field) member).get(target);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Cannot read property " + name + " of " + target.getClass().getName(), e);
+			}
+		}
+
+		private static Class<?> elementType(Class<?> rawType, Type genericType) {
+			if (genericType instanceof ParameterizedType) {
+				Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+				Type element = Map.class.isAssignableFrom(rawType) ? arguments[arguments.length - 1] : arguments[0];
+				if (element instanceof Class) {
+					return (Class<?>) element;
+				}
+				if (element instanceof ParameterizedType) {
+					return (Class<?>) ((ParameterizedType) element).getRawType();
+				}
+			}
+			return Object.class;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+/**
+ * ScalarColumnKernels
+ *
+ * Plain loop implementation of the {@link ColumnKernels}, the fallback when the Vector API is unavailable.
+ *
+ * @since 2026-10-19
+ */
+final class ScalarColumnKernels extends ColumnKernels {
+
+	static final ScalarColumnKernels INSTANCE = new ScalarColumnKernels();
+
+	@Override
+	public boolean isVectorized() {
+		return false;
+	}
+
+	@Override
+	public long[] compare(int[] column, ComparisonOperatorProxy operator, int argument) {
+		checkOperator(operator);
+		long[] mask = newMask(column.length);
+		compare(column, 0, operator, argument, mask);
+		return mask;
+	}
+
+	@Override
+	public long[] compare(long[] column, ComparisonOperatorProxy operator, long argument) {
+		checkOperator(operator);
+		long[] mask = newMask(column.length);
+		compare(column, 0, operator, argument, mask);
+		return mask;
+	}
+
+	@Override
+	public long[] compare(double[] column, ComparisonOperatorProxy operator, double argument) {
+		checkOperator(operator);
+		long[] mask = newMask(column.length);
+		compare(column, 0, operator, argument, mask);
+		return mask;
+	}
+
+	/**
+	 * Compare the values from an offset to the end of the column, also used for the vector loop tails.
+	 */
+	static void compare(int[] column, int from, ComparisonOperatorProxy operator, int argument, long[] mask) {
+		for (int i = from; i < column.length; i++) {
+			int value = column[i];
+			boolean match;
+			switch (operator) {
+				case EQUAL : match = value == argument; break;
+				case NOT_EQUAL : match = value != argument; break;
+				case GREATER_THAN : match = value > argument; break;
+				case GREATER_THAN_OR_EQUAL : match = value >= argument; break;
+				case LESS_THAN : match = value < argument; break;
+				default : match = value <= argument;
+			}
+			if (match) {
+				mask[i >>> 6] |= 1L << i;
+			}
+		}
+	}
+
+	static void compare(long[] column, int from, ComparisonOperatorProxy operator, long argument, long[] mask) {
+		for (int i = from; i < column.length; i++) {
+			long value = column[i];
+			boolean match;
+			switch (operator) {
+				case EQUAL : match = value == argument; break;
+				case NOT_EQUAL : match = value != argument; break;
+				case GREATER_THAN : match = value > argument; break;
+				case GREATER_THAN_OR_EQUAL : match = value >= argument; break;
+				case LESS_THAN : match = value < argument; break;
+				default : match = value <= argument;
+			}
+			if (match) {
+				mask[i >>> 6] |= 1L << i;
+			}
+		}
+	}
+
+	static void compare(double[] column, int from, ComparisonOperatorProxy operator, double argument, long[] mask) {
+		for (int i = from; i < column.length; i++) {
+			double value = column[i];
+			boolean match;
+			switch (operator) {
+				case EQUAL : match = value == argument; break;
+				case NOT_EQUAL : match = value != argument; break;
+				case GREATER_THAN : match = value > argument; break;
+				case GREATER_THAN_OR_EQUAL : match = value >= argument; break;
+				case LESS_THAN : match = value < argument; break;
+				default : match = value <= argument;
+			}
+			if (match) {
+				mask[i >>> 6] |= 1L << i;
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.memory;
+
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorColumnKernels
+ *
+ * {@link ColumnKernels} built on the incubating Vector API. Only loaded by
+ * {@link ColumnKernels#getInstance()} after checking that the module is resolved.
+ *
+ * Lane counts of the preferred species are powers of two not greater than 64, so the
+ * lane bits of one vector never straddle two mask words.
+ *
+ * @since 2026-10-19
+ */
+final class VectorColumnKernels extends ColumnKernels {
+
+	private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	@Override
+	public boolean isVectorized() {
+		return true;
+	}
+
+	@Override
+	public long[] compare(int[] column, ComparisonOperatorProxy operator, int argument) {
+		checkOperator(operator);
+		VectorOperators.Comparison comparison = toComparison(operator);
+		long[] mask = newMask(column.length);
+		int bound = INT_SPECIES.loopBound(column.length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			long bits = IntVector.fromArray(INT_SPECIES, column, i).compare(comparison, argument).toLong();
+			mask[i >>> 6] |= bits << i;
+		}
+		ScalarColumnKernels.compare(column, i, operator, argument, mask);
+		return mask;
+	}
+
+	@Override
+	public long[] compare(long[] column, ComparisonOperatorProxy operator, long argument) {
+		checkOperator(operator);
+		VectorOperators.Comparison comparison = toComparison(operator);
+		long[] mask = newMask(column.length);
+		int bound = LONG_SPECIES.loopBound(column.length);
+		int i = 0;
+		for (; i < bound; i += LONG_SPECIES.length()) {
+			long bits = LongVector.fromArray(LONG_SPECIES, column, i).compare(comparison, argument).toLong();
+			mask[i >>> 6] |= bits << i;
+		}
+		ScalarColumnKernels.compare(column, i, operator, argument, mask);
+		return mask;
+	}
+
+	@Override
+	public long[] compare(double[] column, ComparisonOperatorProxy operator, double argument) {
+		checkOperator(operator);
+		VectorOperators.Comparison comparison = toComparison(operator);
+		long[] mask = newMask(column.length);
+		int bound = DOUBLE_SPECIES.loopBound(column.length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			long bits = DoubleVector.fromArray(DOUBLE_SPECIES, column, i).compare(comparison, argument).toLong();
+			mask[i >>> 6] |= bits << i;
+		}
+		ScalarColumnKernels.compare(column, i, operator, argument, mask);
+		return mask;
+	}
+
+	private static VectorOperators.Comparison toComparison(ComparisonOperatorProxy operator) {
+		switch (operator) {
+			case EQUAL : return VectorOperators.EQ;
+			case NOT_EQUAL : return VectorOperators.NE;
+			case GREATER_THAN : return VectorOperators.GT;
+			case GREATER_THAN_OR_EQUAL : return VectorOperators.GE;
+			case LESS_THAN : return VectorOperators.LT;
+			default : return VectorOperators.LE;
+		}
+	}
+}
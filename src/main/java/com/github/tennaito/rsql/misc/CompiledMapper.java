@@ -0,0 +1,256 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.misc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.memory.PropertyPath;
+
+/**
+ * CompiledMapper
+ *
+ * {@link Mapper} whose aliases are flattened ahead of time. An alias may map to a path
+ * whose segments are aliases themselves, in its own entity or in the classes along the
+ * path; compilation replaces them until every segment is a property, the same resolution
+ * {@link com.github.tennaito.rsql.jpa.PredicateBuilder} does segment by segment at query
+ * time. Cyclic aliases are rejected when they are added.
+ *
+ * The compiled aliases are an immutable snapshot read without locking. Every change
+ * compiles a new snapshot and swaps it in, so mappings can be reloaded while queries run;
+ * a change that does not compile leaves the current snapshot in place.
+ *
+ * <pre>
+ * CompiledMapper mapper = new CompiledMapper();
+ * mapper.addMapping(Course.class, "dept", "department");
+ * mapper.addMapping(Course.class, "boss", "dept.head");
+ * mapper.translate("boss", Course.class);   // "department.head"
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class CompiledMapper implements Mapper {
+
+	private static final Logger LOG = Logger.getLogger(CompiledMapper.class.getName());
+
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<Snapshot>(Snapshot.EMPTY);
+
+	/**
+	 * Translate a selector to its canonical property path.
+	 *
+	 * @see com.github.tennaito.rsql.misc.Mapper#translate(java.lang.String, java.lang.Class)
+	 */
+	public String translate(String selector, Class<?> entityClass) {
+		Map<String, String> paths = snapshot.get().compiled.get(entityClass);
+		String path = paths == null ? null : paths.get(selector);
+		return path == null ? selector : path;
+	}
+
+	/**
+	 * Add one selector -> property path mapping for given entity class.
+	 *
+	 * @param entityClass  Entity class.
+	 * @param selector     Selector, an alias of the path.
+	 * @param property     Dot-separated path, may contain other aliases.
+	 * @throws IllegalArgumentException if the alias is cyclic.
+	 */
+	public synchronized void addMapping(Class<?> entityClass, String selector, String property) {
+		Map<Class<?>, Map<String, String>> aliases = copy(snapshot.get().aliases);
+		Map<String, String> entity = aliases.get(entityClass);
+		if (entity == null) {
+			entity = new HashMap<String, String>();
+			aliases.put(entityClass, entity);
+		}
+		entity.put(selector, property);
+		publish(aliases);
+	}
+
+	/**
+	 * Add selectors -> property paths mapping for given entity class.
+	 *
+	 * @param entityClass  Entity class.
+	 * @param mapping      Mapping of selectors to property paths.
+	 * @throws IllegalArgumentException if an alias is cyclic.
+	 */
+	public synchronized void addMapping(Class<?> entityClass, Map<String, String> mapping) {
+		Map<Class<?>, Map<String, String>> aliases = copy(snapshot.get().aliases);
+		Map<String, String> entity = aliases.get(entityClass);
+		if (entity == null) {
+			entity = new HashMap<String, String>();
+			aliases.put(entityClass, entity);
+		}
+		entity.putAll(mapping);
+		publish(aliases);
+	}
+
+	/**
+	 * Remove the mapping of a selector.
+	 *
+	 * @param entityClass  Entity class.
+	 * @param selector     Selector to remove.
+	 */
+	public synchronized void removeMapping(Class<?> entityClass, String selector) {
+		Map<Class<?>, Map<String, String>> aliases = copy(snapshot.get().aliases);
+		Map<String, String> entity = aliases.get(entityClass);
+		if (entity != null && entity.remove(selector) != null) {
+			publish(aliases);
+		}
+	}
+
+	/**
+	 * Replace every mapping at once.
+	 *
+	 * @param mapping {entity class -> {selector -> property path}}
+	 * @throws IllegalArgumentException if an alias is cyclic.
+	 */
+	public synchronized void setMapping(Map<Class<?>, Map<String, String>> mapping) {
+		publish(copy(mapping));
+	}
+
+	/**
+	 * Aliases as they were added.
+	 *
+	 * @return Unmodifiable mapping {entity class -> {selector -> property path}}.
+	 */
+	public Map<Class<?>, Map<String, String>> getMapping() {
+		return snapshot.get().aliases;
+	}
+
+	/**
+	 * Aliases with their canonical paths.
+	 *
+	 * @return Unmodifiable mapping {entity class -> {selector -> canonical path}}.
+	 */
+	public Map<Class<?>, Map<String, String>> getCompiledMapping() {
+		return snapshot.get().compiled;
+	}
+
+	private void publish(Map<Class<?>, Map<String, String>> aliases) {
+		Snapshot next = new Snapshot(freeze(aliases), freeze(compile(aliases)));
+		snapshot.set(next);
+		LOG.log(Level.INFO, "Compiled selector aliases {0}", next.compiled);
+	}
+
+	private static Map<Class<?>, Map<String, String>> compile(Map<Class<?>, Map<String, String>> aliases) {
+		Map<Class<?>, Map<String, String>> compiled = new HashMap<Class<?>, Map<String, String>>();
+		for (Map.Entry<Class<?>, Map<String, String>> entity : aliases.entrySet()) {
+			Map<String, String> paths = new HashMap<String, String>();
+			for (String selector : entity.getValue().keySet()) {
+				Set<String> visiting = new LinkedHashSet<String>();
+				String path = expand(aliases, entity.getKey(), selector, visiting).path;
+				if (!path.equals(selector)) {
+					paths.put(selector, path);
+				}
+			}
+			compiled.put(entity.getKey(), paths);
+		}
+		return compiled;
+	}
+
+	/**
+	 * Expand one segment on a class.
+	 *
+	 * @return The canonical path of the segment and the type it leads to, <tt>null</tt> if unknown.
+	 */
+	private static Expansion expand(Map<Class<?>, Map<String, String>> aliases, Class<?> type, String segment, Set<String> visiting) {
+		Map<String, String> entity = aliases.get(type);
+		String target = entity == null ? null : entity.get(segment);
+		if (target == null || target.equals(segment)) {
+			Class<?> next;
+			try {
+				next = PropertyPath.compile(type, segment, null).getJavaType();
+			} catch (IllegalArgumentException e) {
+				// unknown properties fail when the selector is used
+				next = null;
+			}
+			return new Expansion(segment, next);
+		}
+		String key = type.getName() + "#" + segment;
+		if (!visiting.add(key)) {
+			throw new IllegalArgumentException("Cyclic selector alias: " + String.join(" -> ", visiting) + " -> " + key);
+		}
+		List<String> path = new ArrayList<String>();
+		Class<?> current = type;
+		String[] segments = target.split("\\.");
+		for (int i = 0; i < segments.length; i++) {
+			if (current == null) {
+				// past an unknown property, the rest is left as written
+				path.add(segments[i]);
+				continue;
+			}
+			Expansion expansion = expand(aliases, current, segments[i], visiting);
+			path.add(expansion.path);
+			current = expansion.type;
+		}
+		visiting.remove(key);
+		return new Expansion(String.join(".", path), current);
+	}
+
+	private static Map<Class<?>, Map<String, String>> copy(Map<Class<?>, Map<String, String>> mapping) {
+		Map<Class<?>, Map<String, String>> copy = new HashMap<Class<?>, Map<String, String>>();
+		for (Map.Entry<Class<?>, Map<String, String>> entity : mapping.entrySet()) {
+			copy.put(entity.getKey(), new HashMap<String, String>(entity.getValue()));
+		}
+		return copy;
+	}
+
+	private static Map<Class<?>, Map<String, String>> freeze(Map<Class<?>, Map<String, String>> mapping) {
+		Map<Class<?>, Map<String, String>> frozen = new HashMap<Class<?>, Map<String, String>>();
+		for (Map.Entry<Class<?>, Map<String, String>> entity : mapping.entrySet()) {
+			frozen.put(entity.getKey(), Collections.unmodifiableMap(new HashMap<String, String>(entity.getValue())));
+		}
+		return Collections.unmodifiableMap(frozen);
+	}
+
+	private static final class Expansion {
+		private final String path;
+		private final Class<?> type;
+
+		private Expansion(String path, Class<?> type) {
+			this.path = path;
+			this.type = type;
+		}
+	}
+
+	private static final class Snapshot {
+		private static final Snapshot EMPTY = new Snapshot(Collections.<Class<?>, Map<String, String>>emptyMap(),
+				Collections.<Class<?>, Map<String, String>>emptyMap());
+
+		private final Map<Class<?>, Map<String, String>> aliases;
+		private final Map<Class<?>, Map<String, String>> compiled;
+
+		private Snapshot(Map<Class<?>, Map<String, String>> aliases, Map<Class<?>, Map<String, String>> compiled) {
+			this.aliases = aliases;
+			this.compiled = compiled;
+		}
+	}
+}
@@ -50,13 +50,15 @@ public enum ComparisonOperatorProxy {
 
 	private ComparisonOperator operator;
 	
-	private final static Map<ComparisonOperator, ComparisonOperatorProxy> CACHE = 
-			Collections.synchronizedMap(new HashMap<ComparisonOperator, ComparisonOperatorProxy>());
-	
+	private final static Map<ComparisonOperator, ComparisonOperatorProxy> CACHE;
+
 	static {
+		// filled once on class initialization, read without locking afterwards
+		Map<ComparisonOperator, ComparisonOperatorProxy> cache = new HashMap<ComparisonOperator, ComparisonOperatorProxy>();
 		for (ComparisonOperatorProxy proxy : values()) {
-			CACHE.put(proxy.getOperator(), proxy);
+			cache.put(proxy.getOperator(), proxy);
 		}
+		CACHE = Collections.unmodifiableMap(cache);
 	}
 
     private ComparisonOperatorProxy(ComparisonOperator operator) {
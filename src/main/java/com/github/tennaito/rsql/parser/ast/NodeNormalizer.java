@@ -0,0 +1,147 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.parser.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * NodeNormalizer
+ *
+ * Rewrites RSQL AST nodes into a canonical form, so that equivalent filters written
+ * differently share one representation: nested logical nodes of the same operator are
+ * flattened, children are de-duplicated and sorted, single child logical nodes are
+ * replaced by their child and multi-value arguments are de-duplicated and sorted.
+ *
+ * @since 2026-10-19
+ */
+public final class NodeNormalizer {
+
+	private static final Comparator<Node> BY_ENCODING = Comparator.comparing(NodeNormalizer::encode);
+
+	/**
+	 * Private constructor.
+	 */
+	private NodeNormalizer() {
+		super();
+	}
+
+	/**
+	 * Normalize a node.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     The canonical equivalent node.
+	 */
+	public static Node normalize(Node node) {
+		if (node instanceof ComparisonNode) {
+			ComparisonNode comparison = (ComparisonNode) node;
+			if (comparison.getOperator().isMultiValue() && comparison.getArguments().size() > 1) {
+				List<String> arguments = new ArrayList<String>(new TreeSet<String>(comparison.getArguments()));
+				return comparison.withArguments(arguments);
+			}
+			return comparison;
+		}
+		if (node instanceof LogicalNode) {
+			LogicalNode logical = (LogicalNode) node;
+			Set<Node> children = new LinkedHashSet<Node>();
+			for (Node child : logical.getChildren()) {
+				Node normalized = normalize(child);
+				if (normalized instanceof LogicalNode && ((LogicalNode) normalized).getOperator() == logical.getOperator()) {
+					children.addAll(((LogicalNode) normalized).getChildren());
+				} else {
+					children.add(normalized);
+				}
+			}
+			if (children.size() == 1) {
+				return children.iterator().next();
+			}
+			List<Node> sorted = new ArrayList<Node>(children);
+			Collections.sort(sorted, BY_ENCODING);
+			return logical.withChildren(sorted);
+		}
+		throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+	}
+
+	/**
+	 * Canonical string of a node, equal for filters that normalize to the same node.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Fingerprint of the node.
+	 */
+	public static String fingerprint(Node node) {
+		return encode(normalize(node));
+	}
+
+	/**
+	 * Unambiguous encoding of a node as it is, the fingerprint of an already normalized node.
+	 * Unlike {@link Node#toString()}, which does not escape quotes in arguments, selectors,
+	 * operators and arguments are length-prefixed, so different nodes never share an encoding.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Encoding of the node.
+	 */
+	public static String encode(Node node) {
+		StringBuilder encoding = new StringBuilder();
+		encode(node, encoding);
+		return encoding.toString();
+	}
+
+	private static void encode(Node node, StringBuilder encoding) {
+		if (node instanceof ComparisonNode) {
+			ComparisonNode comparison = (ComparisonNode) node;
+			encoding.append('C');
+			encode(comparison.getSelector(), encoding);
+			encode(comparison.getOperator().getSymbol(), encoding);
+			encoding.append(comparison.getArguments().size()).append('[');
+			for (String argument : comparison.getArguments()) {
+				encode(argument, encoding);
+			}
+			encoding.append(']');
+		} else if (node instanceof LogicalNode) {
+			LogicalNode logical = (LogicalNode) node;
+			encoding.append(logical.getOperator() == LogicalOperator.AND ? 'A' : 'O')
+					.append(logical.getChildren().size()).append('(');
+			for (Node child : logical.getChildren()) {
+				encode(child, encoding);
+			}
+			encoding.append(')');
+		} else {
+			throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+		}
+	}
+
+	private static void encode(String value, StringBuilder encoding) {
+		encoding.append(value.length()).append(':').append(value);
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+import com.github.tennaito.rsql.jpa.SelectorIndex;
+
+/**
+ * SelectorIndexProcessor
+ *
+ * Annotation processor generating a <tt>&lt;Class&gt;_RsqlSelectors</tt> table for every
+ * <tt>@Entity</tt> and <tt>@Embeddable</tt> class, so {@link SelectorIndex} resolves their
+ * selectors without the JPA metamodel. The table lists the persistent fields of the class
+ * and of its mapped superclasses with their types and kind of association.
+ *
+ * The tables are loaded by name with <tt>Class.forName</tt>, so the processor also writes
+ * <tt>META-INF/native-image/&lt;dir&gt;/reflect-config.json</tt> registering them for GraalVM
+ * native images. The directory defaults to <tt>rsql-selectors</tt>; set the
+ * <tt>rsql.selectors.nativeImageDir</tt> option (e.g. to <tt>groupId/artifactId</tt>) when
+ * several modules of an application generate tables, so their files do not shadow each other.
+ *
+ * The processor is not registered as a service: enable it explicitly, e.g. in the
+ * <tt>annotationProcessors</tt> of the maven-compiler-plugin. Classes with property access
+ * (mapping annotations on getters) are skipped and keep using the metamodel.
+ *
+ * @since 2026-10-19
+ */
+@SupportedAnnotationTypes({ SelectorIndexProcessor.ENTITY, SelectorIndexProcessor.EMBEDDABLE })
+@SupportedOptions(SelectorIndexProcessor.NATIVE_IMAGE_DIR)
+public class SelectorIndexProcessor extends AbstractProcessor {
+
+	static final String NATIVE_IMAGE_DIR = "rsql.selectors.nativeImageDir";
+
+	static final String ENTITY = "jakarta.persistence.Entity";
+	static final String EMBEDDABLE = "jakarta.persistence.Embeddable";
+
+	private static final String PERSISTENCE = "jakarta.persistence.";
+
+	private static final String[][] KINDS = {
+		{ "Embedded", "EMBEDDED" }, { "EmbeddedId", "EMBEDDED" }, { "ElementCollection", "ELEMENT_COLLECTION" },
+		{ "ManyToOne", "MANY_TO_ONE" }, { "OneToOne", "ONE_TO_ONE" },
+		{ "OneToMany", "ONE_TO_MANY" }, { "ManyToMany", "MANY_TO_MANY" }
+	};
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 * Generated tables of every round, registered for reflection once processing is over.
+	 */
+	private final Set<String> tables = new TreeSet<String>();
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			if (!tables.isEmpty()) {
+				generateReflectConfig();
+			}
+			return false;
+		}
+		for (TypeElement annotation : annotations) {
+			for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+				if (hasPropertyAccess(type)) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+							"Property access, no selector table generated", type);
+				} else {
+					generate(type);
+				}
+			}
+		}
+		return false;
+	}
+
+	private void generate(TypeElement type) {
+		Map<String, String> attributes = new LinkedHashMap<String, String>();
+		DeclaredType declared = (DeclaredType) type.asType();
+		for (TypeElement current = type; current != null; current = superclass(current)) {
+			for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)
+						|| annotation(field, "Transient") != null || attributes.containsKey(field.getSimpleName().toString())) {
+					continue;
+				}
+				TypeMirror fieldType = processingEnv.getTypeUtils().asMemberOf(declared, field);
+				attributes.put(field.getSimpleName().toString(), attribute(field, fieldType));
+			}
+		}
+
+		String packageName = ((PackageElement) processingEnv.getElementUtils().getPackageOf(type)).getQualifiedName().toString();
+		String simpleName = type.getQualifiedName().toString().substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('.', '_');
+		String tableName = simpleName + SelectorIndex.TABLE_SUFFIX;
+		try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+				.createSourceFile(packageName.isEmpty() ? tableName : packageName + "." + tableName, type).openWriter())) {
+			if (!packageName.isEmpty()) {
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+			out.println("import com.github.tennaito.rsql.jpa.SelectorIndex;");
+			out.println();
+			out.println("/**");
+			out.println(" * Selector table of {@link " + type.getQualifiedName() + "}, generated by " + getClass().getSimpleName() + ".");
+			out.println(" */");
+			out.println("public final class " + tableName + " {");
+			out.println();
+			out.println("\tstatic {");
+			out.println("\t\tSelectorIndex.register(" + type.getQualifiedName() + ".class,");
+			int index = 0;
+			for (String attribute : attributes.values()) {
+				out.println("\t\t\t\t" + attribute + (++index < attributes.size() ? "," : ");"));
+			}
+			if (attributes.isEmpty()) {
+				out.println("\t\t\t\tnew SelectorIndex.Attribute[0]);");
+			}
+			out.println("\t}");
+			out.println();
+			out.println("\tprivate " + tableName + "() {");
+			out.println("\t}");
+			out.println("}");
+			tables.add(packageName.isEmpty() ? tableName : packageName + "." + tableName);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot generate " + tableName + ": " + e.getMessage(), type);
+		}
+	}
+
+	private void generateReflectConfig() {
+		String dir = processingEnv.getOptions().get(NATIVE_IMAGE_DIR);
+		String path = "META-INF/native-image/" + (dir == null || dir.isEmpty() ? "rsql-selectors" : dir) + "/reflect-config.json";
+		try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+				.createResource(StandardLocation.CLASS_OUTPUT, "", path).openWriter())) {
+			out.println("[");
+			int index = 0;
+			for (String table : tables) {
+				out.println("  { \"name\": \"" + table + "\" }" + (++index < tables.size() ? "," : ""));
+			}
+			out.println("]");
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot generate " + path + ": " + e.getMessage());
+		}
+	}
+
+	private String attribute(VariableElement field, TypeMirror fieldType) {
+		Types types = processingEnv.getTypeUtils();
+		String kind = "BASIC";
+		for (String[] candidate : KINDS) {
+			if (annotation(field, candidate[0]) != null) {
+				kind = candidate[1];
+				break;
+			}
+		}
+		if ("BASIC".equals(kind) && fieldType.getKind() == TypeKind.DECLARED
+				&& annotation(types.asElement(fieldType), EMBEDDABLE.substring(PERSISTENCE.length())) != null) {
+			kind = "EMBEDDED";
+		}
+		TypeMirror targetType = fieldType;
+		if (kind.equals("ONE_TO_MANY") || kind.equals("MANY_TO_MANY") || kind.equals("ELEMENT_COLLECTION")) {
+			List<? extends TypeMirror> arguments = fieldType.getKind() == TypeKind.DECLARED
+					? ((DeclaredType) fieldType).getTypeArguments() : new ArrayList<TypeMirror>();
+			if (!arguments.isEmpty()) {
+				// the values of a map, the elements of a collection
+				targetType = arguments.get(arguments.size() - 1);
+			}
+		}
+		return "new SelectorIndex.Attribute(\"" + field.getSimpleName() + "\", " + literal(fieldType) + ", "
+				+ literal(targetType) + ", SelectorIndex.Kind." + kind + ")";
+	}
+
+	private String literal(TypeMirror type) {
+		return typeName(processingEnv.getTypeUtils().erasure(type)) + ".class";
+	}
+
+	private String typeName(TypeMirror type) {
+		switch (type.getKind()) {
+			case DECLARED : return ((TypeElement) processingEnv.getTypeUtils().asElement(type)).getQualifiedName().toString();
+			case ARRAY : return typeName(((ArrayType) type).getComponentType()) + "[]";
+			default : return type.getKind().name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private TypeElement superclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) return null;
+		TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(superclass);
+		return annotation(element, "MappedSuperclass") != null || annotation(element, "Entity") != null ? element : null;
+	}
+
+	private boolean hasPropertyAccess(TypeElement type) {
+		for (TypeElement current = type; current != null; current = superclass(current)) {
+			for (Element member : current.getEnclosedElements()) {
+				if (member.getKind() == ElementKind.METHOD && (annotation(member, "Id") != null || annotation(member, "EmbeddedId") != null)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static AnnotationMirror annotation(Element element, String simpleName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if (mirror.getAnnotationType().toString().equals(PERSISTENCE + simpleName)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+}
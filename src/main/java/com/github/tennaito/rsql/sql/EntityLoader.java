@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.sql;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Loads the entities of ids read by native queries with a single JPQL statement.
+ *
+ * @since 2026-10-19
+ */
+final class EntityLoader {
+
+	private EntityLoader() {
+	}
+
+	/**
+	 * Load entities by id.
+	 *
+	 * @param entityManager  JPA EntityManager.
+	 * @param entityClass    Entity class.
+	 * @param ids            Ids as read from a native query.
+	 * @return               Entities by id, converted to the id type of the entity.
+	 */
+	static <T> Map<Object, T> load(EntityManager entityManager, Class<T> entityClass, Collection<?> ids) {
+		EntityType<T> type = entityManager.getMetamodel().entity(entityClass);
+		Class<?> idType = type.getIdType().getJavaType();
+		Map<Object, T> byId = new HashMap<Object, T>();
+		if (ids.isEmpty()) return byId;
+
+		List<Object> converted = new ArrayList<Object>(ids.size());
+		for (Object id : ids) {
+			converted.add(toIdType(id, idType));
+		}
+		String idAttribute = type.getId(idType).getName();
+		PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+		List<T> entities = entityManager.createQuery("select e from " + type.getName() + " e where e." + idAttribute + " in :ids", entityClass)
+				.setParameter("ids", converted).getResultList();
+		for (T entity : entities) {
+			byId.put(util.getIdentifier(entity), entity);
+		}
+		return byId;
+	}
+
+	/**
+	 * Convert an id read by a native query to the id type of an entity.
+	 *
+	 * @param id      Id as read.
+	 * @param idType  Id type of the entity.
+	 * @return        The id.
+	 */
+	static Object toIdType(Object id, Class<?> idType) {
+		if (id instanceof Number) {
+			Number number = (Number) id;
+			if (idType == Long.class || idType == long.class) return number.longValue();
+			if (idType == Integer.class || idType == int.class) return number.intValue();
+			if (idType == Short.class || idType == short.class) return number.shortValue();
+		}
+		return id;
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.persistence.EntityManager;
+
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * NativeSqlBatch
+ *
+ * Runs several filters on one entity in a single round trip: every filter becomes a branch
+ * of one <tt>UNION ALL</tt> statement selecting a tag column (the index of the filter) and
+ * the id, optionally limited to the first rows by id. The rows are then demultiplexed back
+ * into one list per filter.
+ *
+ * <pre>
+ * NativeSqlBatch batch = new NativeSqlBatch(translator);
+ * batch.add(activeNode);
+ * batch.add(recentNode, 10);
+ * List&lt;List&lt;Course&gt;&gt; results = batch.fetch(entityManager, Course.class);
+ * </pre>
+ *
+ * A batch is used by one thread; the translator may be shared.
+ *
+ * @since 2026-10-19
+ */
+public class NativeSqlBatch {
+
+	private static final Logger LOG = Logger.getLogger(NativeSqlBatch.class.getName());
+
+	private final NativeSqlTranslator translator;
+
+	private final List<Node> filters = new ArrayList<Node>();
+
+	private final List<Integer> limits = new ArrayList<Integer>();
+
+	public NativeSqlBatch(NativeSqlTranslator translator) {
+		if (translator == null) {
+			throw new IllegalArgumentException("Translator was undefined.");
+		}
+		this.translator = translator;
+	}
+
+	/**
+	 * Add a filter.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     Index of the filter in the results.
+	 */
+	public int add(Node node) {
+		return add(node, 0);
+	}
+
+	/**
+	 * Add a filter returning at most a number of entities, the first ones by id.
+	 *
+	 * @param node   RSQL AST node.
+	 * @param limit  Maximum entities, <tt>0</tt> for no limit.
+	 * @return       Index of the filter in the results.
+	 */
+	public int add(Node node, int limit) {
+		if (node == null || limit < 0) {
+			throw new IllegalArgumentException("Invalid filter " + node + " with limit " + limit);
+		}
+		filters.add(node);
+		limits.add(limit);
+		return filters.size() - 1;
+	}
+
+	public int size() {
+		return filters.size();
+	}
+
+	/**
+	 * Translate the filters into one statement selecting <tt>(tag, id)</tt> rows.
+	 *
+	 * @return The query.
+	 */
+	public NativeSqlQuery toQuery() {
+		if (filters.isEmpty()) {
+			throw new IllegalArgumentException("Batch has no filters.");
+		}
+		String id = NativeSqlTranslator.ROOT_ALIAS + "." + translator.getMapping().getIdColumn();
+		StringBuilder sql = new StringBuilder();
+		List<Object> parameters = new ArrayList<Object>();
+		for (int i = 0; i < filters.size(); i++) {
+			NativeSqlQuery branch = translator.toQuery(filters.get(i), i + " as tag, " + id, parameters.size());
+			parameters.addAll(branch.getParameters());
+			if (i > 0) sql.append(" union all ");
+			sql.append('(').append(branch.getSql());
+			if (limits.get(i) > 0) {
+				sql.append(" order by ").append(id).append(" fetch first ").append(limits.get(i)).append(" rows only");
+			}
+			sql.append(')');
+		}
+		return new NativeSqlQuery(sql.toString(), parameters);
+	}
+
+	/**
+	 * Run the filters and get the ids of each one.
+	 *
+	 * @param entityManager JPA EntityManager.
+	 * @return              A list of ids per filter, in the order the filters were added.
+	 */
+	public List<List<Object>> fetchIds(EntityManager entityManager) {
+		List<List<Object>> ids = new ArrayList<List<Object>>();
+		for (int i = 0; i < filters.size(); i++) {
+			ids.add(new ArrayList<Object>());
+		}
+		List<?> rows = toQuery().createQuery(entityManager).getResultList();
+		for (Object row : rows) {
+			Object[] columns = (Object[]) row;
+			ids.get(((Number) columns[0]).intValue()).add(columns[1]);
+		}
+		LOG.log(Level.INFO, "Fetched {0} rows for {1} filters in one statement", new Object[] {rows.size(), filters.size()});
+		return ids;
+	}
+
+	/**
+	 * Run the filters and load their entities, with one more statement for all of them.
+	 *
+	 * @param entityManager  JPA EntityManager.
+	 * @param entityClass    The main entity of the query.
+	 * @return               A list of entities per filter, in the order the filters were added.
+	 */
+	public <T> List<List<T>> fetch(EntityManager entityManager, Class<T> entityClass) {
+		List<List<Object>> ids = fetchIds(entityManager);
+		List<Object> all = new ArrayList<Object>();
+		for (List<Object> branch : ids) {
+			all.addAll(branch);
+		}
+		Map<Object, T> byId = EntityLoader.load(entityManager, entityClass, all);
+		Class<?> idType = entityManager.getMetamodel().entity(entityClass).getIdType().getJavaType();
+
+		List<List<T>> results = new ArrayList<List<T>>();
+		for (List<Object> branch : ids) {
+			List<T> entities = new ArrayList<T>(branch.size());
+			for (Object id : branch) {
+				T entity = byId.get(EntityLoader.toIdType(id, idType));
+				if (entity != null) entities.add(entity);
+			}
+			results.add(Collections.unmodifiableList(entities));
+		}
+		return results;
+	}
+}
@@ -0,0 +1,356 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.sql;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.ImmutableBuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * NativeSqlTranslator
+ *
+ * Immutable translator of RSQL AST nodes straight into parameterized native SQL, for read
+ * endpoints that only need ids or a few columns and want to skip building a Criteria
+ * query and its translation by the JPA provider. Selectors are resolved with the
+ * {@link SqlMapping} of the entity and the properties mapper; single valued associations
+ * are inner joined once per query, like the Criteria translation.
+ *
+ * Only the built-in operators are translated; collections and custom operators need the
+ * Criteria translation. The comparisons follow {@link PredicateBuilder}: wildcards turn
+ * <tt>==</tt> into <tt>like</tt>, <tt>null</tt> into <tt>is null</tt>, and date bounds are
+ * inclusive.
+ *
+ * <pre>
+ * NativeSqlTranslator translator = new NativeSqlTranslator(SqlMapping.fromMetamodel(Course.class, metamodel));
+ * List&lt;?&gt; ids = translator.toIdQuery(rootNode).createQuery(entityManager).getResultList();
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public final class NativeSqlTranslator {
+
+	private static final Logger LOG = Logger.getLogger(NativeSqlTranslator.class.getName());
+
+	static final String ROOT_ALIAS = "t0";
+
+	private final SqlMapping mapping;
+
+	private final BuilderTools tools;
+
+	/**
+	 * Create a translator with the default builder tools.
+	 *
+	 * @param mapping Mapping of the main entity.
+	 */
+	public NativeSqlTranslator(SqlMapping mapping) {
+		this(mapping, new SimpleBuilderTools());
+	}
+
+	/**
+	 * Create a translator.
+	 *
+	 * @param mapping  Mapping of the main entity.
+	 * @param tools    Builder tools, copied.
+	 */
+	public NativeSqlTranslator(SqlMapping mapping, BuilderTools tools) {
+		if (mapping == null) {
+			throw new IllegalArgumentException("Mapping was undefined.");
+		}
+		this.mapping = mapping;
+		this.tools = ImmutableBuilderTools.of(tools);
+	}
+
+	public SqlMapping getMapping() {
+		return mapping;
+	}
+
+	/**
+	 * Translate a filter into a query of the ids of the matching entities.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     The query.
+	 */
+	public NativeSqlQuery toIdQuery(Node node) {
+		return toQuery(node, ROOT_ALIAS + "." + mapping.getIdColumn());
+	}
+
+	/**
+	 * Translate a filter into a count of the matching entities.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     The query.
+	 */
+	public NativeSqlQuery toCountQuery(Node node) {
+		return toQuery(node, "count(*)");
+	}
+
+	/**
+	 * Translate a filter into a count of the matching entities capped at a limit, so the
+	 * database stops reading rows once the limit is reached. The cap uses the SQL:2008
+	 * <tt>fetch first</tt> clause (H2, PostgreSQL, Oracle 12c+, DB2, SQL Server with an order).
+	 *
+	 * @param node   RSQL AST node.
+	 * @param limit  Maximum count.
+	 * @return       The query, its single value is the count up to the limit.
+	 */
+	public NativeSqlQuery toCappedCountQuery(Node node, int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Invalid limit: " + limit);
+		}
+		// only single valued associations are joined, the ids are distinct
+		NativeSqlQuery ids = toIdQuery(node);
+		return new NativeSqlQuery("select count(*) from (" + ids.getSql() + " fetch first " + limit + " rows only) capped",
+				ids.getParameters());
+	}
+
+	/**
+	 * Translate a filter into a projection of properties of the matching entities.
+	 *
+	 * @param node        RSQL AST node.
+	 * @param properties  Property paths of the projection, as selectors.
+	 * @return            The query, a row per entity with a value per property.
+	 */
+	public NativeSqlQuery toProjectionQuery(Node node, String... properties) {
+		if (properties.length == 0) {
+			throw new IllegalArgumentException("Projection has no properties.");
+		}
+		Translation translation = new Translation(0);
+		StringBuilder select = new StringBuilder();
+		for (String property : properties) {
+			if (select.length() > 0) select.append(", ");
+			select.append(translation.resolve(property).column);
+		}
+		return translation.toQuery(select.toString(), node);
+	}
+
+	private NativeSqlQuery toQuery(Node node, String select) {
+		return new Translation(0).toQuery(select, node);
+	}
+
+	/**
+	 * Translate a filter with the parameters numbered after those of previous statements.
+	 *
+	 * @param node             RSQL AST node.
+	 * @param select           Select list.
+	 * @param parameterOffset  Parameters already used.
+	 * @return                 The query, its parameters start at <tt>?(parameterOffset + 1)</tt>.
+	 */
+	NativeSqlQuery toQuery(Node node, String select, int parameterOffset) {
+		return new Translation(parameterOffset).toQuery(select, node);
+	}
+
+	/**
+	 * State of one translation: joins and parameters.
+	 */
+	private final class Translation {
+		private final Map<String, String> joinAliases = new LinkedHashMap<String, String>();
+		private final StringBuilder joins = new StringBuilder();
+		private final List<Object> parameters = new ArrayList<Object>();
+		private final int parameterOffset;
+
+		private Translation(int parameterOffset) {
+			this.parameterOffset = parameterOffset;
+		}
+
+		private NativeSqlQuery toQuery(String select, Node node) {
+			StringBuilder where = new StringBuilder();
+			append(node, where);
+			StringBuilder sql = new StringBuilder("select ").append(select)
+					.append(" from ").append(mapping.getTable()).append(' ').append(ROOT_ALIAS)
+					.append(joins)
+					.append(" where ").append(where);
+			NativeSqlQuery query = new NativeSqlQuery(sql.toString(), parameters);
+			LOG.log(Level.INFO, "Translated {0} to {1}", new Object[] {node, query});
+			return query;
+		}
+
+		private void append(Node node, StringBuilder sql) {
+			if (node instanceof LogicalNode) {
+				LogicalNode logical = (LogicalNode) node;
+				String operator = logical.getOperator() == LogicalOperator.AND ? " and " : " or ";
+				sql.append('(');
+				boolean first = true;
+				for (Node child : logical.getChildren()) {
+					if (!first) sql.append(operator);
+					append(child, sql);
+					first = false;
+				}
+				sql.append(')');
+			} else if (node instanceof ComparisonNode) {
+				append((ComparisonNode) node, sql);
+			} else {
+				throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+			}
+		}
+
+		private void append(ComparisonNode comparison, StringBuilder sql) {
+			ComparisonOperatorProxy operator = ComparisonOperatorProxy.asEnum(comparison.getOperator());
+			if (operator == null) {
+				throw new IllegalArgumentException("Operator " + comparison.getOperator() + " is not supported by native SQL translation.");
+			}
+			ResolvedColumn column = resolve(comparison.getSelector());
+			List<?> arguments = tools.getArgumentParser().parse(comparison.getArguments(), column.type);
+			Object argument = arguments.get(0);
+			boolean like = argument instanceof String && ((String) argument).indexOf(PredicateBuilder.LIKE_WILDCARD) >= 0;
+			sql.append(column.column);
+			switch (operator) {
+				case EQUAL :
+					if (argument == null) {
+						sql.append(" is null");
+					} else {
+						sql.append(like ? " like " : " = ").append(parameter(like ? toLike((String) argument) : argument));
+					}
+					break;
+				case NOT_EQUAL :
+					if (argument == null) {
+						sql.append(" is not null");
+					} else {
+						sql.append(like ? " not like " : " <> ").append(parameter(like ? toLike((String) argument) : argument));
+					}
+					break;
+				case GREATER_THAN :
+					sql.append(argument instanceof Date ? " >= " : " > ").append(comparable(comparison, argument));
+					break;
+				case GREATER_THAN_OR_EQUAL :
+					sql.append(" >= ").append(comparable(comparison, argument));
+					break;
+				case LESS_THAN :
+					sql.append(argument instanceof Date ? " <= " : " < ").append(comparable(comparison, argument));
+					break;
+				case LESS_THAN_OR_EQUAL :
+					sql.append(" <= ").append(comparable(comparison, argument));
+					break;
+				case IN :
+				case NOT_IN :
+					sql.append(operator == ComparisonOperatorProxy.IN ? " in (" : " not in (");
+					for (int i = 0; i < arguments.size(); i++) {
+						if (i > 0) sql.append(", ");
+						sql.append(parameter(arguments.get(i)));
+					}
+					sql.append(')');
+					break;
+			}
+		}
+
+		private String comparable(ComparisonNode comparison, Object argument) {
+			if (argument != null && !(argument instanceof Comparable)) {
+				throw new IllegalArgumentException(String.format("Invalid type for comparison operator: %s type: %s must implement Comparable<%s>",
+						comparison.getOperator(), argument.getClass().getName(), argument.getClass().getSimpleName()));
+			}
+			return parameter(argument);
+		}
+
+		private String parameter(Object value) {
+			parameters.add(value);
+			return "?" + (parameterOffset + parameters.size());
+		}
+
+		private ResolvedColumn resolve(String selector) {
+			Deque<String> segments = new ArrayDeque<String>();
+			for (String segment : selector.split("\\.")) {
+				segments.addLast(segment);
+			}
+			SqlMapping current = mapping;
+			String alias = ROOT_ALIAS;
+			String joinPath = "";
+			String local = "";
+			while (!segments.isEmpty()) {
+				String property = segments.removeFirst();
+				Class<?> type = local.isEmpty() ? null : current.getEmbeddableType(local.substring(0, local.length() - 1));
+				String mappedProperty = tools.getPropertiesMapper().translate(property, type == null ? current.getEntityClass() : type);
+				if (!mappedProperty.equals(property)) {
+					String[] mapped = mappedProperty.split("\\.");
+					for (int i = mapped.length - 1; i >= 0; i--) {
+						segments.addFirst(mapped[i]);
+					}
+					continue;
+				}
+				String path = local + property;
+				SqlMapping.JoinMapping join = current.getJoin(path);
+				String column = current.getColumn(path);
+				if (join != null) {
+					joinPath = joinPath + "." + path;
+					alias = join(joinPath, alias, join);
+					current = join.getTarget();
+					local = "";
+				} else if (column != null && segments.isEmpty()) {
+					return new ResolvedColumn(alias + "." + column, current.getType(path));
+				} else if (column == null && current.isEmbedded(path)) {
+					local = path + ".";
+				} else if (current.isUnsupported(path)) {
+					throw new IllegalArgumentException("Property " + path + " of entity " + current.getEntityClass().getName() + " is not supported by native SQL translation.");
+				} else {
+					String unknown = column == null ? property : segments.peekFirst();
+					throw new IllegalArgumentException("Unknown property: " + unknown + " from entity " + current.getEntityClass().getName());
+				}
+			}
+			throw new IllegalArgumentException("Property " + selector + " is not a basic property.");
+		}
+
+		private String join(String joinPath, String parentAlias, SqlMapping.JoinMapping join) {
+			String alias = joinAliases.get(joinPath);
+			if (alias != null) return alias;
+			alias = "t" + (joinAliases.size() + 1);
+			joinAliases.put(joinPath, alias);
+			joins.append(" join ").append(join.getTarget().getTable()).append(' ').append(alias).append(" on ");
+			for (int i = 0; i < join.getColumns().size(); i++) {
+				if (i > 0) joins.append(" and ");
+				joins.append(alias).append('.').append(join.getTargetColumns().get(i))
+						.append(" = ").append(parentAlias).append('.').append(join.getColumns().get(i));
+			}
+			return alias;
+		}
+	}
+
+	private static String toLike(String argument) {
+		return argument.replace(PredicateBuilder.LIKE_WILDCARD, '%');
+	}
+
+	private static final class ResolvedColumn {
+		private final String column;
+		private final Class<?> type;
+
+		private ResolvedColumn(String column, Class<?> type) {
+			this.column = column;
+			this.type = type;
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.persistence.EntityManager;
+
+import com.github.tennaito.rsql.jpa.PredicateBuilder;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * OrBranchRewriter
+ *
+ * Runs a top-level disjunction whose branches use different indexed access paths, such as
+ * <tt>code==X,department.head.surname==Y</tt>, as one id query per branch combined with
+ * <tt>UNION</tt>, which removes the duplicates. Each branch can then use its own index
+ * where the single <tt>OR</tt> predicate would often be a full scan.
+ *
+ * The rewrite is chosen by a heuristic: the top-level node is an <tt>OR</tt> of at most
+ * {@link #getMaxBranches()} branches, every branch has a sargable comparison (equality
+ * without leading wildcard, <tt>in</tt> or a range) on an indexed selector, and the
+ * branches do not all use the same selectors. Other filters run as one query.
+ *
+ * <pre>
+ * OrBranchRewriter rewriter = new OrBranchRewriter(translator);
+ * rewriter.setIndexedSelectors(new HashSet&lt;String&gt;(Arrays.asList("code", "department.head.surname")));
+ * List&lt;Course&gt; courses = rewriter.fetch(rootNode, entityManager, Course.class);
+ * </pre>
+ *
+ * @since 2026-10-19
+ */
+public class OrBranchRewriter {
+
+	private static final Logger LOG = Logger.getLogger(OrBranchRewriter.class.getName());
+
+	private final NativeSqlTranslator translator;
+
+	private Set<String> indexedSelectors;
+
+	private int maxBranches = 8;
+
+	public OrBranchRewriter(NativeSqlTranslator translator) {
+		if (translator == null) {
+			throw new IllegalArgumentException("Translator was undefined.");
+		}
+		this.translator = translator;
+	}
+
+	/**
+	 * Decide whether a filter runs as a union of its branches.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     <tt>true</tt> if the filter is rewritten.
+	 */
+	public boolean shouldSplit(Node node) {
+		if (!(node instanceof LogicalNode) || ((LogicalNode) node).getOperator() != LogicalOperator.OR) {
+			return false;
+		}
+		List<Node> branches = ((LogicalNode) node).getChildren();
+		if (branches.size() < 2 || branches.size() > maxBranches) {
+			return false;
+		}
+		Set<Set<String>> accessPaths = new HashSet<Set<String>>();
+		for (Node branch : branches) {
+			Set<String> accessPath = accessPath(branch);
+			if (accessPath.isEmpty()) {
+				// this branch scans anyway, splitting would only add statements
+				return false;
+			}
+			accessPaths.add(accessPath);
+		}
+		return accessPaths.size() > 1;
+	}
+
+	/**
+	 * Indexed selectors with a sargable comparison at the top of a branch.
+	 */
+	private Set<String> accessPath(Node branch) {
+		Set<String> selectors = new TreeSet<String>();
+		if (branch instanceof ComparisonNode) {
+			addIfSargable((ComparisonNode) branch, selectors);
+		} else if (branch instanceof LogicalNode && ((LogicalNode) branch).getOperator() == LogicalOperator.AND) {
+			for (Node child : ((LogicalNode) branch).getChildren()) {
+				if (child instanceof ComparisonNode) {
+					addIfSargable((ComparisonNode) child, selectors);
+				}
+			}
+		}
+		return selectors;
+	}
+
+	private void addIfSargable(ComparisonNode comparison, Set<String> selectors) {
+		if (indexedSelectors != null && !indexedSelectors.contains(comparison.getSelector())) {
+			return;
+		}
+		ComparisonOperatorProxy operator = ComparisonOperatorProxy.asEnum(comparison.getOperator());
+		if (operator == null || operator == ComparisonOperatorProxy.NOT_EQUAL || operator == ComparisonOperatorProxy.NOT_IN) {
+			return;
+		}
+		String argument = comparison.getArguments().get(0);
+		if (operator == ComparisonOperatorProxy.EQUAL && (PredicateBuilder.isLeadingWildcard(argument) || "null".equals(argument))) {
+			return;
+		}
+		selectors.add(comparison.getSelector());
+	}
+
+	/**
+	 * Translate a filter into a query of the ids of the matching entities, without duplicates.
+	 *
+	 * @param node RSQL AST node.
+	 * @return     A union of the branches if the filter is rewritten, a single query otherwise.
+	 */
+	public NativeSqlQuery toIdQuery(Node node) {
+		if (!shouldSplit(node)) {
+			return translator.toIdQuery(node);
+		}
+		String id = NativeSqlTranslator.ROOT_ALIAS + "." + translator.getMapping().getIdColumn();
+		StringBuilder sql = new StringBuilder();
+		List<Object> parameters = new ArrayList<Object>();
+		for (Node branch : ((LogicalNode) node).getChildren()) {
+			NativeSqlQuery query = translator.toQuery(branch, id, parameters.size());
+			parameters.addAll(query.getParameters());
+			if (sql.length() > 0) sql.append(" union ");
+			sql.append(query.getSql());
+		}
+		LOG.log(Level.INFO, "Split {0} into {1} branches", new Object[] {node, ((LogicalNode) node).getChildren().size()});
+		return new NativeSqlQuery(sql.toString(), parameters);
+	}
+
+	/**
+	 * Run a filter and load the matching entities.
+	 *
+	 * @param node           RSQL AST node.
+	 * @param entityManager  JPA EntityManager.
+	 * @param entityClass    The main entity of the query.
+	 * @return               The entities, each once.
+	 */
+	public <T> List<T> fetch(Node node, EntityManager entityManager, Class<T> entityClass) {
+		@SuppressWarnings("unchecked")
+		List<Object> rows = toIdQuery(node).createQuery(entityManager).getResultList();
+		Set<Object> ids = new LinkedHashSet<Object>(rows);
+		Map<Object, T> byId = EntityLoader.load(entityManager, entityClass, ids);
+		Class<?> idType = entityManager.getMetamodel().entity(entityClass).getIdType().getJavaType();
+		List<T> entities = new ArrayList<T>(byId.size());
+		for (Object id : ids) {
+			T entity = byId.get(EntityLoader.toIdType(id, idType));
+			if (entity != null) entities.add(entity);
+		}
+		return entities;
+	}
+
+	public Set<String> getIndexedSelectors() {
+		return indexedSelectors == null ? null : Collections.unmodifiableSet(indexedSelectors);
+	}
+
+	/**
+	 * Set the selectors backed by an index.
+	 *
+	 * @param indexedSelectors Selectors, <tt>null</tt> to consider every selector indexed.
+	 */
+	public void setIndexedSelectors(Set<String> indexedSelectors) {
+		this.indexedSelectors = indexedSelectors == null ? null : new HashSet<String>(indexedSelectors);
+	}
+
+	public int getMaxBranches() {
+		return maxBranches;
+	}
+
+	/**
+	 * Set the maximum number of branches of a rewritten filter.
+	 *
+	 * @param maxBranches Maximum branches, each is one more statement in the union.
+	 */
+	public void setMaxBranches(int maxBranches) {
+		this.maxBranches = maxBranches;
+	}
+}
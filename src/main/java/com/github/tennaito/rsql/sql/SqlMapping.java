@@ -0,0 +1,364 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.sql;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Inheritance;
+import jakarta.persistence.InheritanceType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinColumns;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type.PersistenceType;
+
+/**
+ * SqlMapping
+ *
+ * Table and columns of an entity for {@link NativeSqlTranslator}. Columns are keyed by
+ * property path inside the entity (<tt>details.description</tt> for an embedded
+ * property), joins by the path of a single valued association. A mapping is either
+ * supplied explicitly or read from the metamodel and the mapping annotations with
+ * {@link #fromMetamodel}; it must not be changed once shared by a translator.
+ *
+ * @since 2026-10-19
+ */
+public class SqlMapping {
+
+	/**
+	 * Physical names as written in the mapping, the default of Hibernate and the JPA specification.
+	 */
+	public static final UnaryOperator<String> IDENTITY = UnaryOperator.identity();
+
+	/**
+	 * Physical names in lower snake case (<tt>startDate</tt> to <tt>start_date</tt>), as produced by
+	 * Spring Boot's <tt>CamelCaseToUnderscoresNamingStrategy</tt>.
+	 */
+	public static final UnaryOperator<String> SNAKE_CASE = name -> {
+		StringBuilder snake = new StringBuilder(name.replace('.', '_'));
+		for (int i = 1; i < snake.length() - 1; i++) {
+			char before = snake.charAt(i - 1);
+			char after = snake.charAt(i + 1);
+			if ((Character.isLowerCase(before) || Character.isDigit(before)) && Character.isUpperCase(snake.charAt(i))
+					&& (Character.isLowerCase(after) || Character.isDigit(after))) {
+				snake.insert(i++, '_');
+			}
+		}
+		return snake.toString().toLowerCase(Locale.ROOT);
+	};
+
+	private final Class<?> entityClass;
+	private final String table;
+	private final String idColumn;
+	private final Map<String, String> columns = new HashMap<String, String>();
+	private final Map<String, Class<?>> types = new HashMap<String, Class<?>>();
+	private final Map<String, Class<?>> embeddables = new HashMap<String, Class<?>>();
+	private final Map<String, JoinMapping> joins = new HashMap<String, JoinMapping>();
+	private final Set<String> unsupported = new HashSet<String>();
+	private final Set<String> prefixes = new HashSet<String>();
+
+	/**
+	 * Create an empty mapping.
+	 *
+	 * @param entityClass  Entity class.
+	 * @param table        Table of the entity.
+	 * @param idColumn     Column of the identifier.
+	 */
+	public SqlMapping(Class<?> entityClass, String table, String idColumn) {
+		if (entityClass == null || table == null || idColumn == null) {
+			throw new IllegalArgumentException("Entity class, table and id column must be defined.");
+		}
+		this.entityClass = entityClass;
+		this.table = table;
+		this.idColumn = idColumn;
+	}
+
+	/**
+	 * Map a basic property.
+	 *
+	 * @param property  Property path inside the entity.
+	 * @param column    Column.
+	 * @param type      Java type of the property, used to parse arguments.
+	 * @return          This mapping.
+	 */
+	public SqlMapping addColumn(String property, String column, Class<?> type) {
+		columns.put(property, column);
+		types.put(property, type);
+		addPrefixes(property);
+		return this;
+	}
+
+	/**
+	 * Map a single valued association, joined on equality of each column pair.
+	 *
+	 * @param property       Property path inside the entity.
+	 * @param target         Mapping of the associated entity.
+	 * @param columns        Join columns of this table.
+	 * @param targetColumns  Referenced columns of the target table.
+	 * @return               This mapping.
+	 */
+	public SqlMapping addJoin(String property, SqlMapping target, List<String> columns, List<String> targetColumns) {
+		if (columns.isEmpty() || columns.size() != targetColumns.size()) {
+			throw new IllegalArgumentException("Invalid join columns for property " + property);
+		}
+		joins.put(property, new JoinMapping(target, columns, targetColumns));
+		addPrefixes(property);
+		return this;
+	}
+
+	private void addPrefixes(String property) {
+		for (int dot = property.indexOf('.'); dot >= 0; dot = property.indexOf('.', dot + 1)) {
+			prefixes.add(property.substring(0, dot));
+		}
+	}
+
+	/**
+	 * Read the mapping of an entity from the metamodel and the <tt>@Table</tt>, <tt>@Column</tt>
+	 * and <tt>@JoinColumn</tt> annotations, with the JPA default names otherwise, see
+	 * {@link #fromMetamodel(Class, Metamodel, UnaryOperator)}.
+	 *
+	 * @param entityClass  Entity class.
+	 * @param metamodel    Metamodel of the persistence unit.
+	 * @return             The mapping.
+	 */
+	public static SqlMapping fromMetamodel(Class<?> entityClass, Metamodel metamodel) {
+		return fromMetamodel(entityClass, metamodel, IDENTITY);
+	}
+
+	/**
+	 * Read the mapping of an entity from the metamodel and the mapping annotations, turning
+	 * every table and column name into a physical name the way the physical naming strategy
+	 * of the persistence unit does (e.g. {@link #SNAKE_CASE}).
+	 *
+	 * Not supported, and to be mapped explicitly:
+	 * <ul>
+	 * <li>subclasses of another entity, whose rows need a discriminator or a join to the parent table;</li>
+	 * <li>roots of a <tt>TABLE_PER_CLASS</tt> hierarchy, whose subclasses are in other tables;</li>
+	 * <li><tt>orm.xml</tt> mappings, implicit naming strategies other than the JPA default,
+	 * and attribute overrides of embedded properties.</li>
+	 * </ul>
+	 * Collections and inverse one to one associations are left out of the mapping, and so are
+	 * associations to entities that cannot be mapped.
+	 *
+	 * @param entityClass  Entity class.
+	 * @param metamodel    Metamodel of the persistence unit.
+	 * @param naming       Physical naming of the tables and columns.
+	 * @return             The mapping.
+	 * @throws IllegalArgumentException if the entity is part of an unsupported inheritance hierarchy.
+	 */
+	public static SqlMapping fromMetamodel(Class<?> entityClass, Metamodel metamodel, UnaryOperator<String> naming) {
+		return fromMetamodel(entityClass, metamodel, naming, new HashMap<Class<?>, SqlMapping>());
+	}
+
+	private static SqlMapping fromMetamodel(Class<?> entityClass, Metamodel metamodel, UnaryOperator<String> naming, Map<Class<?>, SqlMapping> done) {
+		SqlMapping mapping = done.get(entityClass);
+		if (mapping != null) return mapping;
+		EntityType<?> type = metamodel.entity(entityClass);
+		checkInheritance(type);
+		SingularAttribute<?, ?> id = type.getId(type.getIdType().getJavaType());
+		mapping = new SqlMapping(entityClass, naming.apply(tableName(entityClass)), naming.apply(columnName(id)));
+		// registered before the attributes so cyclic associations end here
+		done.put(entityClass, mapping);
+		mapping.read("", type, metamodel, naming, done);
+		return mapping;
+	}
+
+	private static void checkInheritance(EntityType<?> type) {
+		for (IdentifiableType<?> parent = type.getSupertype(); parent != null; parent = parent.getSupertype()) {
+			if (parent.getPersistenceType() == PersistenceType.ENTITY) {
+				throw new IllegalArgumentException("Entity " + type.getJavaType().getName() + " inherits from entity "
+						+ parent.getJavaType().getName() + ", its mapping must be defined explicitly.");
+			}
+		}
+		Inheritance inheritance = type.getJavaType().getAnnotation(Inheritance.class);
+		if (inheritance != null && inheritance.strategy() == InheritanceType.TABLE_PER_CLASS) {
+			throw new IllegalArgumentException("Entity " + type.getJavaType().getName()
+					+ " is the root of a TABLE_PER_CLASS hierarchy, its mapping must be defined explicitly.");
+		}
+	}
+
+	private void read(String prefix, ManagedType<?> type, Metamodel metamodel, UnaryOperator<String> naming, Map<Class<?>, SqlMapping> done) {
+		for (Attribute<?, ?> attribute : type.getAttributes()) {
+			String property = prefix + attribute.getName();
+			PersistentAttributeType kind = attribute.getPersistentAttributeType();
+			if (attribute.isCollection() || isInverse(attribute)) {
+				unsupported.add(property);
+			} else if (kind == PersistentAttributeType.EMBEDDED) {
+				embeddables.put(property, attribute.getJavaType());
+				read(property + ".", metamodel.embeddable(attribute.getJavaType()), metamodel, naming, done);
+			} else if (attribute.isAssociation()) {
+				SqlMapping target;
+				try {
+					target = fromMetamodel(attribute.getJavaType(), metamodel, naming, done);
+				} catch (IllegalArgumentException e) {
+					unsupported.add(property);
+					continue;
+				}
+				List<String> local = new ArrayList<String>();
+				List<String> referenced = new ArrayList<String>();
+				for (JoinColumn joinColumn : joinColumns(attribute)) {
+					referenced.add(joinColumn.referencedColumnName().isEmpty() ? target.idColumn : naming.apply(joinColumn.referencedColumnName()));
+					local.add(naming.apply(joinColumn.name().isEmpty() ? attribute.getName() + "_" + referenced.get(referenced.size() - 1) : joinColumn.name()));
+				}
+				if (local.isEmpty()) {
+					local.add(naming.apply(attribute.getName() + "_" + target.idColumn));
+					referenced.add(target.idColumn);
+				}
+				addJoin(property, target, local, referenced);
+			} else {
+				addColumn(property, naming.apply(columnName(attribute)), attribute.getJavaType());
+			}
+		}
+	}
+
+	private static String tableName(Class<?> entityClass) {
+		Table table = entityClass.getAnnotation(Table.class);
+		if (table != null && !table.name().isEmpty()) return table.name();
+		Entity entity = entityClass.getAnnotation(Entity.class);
+		if (entity != null && !entity.name().isEmpty()) return entity.name();
+		return entityClass.getSimpleName();
+	}
+
+	private static String columnName(Attribute<?, ?> attribute) {
+		Column column = annotation(attribute, Column.class);
+		return column != null && !column.name().isEmpty() ? column.name() : attribute.getName();
+	}
+
+	private static JoinColumn[] joinColumns(Attribute<?, ?> attribute) {
+		JoinColumns joinColumns = annotation(attribute, JoinColumns.class);
+		if (joinColumns != null) return joinColumns.value();
+		JoinColumn joinColumn = annotation(attribute, JoinColumn.class);
+		return joinColumn != null ? new JoinColumn[] {joinColumn} : new JoinColumn[0];
+	}
+
+	private static boolean isInverse(Attribute<?, ?> attribute) {
+		OneToOne oneToOne = annotation(attribute, OneToOne.class);
+		return oneToOne != null && !oneToOne.mappedBy().isEmpty();
+	}
+
+	private static <A extends java.lang.annotation.Annotation> A annotation(Attribute<?, ?> attribute, Class<A> annotationType) {
+		Member member = attribute.getJavaMember();
+		return member instanceof AnnotatedElement ? ((AnnotatedElement) member).getAnnotation(annotationType) : null;
+	}
+
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	public String getTable() {
+		return table;
+	}
+
+	public String getIdColumn() {
+		return idColumn;
+	}
+
+	/**
+	 * Column of a property.
+	 *
+	 * @param property Property path inside the entity.
+	 * @return         The column, <tt>null</tt> if the property is not a mapped basic property.
+	 */
+	public String getColumn(String property) {
+		return columns.get(property);
+	}
+
+	public Class<?> getType(String property) {
+		return types.get(property);
+	}
+
+	/**
+	 * Verifies if a property is embedded, i.e. a prefix of mapped properties.
+	 */
+	public boolean isEmbedded(String property) {
+		return prefixes.contains(property);
+	}
+
+	/**
+	 * Type of an embedded property, used to translate selectors with the properties mapper.
+	 *
+	 * @param property Property path inside the entity.
+	 * @return         The type, <tt>null</tt> if unknown.
+	 */
+	public Class<?> getEmbeddableType(String property) {
+		return embeddables.get(property);
+	}
+
+	public JoinMapping getJoin(String property) {
+		return joins.get(property);
+	}
+
+	/**
+	 * Verifies if a property exists but cannot be translated to native SQL.
+	 */
+	public boolean isUnsupported(String property) {
+		return unsupported.contains(property);
+	}
+
+	/**
+	 * Join of a single valued association.
+	 */
+	public static final class JoinMapping {
+		private final SqlMapping target;
+		private final List<String> columns;
+		private final List<String> targetColumns;
+
+		private JoinMapping(SqlMapping target, List<String> columns, List<String> targetColumns) {
+			this.target = target;
+			this.columns = Collections.unmodifiableList(new ArrayList<String>(columns));
+			this.targetColumns = Collections.unmodifiableList(new ArrayList<String>(targetColumns));
+		}
+
+		public SqlMapping getTarget() {
+			return target;
+		}
+
+		public List<String> getColumns() {
+			return columns;
+		}
+
+		public List<String> getTargetColumns() {
+			return targetColumns;
+		}
+	}
+}
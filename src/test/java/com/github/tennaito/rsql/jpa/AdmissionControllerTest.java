@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.cost.QueryCostEstimator;
+import com.github.tennaito.rsql.execution.AdmissionController;
+import com.github.tennaito.rsql.execution.AdmissionRejectedException;
+import com.github.tennaito.rsql.jpa.entity.Course;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class AdmissionControllerTest extends AbstractVisitorTest<Course> {
+
+    private AdmissionController admission;
+    private AdmissionController.Tier cheap;
+    private AdmissionController.Tier expensive;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        admission = new AdmissionController();
+        expensive = admission.addTier("expensive", 100, 1, 1, 50, TimeUnit.MILLISECONDS);
+        cheap = admission.addTier("cheap", 5, 4, 8, 50, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testClassifyAndExecute() {
+        QueryCostEstimator estimator = new QueryCostEstimator();
+        assertSame(cheap, admission.classify(estimator.estimate(new RSQLParser().parse("id==1"), Course.class, entityManager)));
+        assertSame(expensive, admission.classify(estimator.estimate(new RSQLParser().parse("department.head.titles.name==Phd"), Course.class, entityManager)));
+        assertNull(admission.classify(estimator.estimate(new RSQLParser().parse("name==*a,name==*b,name==*c"), Course.class, entityManager)));
+
+        List<Course> courses = admission.execute(new RSQLParser().parse("id==1"), Course.class, entityManager,
+                () -> entityManager.createQuery("select c from Course c where c.id = 1", Course.class).getResultList());
+        assertEquals(1, courses.size());
+        assertEquals(1, cheap.getAdmitted());
+        assertEquals(0, cheap.getActive());
+
+        try {
+            admission.execute(new RSQLParser().parse("name==*a,name==*b,name==*c"), Course.class, entityManager, () -> 1);
+            fail("Filter above every tier admitted");
+        } catch (AdmissionRejectedException e) {
+            assertNull(e.getTier());
+        }
+        assertEquals(1, admission.getUnadmitted());
+    }
+
+    @Test
+    public void testQueueAndTimeout() throws Exception {
+        final String rsql = "department.head.titles.name==Phd";
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> holder = executor.submit(() -> admission.execute(new RSQLParser().parse(rsql), Course.class, entityManager, () -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 1;
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            assertEquals(1, expensive.getActive());
+
+            // the single queue slot is taken by a waiter that times out
+            Future<Integer> waiter = executor.submit(() -> {
+                try {
+                    return admission.execute(new RSQLParser().parse(rsql), Course.class, entityManager, () -> 2);
+                } catch (AdmissionRejectedException e) {
+                    return -1;
+                }
+            });
+            long deadline = System.currentTimeMillis() + 5000;
+            while (expensive.getQueueDepth() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            boolean queueFull = expensive.getQueueDepth() == 1;
+            try {
+                admission.execute(new RSQLParser().parse(rsql), Course.class, entityManager, () -> 3);
+                if (queueFull) fail("Execution admitted with a full queue");
+            } catch (AdmissionRejectedException e) {
+                assertSame(expensive, e.getTier());
+            }
+
+            assertEquals(Integer.valueOf(-1), waiter.get(5, TimeUnit.SECONDS));
+            assertTrue(expensive.getTimedOut() >= 1);
+            assertTrue(expensive.getRejected() >= 2);
+
+            // cheap lookups are not blocked by the expensive tier
+            assertEquals(Integer.valueOf(4), admission.execute(new RSQLParser().parse("id==1"), Course.class, entityManager, () -> 4));
+
+            release.countDown();
+            assertEquals(Integer.valueOf(1), holder.get(5, TimeUnit.SECONDS));
+            assertEquals(0, expensive.getActive());
+            assertEquals(0, expensive.getQueueDepth());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.CountResult.Accuracy;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.sql.NativeSqlTranslator;
+import com.github.tennaito.rsql.sql.SqlMapping;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class ApproximateCounterTest extends AbstractVisitorTest<Course> {
+
+    private ApproximateCounter<Course> counter;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        counter = new ApproximateCounter<Course>(Course.class);
+        entityManager.getTransaction().begin();
+        for (long id = 1301; id <= 1305; id++) {
+            Department department = new Department();
+            department.setId(id);
+            department.setCode("APX-" + id);
+            department.setName("Approximate");
+            entityManager.persist(department);
+            Course course = new Course();
+            course.setId(id);
+            course.setCode("APX-" + id);
+            course.setName("Approximate");
+            entityManager.persist(course);
+        }
+        entityManager.getTransaction().commit();
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().begin();
+        entityManager.createQuery("delete from Course c where c.id between 1301 and 1305").executeUpdate();
+        entityManager.createQuery("delete from Department d where d.id between 1301 and 1305").executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @Test
+    public void testCappedCount() {
+        counter.setThreshold(10);
+        CountResult exact = counter.count(new RSQLParser().parse("name==Approximate"), entityManager);
+        assertEquals(new CountResult(5, Accuracy.EXACT), exact);
+        assertTrue(exact.isExact());
+
+        counter.setThreshold(3);
+        CountResult capped = counter.count(new RSQLParser().parse("name==Approximate"), entityManager);
+        assertEquals(new CountResult(3, Accuracy.LOWER_BOUND), capped);
+        assertFalse(capped.isExact());
+        assertEquals("more than 3", capped.toString());
+    }
+
+    @Test
+    public void testEstimator() {
+        counter.setThreshold(3);
+        counter.setEstimator((node, entity, em) -> node.toString().contains("Approximate") ? 1200000L : null);
+        assertEquals("about 1200000", counter.count(new RSQLParser().parse("name==Approximate"), entityManager).toString());
+        // no estimate, counted up to the threshold
+        assertEquals(new CountResult(1, Accuracy.EXACT), counter.count(new RSQLParser().parse("id==1301"), entityManager));
+    }
+
+    @Test
+    public void testNativeCappedCount() {
+        counter.setNativeTranslator(new NativeSqlTranslator(SqlMapping.fromMetamodel(Course.class, entityManager.getMetamodel())));
+        counter.setThreshold(10);
+        assertEquals(new CountResult(5, Accuracy.EXACT), counter.count(new RSQLParser().parse("department.name==Approximate"), entityManager));
+        counter.setThreshold(3);
+        assertEquals(new CountResult(3, Accuracy.LOWER_BOUND), counter.count(new RSQLParser().parse("name==Approximate"), entityManager));
+        // collections are not translated to native SQL, counted with the Criteria query
+        assertEquals(new CountResult(0, Accuracy.EXACT), counter.count(new RSQLParser().parse("department.head.titles.name==Phd;id=ge=1301"), entityManager));
+    }
+}
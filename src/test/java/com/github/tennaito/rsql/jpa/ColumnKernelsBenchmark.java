@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.tennaito.rsql.memory.ColumnKernels;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+/**
+ * Compares the column kernels of {@link ColumnKernels#getInstance()} with the scalar loops
+ * on int, long and double columns. The vector kernels only exist in a build with the
+ * <tt>vector</tt> profile, run with the incubator module. Not a unit test:
+ *
+ * <pre>
+ * mvn -Pvector test-compile
+ * java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes:&lt;test dependencies&gt; com.github.tennaito.rsql.jpa.ColumnKernelsBenchmark
+ * </pre>
+ */
+public class ColumnKernelsBenchmark {
+
+    private static final int ROWS = 1 << 20;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 200;
+    private static final int ROUNDS = 5;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        Logger.getLogger("com.github.tennaito").setLevel(Level.OFF);
+        final ColumnKernels kernels = ColumnKernels.getInstance();
+        final ColumnKernels scalar = ColumnKernels.scalar();
+        System.out.println("kernels: " + (kernels.isVectorized() ? "vector" : "scalar") + ", rows: " + ROWS);
+
+        Random random = new Random(42);
+        final int[] ints = new int[ROWS];
+        final long[] longs = new long[ROWS];
+        final double[] doubles = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            ints[i] = random.nextInt(1000);
+            longs[i] = random.nextInt(1000);
+            doubles[i] = random.nextDouble() * 1000;
+        }
+        ComparisonOperatorProxy operator = ComparisonOperatorProxy.GREATER_THAN_OR_EQUAL;
+
+        measure("scalar int", i -> sink += scalar.compare(ints, operator, 500)[0]);
+        measure("kernels int", i -> sink += kernels.compare(ints, operator, 500)[0]);
+        measure("scalar long", i -> sink += scalar.compare(longs, operator, 500L)[0]);
+        measure("kernels long", i -> sink += kernels.compare(longs, operator, 500L)[0]);
+        measure("scalar double", i -> sink += scalar.compare(doubles, operator, 500.0)[0]);
+        measure("kernels double", i -> sink += kernels.compare(doubles, operator, 500.0)[0]);
+        System.out.println("(" + sink + ")");
+    }
+
+    private static void measure(String name, Consumer<Integer> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.accept(i);
+        }
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                operation.accept(i);
+            }
+            best = Math.min(best, (System.nanoTime() - start) / 1000.0 / ITERATIONS);
+        }
+        System.out.println(String.format(Locale.ROOT, "%-16s %8.1f us/op", name, best));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.github.tennaito.rsql.memory.ColumnKernels;
+import com.github.tennaito.rsql.memory.ColumnarEvaluator;
+import com.github.tennaito.rsql.parser.ast.ComparisonOperatorProxy;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class ColumnarEvaluatorTest {
+
+    private static final int ROWS = 1003;
+
+    @Test
+    public void testKernelsMatchScalarLoop() {
+        Random random = new Random(42);
+        int[] ints = new int[ROWS];
+        long[] longs = new long[ROWS];
+        double[] doubles = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            ints[i] = random.nextInt(10);
+            longs[i] = random.nextInt(10);
+            doubles[i] = random.nextInt(10) / 2.0;
+        }
+
+        ColumnKernels kernels = ColumnKernels.getInstance();
+        ColumnKernels scalar = ColumnKernels.scalar();
+        // vectorized only with the vector profile, which resolves the incubator module
+        assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), kernels.isVectorized());
+        for (ComparisonOperatorProxy operator : ComparisonOperatorProxy.values()) {
+            if (operator == ComparisonOperatorProxy.IN || operator == ComparisonOperatorProxy.NOT_IN) continue;
+            assertArrayEquals(scalar.compare(ints, operator, 5), kernels.compare(ints, operator, 5));
+            assertArrayEquals(scalar.compare(longs, operator, 5L), kernels.compare(longs, operator, 5L));
+            assertArrayEquals(scalar.compare(doubles, operator, 2.5), kernels.compare(doubles, operator, 2.5));
+        }
+    }
+
+    @Test
+    public void testEvaluateRangeFilter() {
+        int[] credits = new int[ROWS];
+        long[] startDates = new long[ROWS];
+        Calendar cal = Calendar.getInstance();
+        for (int i = 0; i < ROWS; i++) {
+            credits[i] = i % 10;
+            cal.clear();
+            cal.set(2000 + i % 20, Calendar.JANUARY, 1);
+            startDates[i] = cal.getTimeInMillis();
+        }
+        ColumnarEvaluator evaluator = new ColumnarEvaluator(ROWS)
+                .addIntColumn("credits", credits)
+                .addEpochMillisColumn("startDate", startDates);
+
+        BitSet range = evaluator.evaluate(new RSQLParser().parse("credits>=3;credits<=6"));
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(credits[i] >= 3 && credits[i] <= 6, range.get(i));
+        }
+
+        assertEquals(ROWS - evaluator.evaluate(new RSQLParser().parse("credits=in=(1,2)")).cardinality(),
+                evaluator.evaluate(new RSQLParser().parse("credits=out=(1,2)")).cardinality());
+        assertEquals(ROWS, evaluator.evaluate(new RSQLParser().parse("credits!=null")).cardinality());
+        assertEquals(50, evaluator.evaluate(new RSQLParser().parse("startDate=ge='2019-01-01'")).cardinality());
+        // date bounds are inclusive, as in PredicateBuilder
+        assertEquals(50, evaluator.evaluate(new RSQLParser().parse("startDate=gt='2019-01-01'")).cardinality());
+        assertEquals(102, evaluator.evaluate(new RSQLParser().parse("startDate=lt='2001-01-01'")).cardinality());
+    }
+}
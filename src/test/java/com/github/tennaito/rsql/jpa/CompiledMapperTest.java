@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.jpa.entity.Person;
+import com.github.tennaito.rsql.misc.CompiledMapper;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class CompiledMapperTest extends AbstractVisitorTest<Course> {
+
+    private CompiledMapper mapper;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        mapper = new CompiledMapper();
+        mapper.addMapping(Course.class, "dept", "department");
+        mapper.addMapping(Course.class, "boss", "dept.chief");
+        mapper.addMapping(Department.class, "chief", "head");
+        mapper.addMapping(Person.class, "degree", "titles.name");
+    }
+
+    @Test
+    public void testFlattenedAliases() {
+        assertEquals("department", mapper.translate("dept", Course.class));
+        // aliases of the entity and of the associated classes
+        assertEquals("department.head", mapper.translate("boss", Course.class));
+        assertEquals("head", mapper.translate("chief", Department.class));
+        assertEquals("name", mapper.translate("name", Course.class));
+        assertEquals("boss", mapper.translate("boss", Person.class));
+
+        mapper.addMapping(Course.class, "bossDegree", "boss.degree");
+        assertEquals("department.head.titles.name", mapper.translate("bossDegree", Course.class));
+        // later changes recompile the paths that depend on them
+        mapper.addMapping(Department.class, "chief", "head.surname");
+        assertEquals("department.head.surname", mapper.translate("boss", Course.class));
+        mapper.removeMapping(Department.class, "chief");
+        assertEquals("department.chief", mapper.translate("boss", Course.class));
+    }
+
+    @Test
+    public void testCyclicAliases() {
+        Map<Class<?>, Map<String, String>> before = mapper.getCompiledMapping();
+        try {
+            mapper.addMapping(Course.class, "department", "dept.head");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Cyclic selector alias: "));
+            assertTrue(e.getMessage().contains(Course.class.getName() + "#dept -> " + Course.class.getName() + "#department"));
+        }
+        // the snapshot in use is kept
+        assertEquals(before, mapper.getCompiledMapping());
+
+        Map<String, String> aliases = new HashMap<String, String>();
+        aliases.put("a", "b");
+        aliases.put("b", "a");
+        Map<Class<?>, Map<String, String>> mapping = new HashMap<Class<?>, Map<String, String>>();
+        mapping.put(Course.class, aliases);
+        try {
+            mapper.setMapping(mapping);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("department.head", mapper.translate("boss", Course.class));
+        }
+    }
+
+    @Test
+    public void testQueryWithCompiledAliases() {
+        JpaCriteriaQueryVisitor<Course> visitor = new JpaCriteriaQueryVisitor<Course>();
+        visitor.getBuilderTools().setPropertiesMapper(mapper);
+        CriteriaQuery<Course> query = new RSQLParser().parse("boss.degree==Phd;dept.code==MI-MDW").accept(visitor, entityManager);
+        List<Course> courses = entityManager.createQuery(query).getResultList();
+        assertEquals(1, courses.size());
+        assertEquals("Testing Course", courses.get(0).getName());
+    }
+}
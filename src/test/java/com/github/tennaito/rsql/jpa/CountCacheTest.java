@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.cache.CountCache;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.jpa.entity.Title;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.Node;
+
+public class CountCacheTest {
+
+    private CountCache cache;
+    private AtomicLong database;
+    private List<Runnable> pending;
+
+    @Before
+    public void setUp() {
+        cache = new CountCache();
+        database = new AtomicLong(10);
+        pending = new ArrayList<Runnable>();
+        cache.setExecutor(pending::add);
+    }
+
+    private long count(String rsql) {
+        return cache.get(Course.class, new RSQLParser().parse(rsql), (Node node) -> database.get());
+    }
+
+    private void runRefreshes() {
+        List<Runnable> running = new ArrayList<Runnable>(pending);
+        pending.clear();
+        for (Runnable refresh : running) {
+            refresh.run();
+        }
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        assertEquals(10, count("name==A;code==B"));
+        database.set(11);
+        // fresh, and the same filter once normalized
+        assertEquals(10, count("code==B;name==A"));
+        assertEquals(1, cache.getHits());
+
+        cache.setTimeToLive(0, TimeUnit.NANOSECONDS);
+        Thread.sleep(1);
+        assertEquals(10, count("name==A;code==B"));
+        assertEquals(1, pending.size());
+        // a refresh is already running for this count
+        assertEquals(10, count("name==A;code==B"));
+        assertEquals(1, pending.size());
+        runRefreshes();
+        assertEquals(11, count("name==A;code==B"));
+        assertEquals(1, cache.getRefreshes());
+        assertEquals(1, cache.getMisses());
+
+        cache.setMaxStaleness(0, TimeUnit.NANOSECONDS);
+        database.set(12);
+        Thread.sleep(1);
+        assertEquals(12, count("name==A;code==B"));
+    }
+
+    @Test
+    public void testConcurrentRefreshCap() throws Exception {
+        cache.setMaxConcurrentRefreshes(1);
+        count("name==A");
+        count("name==B");
+        cache.setTimeToLive(0, TimeUnit.NANOSECONDS);
+        Thread.sleep(1);
+        count("name==A");
+        count("name==B");
+        assertEquals(1, pending.size());
+        assertEquals(1, cache.getSkippedRefreshes());
+        runRefreshes();
+        count("name==B");
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    public void testEntityChanges() {
+        count("name==A");
+        count("department.code==A");
+        database.set(20);
+
+        // not related to courses
+        cache.entityChanged(new Title(), false);
+        assertEquals(10, count("name==A"));
+        assertEquals(0, pending.size());
+
+        cache.entityChanged(new Department(), false);
+        assertEquals(10, count("name==A"));
+        assertEquals(10, count("department.code==A"));
+        assertEquals(1, pending.size());
+        runRefreshes();
+        assertEquals(20, count("department.code==A"));
+
+        cache.entityChanged(new Course(), true);
+        count("name==A");
+        runRefreshes();
+        assertEquals(20, count("name==A"));
+
+        cache.invalidate(Course.class);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testChangeDuringLoadKeepsCountStale() throws Exception {
+        Node filter = new RSQLParser().parse("name==A");
+        // a course changes after the count was read
+        assertEquals(10, cache.get(Course.class, filter, (Node node) -> {
+            long count = database.get();
+            database.set(11);
+            cache.entityChanged(new Course(), false);
+            return count;
+        }));
+        assertEquals(10, count("name==A"));
+        assertEquals(1, pending.size());
+        runRefreshes();
+        assertEquals(11, count("name==A"));
+
+        // same for a count reloaded by the reader
+        cache.setMaxStaleness(0, TimeUnit.NANOSECONDS);
+        Thread.sleep(1);
+        assertEquals(11, cache.get(Course.class, filter, (Node node) -> {
+            long count = database.get();
+            database.set(12);
+            cache.entityChanged(new Course(), false);
+            return count;
+        }));
+        cache.setMaxStaleness(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        assertEquals(11, count("name==A"));
+        assertEquals(1, pending.size());
+    }
+}
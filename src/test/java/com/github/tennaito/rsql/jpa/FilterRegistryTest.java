@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.memory.FilterRegistry;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class FilterRegistryTest {
+
+    private FilterRegistry<Course, String> registry;
+
+    @Before
+    public void setUp() {
+        registry = new FilterRegistry<Course, String>(Course.class);
+        registry.register("cs", new RSQLParser().parse("department.code==CS"));
+        registry.register("cs-big", new RSQLParser().parse("department.code==CS;credits>5"));
+        registry.register("codes", new RSQLParser().parse("code=in=(MI-MDW,BI-PA1)"));
+        registry.register("mid", new RSQLParser().parse("credits>=3;credits<=6"));
+        registry.register("low", new RSQLParser().parse("credits<3"));
+        registry.register("named", new RSQLParser().parse("name==*Web*"));
+        for (int i = 0; i < 100; i++) {
+            registry.register("other-" + i, new RSQLParser().parse("code==X-" + i));
+        }
+    }
+
+    private Course course(String code, int credits, String departmentCode, String name) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setCredits(credits);
+        course.setName(name);
+        if (departmentCode != null) {
+            Department department = new Department();
+            department.setCode(departmentCode);
+            course.setDepartment(department);
+        }
+        return course;
+    }
+
+    @Test
+    public void testMatch() {
+        assertEquals(set("cs", "cs-big", "codes"), registry.match(course("MI-MDW", 10, "CS", "Testing")));
+        assertEquals(set("cs", "mid", "named"), registry.match(course("Y", 3, "CS", "Web Services")));
+        assertEquals(set("low", "other-7"), registry.match(course("X-7", 2, null, "Other")));
+        assertEquals(set("mid"), registry.match(course("Z", 6, "EE", "Other")));
+    }
+
+    @Test
+    public void testOnlyPlausibleFiltersAreCandidates() {
+        Set<String> candidates = registry.findCandidates(course("X-7", 7, null, "Other"));
+        // the wildcard filter is not indexable, the other-* filters are skipped by value
+        assertEquals(set("named", "other-7"), candidates);
+        assertEquals(106, registry.size());
+    }
+
+    @Test
+    public void testUnregister() {
+        assertTrue(registry.unregister("mid"));
+        assertFalse(registry.unregister("mid"));
+        assertEquals(set(), registry.match(course("Z", 6, "EE", "Other")));
+        registry.register("mid", new RSQLParser().parse("credits=gt=5"));
+        assertEquals(set("mid"), registry.match(course("Z", 6, "EE", "Other")));
+    }
+
+    @Test
+    public void testInclusiveDateBounds() throws Exception {
+        FilterRegistry<Course, String> dates = new FilterRegistry<Course, String>(Course.class);
+        dates.register("after", new RSQLParser().parse("startDate=gt='2019-01-01'"));
+        dates.register("before", new RSQLParser().parse("startDate=lt='2019-01-01'"));
+        dates.register("later", new RSQLParser().parse("startDate=gt='2019-06-01'"));
+        Course course = course("D", 1, null, "Dated");
+        // date bounds are inclusive, as in PredicateBuilder
+        course.setStartDate(new SimpleDateFormat("yyyy-MM-dd").parse("2019-01-01"));
+        assertEquals(set("after", "before"), dates.match(course));
+    }
+
+    private static Set<String> set(String... keys) {
+        return new HashSet<String>(Arrays.asList(keys));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.entity.Course;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class FullTextStrategyTest extends AbstractVisitorTest<Course> {
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+    }
+
+    private List<Course> find(String rsql, FullTextStrategy strategy) {
+        BuilderTools tools = new SimpleBuilderTools();
+        tools.setOperatorRegistry(OperatorRegistry.DEFAULT.with(FullTextStrategy.FTS, strategy));
+        CriteriaQuery<Course> query = new JpaQueryTranslator<Course>(Course.class, tools)
+                .toQuery(new RSQLParser(OperatorRegistry.DEFAULT.getOperators()).parse(rsql), entityManager);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Test
+    public void testResolvedDialect() {
+        assertSame(FullTextDialects.H2, FullTextStrategy.DEFAULT.getDialect(entityManager.getEntityManagerFactory()));
+        assertSame(FullTextDialects.LIKE, FullTextDialects.DEFAULT.get("oracle"));
+        assertEquals(1, find("name=fts='course TEST'", FullTextStrategy.DEFAULT).size());
+        // terms match word prefixes only
+        assertEquals(0, find("name=fts=ourse", FullTextStrategy.DEFAULT).size());
+        assertEquals(0, find("name=fts='course web'", FullTextStrategy.DEFAULT).size());
+    }
+
+    @Test
+    public void testLikeFallback() {
+        FullTextStrategy like = new FullTextStrategy(FullTextDialects.LIKE);
+        assertEquals(1, find("name=fts='ourse TEST'", like).size());
+        assertEquals(0, find("name=fts='course web'", like).size());
+        assertEquals(0, find("name=fts=%", like).size());
+
+        FullTextStrategy registered = new FullTextStrategy(FullTextDialects.DEFAULT.with("h2", FullTextDialects.LIKE));
+        assertSame(FullTextDialects.LIKE, registered.getDialect(entityManager.getEntityManagerFactory()));
+    }
+
+    @Test
+    public void testPostgresqlOperator() {
+        try {
+            find("name=fts='course test'", new FullTextStrategy(FullTextDialects.POSTGRESQL));
+            fail("H2 has no text search operator");
+        } catch (PersistenceException e) {
+            // the GIN-indexable operator, not its function
+            assertTrue(e.getMessage(), e.getMessage().contains("@@"));
+        }
+    }
+
+    @Test
+    public void testInvalidSearch() {
+        assertEquals(Arrays.asList("a", "b"), FullTextStrategy.terms("  a \t b "));
+        try {
+            find("name=fts=' '", FullTextStrategy.DEFAULT);
+            fail("Blank search accepted");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Full-text search of name has no terms.", e.getMessage());
+        }
+        try {
+            find("id=fts=1", FullTextStrategy.DEFAULT);
+            fail("Full-text search accepted on a number");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Property id is not a String.", e.getMessage());
+        }
+    }
+}
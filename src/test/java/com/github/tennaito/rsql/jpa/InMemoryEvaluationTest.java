@@ -0,0 +1,225 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.TextMatchStrategy.Translation;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.CourseDetails;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.jpa.entity.Person;
+import com.github.tennaito.rsql.jpa.entity.Title;
+import com.github.tennaito.rsql.memory.InMemoryPredicateVisitor;
+import com.github.tennaito.rsql.memory.NGramIndex;
+import com.github.tennaito.rsql.memory.ParallelEvaluator;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class InMemoryEvaluationTest {
+
+    private List<Course> courses;
+
+    @Before
+    public void setUp() {
+        Title phd = new Title();
+        phd.setName("Phd");
+        Person head = new Person();
+        head.setSurname("One");
+        head.setTitles(new HashSet<Title>());
+        head.getTitles().add(phd);
+
+        Department department = new Department();
+        department.setCode("CS");
+        department.setHead(head);
+
+        courses = new ArrayList<Course>();
+        for (int i = 0; i < 1000; i++) {
+            Course course = new Course();
+            course.setId((long) i);
+            course.setName("Course " + i);
+            course.setCode(i % 2 == 0 ? "MI-MDW" : "BI-PA1");
+            course.setCredits(i % 10);
+            course.setActive(i % 3 == 0);
+            course.setDetails(CourseDetails.of("details " + i));
+            Calendar cal = Calendar.getInstance();
+            cal.set(2000 + i % 20, Calendar.JANUARY, 1);
+            course.setStartDate(cal.getTime());
+            if (i % 4 == 0) {
+                course.setDepartment(department);
+            }
+            courses.add(course);
+        }
+    }
+
+    private Predicate<Course> compile(String rsql) {
+        return new RSQLParser().parse(rsql).accept(new InMemoryPredicateVisitor<Course>(Course.class), null);
+    }
+
+    private int count(String rsql) {
+        Predicate<Course> predicate = compile(rsql);
+        int count = 0;
+        for (Course course : courses) {
+            if (predicate.test(course)) count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void testComparisons() {
+        assertEquals(1, count("id==7"));
+        assertEquals(999, count("id!=7"));
+        assertEquals(400, count("credits>=3;credits<=6"));
+        assertEquals(100, count("credits=gt=8"));
+        assertEquals(200, count("credits=in=(1,2)"));
+        assertEquals(500, count("code==MI*"));
+        assertEquals(500, count("code!=*PA*"));
+        assertEquals(0, count("endDate!=null"));
+        assertEquals(1000, count("endDate==null"));
+        assertEquals(50, count("startDate=ge='2019-01-01'"));
+        assertEquals(334, count("active==true"));
+    }
+
+    @Test
+    public void testDateBoundsAreInclusive() {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2019, Calendar.JANUARY, 1);
+        Course course = new Course();
+        course.setStartDate(cal.getTime());
+        // PredicateBuilder translates =gt= and =lt= on a date into an inclusive between
+        assertTrue(compile("startDate=gt='2019-01-01'").test(course));
+        assertTrue(compile("startDate=lt='2019-01-01'").test(course));
+        assertFalse(compile("startDate=gt='2019-01-02'").test(course));
+        assertFalse(compile("startDate=lt='2018-12-31'").test(course));
+    }
+
+    @Test
+    public void testAssociationsAndCollections() {
+        assertEquals(250, count("department.code==CS"));
+        assertEquals(250, count("department.head.titles.name==Phd"));
+        assertEquals(0, count("department.head.titles.name==Consultant"));
+        assertEquals(1, count("details.description=='details 5'"));
+        assertEquals(500 + 50, count("code==BI*,department.code==CS;credits==2"));
+    }
+
+    @Test
+    public void testTextOperators() {
+        RSQLParser parser = new RSQLParser(OperatorRegistry.DEFAULT.getOperators());
+        InMemoryPredicateVisitor<Course> visitor = new InMemoryPredicateVisitor<Course>(Course.class);
+        assertTrue(parser.parse("name=ilike='course 7'").accept(visitor, null).test(courses.get(7)));
+        assertTrue(parser.parse("code=ilike=mi*").accept(visitor, null).test(courses.get(0)));
+        assertFalse(parser.parse("code=ilike=mi*").accept(visitor, null).test(courses.get(1)));
+        assertTrue(parser.parse("code=prefix=MI-").accept(visitor, null).test(courses.get(0)));
+        assertFalse(parser.parse("code=prefix=mi-").accept(visitor, null).test(courses.get(0)));
+        assertTrue(parser.parse("name=fts='COURSE 12'").accept(visitor, null).test(courses.get(12)));
+        assertFalse(parser.parse("name=fts='course xyz'").accept(visitor, null).test(courses.get(12)));
+
+        // a LOWER translation makes the prefix case-insensitive, as in SQL
+        SimpleBuilderTools tools = new SimpleBuilderTools();
+        tools.setOperatorRegistry(TextMatchStrategy.DEFAULT.with("code", Translation.LOWER).registerIn(OperatorRegistry.DEFAULT));
+        visitor.setBuilderTools(tools);
+        assertTrue(parser.parse("code=prefix=mi-").accept(visitor, null).test(courses.get(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownProperty() {
+        compile("invalid==1");
+    }
+
+    @Test
+    public void testParallelEvaluationPreservesOrder() {
+        Predicate<Course> predicate = compile("credits>=3;credits<=6");
+        ParallelEvaluator evaluator = new ParallelEvaluator();
+        List<Course> sequential = evaluator.filter(courses, predicate);
+
+        evaluator.setSequentialThreshold(10);
+        List<Course> parallel = evaluator.filter(courses, predicate);
+        assertEquals(sequential, parallel);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            evaluator.setExecutor(executor);
+            assertEquals(sequential, evaluator.filter(courses, predicate));
+            evaluator.setPreserveOrder(false);
+            List<Course> unordered = evaluator.filter(courses, predicate);
+            assertEquals(sequential.size(), unordered.size());
+            assertTrue(unordered.containsAll(sequential));
+            assertEquals(400, evaluator.count(courses, predicate));
+            evaluator.setSequentialThreshold(2000);
+            assertEquals(400, evaluator.count(courses, predicate));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelEvaluationPropagatesErrors() {
+        ParallelEvaluator evaluator = new ParallelEvaluator();
+        evaluator.setSequentialThreshold(10);
+        try {
+            evaluator.filter(courses, c -> {
+                throw new IllegalStateException("boom");
+            });
+            assertFalse(true);
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNGramIndexSearch() {
+        NGramIndex<Course> index = new NGramIndex<Course>(Course.class, courses, "name", "code");
+        List<Course> matches = index.search("name", "*rse 12*");
+        assertEquals(11, matches.size());
+        assertEquals("Course 12", matches.get(0).getName());
+        assertEquals(11, index.countCandidates("name", "*rse 12*"));
+        assertEquals(0, index.search("name", "*xyz*").size());
+        // fragments shorter than a gram verify every element
+        assertEquals(1000, index.countCandidates("name", "*1*"));
+        assertEquals(271, index.search("name", "*1*").size());
+    }
+
+    @Test
+    public void testNGramIndexFilter() {
+        NGramIndex<Course> index = new NGramIndex<Course>(Course.class, courses, "name", "code");
+        assertEquals(count("name=='*rse 12*';credits==5"), index.filter(new RSQLParser().parse("name=='*rse 12*';credits==5")).size());
+        assertEquals(count("code==*PA*,credits==2"), index.filter(new RSQLParser().parse("code==*PA*,credits==2")).size());
+        assertEquals(count("name=='Course 9_'"), index.filter(new RSQLParser().parse("name=='Course 9_'")).size());
+    }
+}
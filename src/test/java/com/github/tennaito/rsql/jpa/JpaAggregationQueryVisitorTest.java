@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import jakarta.persistence.Tuple;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.JpaAggregationQueryVisitor.Function;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class JpaAggregationQueryVisitorTest extends AbstractVisitorTest<Course> {
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        entityManager.getTransaction().begin();
+        Object[][] courses = {{1501L, "Math", "Algebra", 3}, {1502L, "Math", "Calculus", 5}, {1503L, "Physics", "Optics", 4}, {1504L, "Physics", "Mechanics", null}};
+        for (Object[] row : courses) {
+            Department department = new Department();
+            department.setId((Long) row[0]);
+            department.setCode("AGG-" + row[0]);
+            department.setName((String) row[1]);
+            entityManager.persist(department);
+            Course course = new Course();
+            course.setId((Long) row[0]);
+            course.setCode("AGG-" + row[0]);
+            course.setName((String) row[2]);
+            course.setCredits((Integer) row[3]);
+            entityManager.persist(course);
+        }
+        entityManager.getTransaction().commit();
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().begin();
+        entityManager.createQuery("delete from Course c where c.id between 1501 and 1504").executeUpdate();
+        entityManager.createQuery("delete from Department d where d.id between 1501 and 1504").executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    private List<Tuple> aggregate(JpaAggregationQueryVisitor<Course> visitor, String rsql) {
+        return entityManager.createQuery(new RSQLParser().parse(rsql).accept(visitor, entityManager)).getResultList();
+    }
+
+    @Test
+    public void testGroupedAggregates() {
+        JpaAggregationQueryVisitor<Course> visitor = new JpaAggregationQueryVisitor<Course>();
+        visitor.groupBy("department.name").count("courses")
+                .aggregate(Function.SUM, "credits", "total")
+                .aggregate(Function.MIN, "credits", "min")
+                .aggregate(Function.MAX, "name", "last")
+                .aggregate(Function.AVG, "credits", "average");
+        List<Tuple> groups = aggregate(visitor, "code==AGG-*");
+        assertEquals(2, groups.size());
+
+        Tuple math = groups.get(0);
+        assertEquals("Math", math.get("department.name"));
+        assertEquals(Long.valueOf(2), math.get("courses", Long.class));
+        assertEquals(8, ((Number) math.get("total")).intValue());
+        assertEquals(3, ((Number) math.get("min")).intValue());
+        assertEquals("Calculus", math.get("last"));
+        assertEquals(4.0, math.get("average", Double.class), 0.001);
+
+        Tuple physics = groups.get(1);
+        assertEquals("Physics", physics.get("department.name"));
+        assertEquals(Long.valueOf(2), physics.get("courses", Long.class));
+        // null credits are ignored by the aggregates
+        assertEquals(4, ((Number) physics.get("total")).intValue());
+        assertEquals(4.0, physics.get("average", Double.class), 0.001);
+    }
+
+    @Test
+    public void testAggregatesWithoutGroups() {
+        JpaAggregationQueryVisitor<Course> visitor = new JpaAggregationQueryVisitor<Course>();
+        visitor.count("courses").aggregate(Function.COUNT, "credits", "withCredits").aggregate(Function.SUM, "credits", "total");
+        List<Tuple> result = aggregate(visitor, "code==AGG-*;department.name=in=(Math,Physics)");
+        assertEquals(1, result.size());
+        assertEquals(Long.valueOf(4), result.get(0).get("courses", Long.class));
+        assertEquals(Long.valueOf(3), result.get(0).get("withCredits", Long.class));
+        assertEquals(12, ((Number) result.get(0).get("total")).intValue());
+    }
+
+    @Test
+    public void testInvalidAggregates() {
+        JpaAggregationQueryVisitor<Course> visitor = new JpaAggregationQueryVisitor<Course>();
+        try {
+            aggregate(visitor, "code==AGG-*");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("No group-by selectors or aggregates defined.", e.getMessage());
+        }
+        visitor.aggregate(Function.SUM, "name", "total");
+        try {
+            aggregate(visitor, "code==AGG-*");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Property name is not a Number.", e.getMessage());
+        }
+        try {
+            visitor.aggregate(Function.AVG, null, "average");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Aggregate AVG needs a selector.", e.getMessage());
+        }
+    }
+}
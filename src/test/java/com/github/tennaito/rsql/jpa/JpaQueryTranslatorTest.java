@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.misc.SimpleMapper;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.Node;
+
+public class JpaQueryTranslatorTest extends AbstractVisitorTest<Course> {
+
+    private JpaQueryTranslator<Course> translator;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        translator = new JpaQueryTranslator<Course>(Course.class);
+    }
+
+    @Test
+    public void testSameResultsAsVisitor() {
+        for (String rsql : new String[] {"id==1", "name==*Course", "department.head.titles.name==Phd", "credits>5,code==XX"}) {
+            Node rootNode = new RSQLParser().parse(rsql);
+            CriteriaQuery<Course> visited = rootNode.accept(new JpaCriteriaQueryVisitor<Course>(), entityManager);
+            assertEquals(rsql, entityManager.createQuery(visited).getResultList(),
+                    entityManager.createQuery(translator.toQuery(rootNode, entityManager)).getResultList());
+        }
+        Node rootNode = new RSQLParser().parse("department.code==MI-MDW");
+        assertEquals(Long.valueOf(1), entityManager.createQuery(translator.toCountQuery(rootNode, entityManager)).getSingleResult());
+    }
+
+    @Test
+    public void testSingleValuedJoinsAreShared() {
+        Node rootNode = new RSQLParser().parse("department.code==MI-MDW;department.name==Testing;department.head.titles.name==Phd;department.head.titles.name==Consultant");
+        CriteriaQuery<Course> criteria = entityManager.getCriteriaBuilder().createQuery(Course.class);
+        Root<Course> root = criteria.from(Course.class);
+        JoinRegistry joins = new JoinRegistry();
+        criteria.where(translator.toPredicate(rootNode, root, entityManager, joins));
+
+        assertEquals(1, root.getJoins().size());
+        // department and department.head are shared, each titles comparison keeps its own join
+        assertEquals(2, joins.size());
+        assertEquals(1, entityManager.createQuery(criteria).getResultList().size());
+    }
+
+    @Test
+    public void testBuilderToolsSnapshot() {
+        SimpleBuilderTools tools = new SimpleBuilderTools();
+        JpaQueryTranslator<Course> snapshot = new JpaQueryTranslator<Course>(Course.class, tools);
+        SimpleMapper mapper = new SimpleMapper();
+        tools.setPropertiesMapper(mapper);
+        assertNotSame(mapper, snapshot.getBuilderTools().getPropertiesMapper());
+        try {
+            snapshot.getBuilderTools().setPropertiesMapper(mapper);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // immutable
+        }
+    }
+
+    @Test
+    public void testSharedBetweenThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 32; i++) {
+                final String rsql = i % 2 == 0 ? "code==MI-MDW;department.code==MI-MDW" : "code==NONE";
+                results.add(executor.submit(new Callable<Integer>() {
+                    public Integer call() {
+                        EntityManager manager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+                        try {
+                            Node rootNode = new RSQLParser().parse(rsql);
+                            return manager.createQuery(translator.toQuery(rootNode, manager)).getResultList().size();
+                        } finally {
+                            manager.close();
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0 ? 1 : 0, results.get(i).get().intValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -33,6 +33,7 @@ import cz.jirutka.rsql.parser.ast.AbstractNode;
 import cz.jirutka.rsql.parser.ast.ComparisonNode;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.RSQLOperators;
 import cz.jirutka.rsql.parser.ast.RSQLVisitor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaQuery;
@@ -52,6 +53,7 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 
 /**
@@ -399,6 +401,45 @@ public class JpaVisitorTest extends AbstractVisitorTest<Course> {
         visitor.getBuilderTools().setPredicateBuilder(predicateStrategy);
     }
 
+    @Test
+    public void testRegisteredComparisonOperator() {
+        ComparisonOperator newOp = new ComparisonOperator("=def=");
+        Set<ComparisonOperator> set = new HashSet<ComparisonOperator>(RSQLOperators.defaultOperators());
+        set.add(newOp);
+        Node rootNode = new RSQLParser(set).parse("id=def=1;name==Testing*");
+
+        PredicateBuilderStrategy equalStrategy = new PredicateBuilderStrategy() {
+            @Override
+            public <T> Predicate createPredicate(Node node, From root, Class<T> entity,
+                    EntityManager manager, BuilderTools tools) {
+                ComparisonNode comp = ((ComparisonNode)node);
+                return PredicateBuilder.BUILT_IN.createPredicate(comp.withOperator(RSQLOperators.EQUAL), root, entity, manager, tools);
+            }
+        };
+        OperatorRegistry registry = OperatorRegistry.DEFAULT.with(newOp, equalStrategy);
+        assertNull(OperatorRegistry.DEFAULT.get(newOp));
+        assertEquals(PredicateBuilder.BUILT_IN, registry.get(RSQLOperators.EQUAL));
+
+        JpaCriteriaQueryVisitor<Course> visitor = new JpaCriteriaQueryVisitor<Course>();
+        visitor.getBuilderTools().setOperatorRegistry(registry);
+        CriteriaQuery<Course> query = rootNode.accept(visitor, entityManager);
+        List<Course> courses = entityManager.createQuery(query).getResultList();
+        assertEquals("Testing Course", courses.get(0).getName());
+    }
+
+    @Test
+    public void testBuiltInErrorIsNotDelegated() {
+        Node rootNode = new RSQLParser().parse("details.teacher=gt='ABC'");
+        JpaCriteriaQueryVisitor<Course> visitor = new JpaCriteriaQueryVisitor<Course>();
+        createDefOperator(visitor);
+        try {
+            rootNode.accept(visitor, entityManager);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Invalid type for comparison operator"));
+        }
+    }
+
     @Test
     public void testAssociationSelection() {
         Node rootNode = new RSQLParser().parse("department.id==1");
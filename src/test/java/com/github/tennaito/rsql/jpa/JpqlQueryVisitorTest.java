@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.entity.Course;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class JpqlQueryVisitorTest extends AbstractVisitorTest<Course> {
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        entityClass = Course.class;
+    }
+
+    private JpqlQuery render(String rsql) {
+        return new RSQLParser().parse(rsql).accept(new JpqlQueryVisitor<Course>(), entityManager);
+    }
+
+    @Test
+    public void testCanonicalJpql() {
+        JpqlQuery query = render("department.head.titles.name==Phd;department.code=in=(A,B);name==*Course");
+        assertEquals("select distinct e from Course e join e.department j1 join j1.head j2 join j2.titles j3"
+                + " where (j3.name = :p1 and j1.code in :p2 and e.name like :p3)", query.getJpql());
+        assertEquals("Phd", query.getParameters().get("p1"));
+        assertEquals(Arrays.asList("A", "B"), query.getParameters().get("p2"));
+        assertEquals("%Course", query.getParameters().get("p3"));
+
+        // same shape, other values
+        JpqlQuery other = render("department.head.titles.name==Dr;department.code=in=(C,D,E);name==Web*");
+        assertEquals(query.getJpql(), other.getJpql());
+    }
+
+    @Test
+    public void testSameResultsAsCriteria() {
+        for (String rsql : Arrays.asList("id==1", "name!=*Course", "code=out=(X)", "department.head.titles.name==Phd",
+                "department.head.titles.name=in=(Phd,Consultant)", "details.description==null", "credits=ge=1,active==false",
+                "startDate=le=2099-01-01")) {
+            List<Long> jpql = new ArrayList<Long>();
+            for (Course course : render(rsql).createQuery(entityManager, Course.class).getResultList()) {
+                jpql.add(course.getId());
+            }
+            List<Long> criteria = new ArrayList<Long>();
+            for (Course course : entityManager.createQuery(new JpaQueryTranslator<Course>(Course.class).toQuery(new RSQLParser().parse(rsql), entityManager)).getResultList()) {
+                criteria.add(course.getId());
+            }
+            Collections.sort(jpql);
+            Collections.sort(criteria);
+            assertEquals(rsql, criteria, jpql);
+            assertEquals(rsql, entityManager.createQuery(new JpaQueryTranslator<Course>(Course.class).toCountQuery(new RSQLParser().parse(rsql), entityManager)).getSingleResult(),
+                    render(rsql).createCountQuery(entityManager).getSingleResult());
+        }
+        assertEquals(Long.valueOf(1), render("department.name==Testing").createCountQuery(entityManager).getSingleResult());
+        // one course, joined once per title of the head of its department
+        assertEquals(Long.valueOf(1), render("department.head.titles.name=in=(Phd,Consultant)").createCountQuery(entityManager).getSingleResult());
+    }
+
+    @Test
+    public void testUnknownProperty() {
+        try {
+            render("invalid==1");
+            fail("Unknown property rendered");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown property: invalid from entity " + Course.class.getName(), e.getMessage());
+        }
+        List<Course> none = render("name==null").createQuery(entityManager, Course.class).getResultList();
+        assertEquals(0, none.size());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.sql.NativeSqlBatch;
+import com.github.tennaito.rsql.sql.NativeSqlQuery;
+import com.github.tennaito.rsql.sql.NativeSqlTranslator;
+import com.github.tennaito.rsql.sql.SqlMapping;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class NativeSqlBatchTest extends AbstractVisitorTest<Course> {
+
+    private NativeSqlBatch batch;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        batch = new NativeSqlBatch(new NativeSqlTranslator(SqlMapping.fromMetamodel(Course.class, entityManager.getMetamodel())));
+    }
+
+    @Test
+    public void testSingleStatement() {
+        batch.add(new RSQLParser().parse("name==*Course"));
+        batch.add(new RSQLParser().parse("id==2"));
+        batch.add(new RSQLParser().parse("department.name==Testing"), 5);
+        NativeSqlQuery query = batch.toQuery();
+        assertEquals("(select 0 as tag, t0.id from Course t0 where t0.name like ?1)"
+                + " union all (select 1 as tag, t0.id from Course t0 where t0.id = ?2)"
+                + " union all (select 2 as tag, t0.id from Course t0 join Department t1 on t1.id = t0.id and t1.code = t0.code"
+                + " where t1.name = ?3 order by t0.id fetch first 5 rows only)", query.getSql());
+        assertEquals(Arrays.asList((Object) "%Course", 2L, "Testing"), query.getParameters());
+
+        List<List<Course>> results = batch.fetch(entityManager, Course.class);
+        assertEquals(3, results.size());
+        assertEquals(1, results.get(0).size());
+        assertEquals(Long.valueOf(1), results.get(0).get(0).getId());
+        assertTrue(results.get(1).isEmpty());
+        assertEquals(results.get(0), results.get(2));
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        try {
+            batch.fetchIds(entityManager);
+            fail("Empty batch executed");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Batch has no filters.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.sql.NativeSqlTranslator;
+import com.github.tennaito.rsql.sql.SqlMapping;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * Compares the native SQL translation with the Criteria path on the H2 test database,
+ * translation alone and translation plus execution of an id query. Not a unit test, run
+ * with the test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:&lt;test dependencies&gt; com.github.tennaito.rsql.jpa.NativeSqlBenchmark
+ * </pre>
+ */
+public class NativeSqlBenchmark {
+
+    private static final int COURSES = 1000;
+    private static final int WARMUP = 3000;
+    private static final int ITERATIONS = 3000;
+    private static final int ROUNDS = 5;
+
+    private static final List<String> FILTERS = Arrays.asList(
+            "code==BENCH-1*;credits=ge=3",
+            "department.code==BENCH-2*;name==*7,credits=in=(1,2,3)",
+            "department.head.name==Some,id=gt=500;active==true");
+
+    public static void main(String[] args) {
+        Logger.getLogger("com.github.tennaito").setLevel(Level.OFF);
+        Logger.getLogger("org.hibernate").setLevel(Level.OFF);
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory("persistenceUnit",
+                Collections.singletonMap("hibernate.show_sql", "false"));
+        EntityManager entityManager = factory.createEntityManager();
+        entityManager.getTransaction().begin();
+        for (int i = 0; i < COURSES; i++) {
+            // the course references the department with its own id and code
+            Department department = new Department();
+            department.setId(5000L + i);
+            department.setCode("BENCH-" + i);
+            entityManager.persist(department);
+            Course course = new Course();
+            course.setId(5000L + i);
+            course.setCode("BENCH-" + i);
+            course.setName("Benchmark " + i);
+            course.setCredits(i % 10);
+            course.setActive(i % 3 == 0);
+            course.setDepartment(department);
+            entityManager.persist(course);
+        }
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+
+        final RSQLParser parser = new RSQLParser();
+        final Node[] nodes = new Node[FILTERS.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = parser.parse(FILTERS.get(i));
+        }
+        final NativeSqlTranslator nativeSql = new NativeSqlTranslator(SqlMapping.fromMetamodel(Course.class, entityManager.getMetamodel()));
+        final JpaQueryTranslator<Course> criteria = new JpaQueryTranslator<Course>(Course.class);
+
+        measure("native translation", i -> nativeSql.toIdQuery(nodes[i % nodes.length]).createQuery(entityManager));
+        measure("criteria translation", i -> entityManager.createQuery(criteria.toQuery(nodes[i % nodes.length], entityManager)));
+        measure("native ids", i -> nativeSql.toIdQuery(nodes[i % nodes.length]).createQuery(entityManager).getResultList());
+        measure("criteria entities", i -> {
+            entityManager.createQuery(criteria.toQuery(nodes[i % nodes.length], entityManager)).getResultList();
+            entityManager.clear();
+        });
+        entityManager.close();
+        factory.close();
+    }
+
+    private static void measure(String name, Consumer<Integer> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.accept(i);
+        }
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                operation.accept(i);
+            }
+            best = Math.min(best, (System.nanoTime() - start) / 1000.0 / ITERATIONS);
+        }
+        System.out.println(String.format(Locale.ROOT, "%-22s %8.1f us/op", name, best));
+    }
+}
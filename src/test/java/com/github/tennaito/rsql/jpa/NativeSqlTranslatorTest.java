@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.entity.Classroom;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.jpa.entity.Laboratory;
+import com.github.tennaito.rsql.sql.NativeSqlQuery;
+import com.github.tennaito.rsql.sql.NativeSqlTranslator;
+import com.github.tennaito.rsql.sql.SqlMapping;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class NativeSqlTranslatorTest extends AbstractVisitorTest<Course> {
+
+    private NativeSqlTranslator translator;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        translator = new NativeSqlTranslator(SqlMapping.fromMetamodel(Course.class, entityManager.getMetamodel()));
+    }
+
+    private Set<Long> nativeIds(String rsql) {
+        Set<Long> ids = new HashSet<Long>();
+        for (Object id : translator.toIdQuery(new RSQLParser().parse(rsql)).createQuery(entityManager).getResultList()) {
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
+    }
+
+    private Set<Long> criteriaIds(String rsql) {
+        Set<Long> ids = new HashSet<Long>();
+        JpaQueryTranslator<Course> criteria = new JpaQueryTranslator<Course>(Course.class);
+        for (Course course : entityManager.createQuery(criteria.toQuery(new RSQLParser().parse(rsql), entityManager)).getResultList()) {
+            ids.add(course.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testSameResultsAsCriteria() {
+        for (String rsql : Arrays.asList("id==1", "id!=1", "name==*Course", "name!=*Course", "code=in=(MI-MDW,X)",
+                "code=out=(MI-MDW)", "credits=ge=1;active==true", "department.name==Testing",
+                "department.head.name==Some,id=gt=5", "details.description==null", "details.description!=null",
+                "startDate=le=2099-01-01", "startDate=gt=2099-01-01")) {
+            assertEquals(rsql, criteriaIds(rsql), nativeIds(rsql));
+        }
+    }
+
+    @Test
+    public void testGeneratedSql() {
+        NativeSqlQuery query = translator.toIdQuery(new RSQLParser().parse("department.head.name==Some;department.code=in=(A,B)"));
+        assertEquals("select t0.id from Course t0"
+                + " join Department t1 on t1.id = t0.id and t1.code = t0.code"
+                + " join Person t2 on t2.id = t1.head_id"
+                + " where (t2.name = ?1 and t1.code in (?2, ?3))", query.getSql());
+        assertEquals(Arrays.asList((Object) "Some", "A", "B"), query.getParameters());
+
+        NativeSqlQuery count = translator.toCountQuery(new RSQLParser().parse("name==*Course"));
+        assertEquals(1L, ((Number) count.createQuery(entityManager).getSingleResult()).longValue());
+
+        List<?> rows = translator.toProjectionQuery(new RSQLParser().parse("id==1"), "code", "department.name").createQuery(entityManager).getResultList();
+        assertEquals(Arrays.asList("MI-MDW", "Testing"), Arrays.asList((Object[]) rows.get(0)));
+    }
+
+    @Test
+    public void testExplicitMapping() {
+        SqlMapping department = new SqlMapping(Department.class, "Department", "id").addColumn("label", "name", String.class);
+        SqlMapping course = new SqlMapping(Course.class, "Course", "id")
+                .addColumn("title", "name", String.class)
+                .addJoin("dept", department, Arrays.asList("id", "code"), Arrays.asList("id", "code"));
+        List<?> ids = new NativeSqlTranslator(course).toIdQuery(new RSQLParser().parse("title==Testing*;dept.label==Testing"))
+                .createQuery(entityManager).getResultList();
+        assertEquals(1, new ArrayList<Object>(ids).size());
+    }
+
+    @Test
+    public void testUnsupportedProperties() {
+        try {
+            translator.toIdQuery(new RSQLParser().parse("department.head.titles.name==Phd"));
+            fail("Collection translated to native SQL");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Property titles of entity " + com.github.tennaito.rsql.jpa.entity.Person.class.getName()
+                    + " is not supported by native SQL translation.", e.getMessage());
+        }
+        try {
+            translator.toIdQuery(new RSQLParser().parse("invalid==1"));
+            fail("Unknown property translated");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown property: invalid from entity " + Course.class.getName(), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testPhysicalNaming() {
+        SqlMapping snake = SqlMapping.fromMetamodel(Course.class, entityManager.getMetamodel(), SqlMapping.SNAKE_CASE);
+        assertEquals("course", snake.getTable());
+        assertEquals("start_date", snake.getColumn("startDate"));
+        assertEquals("department", snake.getJoin("department").getTarget().getTable());
+        assertEquals("head_id", snake.getJoin("department").getTarget().getJoin("head").getColumns().get(0));
+        assertEquals("course_details", SqlMapping.SNAKE_CASE.apply("courseDetails"));
+        assertEquals("url2_name", SqlMapping.SNAKE_CASE.apply("url2Name"));
+        assertEquals("urlname", SqlMapping.SNAKE_CASE.apply("URLName"));
+    }
+
+    @Test
+    public void testUnsupportedInheritance() {
+        // the root of a single table hierarchy is mapped, its subclasses are not
+        assertEquals("Classroom", SqlMapping.fromMetamodel(Classroom.class, entityManager.getMetamodel()).getTable());
+        try {
+            SqlMapping.fromMetamodel(Laboratory.class, entityManager.getMetamodel());
+            fail("Subclass entity mapped from the metamodel");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("inherits from entity " + Classroom.class.getName()));
+        }
+    }
+}
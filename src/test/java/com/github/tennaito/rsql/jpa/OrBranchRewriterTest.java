@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.sql.NativeSqlQuery;
+import com.github.tennaito.rsql.sql.NativeSqlTranslator;
+import com.github.tennaito.rsql.sql.OrBranchRewriter;
+import com.github.tennaito.rsql.sql.SqlMapping;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class OrBranchRewriterTest extends AbstractVisitorTest<Course> {
+
+    private OrBranchRewriter rewriter;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        rewriter = new OrBranchRewriter(new NativeSqlTranslator(SqlMapping.fromMetamodel(Course.class, entityManager.getMetamodel())));
+        rewriter.setIndexedSelectors(new HashSet<String>(Arrays.asList("id", "code", "department.head.name")));
+    }
+
+    @Test
+    public void testHeuristic() {
+        assertTrue(rewriter.shouldSplit(new RSQLParser().parse("code==X,department.head.name==Some")));
+        assertTrue(rewriter.shouldSplit(new RSQLParser().parse("(code==X;name==A),id=in=(1,2)")));
+        // same access path, a single OR is fine
+        assertFalse(rewriter.shouldSplit(new RSQLParser().parse("code==X,code==Y")));
+        // a branch without an indexed sargable comparison scans anyway
+        assertFalse(rewriter.shouldSplit(new RSQLParser().parse("code==X,name==A")));
+        assertFalse(rewriter.shouldSplit(new RSQLParser().parse("code==*X,id==1")));
+        // like '%X%' and like '_X%', SQL wildcards of a pattern lead too
+        assertFalse(rewriter.shouldSplit(new RSQLParser().parse("code=='%X*',id==1")));
+        assertFalse(rewriter.shouldSplit(new RSQLParser().parse("code=='_X*',id==1")));
+        assertTrue(rewriter.shouldSplit(new RSQLParser().parse("code=='X%*',department.head.name==Some")));
+        assertFalse(rewriter.shouldSplit(new RSQLParser().parse("code==X;id==1")));
+        rewriter.setMaxBranches(1);
+        assertFalse(rewriter.shouldSplit(new RSQLParser().parse("code==X,department.head.name==Some")));
+    }
+
+    @Test
+    public void testUnionWithoutDuplicates() {
+        NativeSqlQuery query = rewriter.toIdQuery(new RSQLParser().parse("code==MI-MDW,department.head.name==Some"));
+        assertEquals("select t0.id from Course t0 where t0.code = ?1"
+                + " union select t0.id from Course t0 join Department t1 on t1.id = t0.id and t1.code = t0.code"
+                + " join Person t2 on t2.id = t1.head_id where t2.name = ?2", query.getSql());
+
+        // both branches match the same course
+        List<Course> courses = rewriter.fetch(new RSQLParser().parse("code==MI-MDW,department.head.name==Some"), entityManager, Course.class);
+        assertEquals(1, courses.size());
+        assertEquals(Long.valueOf(1), courses.get(0).getId());
+        assertEquals(0, rewriter.fetch(new RSQLParser().parse("code==X,department.head.name==Nobody"), entityManager, Course.class).size());
+    }
+}
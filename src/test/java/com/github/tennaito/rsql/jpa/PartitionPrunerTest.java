@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.execution.PartitionPruner;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.misc.SimpleMapper;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class PartitionPrunerTest {
+
+    private PartitionPruner<String> byCredits;
+
+    @Before
+    public void setUp() {
+        byCredits = new PartitionPruner<String>(Course.class, "credits");
+        byCredits.addRangePartition("low", null, 3).addRangePartition("mid", 3, 6).addRangePartition("high", 6, null);
+    }
+
+    private String analyze(PartitionPruner<?> pruner, String rsql) {
+        return pruner.analyze(new RSQLParser().parse(rsql)).toString();
+    }
+
+    @Test
+    public void testAnalyze() {
+        assertEquals("[3]", analyze(byCredits, "credits==3;name==A"));
+        assertEquals("[(3, 7]]", analyze(byCredits, "credits=gt=3;credits=le=7"));
+        assertEquals("[2, 4, [9, )]", analyze(byCredits, "credits=in=(2,4),credits=ge=9"));
+        assertEquals("[4]", analyze(byCredits, "credits=in=(2,4);credits=gt=3"));
+        assertEquals("[]", analyze(byCredits, "credits==2;credits==4"));
+        assertEquals("[(, )]", analyze(byCredits, "credits==2,name==A"));
+        assertEquals("[(, )]", analyze(byCredits, "credits!=2"));
+    }
+
+    @Test
+    public void testRangePartitions() {
+        assertEquals(Arrays.asList("mid"), byCredits.prune(new RSQLParser().parse("credits==3")));
+        assertEquals(Arrays.asList("low", "mid"), byCredits.prune(new RSQLParser().parse("credits=lt=6;active==true")));
+        assertEquals(Arrays.asList("mid", "high"), byCredits.prune(new RSQLParser().parse("credits=gt=5")));
+        assertEquals(Arrays.asList("low", "high"), byCredits.prune(new RSQLParser().parse("credits=in=(1,10)")));
+        assertEquals(Arrays.asList("low", "mid", "high"), byCredits.prune(new RSQLParser().parse("name==A")));
+        assertEquals(Collections.emptyList(), byCredits.prune(new RSQLParser().parse("credits=gt=5;credits=lt=3")));
+    }
+
+    @Test
+    public void testListPartitionsWithMappedSelector() {
+        SimpleMapper mapper = new SimpleMapper();
+        mapper.addMapping(Course.class, new HashMap<String, String>());
+        mapper.addMapping(Course.class, "dept", "department.code");
+        SimpleBuilderTools tools = new SimpleBuilderTools();
+        tools.setPropertiesMapper(mapper);
+        PartitionPruner<String> byDepartment = new PartitionPruner<String>(Course.class, "department.code", tools);
+        byDepartment.addPartition("europe", "DE", "FR").addPartition("america", "US", "BR");
+
+        assertEquals(Arrays.asList("europe"), byDepartment.prune(new RSQLParser().parse("dept==FR")));
+        assertEquals(Arrays.asList("europe", "america"), byDepartment.prune(new RSQLParser().parse("department.code=in=(US,DE)")));
+        // wildcards do not constrain the key
+        assertEquals(Arrays.asList("europe", "america"), byDepartment.prune(new RSQLParser().parse("dept==D*")));
+    }
+}
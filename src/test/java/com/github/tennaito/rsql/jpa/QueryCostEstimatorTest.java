@@ -0,0 +1,143 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.cost.QueryBudget;
+import com.github.tennaito.rsql.cost.QueryBudgetExceededException;
+import com.github.tennaito.rsql.cost.QueryCost;
+import com.github.tennaito.rsql.cost.QueryCostEstimator;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.misc.SimpleMapper;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class QueryCostEstimatorTest extends AbstractVisitorTest<Course> {
+
+    private QueryCostEstimator estimator;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        estimator = new QueryCostEstimator();
+    }
+
+    private QueryCost estimate(String rsql) {
+        return estimator.estimate(new RSQLParser().parse(rsql), Course.class, entityManager);
+    }
+
+    @Test
+    public void testMetrics() {
+        QueryCost cost = estimate("department.code==X;department.head.titles.name==Phd,department.head.titles.name==Dr;name==*Web;code=out=(A,B,C)");
+        assertEquals(8, cost.getNodes());
+        assertEquals(5, cost.getComparisons());
+        assertEquals(2, cost.getOrBranches());
+        // department and department.head are joined once, titles once per comparison
+        assertEquals(2, cost.getJoins());
+        assertEquals(2, cost.getToManyJoins());
+        assertEquals(4, cost.getMaxPathDepth());
+        assertEquals(3, cost.getMaxInSize());
+        assertEquals(1, cost.getLeadingWildcards());
+        assertEquals(1, cost.getNegations());
+
+        QueryCost simple = estimate("details.description==test");
+        assertEquals(0, simple.getJoins());
+        assertEquals(2, simple.getMaxPathDepth());
+        assertEquals(1, simple.getScore());
+    }
+
+    @Test
+    public void testLeadingWildcards() {
+        RSQLParser parser = new RSQLParser(OperatorRegistry.DEFAULT.getOperators());
+        // the emitted pattern decides, like '%Web%' leads with a wildcard as like '%Web'
+        assertEquals(1, estimator.estimate(parser.parse("name=='%Web*'"), Course.class, entityManager).getLeadingWildcards());
+        assertEquals(1, estimator.estimate(parser.parse("name=='_eb*'"), Course.class, entityManager).getLeadingWildcards());
+        assertEquals(0, estimator.estimate(parser.parse("name=='%Web'"), Course.class, entityManager).getLeadingWildcards());
+        assertEquals(0, estimator.estimate(parser.parse("name==Web*"), Course.class, entityManager).getLeadingWildcards());
+        assertEquals(1, estimator.estimate(parser.parse("name=ilike='%web*'"), Course.class, entityManager).getLeadingWildcards());
+
+        // H2 matches full text with REGEXP_LIKE, the LIKE fallback with like '%term%' per term
+        assertEquals(0, estimator.estimate(parser.parse("name=fts='web services'"), Course.class, entityManager).getLeadingWildcards());
+        assertEquals(2, estimator.estimate(parser.parse("name=fts='web services'"), Course.class, entityManager.getMetamodel()).getLeadingWildcards());
+        estimator.getBuilderTools().setOperatorRegistry(OperatorRegistry.DEFAULT.with(FullTextStrategy.FTS, new FullTextStrategy(FullTextDialects.LIKE)));
+        assertEquals(2, estimator.estimate(parser.parse("name=fts='web services'"), Course.class, entityManager).getLeadingWildcards());
+    }
+
+    @Test
+    public void testMappedSelectors() {
+        SimpleMapper mapper = new SimpleMapper();
+        mapper.addMapping(Course.class, new HashMap<String, String>());
+        mapper.addMapping(Course.class, "dept_head", "department.head");
+        estimator.getBuilderTools().setPropertiesMapper(mapper);
+        QueryCost cost = estimate("dept_head.name==Some");
+        assertEquals(2, cost.getJoins());
+        assertEquals(3, cost.getMaxPathDepth());
+    }
+
+    @Test
+    public void testUnknownProperty() {
+        try {
+            estimate("department.unknown==1");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown property: unknown from entity com.github.tennaito.rsql.jpa.entity.Department", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBudget() {
+        QueryBudget budget = new QueryBudget();
+        budget.setMaxInSize(100);
+        budget.setMaxLeadingWildcards(0);
+        QueryBudget downgrade = new QueryBudget();
+        downgrade.setMaxToManyJoins(0);
+        budget.setDowngradeBudget(downgrade);
+
+        assertEquals(QueryBudget.Decision.ACCEPT, budget.enforce(estimate("code==MI-*;credits>3")));
+        assertEquals(QueryBudget.Decision.DOWNGRADE, budget.enforce(estimate("department.head.titles.name==Phd")));
+
+        StringBuilder in = new StringBuilder("code=in=(0");
+        for (int i = 1; i < 500; i++) {
+            in.append(',').append(i);
+        }
+        QueryCost expensive = estimate(in.append(");name==*Web").toString());
+        assertEquals(QueryBudget.Decision.REJECT, budget.evaluate(expensive));
+        try {
+            budget.enforce(expensive);
+            fail();
+        } catch (QueryBudgetExceededException e) {
+            assertEquals(2, e.getViolations().size());
+            assertEquals("inSize", e.getViolations().get(0).getMetric());
+            assertEquals(500, e.getViolations().get(0).getActual());
+            assertEquals("leadingWildcards", e.getViolations().get(1).getMetric());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.cache.QueryResultCache;
+import com.github.tennaito.rsql.cache.QueryResultCacheListener;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.Node;
+
+public class QueryResultCacheTest extends AbstractVisitorTest<Course> {
+
+    private static final Node BIG_COURSES = new RSQLParser().parse("code==QRC-*;credits>3");
+
+    private QueryResultCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        cache = new QueryResultCache(EntityManagerFactoryInitializer.getEntityManagerFactory());
+        QueryResultCacheListener.register(cache);
+        entityManager.getTransaction().begin();
+        persistCourse(1001L, 2);
+        persistCourse(1002L, 5);
+        persistCourse(1003L, 8);
+        entityManager.getTransaction().commit();
+    }
+
+    @After
+    public void tearDown() {
+        QueryResultCacheListener.unregister(cache);
+        entityManager.getTransaction().begin();
+        entityManager.createQuery("delete from Course c where c.code like 'QRC-%'").executeUpdate();
+        entityManager.createQuery("delete from Department d where d.id >= 1000").executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    private void persistCourse(Long id, int credits) {
+        // the course references the department with its own id and code
+        Department department = new Department();
+        department.setId(id);
+        department.setCode("QRC-" + id);
+        entityManager.persist(department);
+        Course course = new Course();
+        course.setId(id);
+        course.setCode("QRC-" + id);
+        course.setName("Cached " + id);
+        course.setCredits(credits);
+        course.setDepartment(department);
+        entityManager.persist(course);
+    }
+
+    private List<Course> load(Node filter) {
+        return cache.get(Course.class, filter, node -> {
+            CriteriaQuery<Course> query = node.accept(new JpaCriteriaQueryVisitor<Course>(), entityManager);
+            return entityManager.createQuery(query).getResultList();
+        });
+    }
+
+    private void updateCredits(Long id, int credits) {
+        entityManager.getTransaction().begin();
+        entityManager.find(Course.class, id).setCredits(credits);
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    public void testUnrelatedWritesKeepEntries() {
+        assertEquals(2, load(BIG_COURSES).size());
+        entityManager.getTransaction().begin();
+        persistCourse(1004L, 1);
+        entityManager.getTransaction().commit();
+        updateCredits(1001L, 3);
+
+        assertNotNull(cache.getIfPresent(Course.class, BIG_COURSES));
+        assertEquals(0, cache.getInvalidations());
+    }
+
+    @Test
+    public void testMatchingNewStateInvalidates() {
+        load(BIG_COURSES);
+        updateCredits(1001L, 7);
+        assertNull(cache.getIfPresent(Course.class, BIG_COURSES));
+        assertEquals(3, load(BIG_COURSES).size());
+    }
+
+    @Test
+    public void testMatchingOldStateInvalidates() {
+        load(BIG_COURSES);
+        updateCredits(1002L, 1);
+        assertNull(cache.getIfPresent(Course.class, BIG_COURSES));
+        assertEquals(1, load(BIG_COURSES).size());
+
+        entityManager.getTransaction().begin();
+        entityManager.remove(entityManager.find(Course.class, 1003L));
+        entityManager.getTransaction().commit();
+        assertNull(cache.getIfPresent(Course.class, BIG_COURSES));
+        assertEquals(0, load(BIG_COURSES).size());
+    }
+
+    @Test
+    public void testRelatedEntityChangeInvalidates() {
+        Node byDepartment = new RSQLParser().parse("department.code==QRC");
+        load(byDepartment);
+        load(BIG_COURSES);
+        assertEquals(2, cache.size());
+
+        Department department = new Department();
+        department.setId(1000L);
+        department.setCode("QRC");
+        entityManager.getTransaction().begin();
+        entityManager.persist(department);
+        entityManager.getTransaction().commit();
+
+        assertNull(cache.getIfPresent(Course.class, byDepartment));
+        assertNotNull(cache.getIfPresent(Course.class, BIG_COURSES));
+    }
+
+    @Test
+    public void testWriteDuringMissIsNotCached() {
+        List<Course> loaded = cache.get(Course.class, BIG_COURSES, node -> {
+            CriteriaQuery<Course> query = node.accept(new JpaCriteriaQueryVisitor<Course>(), entityManager);
+            List<Course> results = entityManager.createQuery(query).getResultList();
+            // a write of another course lands after the read, nothing is cached yet
+            updateCredits(1001L, 9);
+            return results;
+        });
+        assertEquals(2, loaded.size());
+        assertNull(cache.getIfPresent(Course.class, BIG_COURSES));
+        assertEquals(3, load(BIG_COURSES).size());
+    }
+
+    @Test
+    public void testBoundedEntriesExpire() throws Exception {
+        Node small = new RSQLParser().parse("code==QRC-*;credits<3");
+        Node middle = new RSQLParser().parse("code==QRC-*;credits==5");
+        cache.setMaxEntries(2);
+        load(BIG_COURSES);
+        load(small);
+        assertNotNull(cache.getIfPresent(Course.class, BIG_COURSES));
+        // the least recently used entry is evicted
+        load(middle);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.getIfPresent(Course.class, small));
+        assertNotNull(cache.getIfPresent(Course.class, BIG_COURSES));
+
+        // an entry loaded before a commit is not kept forever
+        cache.setTimeToLive(1, TimeUnit.MILLISECONDS);
+        Thread.sleep(5);
+        assertNull(cache.getIfPresent(Course.class, BIG_COURSES));
+    }
+
+    @Test
+    public void testTextOperatorsAreEvaluatedInMemory() {
+        Node byName = new RSQLParser(OperatorRegistry.DEFAULT.getOperators()).parse("name=ilike='cached 100*';code=prefix=QRC-");
+        assertEquals(3, load(byName).size());
+        updateCredits(1001L, 4);
+        assertNull(cache.getIfPresent(Course.class, byName));
+        assertEquals(3, load(byName).size());
+    }
+}
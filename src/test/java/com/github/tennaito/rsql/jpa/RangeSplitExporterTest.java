@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.execution.RangeSplitExporter;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.jpa.entity.Seat;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class RangeSplitExporterTest extends AbstractVisitorTest<Course> {
+
+    private RangeSplitExporter<Course> exporter;
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        exporter = new RangeSplitExporter<Course>(Course.class, EntityManagerFactoryInitializer.getEntityManagerFactory());
+        entityManager.getTransaction().begin();
+        for (long id = 1401; id <= 1420; id++) {
+            Department department = new Department();
+            department.setId(id);
+            department.setCode("EXP-" + id);
+            department.setName("Export");
+            entityManager.persist(department);
+            Course course = new Course();
+            course.setId(id);
+            course.setCode("EXP-" + id);
+            course.setName(id % 5 == 0 ? "Skipped" : "Export");
+            entityManager.persist(course);
+        }
+        entityManager.getTransaction().commit();
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().begin();
+        entityManager.createQuery("delete from Course c where c.id between 1401 and 1420").executeUpdate();
+        entityManager.createQuery("delete from Department d where d.id between 1401 and 1420").executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    private List<Long> export(String rsql) {
+        final List<Long> ids = new ArrayList<Long>();
+        long exported = exporter.export(new RSQLParser().parse(rsql), course -> ids.add(course.getId()));
+        assertEquals(ids.size(), exported);
+        return ids;
+    }
+
+    private static List<Long> expected(long from, long to) {
+        List<Long> ids = new ArrayList<Long>();
+        for (long id = from; id <= to; id++) {
+            if (id % 5 != 0) ids.add(id);
+        }
+        return ids;
+    }
+
+    @Test
+    public void testMinMaxSplit() {
+        assertEquals("[[, 1405), [1405, 1410), [1410, 1415), [1415, )]",
+                exporter.split(new RSQLParser().parse("name==Export")).toString());
+        assertEquals("[[, )]", exporter.split(new RSQLParser().parse("name==Nothing")).toString());
+    }
+
+    @Test
+    public void testMinMaxSplitOfPrimitiveIds() {
+        entityManager.getTransaction().begin();
+        for (long id = 1; id <= 8; id++) {
+            Seat seat = new Seat();
+            seat.setId(id);
+            seat.setLabel("Export");
+            entityManager.persist(seat);
+        }
+        entityManager.getTransaction().commit();
+        try {
+            RangeSplitExporter<Seat> seats = new RangeSplitExporter<Seat>(Seat.class, EntityManagerFactoryInitializer.getEntityManagerFactory());
+            assertEquals("[[, 3), [3, 5), [5, 7), [7, )]", seats.split(new RSQLParser().parse("label==Export")).toString());
+            final List<Long> ids = new ArrayList<Long>();
+            assertEquals(8, seats.export(new RSQLParser().parse("label==Export"), seat -> ids.add(seat.getId())));
+        } finally {
+            entityManager.getTransaction().begin();
+            entityManager.createQuery("delete from Seat").executeUpdate();
+            entityManager.getTransaction().commit();
+        }
+    }
+
+    @Test
+    public void testQuantileSplit() {
+        exporter.setSplit(RangeSplitExporter.Split.QUANTILES);
+        exporter.setPartitions(3);
+        // 16 matching ids, boundaries at offsets 5 and 10
+        assertEquals("[[, 1407), [1407, 1413), [1413, )]",
+                exporter.split(new RSQLParser().parse("name==Export")).toString());
+    }
+
+    @Test
+    public void testOrderedExport() {
+        exporter.setPageSize(3);
+        exporter.setQueueCapacity(1);
+        assertEquals(expected(1401, 1420), export("name==Export"));
+        assertEquals(Collections.emptyList(), export("name==Nothing"));
+    }
+
+    @Test
+    public void testUnorderedExport() {
+        exporter.setSplit(RangeSplitExporter.Split.QUANTILES);
+        exporter.setPreserveOrder(false);
+        exporter.setPageSize(2);
+        List<Long> ids = export("name==Export;id=gt=1402");
+        Collections.sort(ids);
+        assertEquals(expected(1403, 1420), ids);
+    }
+
+    @Test
+    public void testConsumerFailure() {
+        exporter.setPageSize(1);
+        exporter.setQueueCapacity(1);
+        try {
+            exporter.export(new RSQLParser().parse("name==Export"), course -> {
+                if (course.getId() == 1403) throw new IllegalStateException("full");
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("full", e.getMessage());
+        }
+    }
+}
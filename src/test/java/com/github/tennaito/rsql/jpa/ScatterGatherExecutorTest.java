@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.execution.PartitionPruner;
+import com.github.tennaito.rsql.execution.ScatterGatherExecutor;
+import com.github.tennaito.rsql.execution.ScatterGatherExecutor.Order;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.jpa.entity.Person;
+import com.github.tennaito.rsql.jpa.entity.Title;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.Node;
+
+public class ScatterGatherExecutorTest {
+
+    private static List<EntityManagerFactory> shards;
+
+    @BeforeClass
+    public static void setUpShards() {
+        shards = new ArrayList<EntityManagerFactory>();
+        // course ids and names per shard, every shard is its own in-memory database
+        shards.add(createShard("shard1", new Object[][] {{1L, "C", 3}, {3L, "A", 5}, {5L, "E", 3}}));
+        shards.add(createShard("shard2", new Object[][] {{2L, "B", 5}, {4L, "F", 3}, {6L, "D", 4}, {8L, "G", null}}));
+        shards.add(createShard("shard3", new Object[0][]));
+    }
+
+    private static EntityManagerFactory createShard(String name, Object[][] courses) {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:" + name);
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory("persistenceUnit", properties);
+        EntityManager entityManager = factory.createEntityManager();
+        entityManager.getTransaction().begin();
+        Person head = null;
+        for (Object[] row : courses) {
+            Department department = new Department();
+            department.setId((Long) row[0]);
+            department.setCode("SH-" + row[0]);
+            department.setName(name);
+            if (row[0].equals(1L) || row[0].equals(3L)) {
+                // a head with two titles, a filter on them joins two rows per course
+                if (head == null) head = createHead(entityManager);
+                department.setHead(head);
+            }
+            entityManager.persist(department);
+            Course course = new Course();
+            course.setId((Long) row[0]);
+            course.setCode("SH-" + row[0]);
+            course.setName((String) row[1]);
+            course.setCredits((Integer) row[2]);
+            entityManager.persist(course);
+        }
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        return factory;
+    }
+
+    private static Person createHead(EntityManager entityManager) {
+        Set<Title> titles = new HashSet<Title>();
+        String[] names = {"Phd", "Consultant"};
+        for (int i = 0; i < names.length; i++) {
+            Title title = new Title();
+            title.setId((long) i + 1);
+            title.setName(names[i]);
+            titles.add(title);
+        }
+        Person head = new Person();
+        head.setId(1L);
+        head.setName("Head");
+        head.setTitles(titles);
+        entityManager.persist(head);
+        return head;
+    }
+
+    @AfterClass
+    public static void tearDownShards() {
+        for (EntityManagerFactory shard : shards) {
+            shard.close();
+        }
+    }
+
+    private static List<String> names(List<Course> courses) {
+        List<String> names = new ArrayList<String>();
+        for (Course course : courses) {
+            names.add(course.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void testMergedPages() {
+        ScatterGatherExecutor<Course> executor = new ScatterGatherExecutor<Course>(Course.class, shards);
+        assertEquals(Arrays.asList("A", "B", "C", "D"), names(executor.fetch(new RSQLParser().parse("id=gt=0"), 0, 4, Order.asc("name"))));
+        assertEquals(Arrays.asList("E", "F", "G"), names(executor.fetch(new RSQLParser().parse("id=gt=0"), 4, 4, Order.asc("name"))));
+        // ties broken by id, nulls last in descending order
+        assertEquals(Arrays.asList("B", "A", "D", "C", "F", "E", "G"),
+                names(executor.fetch(new RSQLParser().parse("id=gt=0"), 0, 10, Order.desc("credits"), Order.asc("id"))));
+        assertEquals(Arrays.asList("D", "E"),
+                names(executor.fetch(new RSQLParser().parse("credits=ge=3;name=in=(D,E)"), 0, 10, Order.desc("department.name"))));
+        assertEquals(Collections.emptyList(), executor.fetch(new RSQLParser().parse("name==Z"), 0, 10));
+    }
+
+    @Test
+    public void testCollectionFilterReturnsEachEntityOnce() {
+        ScatterGatherExecutor<Course> executor = new ScatterGatherExecutor<Course>(Course.class, shards);
+        Node byTitles = new RSQLParser().parse("department.head.titles.name=in=(Phd,Consultant)");
+        assertEquals(Arrays.asList("A", "C"), names(executor.fetch(byTitles, 0, 10, Order.asc("name"))));
+        assertEquals(2, executor.count(byTitles));
+        // duplicates of A would fill the window of two rows of the shard
+        assertEquals(Arrays.asList("A", "C"), names(executor.fetch(byTitles, 0, 2, Order.asc("name"))));
+        assertEquals(Arrays.asList("C"), names(executor.fetch(byTitles, 1, 1, Order.asc("name"))));
+    }
+
+    @Test
+    public void testDistributedCount() {
+        ScatterGatherExecutor<Course> executor = new ScatterGatherExecutor<Course>(Course.class, shards);
+        assertEquals(7, executor.count(new RSQLParser().parse("id=gt=0")));
+        assertEquals(3, executor.count(new RSQLParser().parse("credits==3")));
+    }
+
+    @Test
+    public void testPrunedShards() {
+        ScatterGatherExecutor<Course> executor = new ScatterGatherExecutor<Course>(Course.class, shards);
+        PartitionPruner<EntityManagerFactory> pruner = new PartitionPruner<EntityManagerFactory>(Course.class, "department.name");
+        pruner.addPartition(shards.get(0), "shard1").addPartition(shards.get(1), "shard2").addPartition(shards.get(2), "shard3");
+        executor.setPruner(pruner);
+        // a failing query on a pruned shard is never run
+        shards.get(2).close();
+        try {
+            assertEquals(Arrays.asList("B", "D", "F", "G"),
+                    names(executor.fetch(new RSQLParser().parse("department.name==shard2"), 0, 10, Order.asc("name"))));
+            assertEquals(6, executor.count(new RSQLParser().parse("department.name=in=(shard1,shard2);credits=ge=3")));
+            assertEquals(0, executor.count(new RSQLParser().parse("department.name==shard1;department.name==shard2")));
+        } finally {
+            shards.set(2, createShard("shard3", new Object[0][]));
+        }
+    }
+
+    @Test
+    public void testShardFailure() {
+        ScatterGatherExecutor<Course> executor = new ScatterGatherExecutor<Course>(Course.class, shards);
+        try {
+            executor.count(new RSQLParser().parse("unknown==1"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown property: unknown from entity com.github.tennaito.rsql.jpa.entity.Course", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+import org.junit.Test;
+
+import com.github.tennaito.rsql.jpa.entity.Classroom;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.jpa.entity.Person;
+import com.github.tennaito.rsql.jpa.entity.Title;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class SelectorIndexTest {
+
+    @Test
+    public void testGeneratedTables() {
+        assertTrue(SelectorIndex.isIndexed(Course.class));
+        assertFalse(SelectorIndex.isIndexed(String.class));
+
+        SelectorIndex.Attribute titles = SelectorIndex.find(Person.class, "titles", null);
+        assertEquals(SelectorIndex.Kind.MANY_TO_MANY, titles.getKind());
+        assertEquals(Title.class, titles.getTargetType());
+        assertTrue(titles.isAssociation());
+        assertTrue(titles.isCollection());
+        assertTrue(SelectorIndex.find(Course.class, "details", null).isEmbedded());
+        assertNull(SelectorIndex.find(Course.class, "unknown", null));
+    }
+
+    @Test
+    public void testTablesMatchMetamodel() {
+        Metamodel metamodel = EntityManagerFactoryInitializer.getEntityManagerFactory().getMetamodel();
+        List<ManagedType<?>> types = new ArrayList<ManagedType<?>>(metamodel.getEntities());
+        types.addAll(metamodel.getEmbeddables());
+        for (ManagedType<?> type : types) {
+            // property access is left to the metamodel
+            boolean propertyAccess = Classroom.class.isAssignableFrom(type.getJavaType());
+            assertEquals(type.getJavaType().getName(), !propertyAccess, SelectorIndex.isIndexed(type.getJavaType()));
+            for (Attribute<?, ?> attribute : type.getAttributes()) {
+                SelectorIndex.Attribute indexed = SelectorIndex.find(type.getJavaType(), attribute.getName(), metamodel);
+                assertNotNull(attribute.toString(), indexed);
+                assertEquals(attribute.toString(), attribute.isAssociation(), indexed.isAssociation());
+                assertEquals(attribute.toString(), attribute.isCollection(), indexed.isCollection());
+                if (attribute.isAssociation() || indexed.isEmbedded()) {
+                    // providers may report other types for basic attributes (Timestamp for Date)
+                    assertEquals(attribute.toString(), attribute.isCollection()
+                            ? ((PluralAttribute<?, ?, ?>) attribute).getBindableJavaType() : attribute.getJavaType(), indexed.getTargetType());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMetamodelFallback() {
+        assertFalse(SelectorIndex.isIndexed(Classroom.class));
+        EntityManager entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            Department department = new Department();
+            department.setId(3001L);
+            department.setCode("SIT");
+            entityManager.persist(department);
+            Classroom classroom = new Classroom();
+            classroom.setId(3001L);
+            classroom.setName("Lab");
+            classroom.setDepartment(department);
+            entityManager.persist(classroom);
+            entityManager.flush();
+
+            CriteriaQuery<Classroom> query = new RSQLParser().parse("department.code==SIT;name==Lab")
+                    .accept(new JpaCriteriaQueryVisitor<Classroom>(), entityManager);
+            assertEquals(1, entityManager.createQuery(query).getResultList().size());
+            assertEquals(SelectorIndex.Kind.MANY_TO_ONE,
+                    SelectorIndex.find(Classroom.class, "department", entityManager.getMetamodel()).getKind());
+        } finally {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+    }
+
+    @Test
+    public void testNativeImageConfiguration() throws Exception {
+        try (InputStream config = getClass().getClassLoader().getResourceAsStream("META-INF/native-image/rsql-selectors/reflect-config.json")) {
+            assertNotNull(config);
+            String json = new String(config.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json, json.contains("\"com.github.tennaito.rsql.jpa.entity.Course_RsqlSelectors\""));
+            assertFalse(json, json.contains("Classroom"));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.cache.FilterImplication;
+import com.github.tennaito.rsql.cache.SemanticResultCache;
+import com.github.tennaito.rsql.jpa.entity.Course;
+import com.github.tennaito.rsql.jpa.entity.Department;
+import com.github.tennaito.rsql.memory.InMemoryPredicateBuilder;
+import com.github.tennaito.rsql.parser.ast.NodeNormalizer;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.Node;
+
+public class SemanticResultCacheTest {
+
+    private final List<Course> courses = new ArrayList<Course>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SemanticResultCache<Course> cache;
+
+    private Function<Node, List<Course>> loader;
+
+    @Before
+    public void setUp() {
+        String[] departments = {"CS", "EE", "MA"};
+        for (int i = 0; i < 300; i++) {
+            Department department = new Department();
+            department.setCode(departments[i % 3]);
+            Course course = new Course();
+            course.setId((long) i);
+            course.setCode("C-" + i);
+            course.setCredits(i % 10);
+            course.setDepartment(department);
+            courses.add(course);
+        }
+        cache = new SemanticResultCache<Course>(Course.class);
+        loader = filter -> {
+            loads.incrementAndGet();
+            return scan(filter);
+        };
+    }
+
+    private List<Course> scan(Node filter) {
+        Predicate<Course> predicate = InMemoryPredicateBuilder.createPredicate(filter, Course.class, new SimpleBuilderTools());
+        List<Course> result = new ArrayList<Course>();
+        for (Course course : courses) {
+            if (predicate.test(course)) result.add(course);
+        }
+        return result;
+    }
+
+    private static Node parse(String rsql) {
+        return new RSQLParser().parse(rsql);
+    }
+
+    @Test
+    public void testNormalizedFingerprint() {
+        assertEquals(NodeNormalizer.fingerprint(parse("credits>3;department.code==CS")),
+                     NodeNormalizer.fingerprint(parse("(department.code==CS;credits>3);credits>3")));
+        assertEquals(NodeNormalizer.fingerprint(parse("code=in=(B,A,B)")), NodeNormalizer.fingerprint(parse("code=in=(A,B)")));
+    }
+
+    @Test
+    public void testQuotedArgumentsDoNotCollide() {
+        Node quoted = parse("id==1;code==\"x';credits=='1';name=='y\"");
+        Node conjunction = parse("id==1;code==x;credits==1;name==y");
+        // the string forms are the same, the arguments are not escaped
+        assertEquals(conjunction.toString(), quoted.toString());
+        assertFalse(NodeNormalizer.fingerprint(quoted).equals(NodeNormalizer.fingerprint(conjunction)));
+
+        cache.put(quoted, new ArrayList<Course>(courses));
+        assertNull(cache.getIfPresent(conjunction));
+    }
+
+    @Test
+    public void testInvalidationDuringLoadIsNotLost() {
+        Node filter = parse("department.code==CS");
+        List<Course> loaded = cache.get(filter, node -> {
+            List<Course> results = scan(node);
+            // the data changes after the read, the writer invalidates what it affects
+            cache.invalidateIf(cached -> true);
+            return results;
+        });
+        assertEquals(100, loaded.size());
+        assertNull(cache.getIfPresent(filter));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testImplication() {
+        SimpleBuilderTools tools = new SimpleBuilderTools();
+        assertTrue(FilterImplication.implies(parse("department.code==CS;credits>3"), parse("department.code==CS"), Course.class, tools));
+        assertTrue(FilterImplication.implies(parse("credits>5"), parse("credits>=3"), Course.class, tools));
+        assertTrue(FilterImplication.implies(parse("credits=in=(4,5)"), parse("credits>3"), Course.class, tools));
+        assertTrue(FilterImplication.implies(parse("credits==4"), parse("credits!=null"), Course.class, tools));
+        assertTrue(FilterImplication.implies(parse("code=out=(A,B)"), parse("code!=A"), Course.class, tools));
+        assertFalse(FilterImplication.implies(parse("credits>=3"), parse("credits>3"), Course.class, tools));
+        assertFalse(FilterImplication.implies(parse("department.code==CS"), parse("department.code==CS;credits>3"), Course.class, tools));
+        assertFalse(FilterImplication.implies(parse("code==C-1*"), parse("code==C-*"), Course.class, tools));
+    }
+
+    @Test
+    public void testExactAndSubsumedHits() {
+        List<Course> cs = cache.get(parse("department.code==CS"), loader);
+        assertEquals(100, cs.size());
+        assertEquals(cs, cache.get(parse("department.code==CS"), loader));
+        assertEquals(1, cache.getHits());
+
+        Node narrower = parse("credits>3;department.code==CS");
+        assertEquals(scan(narrower), cache.get(narrower, loader));
+        Node inSubset = parse("department.code=in=(CS);credits=in=(1,2)");
+        assertEquals(scan(inSubset), cache.get(inSubset, loader));
+        assertEquals(2, cache.getSubsumedHits());
+        assertEquals(1, loads.get());
+
+        assertNull(cache.getIfPresent(parse("department.code==EE")));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testNarrowerRange() {
+        cache.get(parse("credits>=3"), loader);
+        Node narrower = parse("credits>5;credits<8");
+        assertEquals(scan(narrower), cache.get(narrower, loader));
+        assertEquals(1, loads.get());
+        cache.get(parse("credits>=2"), loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidation() {
+        cache.get(parse("department.code==CS"), loader);
+        cache.invalidate(parse("department.code==CS"));
+        assertNull(cache.getIfPresent(parse("department.code==CS;credits>3")));
+        cache.get(parse("department.code==CS"), loader);
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testBounds() {
+        cache.setMaxEntries(2);
+        cache.get(parse("department.code==CS"), loader);
+        cache.get(parse("department.code==EE"), loader);
+        cache.get(parse("department.code==CS"), loader);
+        cache.get(parse("department.code==MA"), loader);
+        assertEquals(2, cache.size());
+        assertNull(cache.getIfPresent(parse("department.code==EE")));
+
+        cache.setMaxResults(150);
+        cache.get(parse("credits>=0"), loader);
+        assertNull(cache.getIfPresent(parse("credits>=0")));
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.tennaito.rsql.execution.SingleFlightExecutor;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class SingleFlightExecutorTest {
+
+    @Test
+    public void testCoalescesIdenticalFilters() throws Exception {
+        final SingleFlightExecutor flights = new SingleFlightExecutor();
+        final AtomicInteger queries = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<Future<List<String>>>();
+            results.add(executor.submit(() -> flights.execute(String.class, new RSQLParser().parse("a==1;b==2"), () -> {
+                queries.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Arrays.asList("x", "y");
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                // same filter once normalized
+                results.add(executor.submit(() -> flights.execute(String.class, new RSQLParser().parse("b==2;a==1"), () -> {
+                    queries.incrementAndGet();
+                    return Arrays.asList("z");
+                })));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (flights.getCoalesced() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            List<String> first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<List<String>> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(Arrays.asList("x", "y"), first);
+            assertEquals(1, queries.get());
+            assertEquals(3, flights.getCoalesced());
+            assertEquals(0, flights.getInFlight());
+            try {
+                first.add("w");
+                fail("Shared result is modifiable");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFlightEndsWithQuery() {
+        SingleFlightExecutor flights = new SingleFlightExecutor();
+        assertEquals(Arrays.asList("a"), flights.execute(String.class, new RSQLParser().parse("a==1"), () -> Arrays.asList("a")));
+        assertEquals(Arrays.asList("b"), flights.execute(String.class, new RSQLParser().parse("a==1"), () -> Arrays.asList("b")));
+        try {
+            flights.execute(String.class, new RSQLParser().parse("a==1"), () -> {
+                throw new IllegalArgumentException("boom");
+            });
+            fail("Error of the query not propagated");
+        } catch (IllegalArgumentException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertEquals(3, flights.getExecutions());
+        assertEquals(0, flights.getInFlight());
+    }
+
+    @Test
+    public void testCopiesAndFallsBack() throws Exception {
+        final SingleFlightExecutor flights = new SingleFlightExecutor();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final StringBuilder element = new StringBuilder("x");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<StringBuilder>> leader = executor.submit(() -> flights.execute(StringBuilder.class, new RSQLParser().parse("a==1"), null, () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Arrays.asList(element);
+            }, null));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<List<StringBuilder>> follower = executor.submit(() -> flights.execute(StringBuilder.class, new RSQLParser().parse("a==1"), null,
+                    () -> Arrays.asList(new StringBuilder("z")), StringBuilder::new));
+            // let the follower join the flight
+            Thread.sleep(200);
+            release.countDown();
+            // each waiting caller gets its own copy
+            StringBuilder copy = follower.get(5, TimeUnit.SECONDS).get(0);
+            assertSame(element, leader.get(5, TimeUnit.SECONDS).get(0));
+            assertEquals("x", copy.toString());
+            assertNotSame(element, copy);
+            assertEquals(1, flights.getCoalesced());
+
+            // a caller that waits too long runs its own query
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch unblock = new CountDownLatch(1);
+            Future<List<String>> slow = executor.submit(() -> flights.execute(String.class, new RSQLParser().parse("a==1"), () -> {
+                blocked.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Arrays.asList("x");
+            }));
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            flights.setMaxWait(10, TimeUnit.MILLISECONDS);
+            assertEquals(Arrays.asList("z"), flights.execute(String.class, new RSQLParser().parse("a==1"), () -> Arrays.asList("z")));
+            assertEquals(1, flights.getFallbacks());
+            unblock.countDown();
+            assertEquals(Arrays.asList("x"), slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Antonio Rabelo.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.tennaito.rsql.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tennaito.rsql.builder.BuilderTools;
+import com.github.tennaito.rsql.builder.SimpleBuilderTools;
+import com.github.tennaito.rsql.jpa.TextMatchStrategy.Translation;
+import com.github.tennaito.rsql.jpa.entity.Course;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+public class TextMatchStrategyTest extends AbstractVisitorTest<Course> {
+
+    @Before
+    public void setUp() throws Exception {
+        entityManager = EntityManagerFactoryInitializer.getEntityManagerFactory().createEntityManager();
+    }
+
+    private List<Course> find(String rsql, TextMatchStrategy strategy) {
+        BuilderTools tools = new SimpleBuilderTools();
+        tools.setOperatorRegistry(strategy.registerIn(OperatorRegistry.DEFAULT));
+        CriteriaQuery<Course> query = new JpaQueryTranslator<Course>(Course.class, tools)
+                .toQuery(new RSQLParser(TextMatchStrategy.operators()).parse(rsql), entityManager);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Test
+    public void testCaseInsensitiveLike() {
+        assertEquals(1, find("name=ilike='testing course'", TextMatchStrategy.DEFAULT).size());
+        assertEquals(1, find("name=ilike=*COURSE", TextMatchStrategy.DEFAULT).size());
+        assertEquals(0, find("name=ilike=*nothing*", TextMatchStrategy.DEFAULT).size());
+        // without a registry override the operators are built in
+        CriteriaQuery<Course> query = new JpaQueryTranslator<Course>(Course.class)
+                .toQuery(new RSQLParser(TextMatchStrategy.operators()).parse("department.name=ilike=TESTING"), entityManager);
+        assertEquals(1, entityManager.createQuery(query).getResultList().size());
+    }
+
+    @Test
+    public void testPrefixTranslations() {
+        assertEquals(1, find("code=prefix=MI-", TextMatchStrategy.DEFAULT).size());
+        assertEquals(0, find("code=prefix=mi-", TextMatchStrategy.DEFAULT).size());
+        // wildcards of LIKE are literal in a prefix
+        assertEquals(0, find("code=prefix=MI%", TextMatchStrategy.DEFAULT).size());
+
+        TextMatchStrategy range = TextMatchStrategy.DEFAULT.with("code", Translation.PREFIX_RANGE);
+        assertEquals(1, find("code=prefix=MI-", range).size());
+        assertEquals(1, find("code=prefix=MI-MDW", range).size());
+        assertEquals(0, find("code=prefix=MI-MDX", range).size());
+
+        TextMatchStrategy lower = TextMatchStrategy.DEFAULT.with("code", Translation.LOWER);
+        assertEquals(1, find("code=prefix=mi-", lower).size());
+    }
+
+    @Test
+    public void testShadowColumn() {
+        // the shadow column is compared with the lower case argument
+        TextMatchStrategy shadow = TextMatchStrategy.DEFAULT.withShadowColumn("label", "code");
+        assertEquals(0, find("label=ilike=MI-MDW", shadow).size());
+        assertEquals(1, find("code=ilike=MI-MDW", shadow).size());
+        assertEquals(Translation.SHADOW_COLUMN, shadow.getTranslation("label", TextMatchStrategy.ILIKE));
+        assertEquals(Translation.SHADOW_COLUMN, shadow.getTranslation("label", TextMatchStrategy.PREFIX));
+        assertEquals(Translation.LIKE, shadow.getTranslation("code", TextMatchStrategy.PREFIX));
+    }
+
+    @Test
+    public void testBothOperatorsOnConfiguredSelector() {
+        // a case-sensitive translation of =prefix= leaves =ilike= case-insensitive
+        TextMatchStrategy range = TextMatchStrategy.DEFAULT.with("code", Translation.PREFIX_RANGE);
+        assertEquals(1, find("code=prefix=MI-", range).size());
+        assertEquals(0, find("code=prefix=mi-", range).size());
+        assertEquals(1, find("code=ilike=mi*", range).size());
+        assertEquals(1, find("code=ilike=mi-mdw", range).size());
+        assertEquals(1, find("code=ilike=mi*;code=prefix=MI-", range).size());
+        assertEquals(Translation.LOWER, range.getTranslation("code", TextMatchStrategy.ILIKE));
+        assertEquals(Translation.PREFIX_RANGE, range.getTranslation("code", TextMatchStrategy.PREFIX));
+
+        TextMatchStrategy like = TextMatchStrategy.DEFAULT.with("code", Translation.LIKE);
+        assertEquals(1, find("code=ilike=MI-*", like).size());
+        assertEquals(0, find("code=prefix=mi-", like).size());
+    }
+
+    @Test
+    public void testInvalidTranslations() {
+        try {
+            find("id=prefix=1", TextMatchStrategy.DEFAULT);
+            fail("Prefix accepted on a number");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Property id is not a String.", e.getMessage());
+        }
+        assertEquals("abd", TextMatchStrategy.successor("abc"));
+        assertEquals("b", TextMatchStrategy.successor("a" + Character.MAX_VALUE));
+        assertNull(TextMatchStrategy.successor(""));
+    }
+}
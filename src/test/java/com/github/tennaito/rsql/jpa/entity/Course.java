@@ -29,16 +29,20 @@ import java.util.Date;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinColumns;
 import jakarta.persistence.ManyToOne;
 
+import com.github.tennaito.rsql.cache.QueryResultCacheListener;
+
 /**
  *
  * @author Jakub Jirutka <jakub@jirutka.cz>
  * @author Antonio Rabelo
  */
 @Entity
+@EntityListeners(QueryResultCacheListener.class)
 public class Course extends AbstractTestEntity {
 
 	@Column
@@ -26,14 +26,18 @@ package com.github.tennaito.rsql.jpa.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.ManyToOne;
 
+import com.github.tennaito.rsql.cache.QueryResultCacheListener;
+
 /**
  *
  * @author Jakub Jirutka <jakub@jirutka.cz>
  * @author Antonio Rabelo
  */
 @Entity
+@EntityListeners(QueryResultCacheListener.class)
 public class Department extends AbstractTestEntity {
 
     @Column